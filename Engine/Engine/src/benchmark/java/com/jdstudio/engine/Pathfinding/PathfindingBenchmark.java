@@ -0,0 +1,148 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A command-line benchmark comparing plain A*, Jump Point Search and hierarchical A* (HPA*).
+ * <p>
+ * It generates a large open map (scattered obstacles) and a maze, solves the same random
+ * start/goal pairs with each algorithm and prints the average number of expanded nodes and
+ * the average solve time. JPS must match the A* path cost exactly; for HPA* the average
+ * extra cost over the optimal path is reported, along with the time to build its graph.
+ * <pre>
+ * ./gradlew pathfindingBenchmark -PbenchmarkArgs="[size] [queries] [seed]"
+ * </pre>
+ * It lives in the {@code benchmark} source set, so it is not part of the published JAR.
+ */
+public class PathfindingBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 512;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        run("open " + size + "x" + size, openMap(size, 0.05, seed), queries, seed);
+        run("maze " + size + "x" + size, mazeMap(size | 1, seed), queries, seed);
+    }
+
+    private static void run(String name, WalkabilityGrid grid, int queries, long seed) {
+        SearchContext context = new SearchContext(grid.getWidth(), grid.getHeight(), 1, 1);
+        List<int[]> pairs = randomPairs(grid, queries, seed);
+
+        // Warm-up so both algorithms are measured after JIT compilation.
+        for (int i = 0; i < Math.min(20, pairs.size()); i++) {
+            int[] q = pairs.get(i);
+            context.findPath(grid, 1, Pathfinder.Algorithm.A_STAR, q[0], q[1], q[2], q[3]);
+            context.findPath(grid, 1, Pathfinder.Algorithm.JUMP_POINT, q[0], q[1], q[2], q[3]);
+        }
+
+        long buildStart = System.nanoTime();
+        ClusterGraph hierarchy = new ClusterGraph(grid.getWidth(), grid.getHeight(), 1, 1, ClusterGraph.DEFAULT_CLUSTER_SIZE);
+        hierarchy.update(grid);
+        long buildNanos = System.nanoTime() - buildStart;
+
+        long aStarExpanded = 0, jpsExpanded = 0, hpaExpanded = 0, aStarNanos = 0, jpsNanos = 0, hpaNanos = 0;
+        double hpaExtraCost = 0;
+        int mismatches = 0, hpaPaths = 0;
+        for (int[] q : pairs) {
+            long t0 = System.nanoTime();
+            List<Point> aStar = context.findPath(grid, 1, Pathfinder.Algorithm.A_STAR, q[0], q[1], q[2], q[3]);
+            long t1 = System.nanoTime();
+            aStarExpanded += context.expandedNodes;
+            List<Point> jps = context.findPath(grid, 1, Pathfinder.Algorithm.JUMP_POINT, q[0], q[1], q[2], q[3]);
+            long t2 = System.nanoTime();
+            jpsExpanded += context.expandedNodes;
+            aStarNanos += t1 - t0;
+            jpsNanos += t2 - t1;
+            if (Math.abs(cost(aStar) - cost(jps)) > 0.01) mismatches++;
+
+            long t3 = System.nanoTime();
+            List<Point> hpa = Pathfinder.solve(context, hierarchy, grid, 1, Pathfinder.Algorithm.HIERARCHICAL, q[0], q[1], q[2], q[3]);
+            hpaNanos += System.nanoTime() - t3;
+            hpaExpanded += context.expandedNodes;
+            if (!aStar.isEmpty() && !hpa.isEmpty()) {
+                hpaExtraCost += cost(hpa) / cost(aStar) - 1;
+                hpaPaths++;
+            }
+        }
+
+        int n = pairs.size();
+        System.out.printf("%-14s %6d queries%n", name, n);
+        System.out.printf("  A*  : %10.1f expanded/path %8.3f ms/path%n", aStarExpanded / (double) n, aStarNanos / 1e6 / n);
+        System.out.printf("  JPS : %10.1f expanded/path %8.3f ms/path%n", jpsExpanded / (double) n, jpsNanos / 1e6 / n);
+        System.out.printf("  HPA*: %10.1f expanded/path %8.3f ms/path (graph built in %.1f ms)%n",
+                hpaExpanded / (double) n, hpaNanos / 1e6 / n, buildNanos / 1e6);
+        System.out.printf("  JPS cost mismatches: %d, HPA* average extra cost: %.1f%%%n",
+                mismatches, hpaPaths == 0 ? 0 : 100 * hpaExtraCost / hpaPaths);
+    }
+
+    private static double cost(List<Point> path) {
+        double cost = 0;
+        for (int i = 1; i < path.size(); i++) {
+            Point a = path.get(i - 1), b = path.get(i);
+            cost += (a.x != b.x && a.y != b.y) ? SearchContext.MOVE_DIAGONAL_COST : SearchContext.MOVE_STRAIGHT_COST;
+        }
+        return cost;
+    }
+
+    private static List<int[]> randomPairs(WalkabilityGrid grid, int count, long seed) {
+        Random random = new Random(seed);
+        List<int[]> pairs = new ArrayList<>();
+        while (pairs.size() < count) {
+            int sx = random.nextInt(grid.getWidth()), sy = random.nextInt(grid.getHeight());
+            int gx = random.nextInt(grid.getWidth()), gy = random.nextInt(grid.getHeight());
+            if (!grid.isSolid(sx, sy) && !grid.isSolid(gx, gy)) {
+                pairs.add(new int[] {sx, sy, gx, gy});
+            }
+        }
+        return pairs;
+    }
+
+    private static WalkabilityGrid openMap(int size, double density, long seed) {
+        Random random = new Random(seed);
+        BitSet solid = new BitSet(size * size);
+        for (int i = 0; i < size * size; i++) {
+            if (random.nextDouble() < density) solid.set(i);
+        }
+        return WalkabilityGrid.of(size, size, 1, 1, solid);
+    }
+
+    /** Carves a perfect maze with an iterative depth-first search on odd cells. */
+    private static WalkabilityGrid mazeMap(int size, long seed) {
+        Random random = new Random(seed);
+        BitSet solid = new BitSet(size * size);
+        solid.set(0, size * size);
+
+        int[] stack = new int[size * size];
+        int top = 0;
+        stack[top++] = 1 + size;
+        solid.clear(1 + size);
+        int[] order = {0, 1, 2, 3};
+        int[] ox = {2, -2, 0, 0};
+        int[] oy = {0, 0, 2, -2};
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int x = cell % size, y = cell / size;
+            for (int i = 3; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int t = order[i]; order[i] = order[j]; order[j] = t;
+            }
+            boolean carved = false;
+            for (int d : order) {
+                int nx = x + ox[d], ny = y + oy[d];
+                if (nx <= 0 || ny <= 0 || nx >= size - 1 || ny >= size - 1 || !solid.get(nx + ny * size)) continue;
+                solid.clear((x + ox[d] / 2) + (y + oy[d] / 2) * size);
+                solid.clear(nx + ny * size);
+                stack[top++] = nx + ny * size;
+                carved = true;
+                break;
+            }
+            if (!carved) top--;
+        }
+        return WalkabilityGrid.of(size, size, 1, 1, solid);
+    }
+}
@@ -41,6 +41,26 @@ public abstract class Component {
      */
     public void render(Graphics g) {}
 
+    /**
+     * Whether this component must keep updating every frame even when its owner is throttled
+     * or put to sleep by the {@link com.jdstudio.engine.Core.ActivityManager} because it is far
+     * from the camera. Override to return true for logic that must not pause (e.g. quest timers).
+     *
+     * @return false by default.
+     */
+    public boolean isAlwaysUpdated() {
+        return false;
+    }
+
+    /**
+     * Gets the GameObject this component is attached to.
+     *
+     * @return The owner GameObject, or null before the component is attached.
+     */
+    public GameObject getOwner() {
+        return owner;
+    }
+
     /**
      * Sets the owner of this component.
      * This method is final to prevent overriding.
@@ -1,12 +1,29 @@
 package com.jdstudio.engine.Components;
 
+import com.jdstudio.engine.Events.EngineEvent;
+import com.jdstudio.engine.Events.EventManager;
+import com.jdstudio.engine.Events.EventSnapshot;
+
 /**
  * A component that manages the health of a GameObject.
  * It tracks current and maximum health, and provides methods for taking damage and healing.
+ * Every change posts a {@link EngineEvent#HEALTH_CHANGED} event, coalesced per component, so
+ * listeners (health bars, AI) see at most one per flush with the final value. Off-thread listeners
+ * receive a {@link State} snapshot instead of the component.
  * 
  * @author JDStudio
  */
-public class HealthComponent extends Component {
+public class HealthComponent extends Component implements EventSnapshot {
+
+    /**
+     * An immutable copy of a HealthComponent's values, handed to off-thread listeners. It names
+     * the owner rather than referencing it, since the GameObject keeps changing on the game thread.
+     *
+     * @param ownerName     The name of the GameObject whose health changed.
+     * @param currentHealth The health at the time of the event.
+     * @param maxHealth     The maximum health at the time of the event.
+     */
+    public record State(String ownerName, int currentHealth, int maxHealth) {}
     
     /** The current health of the GameObject. */
     public int currentHealth;
@@ -33,6 +50,7 @@ public class HealthComponent extends Component {
     public void takeDamage(int amount) {
         this.currentHealth -= amount;
         if (this.currentHealth < 0) this.currentHealth = 0;
+        EventManager.getInstance().post(EngineEvent.HEALTH_CHANGED, this, this);
     }
 
     /**
@@ -44,6 +62,7 @@ public class HealthComponent extends Component {
     public void heal(int amount) {
         this.currentHealth += amount;
         if (this.currentHealth > this.maxHealth) this.currentHealth = this.maxHealth;
+        EventManager.getInstance().post(EngineEvent.HEALTH_CHANGED, this, this);
     }
 
     /**
@@ -56,6 +75,11 @@ public class HealthComponent extends Component {
         return (float) currentHealth / (float) maxHealth;
     }
     
+    @Override
+    public Object snapshot() {
+        return new State(owner == null ? "" : owner.name, currentHealth, maxHealth);
+    }
+
     /**
      * Checks if the GameObject has zero health.
      *
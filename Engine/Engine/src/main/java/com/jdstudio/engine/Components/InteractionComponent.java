@@ -11,9 +11,9 @@ import java.util.List;
 import java.util.Map;
 
 import com.jdstudio.engine.Engine;
-import com.jdstudio.engine.Events.EngineEvent;
 import com.jdstudio.engine.Events.EventManager;
-import com.jdstudio.engine.Events.InteractionEventData;
+import com.jdstudio.engine.Events.EventType;
+import com.jdstudio.engine.Events.ZoneEvent;
 import com.jdstudio.engine.Object.GameObject;
 
 /**
@@ -50,7 +50,7 @@ public class InteractionComponent extends Component {
     /**
      * The main method to check for interactions.
      * It iterates through potential targets and checks if they are inside any of the zones.
-     * It fires TARGET_ENTERED_ZONE and TARGET_EXITED_ZONE events accordingly.
+     * It fires {@link ZoneEvent#ENTERED} and {@link ZoneEvent#EXITED} events accordingly.
      * 
      * @param targets A list of GameObjects to check against (e.g., the player).
      */
@@ -76,16 +76,24 @@ public class InteractionComponent extends Component {
                 if (isInside && !wasInside) {
                     // Target has just entered the zone
                     zonesTargetIsIn.add(zone);
-                    EventManager.getInstance().trigger(EngineEvent.TARGET_ENTERED_ZONE, new InteractionEventData(owner, target, zone));
+                    fireZoneEvent(ZoneEvent.ENTERED, target, zone);
                 } else if (!isInside && wasInside) {
                     // Target has just exited the zone
                     zonesTargetIsIn.remove(zone);
-                    EventManager.getInstance().trigger(EngineEvent.TARGET_EXITED_ZONE, new InteractionEventData(owner, target, zone));
+                    fireZoneEvent(ZoneEvent.EXITED, target, zone);
                 }
             }
         }
     }
 
+    /**
+     * Triggers a zone event with a pooled payload, which the EventManager recycles after dispatch.
+     */
+    private void fireZoneEvent(EventType<ZoneEvent> eventType, GameObject target, InteractionZone zone) {
+        EventManager events = EventManager.getInstance();
+        events.trigger(eventType, events.obtain(eventType).set(owner, target, zone));
+    }
+
     /**
      * Renders a debug visualization of the interaction zones.
      * Each zone type is rendered with a different color for easy identification.
@@ -1,20 +1,25 @@
 package com.jdstudio.engine.Components.Moviments;
 
 import java.awt.Point;
-import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
-import com.jdstudio.engine.Object.Character;
+import com.jdstudio.engine.Core.AIScheduler;
 import com.jdstudio.engine.Object.GameObject;
-import com.jdstudio.engine.Object.GameObject.CollisionType;
+import com.jdstudio.engine.Pathfinding.CrowdManager;
+import com.jdstudio.engine.Pathfinding.FlowField;
+import com.jdstudio.engine.Pathfinding.FlowFieldManager;
+import com.jdstudio.engine.Pathfinding.IncrementalPathfinder;
+import com.jdstudio.engine.Pathfinding.IncrementalSearch;
 import com.jdstudio.engine.Pathfinding.Pathfinder;
+import com.jdstudio.engine.Pathfinding.PathfindingService;
 
 /**
  * An AI-driven movement component that enables a GameObject to move towards a target.
- * It supports both direct movement and A* pathfinding.
+ * It supports direct movement, A* pathfinding and following a shared flow field.
  * The component can target a specific GameObject or a fixed point.
- * It also includes options for avoiding other actors and targeting specific anchor points on the target.
+ * It also includes options for steering around other actors and targeting specific anchor points on the target.
  * 
  * @author JDStudio
  */
@@ -40,8 +45,38 @@ public class AIMovementComponent extends BaseMovementComponent {
 
     /** If true, the component will use the A* algorithm for pathfinding. */
     public boolean useAStarPathfinding = false;
+
+    /**
+     * If true, A* paths are solved by the {@link PathfindingService} off the game thread and
+     * applied on a later tick; the current path is followed in the meantime.
+     * If false, paths are solved synchronously inside {@link #update()}.
+     */
+    public boolean useAsyncPathfinding = true;
+
+    /**
+     * If true, A* paths are solved on the game thread by the {@link IncrementalPathfinder}, a
+     * few node expansions per frame within a budget shared by every agent. While the search
+     * runs, the agent walks along the best partial path found so far. Takes precedence over
+     * {@link #useAsyncPathfinding}.
+     */
+    public boolean useTimeSlicedPathfinding = false;
+
+    /** The priority of this component's path requests. Higher values are solved first. */
+    public int pathPriority = 0;
+
+    /**
+     * How often, in frames, the A* path is recalculated while following a target. Repaths are
+     * staggered across agents and stretched for far ones by the {@link AIScheduler}.
+     */
+    public int pathRecalculateInterval = 30;
+
+    /** The search algorithm used for A* paths. AUTO uses Jump Point Search on uniform-cost maps. */
+    public Pathfinder.Algorithm pathAlgorithm = Pathfinder.Algorithm.AUTO;
     
-    /** If true, the component will attempt to avoid other non-solid characters. */
+    /**
+     * If true, the owner joins the {@link CrowdManager}: it steers around the other members of the
+     * crowd (separation, alignment and collision avoidance) and never moves into their masks.
+     */
     public boolean avoidOtherActors = false;
     
     /**
@@ -51,9 +86,16 @@ public class AIMovementComponent extends BaseMovementComponent {
 
     private List<Point> currentPath;
     private int currentPathIndex;
-    private int pathRecalculateCooldown = 0;
-    private final int pathRecalculateSpeed = 30; // Recalculate path every 30 frames
     private final double arrivalThreshold = 2.0; // Distance to consider as arrived at a waypoint
+    private final Consumer<List<Point>> onPathFound = this::applyPath;
+    private final Consumer<List<Point>> onTimeSlicedPathFound = path -> applyPath(path, true);
+
+    /** The name of the flow field being followed, or null to use the regular target logic. */
+    private String flowFieldName;
+    private final Point flowWaypoint = new Point();
+
+    /** Reused to receive the steered velocity from the crowd. */
+    private final double[] steering = new double[2];
 
     /**
      * Constructs a new AIMovementComponent.
@@ -74,8 +116,8 @@ public class AIMovementComponent extends BaseMovementComponent {
         if (this.target != target) {
             this.target = target;
             this.targetPoint = null; // Clear fixed point target
-            this.pathRecalculateCooldown = 0; // Force path recalculation
-            this.currentPath.clear();
+            this.currentPath.clear(); // Forces a path recalculation
+            cancelPathRequests();
         }
     }
     
@@ -97,8 +139,8 @@ public class AIMovementComponent extends BaseMovementComponent {
     public void setTarget(int x, int y) {
         this.target = null; // Clear GameObject target
         this.targetPoint = new Point(x, y);
-        this.pathRecalculateCooldown = 0; // Force path recalculation
-        this.currentPath.clear();
+        this.currentPath.clear(); // Forces a path recalculation
+        cancelPathRequests();
     }
     
     /**
@@ -107,18 +149,85 @@ public class AIMovementComponent extends BaseMovementComponent {
      */
     @Override
     public void update() {
+        CrowdManager crowd = CrowdManager.getInstance();
+        if (avoidOtherActors != crowd.isMember(owner)) {
+            if (avoidOtherActors) crowd.join(owner); else crowd.leave(owner);
+        }
+
+        if (flowFieldName != null) {
+            Point flowTarget = getFlowFieldTarget();
+            if (flowTarget != null) {
+                smartMoveTowards(flowTarget.x, flowTarget.y);
+                return;
+            }
+        }
+
         if (target == null && targetPoint == null) {
             dx = 0;
             dy = 0;
+            keepSeparated();
             return;
         }
 
         Point finalTarget = getFinalTarget();
-        if (finalTarget == null) return;
+        if (finalTarget == null) {
+            keepSeparated();
+            return;
+        }
         
         smartMoveTowards(finalTarget.x, finalTarget.y);
     }
 
+    /**
+     * Makes the AI follow a named flow field from the {@link FlowFieldManager} instead of
+     * requesting its own paths. Once it reaches the field's target tile (or if the field
+     * cannot lead it there), it falls back to its regular target, if any.
+     *
+     * @param name The name of the flow field.
+     */
+    public void followFlowField(String name) {
+        this.flowFieldName = name;
+        this.currentPath.clear();
+        cancelPathRequests();
+    }
+
+    /**
+     * Stops following a flow field and returns to the regular target logic.
+     */
+    public void stopFollowingFlowField() {
+        this.flowFieldName = null;
+        this.currentPath.clear(); // Forces a path recalculation
+    }
+
+    /**
+     * Gets the name of the flow field being followed.
+     *
+     * @return The name, or null if no field is being followed.
+     */
+    public String getFlowFieldName() {
+        return flowFieldName;
+    }
+
+    /**
+     * Samples the followed flow field at the owner's tile.
+     *
+     * @return The center of the next tile to move to, or null if the field has no direction here.
+     */
+    private Point getFlowFieldTarget() {
+        FlowField field = FlowFieldManager.getInstance().getField(flowFieldName);
+        if (field == null || !field.isReady() || world == null) return null;
+
+        int tileX = (owner.getX() + owner.getWidth() / 2) / world.tileWidth;
+        int tileY = (owner.getY() + owner.getHeight() / 2) / world.tileHeight;
+        byte direction = field.getDirection(tileX, tileY);
+        if (direction == FlowField.NO_DIRECTION) return null;
+
+        int nextX = tileX + FlowField.stepX(direction);
+        int nextY = tileY + FlowField.stepY(direction);
+        flowWaypoint.setLocation(nextX * world.tileWidth + world.tileWidth / 2, nextY * world.tileHeight + world.tileHeight / 2);
+        return flowWaypoint;
+    }
+
     /**
      * Determines the final target point for the current frame.
      * If A* pathfinding is enabled, it calculates and follows the path.
@@ -128,26 +237,46 @@ public class AIMovementComponent extends BaseMovementComponent {
      */
     private Point getFinalTarget() {
         if (useAStarPathfinding && (target != null || targetPoint != null)) {
-            pathRecalculateCooldown--;
-            if (pathRecalculateCooldown <= 0 || currentPath == null || currentPath.isEmpty()) {
-                pathRecalculateCooldown = pathRecalculateSpeed;
+            IncrementalSearch search = useTimeSlicedPathfinding ? IncrementalPathfinder.getInstance().getSearch(this) : null;
+            boolean awaitingPath = search != null
+                    || (useAsyncPathfinding && PathfindingService.getInstance().hasPendingRequest(this));
+            // A time-sliced search is never superseded before it ends, or slow searches would starve.
+            boolean recalculate = search == null && AIScheduler.getInstance().isDue(owner, pathRecalculateInterval);
+            if (recalculate || ((currentPath == null || currentPath.isEmpty()) && !awaitingPath)) {
                 Point startPoint = new Point(owner.getX(), owner.getY());
                 Point endPoint = (target != null) ? getAnchorPoint(target) : targetPoint;
 
                 if (endPoint == null) return null;
-                
-                this.currentPath = Pathfinder.findPath(world, startPoint, endPoint);
-                this.currentPathIndex = 0;
+
+                int agentSize = Math.max(owner.getMaskWidth(), owner.getMaskHeight());
+                if (useTimeSlicedPathfinding) {
+                    // Advanced within the shared frame budget; partial paths are followed meanwhile.
+                    search = IncrementalPathfinder.getInstance().requestPath(this, world, startPoint, endPoint, agentSize, pathPriority, pathAlgorithm, onTimeSlicedPathFound);
+                } else if (useAsyncPathfinding) {
+                    // The result is applied by onPathFound at the start of a later tick.
+                    PathfindingService.getInstance().requestPath(this, world, startPoint, endPoint, agentSize, pathPriority, pathAlgorithm, onPathFound);
+                } else {
+                    applyPath(Pathfinder.findPath(world, startPoint, endPoint, agentSize, pathAlgorithm));
+                }
             }
 
+            if ((currentPath == null || currentPath.isEmpty()) && search != null && search.isRunning()) {
+                List<Point> partial = search.getPartialPath();
+                if (partial.size() > 1) applyPath(partial, true);
+            }
             if (currentPath == null || currentPath.isEmpty()) return null;
 
             Point nextWaypoint = currentPath.get(currentPathIndex);
             
-            // Check if we have arrived at the current waypoint
+            // Check if we have arrived at the current waypoint. Steering pushes crowd members off the
+            // path, so they only need to get within half their size of intermediate waypoints.
             double dxToWaypoint = nextWaypoint.x - (owner.getX() + owner.getWidth() / 2.0);
             double dyToWaypoint = nextWaypoint.y - (owner.getY() + owner.getHeight() / 2.0);
-            if (Math.sqrt(dxToWaypoint * dxToWaypoint + dyToWaypoint * dyToWaypoint) < arrivalThreshold) {
+            double threshold = arrivalThreshold;
+            if (avoidOtherActors && currentPathIndex < currentPath.size() - 1) {
+                threshold = Math.max(threshold, Math.min(owner.getMaskWidth(), owner.getMaskHeight()) / 2.0);
+            }
+            if (Math.sqrt(dxToWaypoint * dxToWaypoint + dyToWaypoint * dyToWaypoint) < threshold) {
                 currentPathIndex++;
                 if (currentPathIndex >= currentPath.size()) {
                     currentPath.clear(); // Path completed
@@ -163,6 +292,49 @@ public class AIMovementComponent extends BaseMovementComponent {
         }
     }
     
+    /**
+     * Replaces the path being followed.
+     *
+     * @param path The new path, in world coordinates.
+     */
+    private void applyPath(List<Point> path) {
+        applyPath(path, false);
+    }
+
+    /**
+     * Replaces the path being followed.
+     *
+     * @param path        The new path, in world coordinates.
+     * @param fromNearest If true, the path is joined at the waypoint closest to the owner instead of
+     *                    its start (used when the owner kept moving while the path was being solved).
+     */
+    private void applyPath(List<Point> path, boolean fromNearest) {
+        this.currentPath = path;
+        this.currentPathIndex = 0;
+        if (!fromNearest) return;
+
+        double centerX = owner.getX() + owner.getWidth() / 2.0;
+        double centerY = owner.getY() + owner.getHeight() / 2.0;
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < path.size(); i++) {
+            double dx = path.get(i).x - centerX;
+            double dy = path.get(i).y - centerY;
+            double distance = dx * dx + dy * dy;
+            if (distance < best) {
+                best = distance;
+                currentPathIndex = i;
+            }
+        }
+    }
+
+    /**
+     * Drops any path request of this component that has not been delivered yet.
+     */
+    private void cancelPathRequests() {
+        PathfindingService.getInstance().cancel(this);
+        IncrementalPathfinder.getInstance().cancel(this);
+    }
+
     /**
      * Calculates the exact target coordinate based on the selected anchor.
      *
@@ -213,15 +385,36 @@ public class AIMovementComponent extends BaseMovementComponent {
         if (length < arrivalThreshold) {
             this.dx = 0;
             this.dy = 0;
+            keepSeparated();
             return;
         }
 
-        this.dx = (dx / length) * speed;
-        this.dy = (dy / length) * speed;
+        // A throttled tick covers several frames, but never steps past the target
+        double step = Math.min(speed * owner.getTickFrames(), length);
+        this.dx = (dx / length) * step;
+        this.dy = (dy / length) * step;
+
+        if (avoidOtherActors) {
+            CrowdManager.getInstance().steer(owner, this.dx, this.dy, step, target, steering);
+            this.dx = steering[0];
+            this.dy = steering[1];
+        }
         
         applyIntelligentMovement(this.dx, this.dy);
     }
 
+    /**
+     * Lets a crowd member that is standing still be pushed aside by neighbours that crowd it,
+     * so agents gathering around the same target spread out instead of stacking.
+     */
+    private void keepSeparated() {
+        if (!avoidOtherActors || owner == null) return;
+        CrowdManager.getInstance().steer(owner, 0, 0, speed, target, steering);
+        if (steering[0] != 0 || steering[1] != 0) {
+            applyIntelligentMovement(steering[0], steering[1]);
+        }
+    }
+
     /**
      * Applies the calculated movement to the owner, handling sub-pixel movement
      * and basic collision avoidance to prevent getting stuck.
@@ -281,8 +474,8 @@ public class AIMovementComponent extends BaseMovementComponent {
     }
     
     /**
-     * Extends the base collision check to optionally avoid other non-solid actors.
-     * This is useful for preventing AI characters from clumping together.
+     * Extends the base collision check so crowd members never move into each other's masks.
+     * Only the members in the neighbouring cells of the {@link CrowdManager} grid are checked.
      *
      * @param nextX The next X coordinate to check.
      * @param nextY The next Y coordinate to check.
@@ -295,29 +488,8 @@ public class AIMovementComponent extends BaseMovementComponent {
         }
 
         if (avoidOtherActors) {
-            Rectangle futureBounds = new Rectangle(
-                nextX + owner.getMaskX(), 
-                nextY + owner.getMaskY(), 
-                owner.getMaskWidth(), 
-                owner.getMaskHeight()
-            );
-
-            for (GameObject other : allGameObjects) {
-                if (other == owner || other == target) continue;
-
-                // Check against other non-solid characters
-                if (other instanceof Character && other.getCollisionType() != CollisionType.SOLID) {
-                    Rectangle otherBounds = new Rectangle(
-                        other.getX() + other.getMaskX(),
-                        other.getY() + other.getMaskY(),
-                        other.getMaskWidth(),
-                        other.getMaskHeight()
-                    );
-                    if (futureBounds.intersects(otherBounds)) {
-                        return false; // Path is blocked by another actor
-                    }
-                }
-            }
+            return !CrowdManager.getInstance().overlapsMember(owner, nextX + owner.getMaskX(), nextY + owner.getMaskY(),
+                    owner.getMaskWidth(), owner.getMaskHeight(), target);
         }
         
         return true;
@@ -55,9 +55,10 @@ public class MovementComponent extends BaseMovementComponent {
             moveY = (moveY / length);
         }
         
-        // Apply speed to the normalized vector
-        moveX *= speed;
-        moveY *= speed;
+        // Apply speed to the normalized vector, for every frame this tick stands for
+        double step = speed * owner.getTickFrames();
+        moveX *= step;
+        moveY *= step;
 
         // Add the movement to the sub-pixel remainders
         xRemainder += moveX;
@@ -32,4 +32,13 @@ public class QuestComponent extends Component {
     public GameObject getQuestTarget() {
         return this.questTarget;
     }
+
+    /**
+     * Quest state keeps updating even when the owner is far from the camera.
+     * @return Always true.
+     */
+    @Override
+    public boolean isAlwaysUpdated() {
+        return true;
+    }
 }
@@ -0,0 +1,307 @@
+package com.jdstudio.engine.Core;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.jdstudio.engine.Engine;
+import com.jdstudio.engine.Object.GameObject;
+
+/**
+ * A Singleton that decides on which frames each AI agent "thinks" (re-evaluates its decisions,
+ * checks its zones, repaths).
+ * <p>
+ * Every agent gets a think interval from its distance to the focus (a GameObject such as the
+ * player, or the camera center when none is set): agents closer than the near radius think every
+ * frame, agents within the far radius every {@code midInterval} frames and the rest every
+ * {@code farInterval} frames. Intervals are powers of two, and each agent is given the least
+ * loaded of {@value #SLOTS} frame slots when it first asks, which offsets its first think, so
+ * agents sharing an interval think on different frames instead of all at once. After that an agent
+ * thinks as soon as its interval has elapsed since its last think, so an agent that is not asked
+ * every frame (e.g. one throttled by the {@link ActivityManager}) still thinks on the first frame
+ * it asks once its interval is up.
+ * <p>
+ * Movement should still run every frame; only decisions are meant to be gated by
+ * {@link #shouldThink}. Periodic work with its own period (e.g. repathing every 30 frames) can use
+ * {@link #isDue} to be staggered the same way.
+ * <p>
+ * Agents are dropped when they are {@link #unregister unregistered}, which the engine does when a
+ * GameObject leaves the game (removed from the playing state, evicted with its chunk or left
+ * behind by a level change), and as a fallback on the first update after they are destroyed.
+ *
+ * @author JDStudio
+ */
+public class AIScheduler {
+
+    /** The number of frame slots agents are spread across; intervals cannot exceed it. */
+    public static final int SLOTS = 64;
+
+    private static final AIScheduler instance = new AIScheduler();
+
+    /** The scheduling state of a registered agent. */
+    private static final class Agent {
+        final int slot;
+        int interval = 1;
+        long classifiedFrame = -1;
+        long lastThink;
+
+        // The periodic tasks checked with isDue: their periods and the frames they last ran
+        int[] duePeriods = new int[0];
+        long[] dueFrames = new long[0];
+
+        Agent(int slot) {
+            this.slot = slot;
+        }
+
+        /** @return The index of a period's entry, added (due on the frame its slot offset gives) if new. */
+        int dueIndex(int period, long frame) {
+            for (int i = 0; i < duePeriods.length; i++) {
+                if (duePeriods[i] == period) return i;
+            }
+            int index = duePeriods.length;
+            duePeriods = Arrays.copyOf(duePeriods, index + 1);
+            dueFrames = Arrays.copyOf(dueFrames, index + 1);
+            duePeriods[index] = period;
+            dueFrames[index] = frame - period + slot % period;
+            return index;
+        }
+    }
+
+    private final Map<GameObject, Agent> agents = new IdentityHashMap<>();
+    private final int[] slotLoad = new int[SLOTS];
+
+    private boolean enabled = true;
+    private GameObject focus;
+    private double nearRadius = 300;
+    private double farRadius = 600;
+    private int midInterval = 4;
+    private int farInterval = 16;
+
+    private long frame = 0;
+
+    // Metrics
+    private int thinksThisFrame = 0;
+    private int thinksLastFrame = 0;
+    private int peakThinks = 0;
+    private final int[] thinkHistory = new int[SLOTS];
+
+    private AIScheduler() {}
+
+    /**
+     * Gets the single instance of the AIScheduler.
+     * @return The singleton instance.
+     */
+    public static AIScheduler getInstance() {
+        return instance;
+    }
+
+    /**
+     * Advances to the next frame, publishing the think count of the one that ended and dropping
+     * destroyed agents. Called by the engine once per tick.
+     */
+    public void update() {
+        thinksLastFrame = thinksThisFrame;
+        thinkHistory[(int) (frame % SLOTS)] = thinksThisFrame;
+        peakThinks = Math.max(peakThinks, thinksThisFrame);
+        thinksThisFrame = 0;
+        frame++;
+
+        Iterator<Map.Entry<GameObject, Agent>> it = agents.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<GameObject, Agent> entry = it.next();
+            if (entry.getKey().isDestroyed) {
+                slotLoad[entry.getValue().slot]--;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Checks if an agent should run its decision logic this frame. The first call registers the agent.
+     * Can be called several times per frame (e.g. by the agent and by its components); the agent is
+     * only counted once.
+     *
+     * @param agent The thinking agent.
+     * @return true if the agent thinks this frame (always true while the scheduler is disabled).
+     */
+    public boolean shouldThink(GameObject agent) {
+        if (!enabled) return true;
+        Agent state = classify(agent);
+        if (state.lastThink != frame) {
+            if (frame - state.lastThink < state.interval) return false;
+            state.lastThink = frame;
+            thinksThisFrame++;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a periodic task of an agent is due: it is when the period has elapsed since the
+     * last time it was. The period is rounded up to a multiple of the agent's think interval, so
+     * far agents run it less often; agents are staggered by their slots. Should only be called when
+     * the task will run if due, as a due check counts as a run.
+     *
+     * @param agent  The agent.
+     * @param period The period of the task in frames (e.g. 30 to repath twice a second).
+     * @return true at most once per (stretched) period.
+     */
+    public boolean isDue(GameObject agent, int period) {
+        period = Math.max(1, period);
+        Agent state = classify(agent);
+        int interval = enabled ? state.interval : 1;
+        int stretched = (period + interval - 1) / interval * interval;
+        int index = state.dueIndex(stretched, frame);
+        if (frame - state.dueFrames[index] < stretched) return false;
+        state.dueFrames[index] = frame;
+        return true;
+    }
+
+    /**
+     * Gets the think interval currently assigned to an agent.
+     * @param agent The agent.
+     * @return The number of frames between two thinks (1 while the scheduler is disabled).
+     */
+    public int getThinkInterval(GameObject agent) {
+        return enabled ? classify(agent).interval : 1;
+    }
+
+    /**
+     * Registers the agent if needed and recomputes its interval once per frame.
+     */
+    private Agent classify(GameObject agent) {
+        Agent state = agents.get(agent);
+        if (state == null) {
+            state = new Agent(leastLoadedSlot());
+            slotLoad[state.slot]++;
+            agents.put(agent, state);
+        }
+        if (state.classifiedFrame != frame) {
+            boolean registered = state.classifiedFrame < 0;
+            state.classifiedFrame = frame;
+            state.interval = intervalFor(agent);
+            if (registered) {
+                // The slot only offsets the first think: due on this frame plus the offset
+                state.lastThink = frame - state.interval + (state.slot & (state.interval - 1));
+            }
+        }
+        return state;
+    }
+
+    private int leastLoadedSlot() {
+        int best = 0;
+        for (int i = 1; i < SLOTS; i++) {
+            if (slotLoad[i] < slotLoad[best]) best = i;
+        }
+        return best;
+    }
+
+    private int intervalFor(GameObject agent) {
+        double fx, fy;
+        if (focus != null && !focus.isDestroyed) {
+            fx = focus.getCenterX();
+            fy = focus.getCenterY();
+        } else if (Engine.camera != null) {
+            fx = Engine.camera.getX() + Engine.getWIDTH() / 2.0;
+            fy = Engine.camera.getY() + Engine.getHEIGHT() / 2.0;
+        } else {
+            return 1;
+        }
+        double dx = agent.getCenterX() - fx;
+        double dy = agent.getCenterY() - fy;
+        double distanceSq = dx * dx + dy * dy;
+        if (distanceSq <= nearRadius * nearRadius) return 1;
+        if (distanceSq <= farRadius * farRadius) return midInterval;
+        return farInterval;
+    }
+
+    /** Rounds an interval to a power of two between 1 and {@link #SLOTS}. */
+    private static int toInterval(int frames) {
+        int clamped = Math.max(1, Math.min(SLOTS, frames));
+        int power = Integer.highestOneBit(clamped);
+        return power == clamped ? power : power << 1;
+    }
+
+    // --- CONFIGURATION ---
+
+    /**
+     * Enables or disables the scheduler. When disabled, every agent thinks every frame.
+     * @param enabled true to stagger agents.
+     */
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /** @return true if agents are staggered. */
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Sets the object distances are measured from (usually the player). Without one, the center
+     * of {@code Engine.camera} is used.
+     * @param focus The focus GameObject, or null to use the camera.
+     */
+    public void setFocus(GameObject focus) { this.focus = focus; }
+
+    /**
+     * Sets the distance bands, in pixels.
+     * @param nearRadius Agents closer than this think every frame.
+     * @param farRadius  Agents closer than this think every {@code midInterval} frames; farther ones every {@code farInterval}.
+     */
+    public void setRadii(double nearRadius, double farRadius) {
+        this.nearRadius = nearRadius;
+        this.farRadius = Math.max(nearRadius, farRadius);
+    }
+
+    /**
+     * Sets the think intervals of the outer bands. Values are rounded up to a power of two, at most {@link #SLOTS}.
+     * @param midInterval The interval between the near and far radii, in frames.
+     * @param farInterval The interval beyond the far radius, in frames.
+     */
+    public void setIntervals(int midInterval, int farInterval) {
+        this.midInterval = toInterval(midInterval);
+        this.farInterval = Math.max(this.midInterval, toInterval(farInterval));
+    }
+
+    // --- METRICS ---
+
+    /** @return The number of agents that thought during the last frame. */
+    public int getThinksLastFrame() { return thinksLastFrame; }
+
+    /** @return The highest number of agents that thought in a single frame since the last reset. */
+    public int getPeakThinks() { return peakThinks; }
+
+    /**
+     * Gets the number of agents that thought in one of the last {@value #SLOTS} frames.
+     * @param framesAgo 1 for the last frame, up to {@link #SLOTS}.
+     * @return The think count of that frame.
+     */
+    public int getThinks(int framesAgo) {
+        int index = (int) Math.floorMod(frame - Math.max(1, Math.min(SLOTS, framesAgo)), (long) SLOTS);
+        return thinkHistory[index];
+    }
+
+    /**
+     * Unregisters an agent, freeing its frame slot. It is registered again, possibly in another
+     * slot, if it asks to think later.
+     *
+     * @param agent The agent to drop.
+     */
+    public void unregister(GameObject agent) {
+        Agent state = agents.remove(agent);
+        if (state != null) {
+            slotLoad[state.slot]--;
+        }
+    }
+
+    /** @return The number of registered agents. */
+    public int getAgentCount() { return agents.size(); }
+
+    /**
+     * Unregisters every agent, clears the focus and resets the metrics. The configuration is kept.
+     */
+    public void reset() {
+        agents.clear();
+        Arrays.fill(slotLoad, 0);
+        Arrays.fill(thinkHistory, 0);
+        focus = null;
+        thinksThisFrame = thinksLastFrame = peakThinks = 0;
+    }
+}
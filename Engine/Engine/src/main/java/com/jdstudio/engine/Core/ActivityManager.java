@@ -0,0 +1,321 @@
+package com.jdstudio.engine.Core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jdstudio.engine.Engine;
+import com.jdstudio.engine.Components.Component;
+import com.jdstudio.engine.Events.CharacterSpokeEventData;
+import com.jdstudio.engine.Events.EventListener;
+import com.jdstudio.engine.Events.EventManager;
+import com.jdstudio.engine.Events.InteractionEventData;
+import com.jdstudio.engine.Object.GameObject;
+
+/**
+ * A Singleton that implements simulation level-of-detail ("activity regions") for GameObjects.
+ * <p>
+ * When enabled, {@code EnginePlayingState} asks this manager to tick its objects instead of
+ * ticking all of them every frame. Each object is classified by its distance to the nearest
+ * anchor (the camera center and any registered anchor objects):
+ * <ul>
+ *   <li>{@link ActivityLevel#ACTIVE} inside the active radius: ticked every frame.</li>
+ *   <li>{@link ActivityLevel#THROTTLED} inside the throttled radius: ticked once every
+ *       {@code throttleInterval} frames, with phases spread across objects. Each of these ticks
+ *       stands for the frames skipped before it ({@link GameObject#getTickFrames()}), so objects
+ *       whose logic advances by that many frames (like the movement components) keep their
+ *       real-time speed; logic that ignores it runs slower while throttled.</li>
+ *   <li>{@link ActivityLevel#SLEEPING} beyond it: not ticked, and frozen: sleeping frames are
+ *       not made up when the object wakes.</li>
+ * </ul>
+ * Throttled and sleeping objects still update the components that opt out through
+ * {@link com.jdstudio.engine.Components.Component#isAlwaysUpdated()}.
+ * Objects wake up (stay active for {@code wakeDuration} frames) when they come back into range,
+ * when an {@link GameObject#alwaysActive} object (such as the player or a projectile) gets close
+ * to them, when they take damage, or when one of the events registered with {@link #wakeOn} fires.
+ *
+ * @author JDStudio
+ */
+public class ActivityManager {
+
+    /** The simulation level assigned to a GameObject for the current frame. */
+    public enum ActivityLevel {
+        /** Ticked every frame. */
+        ACTIVE,
+        /** Ticked at a reduced frequency. */
+        THROTTLED,
+        /** Not ticked (only always-updated components run). */
+        SLEEPING
+    }
+
+    private static final ActivityManager instance = new ActivityManager();
+
+    private boolean enabled = false;
+    private double activeRadius = 400;
+    private double throttledRadius = 800;
+    private int throttleInterval = 4;
+    private int wakeDuration = 120;
+    private double proximityWakeMargin = 32;
+    private boolean useCameraAsAnchor = true;
+    private final List<GameObject> anchors = new ArrayList<>();
+
+    private long frame = 0;
+    private int wakeAllTicks = 0;
+
+    // Reused every frame to avoid allocations.
+    private double[] anchorX = new double[4];
+    private double[] anchorY = new double[4];
+    private int anchorCount = 0;
+    private final List<GameObject> roamers = new ArrayList<>();
+
+    // Metrics of the last frame
+    private int activeCount, throttledCount, sleepingCount;
+
+    /** Wakes the objects referenced by an event's data, or everything if it has none. */
+    private final EventListener wakeListener = this::wakeFromEvent;
+
+    private ActivityManager() {}
+
+    /**
+     * Gets the single instance of the ActivityManager.
+     * @return The singleton instance.
+     */
+    public static ActivityManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * Ticks a list of GameObjects according to their activity level.
+     * Called by {@code EnginePlayingState.tick()} when the manager is enabled.
+     *
+     * @param objects The list of GameObjects to update.
+     */
+    public void tick(List<GameObject> objects) {
+        frame++;
+        if (wakeAllTicks > 0) wakeAllTicks--;
+        collectAnchors();
+
+        roamers.clear();
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject go = objects.get(i);
+            if (go.alwaysActive && !go.isDestroyed && go.getCollisionType() != GameObject.CollisionType.NO_COLLISION) {
+                roamers.add(go);
+            }
+        }
+
+        activeCount = throttledCount = sleepingCount = 0;
+        // Index loop: objects may be added while ticking (e.g. projectiles).
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject go = objects.get(i);
+            ActivityLevel level = classify(go);
+            go.setActivityLevel(level);
+            switch (level) {
+                case ACTIVE -> {
+                    activeCount++;
+                    go.setTickFrames(1);
+                    go.tick();
+                }
+                case THROTTLED -> {
+                    throttledCount++;
+                    if ((frame + go.getActivityPhase()) % throttleInterval == 0) {
+                        // Makes up for the frames skipped since the last tick, at most one interval
+                        go.setTickFrames(Math.min(go.getSkippedTicks() + 1, throttleInterval));
+                        go.tick();
+                    } else {
+                        go.skipTick();
+                        go.tickAlwaysUpdatedComponents();
+                    }
+                }
+                case SLEEPING -> {
+                    sleepingCount++;
+                    go.setTickFrames(1);
+                    go.tickAlwaysUpdatedComponents();
+                }
+            }
+        }
+    }
+
+    private ActivityLevel classify(GameObject go) {
+        if (go.isDestroyed || go.alwaysActive || wakeAllTicks > 0) return ActivityLevel.ACTIVE;
+        if (go.consumeWakeTick()) return ActivityLevel.ACTIVE;
+
+        double cx = go.getCenterX();
+        double cy = go.getCenterY();
+        double minDistanceSq = Double.MAX_VALUE;
+        for (int a = 0; a < anchorCount; a++) {
+            double dx = anchorX[a] - cx;
+            double dy = anchorY[a] - cy;
+            minDistanceSq = Math.min(minDistanceSq, dx * dx + dy * dy);
+        }
+        if (minDistanceSq <= activeRadius * activeRadius) return ActivityLevel.ACTIVE;
+
+        if (isNearRoamer(go)) {
+            wake(go);
+            return ActivityLevel.ACTIVE;
+        }
+        if (minDistanceSq <= throttledRadius * throttledRadius) return ActivityLevel.THROTTLED;
+        return ActivityLevel.SLEEPING;
+    }
+
+    /** Checks if an always-active object is within the wake margin of the object's collision mask. */
+    private boolean isNearRoamer(GameObject go) {
+        if (go.getCollisionType() == GameObject.CollisionType.NO_COLLISION) return false;
+        double left = go.getX() + go.getMaskX() - proximityWakeMargin;
+        double top = go.getY() + go.getMaskY() - proximityWakeMargin;
+        double right = go.getX() + go.getMaskX() + go.getMaskWidth() + proximityWakeMargin;
+        double bottom = go.getY() + go.getMaskY() + go.getMaskHeight() + proximityWakeMargin;
+        for (int i = 0; i < roamers.size(); i++) {
+            GameObject r = roamers.get(i);
+            if (r == go) continue;
+            int rx = r.getX() + r.getMaskX();
+            int ry = r.getY() + r.getMaskY();
+            if (rx < right && rx + r.getMaskWidth() > left && ry < bottom && ry + r.getMaskHeight() > top) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void collectAnchors() {
+        int needed = anchors.size() + 1;
+        if (anchorX.length < needed) {
+            anchorX = new double[needed * 2];
+            anchorY = new double[needed * 2];
+        }
+        anchorCount = 0;
+        if (useCameraAsAnchor && Engine.camera != null) {
+            anchorX[anchorCount] = Engine.camera.getX() + Engine.getWIDTH() / 2.0;
+            anchorY[anchorCount] = Engine.camera.getY() + Engine.getHEIGHT() / 2.0;
+            anchorCount++;
+        }
+        for (int i = 0; i < anchors.size(); i++) {
+            GameObject anchor = anchors.get(i);
+            if (anchor.isDestroyed) continue;
+            anchorX[anchorCount] = anchor.getCenterX();
+            anchorY[anchorCount] = anchor.getCenterY();
+            anchorCount++;
+        }
+    }
+
+    // --- WAKING ---
+
+    /**
+     * Forces a GameObject to be fully active for the configured wake duration.
+     * @param go The object to wake.
+     */
+    public void wake(GameObject go) {
+        if (go != null) go.wakeFor(wakeDuration);
+    }
+
+    /**
+     * Forces every GameObject to be fully active for the configured wake duration.
+     */
+    public void wakeAll() {
+        wakeAllTicks = wakeDuration;
+    }
+
+    /**
+     * Wakes objects whenever the given event is triggered. Objects referenced by the event data
+     * (a GameObject, a {@link Component} of one, {@link InteractionEventData} or
+     * {@link CharacterSpokeEventData}) are woken; events without
+     * data wake everything, and other data is ignored.
+     *
+     * @param eventType The event type to listen to (e.g. a game's "ALARM_RAISED" event).
+     */
+    public void wakeOn(Enum<?> eventType) {
+        EventManager.getInstance().subscribe(eventType, wakeListener);
+    }
+
+    private void wakeFromEvent(Object data) {
+        if (data instanceof GameObject go) {
+            wake(go);
+        } else if (data instanceof InteractionEventData interaction) {
+            wake(interaction.zoneOwner());
+            wake(interaction.target());
+        } else if (data instanceof CharacterSpokeEventData spoke) {
+            wake(spoke.speaker());
+        } else if (data instanceof Component component) {
+            wake(component.getOwner());
+        } else if (data == null) {
+            wakeAll();
+        }
+    }
+
+    // --- CONFIGURATION ---
+
+    /**
+     * Enables or disables simulation LOD. When disabled, every object is ticked every frame.
+     * @param enabled true to enable activity regions.
+     */
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /** @return true if simulation LOD is enabled. */
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Sets the activity radii, in pixels, around each anchor.
+     * @param activeRadius    Objects closer than this are ticked every frame.
+     * @param throttledRadius Objects closer than this are ticked at a reduced frequency; farther ones sleep.
+     */
+    public void setRadii(double activeRadius, double throttledRadius) {
+        this.activeRadius = activeRadius;
+        this.throttledRadius = Math.max(activeRadius, throttledRadius);
+    }
+
+    /**
+     * Sets how often throttled objects are ticked.
+     * @param frames A throttled object is ticked once every this many frames.
+     */
+    public void setThrottleInterval(int frames) { this.throttleInterval = Math.max(1, frames); }
+
+    /**
+     * Sets how long a woken object stays fully active.
+     * @param frames The wake duration in frames.
+     */
+    public void setWakeDuration(int frames) { this.wakeDuration = Math.max(1, frames); }
+
+    /**
+     * Sets the distance at which an always-active object wakes a sleeping one.
+     * @param pixels The margin around the sleeping object's collision mask.
+     */
+    public void setProximityWakeMargin(double pixels) { this.proximityWakeMargin = pixels; }
+
+    /**
+     * Sets whether the center of {@code Engine.camera} is used as an anchor. Defaults to true.
+     * @param useCamera true to use the camera as an anchor.
+     */
+    public void setUseCameraAsAnchor(boolean useCamera) { this.useCameraAsAnchor = useCamera; }
+
+    /**
+     * Adds an extra anchor around which objects are kept active (e.g. a second player or an escort).
+     * @param anchor The anchor GameObject.
+     */
+    public void addAnchor(GameObject anchor) {
+        if (anchor != null && !anchors.contains(anchor)) anchors.add(anchor);
+    }
+
+    /**
+     * Removes an anchor.
+     * @param anchor The anchor GameObject to remove.
+     */
+    public void removeAnchor(GameObject anchor) { anchors.remove(anchor); }
+
+    // --- METRICS ---
+
+    /** @return The number of objects ticked at full rate in the last frame. */
+    public int getActiveCount() { return activeCount; }
+    /** @return The number of throttled objects in the last frame. */
+    public int getThrottledCount() { return throttledCount; }
+    /** @return The number of sleeping objects in the last frame. */
+    public int getSleepingCount() { return sleepingCount; }
+
+    /**
+     * Resets the manager to its default (disabled) state and removes all anchors.
+     */
+    public void reset() {
+        enabled = false;
+        anchors.clear();
+        roamers.clear();
+        wakeAllTicks = 0;
+        activeCount = throttledCount = sleepingCount = 0;
+    }
+}
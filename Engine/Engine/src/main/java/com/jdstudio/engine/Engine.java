@@ -6,16 +6,25 @@ import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Stack;
 import java.util.concurrent.CopyOnWriteArrayList;
 import javax.swing.JFrame;
 
+import com.jdstudio.engine.Core.AIScheduler;
+import com.jdstudio.engine.Core.ActivityManager;
 import com.jdstudio.engine.Dialogue.DialogueManager;
 import com.jdstudio.engine.Events.EventManager;
 import com.jdstudio.engine.Graphics.Lighting.LightingManager;
 import com.jdstudio.engine.Input.InputManager;
 import com.jdstudio.engine.Object.ProjectileManager;
+import com.jdstudio.engine.Pathfinding.CrowdManager;
+import com.jdstudio.engine.Pathfinding.FlowFieldManager;
+import com.jdstudio.engine.Pathfinding.IncrementalPathfinder;
+import com.jdstudio.engine.Pathfinding.PathfindingService;
+import com.jdstudio.engine.Sound.SpatialAudio;
 import com.jdstudio.engine.States.GameState;
 import com.jdstudio.engine.World.Camera;
 
@@ -45,6 +54,16 @@ public class Engine extends Canvas implements Runnable {
     public static boolean showFPS = false;
     /** The main camera used to control the viewport of the game world. */
     public static Camera camera;
+    /**
+     * System property naming a file to record the input and frame times of this run to,
+     * e.g. {@code -Djdstudio.recordInput=run.jdir} (see {@link InputManager#startRecording}).
+     */
+    public static final String RECORD_INPUT_PROPERTY = "jdstudio.recordInput";
+    /**
+     * System property naming a recording to replay from the first frame; its frame times are
+     * compared with the recorded ones when it ends (see {@link InputManager#startReplay}).
+     */
+    public static final String REPLAY_INPUT_PROPERTY = "jdstudio.replayInput";
     
     private static double FPS;
     private static double CURRENT_FPS = 0;
@@ -262,6 +281,13 @@ public class Engine extends Canvas implements Runnable {
         ProjectileManager.getInstance().reset();
         LightingManager.getInstance().reset();
         DialogueManager.getInstance().reset();
+        ActivityManager.getInstance().reset();
+        PathfindingService.getInstance().reset();
+        IncrementalPathfinder.getInstance().reset();
+        FlowFieldManager.getInstance().reset();
+        CrowdManager.getInstance().reset();
+        AIScheduler.getInstance().reset();
+        SpatialAudio.getInstance().reset();
     }
 
     // --- CORE LOGIC (TICK AND RENDER) ---
@@ -273,6 +299,13 @@ public class Engine extends Canvas implements Runnable {
      */
     private void tick() {
         updateDelayedTasks(); // Process scheduled tasks
+        PathfindingService.getInstance().update(); // Deliver paths solved since the last tick
+        IncrementalPathfinder.getInstance().update(); // Advance time-sliced searches within the frame budget
+        FlowFieldManager.getInstance().update(); // Follow moving targets, advance integrations
+        CrowdManager.getInstance().update(); // Rebuild the neighbour grid used for crowd steering
+        AIScheduler.getInstance().update(); // Start a new frame of staggered AI thinks
+        SpatialAudio.getInstance().update(); // Attenuate and pan positional sounds against the camera, in one batch
+        EventManager.getInstance().flush(); // Dispatch events posted since the end of the last tick
 
         if (transitionManager.isTransitioning()) {
             transitionManager.update();
@@ -282,6 +315,7 @@ public class Engine extends Canvas implements Runnable {
         if (!gameStates.isEmpty()) {
             gameStates.peek().tick();
         }
+        EventManager.getInstance().flush(); // Dispatch events posted while the state ticked
     }
 
     /**
@@ -322,6 +356,7 @@ public class Engine extends Canvas implements Runnable {
         int frames = 0;
         double timer = System.currentTimeMillis();
         requestFocus();
+        startInputCapture();
         
         while (isRunning) {
             long now = System.nanoTime();
@@ -329,9 +364,11 @@ public class Engine extends Canvas implements Runnable {
             lastTime = now;
             
             if (delta >= 1) {
+                long frameStart = System.nanoTime();
                 InputManager.instance.pollEvents();
                 tick();
                 render();
+                InputManager.instance.endFrame(System.nanoTime() - frameStart);
                 frames++;
                 delta--;
             }
@@ -343,9 +380,30 @@ public class Engine extends Canvas implements Runnable {
                 timer += 1000;
             }
         }
+        InputManager.instance.stopRecording();
         stop();
     }
 
+    /**
+     * Starts replaying or recording the input when asked to by the {@link #REPLAY_INPUT_PROPERTY}
+     * or {@link #RECORD_INPUT_PROPERTY} system property. Called on the game thread before the
+     * first frame.
+     */
+    private void startInputCapture() {
+        String replayPath = System.getProperty(REPLAY_INPUT_PROPERTY);
+        String recordPath = System.getProperty(RECORD_INPUT_PROPERTY);
+        try {
+            if (replayPath != null) {
+                InputManager.instance.startReplay(Path.of(replayPath), null);
+            } else if (recordPath != null) {
+                InputManager.instance.startRecording(Path.of(recordPath));
+            }
+        } catch (IOException e) {
+            System.err.println("Error starting the input " + (replayPath != null ? "replay" : "recording")
+                    + ": " + e.getMessage());
+        }
+    }
+
     // --- PUBLIC UTILITY METHODS ---
 
     /**
@@ -0,0 +1,166 @@
+package com.jdstudio.engine.Events;
+
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a listener on an executor instead of the game thread.
+ * <p>
+ * Registered with the {@link EventManager} in place of the listener it wraps. On the game thread
+ * it only snapshots the event data and offers it to a bounded queue, applying the subscription's
+ * {@link EventManager.BackPressure back-pressure policy} when the queue is full, so dispatch never
+ * blocks. At most one drain task per listener runs at a time, so the listener sees its events in
+ * order and never concurrently with itself.
+ * <p>
+ * Only data that is safe to read from another thread is delivered: strings, boxed primitives,
+ * enums, records made of those, and collections and maps of them (copied). {@link EventSnapshot}
+ * data is replaced by its copy, which must itself be made of those. Any other data is mutable game state, so the event is dropped and counted, with a
+ * warning the first time each type is seen.
+ */
+final class AsyncEventListener implements EventListener {
+
+    private final EventListener delegate;
+    private final Executor executor;
+    private final EventManager.BackPressure policy;
+    private final ArrayBlockingQueue<Object> queue;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong dropped;
+    private final Runnable drain = this::drain;
+
+    /** Stands for null data, which the queue cannot hold. */
+    private static final Object NULL_DATA = new Object();
+
+    /** The mutable data types already reported, so each is only warned about once. */
+    private static final Set<Class<?>> WARNED_TYPES = ConcurrentHashMap.newKeySet();
+
+    /** Whether instances of a type can be handed to another thread as they are. */
+    private static final ClassValue<Boolean> IMMUTABLE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (type.isPrimitive() || type == String.class || type == Boolean.class || type == Character.class
+                    || type == Byte.class || type == Short.class || type == Integer.class || type == Long.class
+                    || type == Float.class || type == Double.class || Enum.class.isAssignableFrom(type)) {
+                return true;
+            }
+            if (!type.isRecord()) return false;
+            for (RecordComponent component : type.getRecordComponents()) {
+                Class<?> componentType = component.getType();
+                if (componentType != type && !get(componentType)) return false;
+            }
+            return true;
+        }
+    };
+
+    AsyncEventListener(EventListener delegate, Executor executor, int capacity, EventManager.BackPressure policy, AtomicLong dropped) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.policy = policy;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.dropped = dropped;
+    }
+
+    EventListener getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void onEvent(Object data) {
+        Object snapshot = snapshot(data);
+        if (snapshot == null) {
+            dropped.incrementAndGet();
+            if (WARNED_TYPES.add(data.getClass())) {
+                System.err.println("Off-thread event listener cannot receive mutable " + data.getClass().getName()
+                        + (data instanceof EventSnapshot ? " event data; its snapshot() must return immutable data."
+                                : " event data; implement EventSnapshot to copy it.") + " Such events are dropped.");
+            }
+            return;
+        }
+        if (!queue.offer(snapshot)) {
+            if (policy == EventManager.BackPressure.DROP_NEWEST) {
+                dropped.incrementAndGet();
+                return;
+            }
+            // DROP_OLDEST: make room; retried once, since the drain task may race with us.
+            if (queue.poll() != null) dropped.incrementAndGet();
+            if (!queue.offer(snapshot)) {
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                dropped.addAndGet(queue.size());
+                queue.clear();
+            }
+        }
+    }
+
+    private void drain() {
+        Object data;
+        while ((data = queue.poll()) != null) {
+            try {
+                delegate.onEvent(data == NULL_DATA ? null : data);
+            } catch (RuntimeException e) {
+                System.err.println("Off-thread event listener failed: " + e);
+            }
+        }
+        scheduled.set(false);
+        // An event may have been queued after the last poll but before the flag was cleared.
+        if (!queue.isEmpty()) schedule();
+    }
+
+    /** Drops the events that were not delivered yet. */
+    void clear() {
+        queue.clear();
+    }
+
+    /**
+     * Copies event data so the listener never reads state the game thread is changing.
+     *
+     * @return The copy ({@link #NULL_DATA} for null), or null if the data is mutable and cannot be copied.
+     */
+    private static Object snapshot(Object data) {
+        // The copy goes through the same checks: a snapshot holding a game object is rejected too
+        if (data instanceof EventSnapshot snapshot) data = snapshot.snapshot();
+        if (data == null) return NULL_DATA;
+        if (data instanceof Collection<?> collection) {
+            List<Object> copy = new ArrayList<>(collection.size());
+            for (Object element : collection) {
+                Object value = snapshot(element);
+                if (value == null) return null;
+                copy.add(value == NULL_DATA ? null : value);
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        if (data instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                Object key = snapshot(entry.getKey());
+                Object value = snapshot(entry.getValue());
+                if (key == null || value == null) return null;
+                copy.put(key == NULL_DATA ? null : key, value == NULL_DATA ? null : value);
+            }
+            return Collections.unmodifiableMap(copy);
+        }
+        return IMMUTABLE.get(data.getClass()) ? data : null;
+    }
+}
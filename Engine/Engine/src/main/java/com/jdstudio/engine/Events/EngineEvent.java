@@ -11,5 +11,11 @@ public enum EngineEvent {
     TARGET_EXITED_ZONE,
     INTERACTION_TRIGGERED,
     DIALOGUE_STARTED,
-    DIALOGUE_ENDED;
+    DIALOGUE_ENDED,
+    /**
+     * Posted (queued) when the health of a {@link com.jdstudio.engine.Components.HealthComponent}
+     * changes. The event data is the component itself (or a {@code HealthComponent.State} snapshot
+     * for off-thread listeners); several changes to one component within a tick arrive as one.
+     */
+    HEALTH_CHANGED;
 }
\ No newline at end of file
@@ -1,26 +1,105 @@
 package com.jdstudio.engine.Events;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A singleton manager for a publish-subscribe event system.
  * It allows different parts of the engine to communicate without being directly coupled.
  * Supports subscribing to specific event types or to all events globally.
- * 
+ * <p>
+ * Listeners are stored in immutable arrays, indexed by the event enum's class and ordinal.
+ * Subscribing or unsubscribing replaces the affected array with a modified copy, so triggering an
+ * event is a plain array loop that allocates nothing, and listeners may subscribe or unsubscribe
+ * while an event is being dispatched (the change applies from the next trigger).
+ * <p>
+ * Besides {@link #trigger}, which dispatches immediately, events can be {@link #post posted} to a
+ * queue that the engine {@link #flush flushes} at fixed points of each tick (before and after the
+ * game state ticks). Queued events are dispatched in the order they were posted; events posted
+ * while a flush is running wait for the next flush, so listeners never cascade. Events posted with
+ * a coalescing key replace a pending event of the same type and key (e.g. several HEALTH_CHANGED
+ * events for one object within a tick become one), and {@link #addFlushListener flush listeners}
+ * let systems collect events and process them in one batch.
+ * <p>
+ * Listeners doing slow work (logging, saving, checks against the disk) can be
+ * {@link #subscribeAsync subscribed off-thread}: they run on an executor (virtual threads by
+ * default) and receive a snapshot of the event data through a bounded queue, so the game loop
+ * never waits for them.
+ * <p>
+ * Hot events can be declared as typed {@link EventType}s: their listeners receive the payload with
+ * its real type, and pooled payloads are {@link #obtain obtained} from the type, filled and
+ * {@link #trigger(EventType, Object) triggered}, then recycled once every listener has run.
+ *
  * @author JDStudio
  */
 public class EventManager {
 
+    /** What an off-thread subscription does with a new event when its queue is full. */
+    public enum BackPressure {
+        /** The new event is dropped; the queued ones are kept. */
+        DROP_NEWEST,
+        /** The oldest queued event is dropped to make room for the new one. */
+        DROP_OLDEST
+    }
+
+    /** The queue capacity of off-thread subscriptions made without an explicit one. */
+    public static final int DEFAULT_ASYNC_CAPACITY = 256;
+
+    private static final EventListener[] NO_LISTENERS = new EventListener[0];
+    private static final Runnable[] NO_FLUSH_LISTENERS = new Runnable[0];
+    private static final TypedEventListener<?>[] NO_TYPED_LISTENERS = new TypedEventListener<?>[0];
+
+    /** Gives each event enum class a stable index into {@link #listenersByType}. */
+    private static final AtomicInteger nextTypeId = new AtomicInteger();
+    private static final ClassValue<Integer> TYPE_IDS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return nextTypeId.getAndIncrement();
+        }
+    };
+
+    // Declared after NO_LISTENERS, which the instance fields need.
     private static final EventManager instance = new EventManager();
-    
-    /** A map where keys are event types and values are lists of listeners for that event. */
-    private final Map<Enum<?>, List<EventListener>> listeners = new HashMap<>();
-    
-    /** A list of listeners that want to be notified of ALL events. */
-    private final List<EventListener> globalListeners = new ArrayList<>();
+
+    /**
+     * The listeners of each event type: {@code listenersByType[typeId][ordinal]}. Never modified in
+     * place; every change publishes new arrays.
+     */
+    private volatile EventListener[][][] listenersByType = new EventListener[0][][];
+
+    /** The listeners that want to be notified of ALL events. Never modified in place. */
+    private volatile EventListener[] globalListeners = NO_LISTENERS;
+
+    /** The listeners of each typed event, indexed by {@link EventType#id}. Never modified in place. */
+    private volatile TypedEventListener<?>[][] typedListeners = new TypedEventListener<?>[0][];
+
+    // --- Deferred queue: a ring buffer of posted events, guarded by queueLock ---
+    private final Object queueLock = new Object();
+    private Enum<?>[] queuedTypes = new Enum<?>[64];
+    private Object[] queuedData = new Object[64];
+    private Object[] queuedKeys = new Object[64];
+    private int queueHead = 0;
+    private int queueSize = 0;
+    /** How many events at the head of the queue belong to the flush in progress (they can no longer be coalesced). */
+    private int batchRemaining = 0;
+    /** Open-addressing index of the coalescable pending events: ring slot + 1, or 0 if empty. */
+    private int[] coalesceIndex = new int[128];
+    private boolean flushing = false;
+    private long coalescedCount = 0;
+
+    /** Called after every flush that dispatched events. Never modified in place. */
+    private volatile Runnable[] flushListeners = NO_FLUSH_LISTENERS;
+
+    // --- Off-thread subscribers ---
+    /** The wrappers of off-thread listeners, by listener, so they can be unsubscribed. */
+    private final Map<EventListener, AsyncEventListener> asyncListeners = new IdentityHashMap<>();
+    private Executor asyncExecutor;
+    private final AtomicLong asyncDroppedCount = new AtomicLong();
 
     private EventManager() {}
 
@@ -31,67 +110,513 @@ public class EventManager {
     public static EventManager getInstance() {
         return instance;
     }
-    
+
     /**
      * Subscribes a listener that will be notified of EVERY event triggered in the game.
-     * The event type enum itself will be passed as the data to the listener.
-     * 
+     * The event type enum itself will be passed as the data to the listener (for a typed event,
+     * the enum it is bridged to, or its {@link EventType} when it is not bridged).
+     *
      * @param listener The listener to be added.
      */
-    public void subscribeToAll(EventListener listener) {
-        if (!globalListeners.contains(listener)) {
-            globalListeners.add(listener);
+    public synchronized void subscribeToAll(EventListener listener) {
+        if (indexOf(globalListeners, listener) < 0) {
+            globalListeners = append(globalListeners, listener);
         }
     }
 
     /**
      * Subscribes a listener to a specific event type.
-     * 
+     *
      * @param eventType The type of event to listen for (e.g., EngineEvent.DIALOGUE_STARTED).
      * @param listener  The listener that will be notified.
      */
-    public void subscribe(Enum<?> eventType, EventListener listener) {
-        this.listeners.computeIfAbsent(eventType, k -> new ArrayList<>()).add(listener);
+    public synchronized void subscribe(Enum<?> eventType, EventListener listener) {
+        int typeId = TYPE_IDS.get(eventType.getDeclaringClass());
+        int ordinal = eventType.ordinal();
+
+        EventListener[][][] types = listenersByType;
+        if (typeId >= types.length) {
+            types = Arrays.copyOf(types, typeId + 1);
+        } else {
+            types = types.clone();
+        }
+        EventListener[][] byOrdinal = types[typeId];
+        if (byOrdinal == null) {
+            byOrdinal = new EventListener[eventType.getDeclaringClass().getEnumConstants().length][];
+            Arrays.fill(byOrdinal, NO_LISTENERS);
+        } else {
+            byOrdinal = byOrdinal.clone();
+        }
+        byOrdinal[ordinal] = append(byOrdinal[ordinal], listener);
+        types[typeId] = byOrdinal;
+        listenersByType = types;
+    }
+
+    /**
+     * Subscribes a listener to a specific event type, optionally off the game thread.
+     *
+     * @param eventType The type of event to listen for.
+     * @param listener  The listener that will be notified.
+     * @param offThread If true, the listener runs on the async executor with a queue of
+     *                  {@value #DEFAULT_ASYNC_CAPACITY} events that drops new events when full.
+     */
+    public void subscribe(Enum<?> eventType, EventListener listener, boolean offThread) {
+        if (offThread) {
+            subscribeAsync(eventType, listener, DEFAULT_ASYNC_CAPACITY, BackPressure.DROP_NEWEST);
+        } else {
+            subscribe(eventType, listener);
+        }
+    }
+
+    /**
+     * Subscribes a listener that runs off the game thread. Each event is snapshotted on the game
+     * thread ({@link EventSnapshot} data is copied, collections and maps are copied into
+     * unmodifiable ones, strings, boxed primitives, enums and records of those are passed as is,
+     * and events with any other data are dropped) and queued; the listener then receives the
+     * events in order on the async executor, one at a time. Dispatch never blocks: when the queue
+     * is full, the back-pressure policy decides which event is dropped.
+     *
+     * @param eventType The type of event to listen for.
+     * @param listener  The listener. Must not touch game state that is not in its event data.
+     * @param capacity  The maximum number of events waiting for the listener.
+     * @param policy    What to drop when the queue is full.
+     */
+    public synchronized void subscribeAsync(Enum<?> eventType, EventListener listener, int capacity, BackPressure policy) {
+        AsyncEventListener async = asyncListeners.get(listener);
+        if (async == null) {
+            async = new AsyncEventListener(listener, getAsyncExecutor(), capacity, policy, asyncDroppedCount);
+            asyncListeners.put(listener, async);
+        }
+        subscribe(eventType, async);
+    }
+
+    /**
+     * Sets the executor off-thread listeners run on (e.g. a small fixed pool for a game that wants
+     * to bound its threads). Affects subscriptions made afterwards.
+     *
+     * @param executor The executor, or null to go back to the default.
+     */
+    public synchronized void setAsyncExecutor(Executor executor) {
+        this.asyncExecutor = executor;
+    }
+
+    /**
+     * Gets the executor of off-thread listeners, creating the default one on first use: a
+     * virtual thread per task.
+     */
+    private synchronized Executor getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            asyncExecutor = createDefaultAsyncExecutor();
+        }
+        return asyncExecutor;
+    }
+
+    private static Executor createDefaultAsyncExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /** @return The number of events off-thread listeners never received, because their queue was full or their data was mutable. */
+    public long getAsyncDroppedCount() {
+        return asyncDroppedCount.get();
     }
 
     /**
      * Unsubscribes a listener from a specific event type and from the global list.
-     * 
+     *
      * @param eventType The event type to unsubscribe from.
      * @param listener  The listener to remove.
      */
-    public void unsubscribe(Enum<?> eventType, EventListener listener) {
-        if (this.listeners.containsKey(eventType)) {
-            this.listeners.get(eventType).remove(listener);
+    public synchronized void unsubscribe(Enum<?> eventType, EventListener listener) {
+        AsyncEventListener async = asyncListeners.get(listener);
+        if (async != null) listener = async;
+        EventListener[] current = listenersOf(eventType);
+        int index = indexOf(current, listener);
+        if (index >= 0) {
+            EventListener[][][] types = listenersByType.clone();
+            int typeId = TYPE_IDS.get(eventType.getDeclaringClass());
+            EventListener[][] byOrdinal = types[typeId].clone();
+            byOrdinal[eventType.ordinal()] = remove(current, index);
+            types[typeId] = byOrdinal;
+            listenersByType = types;
         }
         // Also ensure it's removed from the global listeners
-        globalListeners.remove(listener);
+        index = indexOf(globalListeners, listener);
+        if (index >= 0) {
+            globalListeners = remove(globalListeners, index);
+        }
+    }
+
+    /**
+     * Checks if an event type has specific listeners. Useful to skip building event data that
+     * nobody would receive.
+     *
+     * @param eventType The event type.
+     * @return true if at least one listener is subscribed to it.
+     */
+    public boolean hasListeners(Enum<?> eventType) {
+        return listenersOf(eventType).length > 0;
     }
 
     /**
      * Triggers an event, notifying all subscribed listeners (both specific and global).
-     * 
+     *
      * @param eventType The type of event being triggered.
      * @param data      The data associated with the event.
      */
     public void trigger(Enum<?> eventType, Object data) {
-        // Notify specific listeners
-        if (this.listeners.containsKey(eventType)) {
-            // Create a copy to avoid ConcurrentModificationException if a listener unsubscribes
-            new ArrayList<>(this.listeners.get(eventType)).forEach(listener -> listener.onEvent(data));
+        // Snapshots: listeners that unsubscribe during dispatch are still called this time.
+        EventListener[] specific = listenersOf(eventType);
+        for (int i = 0; i < specific.length; i++) {
+            specific[i].onEvent(data);
         }
 
         // Notify all global listeners, passing the event type enum itself as data.
-        new ArrayList<>(globalListeners).forEach(listener -> listener.onEvent(eventType));
+        notifyGlobal(eventType);
+    }
+
+    private void notifyGlobal(Object eventType) {
+        EventListener[] global = globalListeners;
+        for (int i = 0; i < global.length; i++) {
+            global[i].onEvent(eventType);
+        }
+    }
+
+    // --- TYPED EVENTS ---
+
+    /**
+     * Subscribes a listener to a typed event.
+     *
+     * @param eventType The typed event to listen for (e.g. ZoneEvent.ENTERED).
+     * @param listener  The listener that will be notified.
+     */
+    public synchronized <T> void subscribe(EventType<T> eventType, TypedEventListener<? super T> listener) {
+        TypedEventListener<?>[][] types = typedListeners;
+        if (eventType.id >= types.length) {
+            types = Arrays.copyOf(types, eventType.id + 1);
+        } else {
+            types = types.clone();
+        }
+        TypedEventListener<?>[] current = types[eventType.id] == null ? NO_TYPED_LISTENERS : types[eventType.id];
+        TypedEventListener<?>[] copy = Arrays.copyOf(current, current.length + 1);
+        copy[current.length] = listener;
+        types[eventType.id] = copy;
+        typedListeners = types;
+    }
+
+    /**
+     * Unsubscribes a listener from a typed event.
+     *
+     * @param eventType The typed event to unsubscribe from.
+     * @param listener  The listener to remove.
+     */
+    public synchronized <T> void unsubscribe(EventType<T> eventType, TypedEventListener<? super T> listener) {
+        TypedEventListener<?>[] current = typedListenersOf(eventType);
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].equals(listener)) {
+                TypedEventListener<?>[] copy = NO_TYPED_LISTENERS;
+                if (current.length > 1) {
+                    copy = new TypedEventListener<?>[current.length - 1];
+                    System.arraycopy(current, 0, copy, 0, i);
+                    System.arraycopy(current, i + 1, copy, i, current.length - i - 1);
+                }
+                TypedEventListener<?>[][] types = typedListeners.clone();
+                types[eventType.id] = copy;
+                typedListeners = types;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Checks if a typed event has listeners, either typed ones or listeners of the enum event it
+     * is bridged to.
+     *
+     * @param eventType The typed event.
+     * @return true if triggering it would notify at least one specific listener.
+     */
+    public boolean hasListeners(EventType<?> eventType) {
+        if (typedListenersOf(eventType).length > 0) return true;
+        Enum<?> legacy = eventType.getLegacyType();
+        return legacy != null && hasListeners(legacy);
+    }
+
+    /**
+     * Takes a payload from the pool of a typed event, to be filled and passed to
+     * {@link #trigger(EventType, Object)}, which recycles it. Game thread only.
+     *
+     * @param eventType A pooled typed event.
+     * @return A cleared payload.
+     * @throws IllegalStateException if the event type has no pool.
+     */
+    public <T extends PooledEvent> T obtain(EventType<T> eventType) {
+        return eventType.obtain();
+    }
+
+    /**
+     * Triggers a typed event: its typed listeners receive the payload, then the listeners of the
+     * bridged enum event receive a copy of it (built only if there are any) and the global
+     * listeners receive the enum event, or the EventType itself when it is not bridged.
+     * A payload obtained from this event type's pool is recycled when the dispatch ends.
+     *
+     * @param eventType The typed event.
+     * @param payload   The payload.
+     */
+    public <T> void trigger(EventType<T> eventType, T payload) {
+        PooledEvent pooled = payload instanceof PooledEvent event && event.pool == eventType ? event : null;
+        if (pooled != null) pooled.dispatchDepth++;
+        try {
+            TypedEventListener<?>[] specific = typedListenersOf(eventType);
+            for (int i = 0; i < specific.length; i++) {
+                @SuppressWarnings("unchecked")
+                TypedEventListener<T> listener = (TypedEventListener<T>) specific[i];
+                listener.onEvent(payload);
+            }
+
+            Enum<?> legacy = eventType.getLegacyType();
+            if (legacy == null) {
+                notifyGlobal(eventType);
+            } else if (hasListeners(legacy)) {
+                trigger(legacy, eventType.toLegacyData(payload));
+            } else {
+                notifyGlobal(legacy);
+            }
+        } finally {
+            // A listener may trigger the same payload again; only the outermost dispatch recycles it.
+            if (pooled != null && --pooled.dispatchDepth == 0) eventType.recycle(pooled);
+        }
+    }
+
+    private TypedEventListener<?>[] typedListenersOf(EventType<?> eventType) {
+        TypedEventListener<?>[][] types = typedListeners;
+        if (eventType.id >= types.length || types[eventType.id] == null) return NO_TYPED_LISTENERS;
+        return types[eventType.id];
+    }
+
+    // --- DEFERRED EVENTS ---
+
+    /**
+     * Queues an event to be dispatched at the next {@link #flush()}.
+     * Can be called from any thread.
+     *
+     * @param eventType The type of event.
+     * @param data      The data associated with the event.
+     */
+    public void post(Enum<?> eventType, Object data) {
+        post(eventType, data, null);
+    }
+
+    /**
+     * Queues an event to be dispatched at the next {@link #flush()}. If an event of the same type
+     * was already posted with the same key (compared by identity) and is still pending, its data is
+     * replaced instead and it keeps its place in the queue.
+     * Can be called from any thread.
+     *
+     * @param eventType   The type of event.
+     * @param data        The data associated with the event.
+     * @param coalesceKey The object the event is about (e.g. the GameObject whose health changed),
+     *                    or null to never coalesce.
+     */
+    public void post(Enum<?> eventType, Object data, Object coalesceKey) {
+        synchronized (queueLock) {
+            if (coalesceKey != null) {
+                int mask = coalesceIndex.length - 1;
+                int i = coalesceHash(eventType, coalesceKey) & mask;
+                for (int entry; (entry = coalesceIndex[i]) != 0; i = (i + 1) & mask) {
+                    int slot = entry - 1;
+                    if (queuedTypes[slot] == eventType && queuedKeys[slot] == coalesceKey) {
+                        queuedData[slot] = data;
+                        coalescedCount++;
+                        return;
+                    }
+                }
+            }
+            if (queueSize == queuedTypes.length) growQueue();
+            int slot = (queueHead + queueSize) & (queuedTypes.length - 1);
+            queuedTypes[slot] = eventType;
+            queuedData[slot] = data;
+            queuedKeys[slot] = coalesceKey;
+            queueSize++;
+            if (coalesceKey != null) indexCoalescable(slot);
+        }
+    }
+
+    /**
+     * Dispatches the events posted before this call, in order. Events posted by listeners during
+     * the flush are kept for the next one. Called by the engine at fixed points of every tick;
+     * a flush started from inside a listener does nothing.
+     */
+    public void flush() {
+        int batch;
+        synchronized (queueLock) {
+            if (flushing || queueSize == 0) return;
+            flushing = true;
+            batch = queueSize;
+            batchRemaining = batch;
+            Arrays.fill(coalesceIndex, 0); // The batch can no longer be coalesced into
+        }
+        try {
+            for (int i = 0; i < batch; i++) {
+                Enum<?> type;
+                Object data;
+                synchronized (queueLock) {
+                    if (queueSize == 0) break; // A listener reset the manager
+                    int slot = queueHead;
+                    type = queuedTypes[slot];
+                    data = queuedData[slot];
+                    queuedTypes[slot] = null;
+                    queuedData[slot] = null;
+                    queuedKeys[slot] = null;
+                    queueHead = (slot + 1) & (queuedTypes.length - 1);
+                    queueSize--;
+                    batchRemaining--;
+                }
+                trigger(type, data);
+            }
+        } finally {
+            synchronized (queueLock) {
+                flushing = false;
+                batchRemaining = 0;
+            }
+        }
+
+        Runnable[] listeners = flushListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].run();
+        }
+    }
+
+    /**
+     * Adds a callback run after every flush that dispatched events, so a system can gather the
+     * events of a flush in its listeners and process them together.
+     *
+     * @param listener The callback.
+     */
+    public synchronized void addFlushListener(Runnable listener) {
+        Runnable[] copy = Arrays.copyOf(flushListeners, flushListeners.length + 1);
+        copy[flushListeners.length] = listener;
+        flushListeners = copy;
     }
-    
+
+    /**
+     * Removes a flush callback.
+     * @param listener The callback to remove.
+     */
+    public synchronized void removeFlushListener(Runnable listener) {
+        Runnable[] current = flushListeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].equals(listener)) {
+                Runnable[] copy = new Runnable[current.length - 1];
+                System.arraycopy(current, 0, copy, 0, i);
+                System.arraycopy(current, i + 1, copy, i, current.length - i - 1);
+                flushListeners = copy;
+                return;
+            }
+        }
+    }
+
+    /** @return The number of posted events waiting for a flush. */
+    public int getQueuedCount() {
+        synchronized (queueLock) {
+            return queueSize;
+        }
+    }
+
+    /** @return The number of posted events merged into a pending one since the last reset. */
+    public long getCoalescedCount() {
+        synchronized (queueLock) {
+            return coalescedCount;
+        }
+    }
+
+    /** Doubles the ring buffer, moving the pending events to its start. Must hold queueLock. */
+    private void growQueue() {
+        int capacity = queuedTypes.length;
+        Enum<?>[] types = new Enum<?>[capacity * 2];
+        Object[] data = new Object[capacity * 2];
+        Object[] keys = new Object[capacity * 2];
+        for (int i = 0; i < queueSize; i++) {
+            int slot = (queueHead + i) & (capacity - 1);
+            types[i] = queuedTypes[slot];
+            data[i] = queuedData[slot];
+            keys[i] = queuedKeys[slot];
+        }
+        queuedTypes = types;
+        queuedData = data;
+        queuedKeys = keys;
+        queueHead = 0;
+
+        // Slots moved: rebuild the index from the events that are not part of a running flush.
+        coalesceIndex = new int[capacity * 4];
+        for (int i = batchRemaining; i < queueSize; i++) {
+            if (keys[i] != null) indexCoalescable(i);
+        }
+    }
+
+    private void indexCoalescable(int slot) {
+        int mask = coalesceIndex.length - 1;
+        int i = coalesceHash(queuedTypes[slot], queuedKeys[slot]) & mask;
+        while (coalesceIndex[i] != 0) i = (i + 1) & mask;
+        coalesceIndex[i] = slot + 1;
+    }
+
+    private static int coalesceHash(Enum<?> eventType, Object key) {
+        int h = System.identityHashCode(key) * 31 + System.identityHashCode(eventType);
+        return h ^ (h >>> 16);
+    }
+
     /**
-     * Clears all registered listeners, both specific and global.
+     * Gets the current listener snapshot of an event type.
+     */
+    private EventListener[] listenersOf(Enum<?> eventType) {
+        EventListener[][][] types = listenersByType;
+        int typeId = TYPE_IDS.get(eventType.getDeclaringClass());
+        if (typeId >= types.length || types[typeId] == null) return NO_LISTENERS;
+        return types[typeId][eventType.ordinal()];
+    }
+
+    private static int indexOf(EventListener[] listeners, EventListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i].equals(listener)) return i;
+        }
+        return -1;
+    }
+
+    private static EventListener[] append(EventListener[] listeners, EventListener listener) {
+        EventListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+        copy[listeners.length] = listener;
+        return copy;
+    }
+
+    private static EventListener[] remove(EventListener[] listeners, int index) {
+        if (listeners.length == 1) return NO_LISTENERS;
+        EventListener[] copy = new EventListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, copy, 0, index);
+        System.arraycopy(listeners, index + 1, copy, index, listeners.length - index - 1);
+        return copy;
+    }
+
+    /**
+     * Clears all registered listeners (specific, typed, global and flush) and drops the queued events.
      * Useful for resetting the engine state.
      */
-    public void reset() {
-        listeners.clear();
-        globalListeners.clear();
+    public synchronized void reset() {
+        listenersByType = new EventListener[0][][];
+        typedListeners = new TypedEventListener<?>[0][];
+        globalListeners = NO_LISTENERS;
+        flushListeners = NO_FLUSH_LISTENERS;
+        for (AsyncEventListener async : asyncListeners.values()) {
+            async.clear();
+        }
+        asyncListeners.clear();
+        asyncDroppedCount.set(0);
+        synchronized (queueLock) {
+            Arrays.fill(queuedTypes, null);
+            Arrays.fill(queuedData, null);
+            Arrays.fill(queuedKeys, null);
+            Arrays.fill(coalesceIndex, 0);
+            queueHead = queueSize = batchRemaining = 0;
+            coalescedCount = 0;
+        }
         System.out.println("EventManager reset.");
     }
 }
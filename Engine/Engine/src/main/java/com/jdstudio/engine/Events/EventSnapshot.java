@@ -0,0 +1,23 @@
+package com.jdstudio.engine.Events;
+
+/**
+ * Event data that holds mutable state and can copy it for listeners running off the game thread.
+ * <p>
+ * When an event is routed to an off-thread subscriber (see
+ * {@link EventManager#subscribeAsync(Enum, EventListener, int, EventManager.BackPressure)}), data
+ * implementing this interface is replaced by its snapshot, taken on the game thread at dispatch.
+ * Records of immutable values, strings and enums need no snapshot.
+ *
+ * @author JDStudio
+ */
+@FunctionalInterface
+public interface EventSnapshot {
+    /**
+     * Copies the current state of this object.
+     *
+     * @return An immutable copy that is safe to read from another thread, made only of strings,
+     *         boxed primitives, enums, records of those, and collections and maps of them. Other
+     *         copies (e.g. one referencing a game object) are rejected and the event is dropped.
+     */
+    Object snapshot();
+}
@@ -0,0 +1,145 @@
+package com.jdstudio.engine.Events;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A typed event: its listeners ({@link TypedEventListener}) receive payloads of type {@code T}
+ * without casts. Event types are meant to be constants, e.g.
+ * <pre>
+ * public static final EventType&lt;ZoneEvent&gt; ENTERED = EventType.pooled("TARGET_ENTERED_ZONE", ZoneEvent::new);
+ * </pre>
+ * A pooled type keeps a pool of {@link PooledEvent} payloads, so the hot events of the engine
+ * allocate nothing when triggered. A type can also be bridged to an enum event: the enum's
+ * listeners (including {@link EventManager#subscribeAsync off-thread} ones) then receive an
+ * immutable copy of the payload, which is only built when such listeners exist.
+ *
+ * @param <T> The payload type.
+ * @author JDStudio
+ */
+public final class EventType<T> {
+
+    /** The maximum number of idle payloads kept by a pool. */
+    private static final int MAX_POOLED = 64;
+
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    /** The index of this type's listeners in the {@link EventManager}. */
+    final int id = nextId.getAndIncrement();
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final Enum<?> legacyType;
+    private final Function<? super T, ?> legacyData;
+
+    // The pool, used on the game thread only
+    private PooledEvent[] free = new PooledEvent[8];
+    private int freeCount = 0;
+
+    private EventType(String name, Supplier<T> factory, Enum<?> legacyType, Function<? super T, ?> legacyData) {
+        this.name = name;
+        this.factory = factory;
+        this.legacyType = legacyType;
+        this.legacyData = legacyData;
+    }
+
+    /**
+     * Creates a typed event whose payloads are allocated by the caller.
+     *
+     * @param name The name of the event, for debugging.
+     * @return The new event type.
+     */
+    public static <T> EventType<T> create(String name) {
+        return new EventType<>(name, null, null, null);
+    }
+
+    /**
+     * Creates a typed event with a pool of reusable payloads.
+     *
+     * @param name    The name of the event, for debugging.
+     * @param factory Creates a payload when the pool is empty.
+     * @return The new event type.
+     */
+    public static <T extends PooledEvent> EventType<T> pooled(String name, Supplier<T> factory) {
+        return new EventType<>(name, factory, null, null);
+    }
+
+    /**
+     * Creates a typed event with a pool of reusable payloads, bridged to an enum event.
+     *
+     * @param name       The name of the event, for debugging.
+     * @param factory    Creates a payload when the pool is empty.
+     * @param legacyType The enum event triggered along with this one.
+     * @param legacyData Copies a payload into the immutable data the enum's listeners receive.
+     * @return The new event type.
+     */
+    public static <T extends PooledEvent> EventType<T> pooled(String name, Supplier<T> factory,
+                                                               Enum<?> legacyType, Function<? super T, ?> legacyData) {
+        return new EventType<>(name, factory, legacyType, legacyData);
+    }
+
+    /** @return The name of the event. */
+    public String getName() {
+        return name;
+    }
+
+    /** @return The enum event this type is bridged to, or null. */
+    public Enum<?> getLegacyType() {
+        return legacyType;
+    }
+
+    /** @return true if this type keeps a pool of payloads. */
+    public boolean isPooled() {
+        return factory != null;
+    }
+
+    /** @return The number of idle payloads in the pool. */
+    public int getPooledCount() {
+        return freeCount;
+    }
+
+    /**
+     * Builds the data the bridged enum's listeners receive.
+     */
+    Object toLegacyData(T payload) {
+        return legacyData == null ? payload : legacyData.apply(payload);
+    }
+
+    /**
+     * Takes a payload from the pool, or creates one.
+     */
+    T obtain() {
+        if (factory == null) {
+            throw new IllegalStateException("Event type " + name + " has no payload pool.");
+        }
+        T payload;
+        if (freeCount > 0) {
+            @SuppressWarnings("unchecked")
+            T pooled = (T) free[--freeCount];
+            free[freeCount] = null;
+            payload = pooled;
+        } else {
+            payload = factory.get();
+        }
+        ((PooledEvent) payload).pool = this;
+        return payload;
+    }
+
+    /**
+     * Clears a payload obtained from this pool and returns it to the pool.
+     */
+    void recycle(PooledEvent payload) {
+        payload.pool = null;
+        payload.clear();
+        if (freeCount == MAX_POOLED) return;
+        if (freeCount == free.length) free = Arrays.copyOf(free, free.length * 2);
+        free[freeCount++] = payload;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
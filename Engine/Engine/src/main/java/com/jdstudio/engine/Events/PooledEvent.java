@@ -0,0 +1,26 @@
+package com.jdstudio.engine.Events;
+
+/**
+ * A mutable event payload that is reused instead of allocated for every event.
+ * <p>
+ * Payloads are taken from their event type's pool with {@link EventManager#obtain(EventType)},
+ * filled by the caller and passed to {@link EventManager#trigger(EventType, Object)}, which returns
+ * them to the pool once every listener has run. Payloads created with {@code new} are never
+ * pooled. Obtaining and triggering pooled payloads must happen on the game thread.
+ *
+ * @author JDStudio
+ */
+public abstract class PooledEvent {
+
+    /** The type whose pool this payload was obtained from, or null while it sits in the pool. */
+    EventType<?> pool;
+
+    /** How many dispatches of this payload are running; it is recycled when the last one ends. */
+    int dispatchDepth;
+
+    /**
+     * Clears the references held by this payload before it goes back to its pool, so pooled
+     * payloads do not keep objects alive.
+     */
+    protected abstract void clear();
+}
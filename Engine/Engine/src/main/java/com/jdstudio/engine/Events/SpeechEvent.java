@@ -0,0 +1,57 @@
+package com.jdstudio.engine.Events;
+
+import com.jdstudio.engine.Object.GameObject;
+
+/**
+ * The pooled payload of the {@link #SPOKE} event, triggered when a character speaks. The event is
+ * bridged to {@code EngineEvent.CHARACTER_SPOKE}, whose listeners receive a
+ * {@link CharacterSpokeEventData}.
+ *
+ * @author JDStudio
+ */
+public final class SpeechEvent extends PooledEvent {
+
+    /** Triggered when a character says something. */
+    public static final EventType<SpeechEvent> SPOKE =
+            EventType.pooled("CHARACTER_SPOKE", SpeechEvent::new, EngineEvent.CHARACTER_SPOKE, SpeechEvent::toData);
+
+    private GameObject speaker;
+    private String message;
+    private float durationInSeconds;
+
+    /**
+     * Fills this payload.
+     *
+     * @param speaker           The GameObject that is speaking.
+     * @param message           The text message spoken by the character.
+     * @param durationInSeconds The duration for which the message should be displayed, in seconds.
+     * @return This payload, for chaining.
+     */
+    public SpeechEvent set(GameObject speaker, String message, float durationInSeconds) {
+        this.speaker = speaker;
+        this.message = message;
+        this.durationInSeconds = durationInSeconds;
+        return this;
+    }
+
+    /** @return The GameObject that is speaking. */
+    public GameObject getSpeaker() { return speaker; }
+
+    /** @return The text message spoken by the character. */
+    public String getMessage() { return message; }
+
+    /** @return The duration for which the message should be displayed, in seconds. */
+    public float getDurationInSeconds() { return durationInSeconds; }
+
+    /** @return An immutable copy of this payload. */
+    public CharacterSpokeEventData toData() {
+        return new CharacterSpokeEventData(speaker, message, durationInSeconds);
+    }
+
+    @Override
+    protected void clear() {
+        speaker = null;
+        message = null;
+        durationInSeconds = 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.jdstudio.engine.Events;
+
+/**
+ * A listener of a typed event (see {@link EventType}). Unlike {@link EventListener}, it receives
+ * its payload with its real type, so it needs no casts or {@code instanceof} checks.
+ * <p>
+ * Pooled payloads ({@link PooledEvent}) are recycled as soon as the dispatch ends: a listener
+ * must copy what it needs instead of keeping a reference to the payload.
+ *
+ * @param <T> The payload type of the event.
+ * @author JDStudio
+ */
+@FunctionalInterface
+public interface TypedEventListener<T> {
+    /**
+     * Called when an event of the subscribed type is triggered.
+     *
+     * @param event The event payload. Only valid during this call if it is a {@link PooledEvent}.
+     */
+    void onEvent(T event);
+}
@@ -0,0 +1,63 @@
+package com.jdstudio.engine.Events;
+
+import com.jdstudio.engine.Components.InteractionZone;
+import com.jdstudio.engine.Object.GameObject;
+
+/**
+ * The pooled payload of the zone interaction events, triggered by an InteractionComponent when a
+ * target enters or exits one of its zones. The events are bridged to
+ * {@code EngineEvent.TARGET_ENTERED_ZONE} and {@code EngineEvent.TARGET_EXITED_ZONE}, whose
+ * listeners receive an {@link InteractionEventData}.
+ *
+ * @author JDStudio
+ */
+public final class ZoneEvent extends PooledEvent {
+
+    /** Triggered when a target enters a zone. */
+    public static final EventType<ZoneEvent> ENTERED =
+            EventType.pooled("TARGET_ENTERED_ZONE", ZoneEvent::new, EngineEvent.TARGET_ENTERED_ZONE, ZoneEvent::toData);
+
+    /** Triggered when a target exits a zone. */
+    public static final EventType<ZoneEvent> EXITED =
+            EventType.pooled("TARGET_EXITED_ZONE", ZoneEvent::new, EngineEvent.TARGET_EXITED_ZONE, ZoneEvent::toData);
+
+    private GameObject zoneOwner;
+    private GameObject target;
+    private InteractionZone zone;
+
+    /**
+     * Fills this payload.
+     *
+     * @param zoneOwner The GameObject that owns the InteractionZone.
+     * @param target    The GameObject that entered or exited the zone (e.g., the player).
+     * @param zone      The InteractionZone involved in the event.
+     * @return This payload, for chaining.
+     */
+    public ZoneEvent set(GameObject zoneOwner, GameObject target, InteractionZone zone) {
+        this.zoneOwner = zoneOwner;
+        this.target = target;
+        this.zone = zone;
+        return this;
+    }
+
+    /** @return The GameObject that owns the InteractionZone. */
+    public GameObject getZoneOwner() { return zoneOwner; }
+
+    /** @return The GameObject that entered or exited the zone. */
+    public GameObject getTarget() { return target; }
+
+    /** @return The InteractionZone involved in the event. */
+    public InteractionZone getZone() { return zone; }
+
+    /** @return An immutable copy of this payload. */
+    public InteractionEventData toData() {
+        return new InteractionEventData(zoneOwner, target, zone);
+    }
+
+    @Override
+    protected void clear() {
+        zoneOwner = null;
+        target = null;
+        zone = null;
+    }
+}
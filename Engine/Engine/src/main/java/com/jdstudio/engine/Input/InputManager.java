@@ -5,10 +5,13 @@ import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +27,26 @@ import com.jdstudio.engine.Engine;
  * It provides methods to check the state of individual keys/buttons and to query
  * custom-defined actions (e.g., "MOVE_UP", "INTERACT").
  * It uses an event queue for reliable input processing, ensuring no events are missed.
+ * <p>
+ * Actions are interned into integer ids, and the state of every action is resolved once per
+ * {@link #pollEvents()} into pressed, just-pressed and released bitsets, so an action query is a
+ * single bit test. Code that queries actions every tick can keep the id from
+ * {@link #getActionId(String)} and use the {@code int} overloads to skip the name lookup.
+ * <p>
+ * Input can be {@link #startRecording recorded} to a compact binary file, stamped with the tick
+ * it was polled on, and {@link #startReplay replayed} later through the same polling path. Since
+ * the engine ticks at a fixed rate, a replay gives the game the same input on the same ticks,
+ * which makes runs repeatable (e.g. to compare frame times between builds). The engine reports
+ * the time of every frame through {@link #endFrame(long)}: it is written to the recording and,
+ * during a replay, compared with the recorded time when the replay ends. The engine starts a
+ * recording or replay on its own when launched with the {@code jdstudio.recordInput} or
+ * {@code jdstudio.replayInput} system property (see {@link Engine#RECORD_INPUT_PROPERTY}).
+ * <p>
+ * Every queued event is stamped with {@link System#nanoTime()}, so the manager can report the
+ * input latency (from the event to the poll that consumed it), and presses and releases are
+ * counted per tick, so a tap shorter than a tick still reads as "just pressed" and "released".
+ * The mouse position is written by the AWT thread as one atomic value and read once per poll,
+ * so it never tears and stays the same for the whole tick.
  * 
  * @author JDStudio
  */
@@ -35,8 +58,9 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
      * Represents a single input event (key press/release, mouse button press/release).
      * @param code The key code (for keyboard) or a negative button code (for mouse).
      * @param pressed True if the key/button was pressed, false if released.
+     * @param timeNanos The {@link System#nanoTime()} at which the event was received.
      */
-    private record InputEvent(int code, boolean pressed) {}
+    private record InputEvent(int code, boolean pressed, long timeNanos) {}
     
     /** A thread-safe queue to store incoming input events. */
     private final ConcurrentLinkedQueue<InputEvent> eventQueue = new ConcurrentLinkedQueue<>();
@@ -54,15 +78,30 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
     /** State of Alt key. */
     private boolean isAltDown;
 
-    /** Current X coordinate of the mouse. */
+    /** Number of times each key went down / up during the last poll, so taps are never lost. */
+    private final int[] keyPresses = new int[256];
+    private final int[] keyReleases = new int[256];
+
+    /** X coordinate of the mouse, read from {@link #latestMouse} once per poll. */
     private int mouseX;
-    /** Current Y coordinate of the mouse. */
+    /** Y coordinate of the mouse, read from {@link #latestMouse} once per poll. */
     private int mouseY;
+    /** The last mouse position reported by the AWT thread, packed as {@code x << 32 | y}. */
+    private volatile long latestMouse;
     
     /** Current state of mouse buttons (true if pressed, false otherwise). */
     private final boolean[] mouseButtons = new boolean[4]; // 0=N/A, 1=Left, 2=Middle, 3=Right
     /** Previous state of mouse buttons (used for "just pressed" logic). */
     private final boolean[] prevMouseButtons = new boolean[4];
+    /** Number of times each mouse button went down / up during the last poll. */
+    private final int[] buttonPresses = new int[4];
+    private final int[] buttonReleases = new int[4];
+
+    // --- LATENCY METRICS (nanoseconds from an event to the poll that consumed it) ---
+    private long latencyLastFrame = -1;
+    private long peakLatency = 0;
+    private long latencyTotal = 0;
+    private long latencyEvents = 0;
     
     // --- ACTION MAPPING SYSTEM ---
     /** Path to the default engine keybindings JSON file. */
@@ -80,6 +119,29 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
     /** Map storing action names to a list of their associated key bindings. */
     private final Map<String, List<KeyBinding>> keyBindings = new HashMap<>();
 
+    // --- RESOLVED ACTION STATE ---
+    /** Interned action ids, by action name. */
+    private final Map<String, Integer> actionIds = new HashMap<>();
+    /** The bindings of each action, indexed by action id. */
+    private KeyBinding[][] bindingsById = new KeyBinding[0][];
+    /** Bitsets indexed by action id, resolved from the bindings once per pollEvents(). */
+    private long[] actionPressed = new long[1];
+    private long[] actionJustPressed = new long[1];
+    private long[] actionReleased = new long[1];
+
+    // --- RECORDING AND REPLAY ---
+    /** The file being recorded, or null. */
+    private InputRecording.Writer recorder;
+    /** Set when a recording starts, so the next poll records the keys already held down. */
+    private boolean recordHeldState;
+    private int recordedMouseX;
+    private int recordedMouseY;
+    /** The recording being replayed, or null. */
+    private InputRecording.Replay replay;
+    private Runnable onReplayFinished;
+    /** The number of polls since the recording or replay started. */
+    private long recordingTick;
+
     /**
      * Private constructor to enforce singleton pattern.
      * Loads default engine keybindings.
@@ -113,6 +175,7 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
             
             for (String action : json.keySet()) {
                 keyBindings.computeIfAbsent(action, k -> new ArrayList<>()); // Ensure list exists
+                int actionId = internAction(action);
                 JSONArray bindingsForAction = json.getJSONArray(action);
                 for (int i = 0; i < bindingsForAction.length(); i++) {
                     JSONObject bindingJson = bindingsForAction.getJSONObject(i);
@@ -128,7 +191,9 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
                         System.err.println("Warning: Key '" + keyString + "' in file '" + resourcePath + "' is invalid.");
                     }
                 }
+                compileAction(action, actionId);
             }
+            resolveActions();
             System.out.println("Key bindings (with combinations) successfully merged from: " + resourcePath);
         } catch (Exception e) {
             System.err.println("Error processing bindings file '" + resourcePath + "'.");
@@ -145,24 +210,340 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
         // 1. Archive the previous state
         System.arraycopy(keys, 0, prevKeys, 0, keys.length);
         System.arraycopy(mouseButtons, 0, prevMouseButtons, 0, mouseButtons.length);
-        
-        // 2. Process all events that have accumulated in the queue since the last frame
-        InputEvent event;
-        while ((event = eventQueue.poll()) != null) {
-            if (event.code >= 0 && event.code < keys.length) { // Keyboard Event
-                keys[event.code] = event.pressed;
-                if (event.code == KeyEvent.VK_CONTROL) isCtrlDown = event.pressed;
-                if (event.code == KeyEvent.VK_SHIFT) isShiftDown = event.pressed;
-                if (event.code == KeyEvent.VK_ALT) isAltDown = event.pressed;
-            } else if (event.code < 0) { // Mouse Event (using negative codes)
-                int buttonIndex = Math.abs(event.code);
-                if (buttonIndex < mouseButtons.length) {
-                    mouseButtons[buttonIndex] = event.pressed;
+        Arrays.fill(keyPresses, 0);
+        Arrays.fill(keyReleases, 0);
+        Arrays.fill(buttonPresses, 0);
+        Arrays.fill(buttonReleases, 0);
+        latencyLastFrame = -1;
+
+        if (replay != null && recordingTick >= replay.length()) {
+            finishReplay();
+        }
+
+        // 2. Process all events that have accumulated in the queue since the last frame,
+        //    or the recorded events of this tick while replaying
+        if (replay != null) {
+            eventQueue.clear(); // Live input is ignored during a replay
+            applyReplayedEvents();
+            recordingTick++;
+        } else {
+            long mouse = latestMouse;
+            mouseX = (int) (mouse >> 32);
+            mouseY = (int) mouse;
+            if (recordHeldState) recordHeldState();
+
+            long now = System.nanoTime();
+            InputEvent event;
+            while ((event = eventQueue.poll()) != null) {
+                long latency = now - event.timeNanos;
+                latencyLastFrame = Math.max(latencyLastFrame, latency);
+                peakLatency = Math.max(peakLatency, latency);
+                latencyTotal += latency;
+                latencyEvents++;
+
+                applyEvent(event.code, event.pressed);
+                if (recorder != null) record(event.pressed ? InputRecording.PRESS : InputRecording.RELEASE, event.code);
+            }
+            if (recorder != null) {
+                recordMouse();
+                recordingTick++;
+            }
+        }
+
+        // 3. Resolve every action once, so action queries are bit tests
+        resolveActions();
+    }
+
+    /**
+     * Updates the key, button and modifier state with one event.
+     * @param code    The key code, or a negative mouse button code.
+     * @param pressed True if the key/button was pressed.
+     */
+    private void applyEvent(int code, boolean pressed) {
+        if (code >= 0 && code < keys.length) { // Keyboard Event
+            // Only transitions count: auto-repeated presses of a held key do not
+            if (pressed && !keys[code]) keyPresses[code]++;
+            if (!pressed && keys[code]) keyReleases[code]++;
+            keys[code] = pressed;
+            if (code == KeyEvent.VK_CONTROL) isCtrlDown = pressed;
+            if (code == KeyEvent.VK_SHIFT) isShiftDown = pressed;
+            if (code == KeyEvent.VK_ALT) isAltDown = pressed;
+        } else if (code < 0) { // Mouse Event (using negative codes)
+            int buttonIndex = Math.abs(code);
+            if (buttonIndex < mouseButtons.length) {
+                if (pressed && !mouseButtons[buttonIndex]) buttonPresses[buttonIndex]++;
+                if (!pressed && mouseButtons[buttonIndex]) buttonReleases[buttonIndex]++;
+                mouseButtons[buttonIndex] = pressed;
+            }
+        }
+    }
+
+    // --- RECORDING AND REPLAY ---
+
+    /**
+     * Starts recording the input to a file, from the next poll on. The keys and buttons held down
+     * at that point are recorded too, so the replay starts from the same state. Stops any
+     * recording or replay in progress. Must be called from the game thread.
+     *
+     * @param path The file to write.
+     * @throws IOException if the file cannot be created.
+     */
+    public void startRecording(Path path) throws IOException {
+        stopRecording();
+        stopReplay();
+        recorder = new InputRecording.Writer(path);
+        recordingTick = 0;
+        recordHeldState = true;
+        System.out.println("Recording input to: " + path);
+    }
+
+    /**
+     * Stops the recording in progress and closes its file.
+     */
+    public void stopRecording() {
+        if (recorder == null) return;
+        try {
+            recorder.finish(recordingTick);
+            System.out.println("Input recording stopped after " + recordingTick + " ticks.");
+        } catch (IOException e) {
+            System.err.println("Error finishing the input recording.");
+            e.printStackTrace();
+        }
+        recorder = null;
+    }
+
+    /**
+     * Replays a recording from the next poll on: live input is ignored and the recorded events are
+     * applied on the ticks they were recorded in. When the recording ends, every key is released,
+     * live input resumes and the callback runs. Stops any recording or replay in progress.
+     * Must be called from the game thread.
+     *
+     * @param path       The recording to replay.
+     * @param onFinished Called on the game thread when the replay ends (e.g. to report frame
+     *                   times and exit), or null.
+     * @throws IOException if the file cannot be read or is not a valid recording.
+     */
+    public void startReplay(Path path, Runnable onFinished) throws IOException {
+        InputRecording.Replay loaded = new InputRecording.Replay(path);
+        stopRecording();
+        stopReplay();
+        clearState();
+        recordingTick = 0;
+        onReplayFinished = onFinished;
+        replay = loaded;
+        System.out.println("Replaying input from: " + path + " (" + loaded.length() + " ticks)");
+    }
+
+    /**
+     * Stops the replay in progress without running its callback, and releases every key.
+     */
+    public void stopReplay() {
+        if (replay == null) return;
+        replay = null;
+        onReplayFinished = null;
+        clearState();
+    }
+
+    /**
+     * Reports how long the frame that just ended took. Called by the engine after every frame.
+     * While recording, the time is written to the file and closes the tick, so a recording the
+     * game never stopped still replays up to here; while replaying, it is kept and compared with
+     * the recorded time when the replay ends.
+     *
+     * @param frameNanos The time the frame took (input, tick and render), in nanoseconds.
+     */
+    public void endFrame(long frameNanos) {
+        if (recordingTick == 0) return; // Started during this frame, which was not polled
+        long tick = recordingTick - 1;
+        if (recorder != null) {
+            try {
+                recorder.writeFrame(tick, frameNanos);
+            } catch (IOException e) {
+                recordingFailed(e);
+            }
+        } else if (replay != null) {
+            replay.setReplayedFrame(tick, frameNanos);
+        }
+    }
+
+    /** @return true while the input is being recorded. */
+    public boolean isRecording() { return recorder != null; }
+
+    /** @return true while a recording is being replayed. */
+    public boolean isReplaying() { return replay != null; }
+
+    /** @return The number of ticks polled since the current recording or replay started. */
+    public long getRecordingTick() { return recordingTick; }
+
+    private void finishReplay() {
+        Runnable callback = onReplayFinished;
+        String report = replay.frameTimeReport();
+        stopReplay();
+        System.out.println("Input replay finished. Frame times: " + report);
+        if (callback != null) callback.run();
+    }
+
+    private void applyReplayedEvents() {
+        InputRecording.Replay current = replay;
+        while (current.hasRecord(recordingTick)) {
+            switch (current.kind()) {
+                case InputRecording.PRESS -> applyEvent(current.first(), true);
+                case InputRecording.RELEASE -> applyEvent(current.first(), false);
+                case InputRecording.HELD -> {
+                    // Held since before the recording: down now and on the previous tick, not a press
+                    applyEvent(current.first(), true);
+                    int code = current.first();
+                    if (code >= 0 && code < prevKeys.length) {
+                        prevKeys[code] = true;
+                        keyPresses[code] = 0;
+                    } else if (code < 0 && -code < prevMouseButtons.length) {
+                        prevMouseButtons[-code] = true;
+                        buttonPresses[-code] = 0;
+                    }
+                }
+                case InputRecording.MOVE -> {
+                    mouseX = current.first();
+                    mouseY = current.second();
                 }
             }
+            current.next();
         }
     }
 
+    /** Records the keys, buttons and mouse position at the start of a recording. */
+    private void recordHeldState() {
+        recordHeldState = false;
+        for (int code = 0; code < keys.length; code++) {
+            if (keys[code]) record(InputRecording.HELD, code);
+        }
+        for (int button = 1; button < mouseButtons.length; button++) {
+            if (mouseButtons[button]) record(InputRecording.HELD, -button);
+        }
+        if (recorder != null) {
+            recordedMouseX = mouseX;
+            recordedMouseY = mouseY;
+            writeMove();
+        }
+    }
+
+    private void recordMouse() {
+        if (mouseX == recordedMouseX && mouseY == recordedMouseY) return;
+        recordedMouseX = mouseX;
+        recordedMouseY = mouseY;
+        writeMove();
+    }
+
+    private void writeMove() {
+        try {
+            recorder.writeMove(recordingTick, recordedMouseX, recordedMouseY);
+        } catch (IOException e) {
+            recordingFailed(e);
+        }
+    }
+
+    private void record(byte kind, int code) {
+        if (recorder == null) return;
+        try {
+            recorder.writeKey(recordingTick, kind, code);
+        } catch (IOException e) {
+            recordingFailed(e);
+        }
+    }
+
+    private void recordingFailed(IOException e) {
+        System.err.println("Error writing the input recording; recording stopped.");
+        e.printStackTrace();
+        try {
+            recorder.close();
+        } catch (IOException ignored) {
+            // Already failing
+        }
+        recorder = null;
+    }
+
+    /** Releases every key and button. */
+    private void clearState() {
+        Arrays.fill(keys, false);
+        Arrays.fill(prevKeys, false);
+        Arrays.fill(mouseButtons, false);
+        Arrays.fill(prevMouseButtons, false);
+        Arrays.fill(keyPresses, 0);
+        Arrays.fill(keyReleases, 0);
+        Arrays.fill(buttonPresses, 0);
+        Arrays.fill(buttonReleases, 0);
+        isCtrlDown = isShiftDown = isAltDown = false;
+        resolveActions();
+    }
+
+    /**
+     * Evaluates the bindings of every action against the current key, button and modifier state
+     * and stores the results in the action bitsets.
+     */
+    private void resolveActions() {
+        Arrays.fill(actionPressed, 0);
+        Arrays.fill(actionJustPressed, 0);
+        Arrays.fill(actionReleased, 0);
+        for (int id = 0; id < bindingsById.length; id++) {
+            long bit = 1L << id;
+            int word = id >>> 6;
+            for (KeyBinding binding : bindingsById[id]) {
+                // Modifiers must match exactly, so "CTRL+S" and "S" never fire together
+                if (binding.ctrl != isCtrlDown || binding.shift != isShiftDown || binding.alt != isAltDown) continue;
+                int keyCode = binding.keyCode();
+                if (isDown(keyCode, keys, mouseButtons)) actionPressed[word] |= bit;
+                if (countOf(keyCode, keyPresses, buttonPresses) > 0) actionJustPressed[word] |= bit;
+                if (countOf(keyCode, keyReleases, buttonReleases) > 0) actionReleased[word] |= bit;
+            }
+        }
+    }
+
+    /**
+     * Reads a key (positive code) or mouse button (negative code) from one of the count arrays.
+     */
+    private static int countOf(int keyCode, int[] keyCounts, int[] buttonCounts) {
+        if (keyCode >= 0) return keyCode < keyCounts.length ? keyCounts[keyCode] : 0;
+        int buttonIndex = -keyCode;
+        return buttonIndex < buttonCounts.length ? buttonCounts[buttonIndex] : 0;
+    }
+
+    /**
+     * Reads a key (positive code) or mouse button (negative code) from one of the state arrays.
+     * Runs during construction too, so it cannot go through {@code instance}.
+     */
+    private static boolean isDown(int keyCode, boolean[] keyState, boolean[] buttonState) {
+        if (keyCode >= 0) return keyCode < keyState.length && keyState[keyCode];
+        int buttonIndex = -keyCode;
+        return buttonIndex < buttonState.length && buttonState[buttonIndex];
+    }
+
+    /**
+     * Gets the id of an action, assigning one if the action is new.
+     */
+    private int internAction(String action) {
+        Integer id = actionIds.get(action);
+        if (id != null) return id;
+
+        int newId = bindingsById.length;
+        actionIds.put(action, newId);
+        bindingsById = Arrays.copyOf(bindingsById, newId + 1);
+        compileAction(action, newId);
+        int words = (newId >>> 6) + 1;
+        if (words > actionPressed.length) {
+            actionPressed = Arrays.copyOf(actionPressed, words);
+            actionJustPressed = Arrays.copyOf(actionJustPressed, words);
+            actionReleased = Arrays.copyOf(actionReleased, words);
+        }
+        return newId;
+    }
+
+    /**
+     * Copies the bindings of an action into the array used when resolving actions.
+     */
+    private void compileAction(String action, int actionId) {
+        List<KeyBinding> bindings = keyBindings.get(action);
+        bindingsById[actionId] = bindings == null ? new KeyBinding[0] : bindings.toArray(new KeyBinding[0]);
+    }
+
     /**
      * Converts a string representation of a key (e.g., "A", "SPACE", "MOUSE1") to its corresponding key code.
      * Mouse buttons are represented by negative integers.
@@ -185,41 +566,28 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
         return (int) field.get(null);
     }
 
-    // --- ACTION CHECKING METHODS ---
     /**
-     * Helper method to check the state of a binding (pressed, just pressed, released).
-     * @param binding The KeyBinding to check.
-     * @param state The desired state ("pressed", "just_pressed", "released").
-     * @return True if the binding matches the state and modifiers, false otherwise.
+     * Binds a single key to an action without modifier keys.
+     * @param action The name of the action.
+     * @param keyCode The key code to bind.
      */
-    private static boolean checkBindingState(KeyBinding binding, String state) {
-        int keyCode = binding.keyCode();
-        boolean isCorrectState = false;
-
-        // Check if it's a keyboard key or mouse button
-        if (keyCode >= 0) { // Keyboard
-            switch (state) {
-                case "pressed": isCorrectState = isKeyPressed(keyCode); break;
-                case "just_pressed": isCorrectState = isKeyJustPressed(keyCode); break;
-                case "released": isCorrectState = isKeyReleased(keyCode); break;
-            }
-        } else { // Mouse (negative codes)
-            switch (state) {
-                case "pressed": isCorrectState = isMouseButtonPressed(keyCode); break;
-                case "just_pressed": isCorrectState = isMouseButtonJustPressed(keyCode); break;
-                case "released": isCorrectState = isMouseButtonReleased(keyCode); break;
-            }
-        }
-        
-        return isCorrectState && checkModifiers(binding);
+    public void bindKey(String action, int keyCode) {
+        keyBindings.computeIfAbsent(action, k -> new ArrayList<>()).add(new KeyBinding(keyCode, false, false, false));
+        compileAction(action, internAction(action));
+        resolveActions();
     }
 
     /**
-     * Binds a single key to an action without modifier keys.
-     * @param action The name of the action.
-     * @param keyCode The key code to bind.
+     * Gets the integer id of an action, for the {@code int} overloads of the action queries.
+     * Ids stay valid for the whole run; an action that has no bindings yet gets an id too, and
+     * starts responding once it is bound.
+     *
+     * @param action The name of the action (e.g., "MOVE_UP").
+     * @return The id of the action.
      */
-    public void bindKey(String action, int keyCode) { keyBindings.computeIfAbsent(action, k -> new ArrayList<>()).add(new KeyBinding(keyCode, false, false, false)); }
+    public static int getActionId(String action) {
+        return instance.internAction(action);
+    }
     
     // --- PUBLIC ACTION CHECKING METHODS ---
     /**
@@ -228,12 +596,17 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
      * @return true if any bound key/button for the action is pressed, false otherwise.
      */
     public static boolean isActionPressed(String action) {
-        List<KeyBinding> bindings = instance.keyBindings.get(action);
-        if (bindings == null) return false;
-        for (KeyBinding binding : bindings) {
-            if (checkBindingState(binding, "pressed")) return true;
-        }
-        return false;
+        Integer id = instance.actionIds.get(action);
+        return id != null && testBit(instance.actionPressed, id);
+    }
+
+    /**
+     * Same as {@link #isActionPressed(String)}, for an action id from {@link #getActionId(String)}.
+     * @param actionId The id of the action.
+     * @return The same result as the name-based query.
+     */
+    public static boolean isActionPressed(int actionId) {
+        return testBit(instance.actionPressed, actionId);
     }
 
     /**
@@ -242,12 +615,17 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
      * @return true if any bound key/button for the action was just pressed, false otherwise.
      */
     public static boolean isActionJustPressed(String action) {
-        List<KeyBinding> bindings = instance.keyBindings.get(action);
-        if (bindings == null) return false;
-        for (KeyBinding binding : bindings) {
-            if (checkBindingState(binding, "just_pressed")) return true;
-        }
-        return false;
+        Integer id = instance.actionIds.get(action);
+        return id != null && testBit(instance.actionJustPressed, id);
+    }
+
+    /**
+     * Same as {@link #isActionJustPressed(String)}, for an action id from {@link #getActionId(String)}.
+     * @param actionId The id of the action.
+     * @return The same result as the name-based query.
+     */
+    public static boolean isActionJustPressed(int actionId) {
+        return testBit(instance.actionJustPressed, actionId);
     }
     
     /**
@@ -256,48 +634,50 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
      * @return true if any bound key/button for the action was just released, false otherwise.
      */
     public static boolean isActionReleased(String action) {
-        List<KeyBinding> bindings = instance.keyBindings.get(action);
-        if (bindings == null) return false;
-        for (KeyBinding binding : bindings) {
-            if (checkBindingState(binding, "released")) return true;
-        }
-        return false;
+        Integer id = instance.actionIds.get(action);
+        return id != null && testBit(instance.actionReleased, id);
     }
-    
+
     /**
-     * Helper method that checks if the current state of modifier keys
-     * matches what is required by a KeyBinding.
-     * @param binding The KeyBinding to check.
-     * @return true if modifiers match, false otherwise.
+     * Same as {@link #isActionReleased(String)}, for an action id from {@link #getActionId(String)}.
+     * @param actionId The id of the action.
+     * @return The same result as the name-based query.
      */
-    private static boolean checkModifiers(KeyBinding binding) {
-        return binding.ctrl == instance.isCtrlDown &&
-               binding.shift == instance.isShiftDown &&
-               binding.alt == instance.isAltDown;
+    public static boolean isActionReleased(int actionId) {
+        return testBit(instance.actionReleased, actionId);
+    }
+    
+    private static boolean testBit(long[] bits, int index) {
+        int word = index >>> 6;
+        return index >= 0 && word < bits.length && (bits[word] & (1L << index)) != 0;
     }
 
     // --- LISTENERS NOW ONLY ADD EVENTS TO THE QUEUE ---
     @Override
-    public void keyPressed(KeyEvent e) { eventQueue.add(new InputEvent(e.getKeyCode(), true)); }
+    public void keyPressed(KeyEvent e) { eventQueue.add(new InputEvent(e.getKeyCode(), true, System.nanoTime())); }
     @Override
-    public void keyReleased(KeyEvent e) { eventQueue.add(new InputEvent(e.getKeyCode(), false)); }
+    public void keyReleased(KeyEvent e) { eventQueue.add(new InputEvent(e.getKeyCode(), false, System.nanoTime())); }
     @Override
     public void mousePressed(MouseEvent e) {
-        if (e.getButton() == MouseEvent.BUTTON1) eventQueue.add(new InputEvent(-1, true));
-        if (e.getButton() == MouseEvent.BUTTON2) eventQueue.add(new InputEvent(-3, true)); // Middle button is 3
-        if (e.getButton() == MouseEvent.BUTTON3) eventQueue.add(new InputEvent(-2, true)); // Right button is 2
+        if (e.getButton() == MouseEvent.BUTTON1) eventQueue.add(new InputEvent(-1, true, System.nanoTime()));
+        if (e.getButton() == MouseEvent.BUTTON2) eventQueue.add(new InputEvent(-3, true, System.nanoTime())); // Middle button is 3
+        if (e.getButton() == MouseEvent.BUTTON3) eventQueue.add(new InputEvent(-2, true, System.nanoTime())); // Right button is 2
     }
     @Override
     public void mouseReleased(MouseEvent e) {
-        if (e.getButton() == MouseEvent.BUTTON1) eventQueue.add(new InputEvent(-1, false));
-        if (e.getButton() == MouseEvent.BUTTON2) eventQueue.add(new InputEvent(-3, false));
-        if (e.getButton() == MouseEvent.BUTTON3) eventQueue.add(new InputEvent(-2, false));
+        if (e.getButton() == MouseEvent.BUTTON1) eventQueue.add(new InputEvent(-1, false, System.nanoTime()));
+        if (e.getButton() == MouseEvent.BUTTON2) eventQueue.add(new InputEvent(-3, false, System.nanoTime()));
+        if (e.getButton() == MouseEvent.BUTTON3) eventQueue.add(new InputEvent(-2, false, System.nanoTime()));
     }
 
     @Override
-    public void mouseMoved(MouseEvent e) { mouseX = e.getX(); mouseY = e.getY(); }
+    public void mouseMoved(MouseEvent e) { latestMouse = packMouse(e.getX(), e.getY()); }
     @Override
-    public void mouseDragged(MouseEvent e) { mouseX = e.getX(); mouseY = e.getY(); }
+    public void mouseDragged(MouseEvent e) { latestMouse = packMouse(e.getX(), e.getY()); }
+
+    private static long packMouse(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
     @Override
     public void mouseClicked(MouseEvent e) {}
     @Override
@@ -386,7 +766,7 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
      */
     public static boolean isKeyJustPressed(int keyCode) {
         if (keyCode >= 0 && keyCode < instance.keys.length) {
-            return instance.keys[keyCode] && !instance.prevKeys[keyCode];
+            return instance.keyPresses[keyCode] > 0;
         }
         return false;
     }
@@ -398,11 +778,55 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
      */
     public static boolean isKeyReleased(int keyCode) {
         if (keyCode >= 0 && keyCode < instance.keys.length) {
-            return !instance.keys[keyCode] && instance.prevKeys[keyCode];
+            return instance.keyReleases[keyCode] > 0;
         }
         return false;
     }
     
+    /**
+     * Counts how many times a key or mouse button went down during the last poll. Usually 0 or 1;
+     * more when the player tapped faster than the tick rate.
+     * @param keyCode The KeyEvent.VK_ code of the key, or a negative button code (-1 for left,
+     *                -2 for right, -3 for middle).
+     * @return The number of presses.
+     */
+    public static int getPressCount(int keyCode) {
+        return countOf(keyCode, instance.keyPresses, instance.buttonPresses);
+    }
+
+    /**
+     * Counts how many times a key or mouse button went up during the last poll.
+     * @param keyCode The KeyEvent.VK_ code of the key, or a negative button code.
+     * @return The number of releases.
+     */
+    public static int getReleaseCount(int keyCode) {
+        return countOf(keyCode, instance.keyReleases, instance.buttonReleases);
+    }
+
+    // --- LATENCY METRICS ---
+
+    /**
+     * @return The highest latency, in nanoseconds, among the key and button events consumed by
+     *         the last poll (from the moment the event was received to that poll), or -1 if it
+     *         consumed none.
+     */
+    public static long getInputLatencyLastFrame() { return instance.latencyLastFrame; }
+
+    /** @return The average input latency since the last reset, in nanoseconds. */
+    public static long getAverageInputLatency() {
+        return instance.latencyEvents == 0 ? 0 : instance.latencyTotal / instance.latencyEvents;
+    }
+
+    /** @return The highest input latency since the last reset, in nanoseconds. */
+    public static long getPeakInputLatency() { return instance.peakLatency; }
+
+    /** Resets the average and peak input latency. */
+    public static void resetInputLatency() {
+        instance.peakLatency = 0;
+        instance.latencyTotal = 0;
+        instance.latencyEvents = 0;
+    }
+
     /**
      * Helper method to check if a mouse button is currently pressed.
      * @param buttonCode The negative button code (-1 for left, -2 for right, -3 for middle).
@@ -424,7 +848,7 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
     private static boolean isMouseButtonJustPressed(int buttonCode) {
         int buttonIndex = Math.abs(buttonCode);
         if (buttonIndex > 0 && buttonIndex < instance.mouseButtons.length) {
-            return instance.mouseButtons[buttonIndex] && !instance.prevMouseButtons[buttonIndex];
+            return instance.buttonPresses[buttonIndex] > 0;
         }
         return false;
     }
@@ -437,7 +861,7 @@ public class InputManager implements KeyListener, MouseListener, MouseMotionList
     private static boolean isMouseButtonReleased(int buttonCode) {
         int buttonIndex = Math.abs(buttonCode);
         if (buttonIndex > 0 && buttonIndex < instance.mouseButtons.length) {
-            return !instance.mouseButtons[buttonIndex] && instance.prevMouseButtons[buttonIndex];
+            return instance.buttonReleases[buttonIndex] > 0;
         }
         return false;
     }
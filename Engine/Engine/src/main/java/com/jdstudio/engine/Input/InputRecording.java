@@ -0,0 +1,264 @@
+package com.jdstudio.engine.Input;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The binary input recording format used by the {@link InputManager} to record and replay runs.
+ * <p>
+ * A file starts with the magic number {@code "JDIR"} and a version byte, followed by one record
+ * per input change. Every record is a kind byte, the number of ticks since the previous record
+ * (a varint) and its payload:
+ * <ul>
+ *   <li>{@link #RELEASE}, {@link #PRESS}, {@link #HELD}: the key code, or the negative mouse
+ *       button code, as a zigzag varint. HELD records describe the keys already down when the
+ *       recording started.</li>
+ *   <li>{@link #MOVE}: the mouse x and y as zigzag varints.</li>
+ *   <li>{@link #FRAME}: the time the tick's frame took, in microseconds (a varint). It closes
+ *       the tick and is flushed with it.</li>
+ *   <li>{@link #END}: no payload; its tick is the length of the recording.</li>
+ * </ul>
+ * Ticks count the {@code pollEvents()} calls since the recording started, so a replay applies
+ * every change on the same tick it was made in. A file cut short (e.g. when the game exits without
+ * stopping the recording) has no END record; it is replayed up to its last FRAME record, the
+ * last tick known to be complete. Version 1 files have no FRAME records and need their END.
+ *
+ * @author JDStudio
+ */
+final class InputRecording {
+
+    static final int MAGIC = 0x4A444952; // "JDIR"
+    static final int VERSION = 2;
+
+    static final byte RELEASE = 0;
+    static final byte PRESS = 1;
+    static final byte MOVE = 2;
+    static final byte END = 3;
+    static final byte HELD = 4;
+    static final byte FRAME = 5;
+
+    private InputRecording() {}
+
+    /**
+     * Writes records to a recording file.
+     */
+    static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private long lastTick = 0;
+
+        Writer(Path path) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+        }
+
+        void writeKey(long tick, byte kind, int code) throws IOException {
+            writeHeader(tick, kind);
+            writeVarInt(out, zigzag(code));
+        }
+
+        void writeMove(long tick, int x, int y) throws IOException {
+            writeHeader(tick, MOVE);
+            writeVarInt(out, zigzag(x));
+            writeVarInt(out, zigzag(y));
+        }
+
+        /**
+         * Writes the FRAME record that closes a tick and flushes the file, so that a run ending
+         * without {@link #finish} still replays up to this tick.
+         */
+        void writeFrame(long tick, long frameNanos) throws IOException {
+            writeHeader(tick, FRAME);
+            writeVarInt(out, (int) Math.min(Integer.MAX_VALUE, frameNanos / 1000));
+            out.flush();
+        }
+
+        /** Writes the END record and closes the file. */
+        void finish(long tick) throws IOException {
+            try {
+                writeHeader(Math.max(tick, lastTick), END);
+            } finally {
+                close();
+            }
+        }
+
+        private void writeHeader(long tick, byte kind) throws IOException {
+            out.writeByte(kind);
+            writeVarInt(out, (int) (tick - lastTick));
+            lastTick = tick;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * A recording loaded in memory, read record by record during a replay.
+     */
+    static final class Replay {
+        private long[] ticks = new long[256];
+        private byte[] kinds = new byte[256];
+        private int[] first = new int[256];
+        private int[] second = new int[256];
+        private int count = 0;
+        private long length = 0;
+        private int cursor = 0;
+        /** The frame times of the recorded run and of the replay, per tick, in microseconds (-1 if unknown). */
+        private int[] recordedMicros = new int[256];
+        private int[] replayedMicros;
+
+        Replay(Path path) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Not an input recording: " + path);
+                }
+                int version = in.readUnsignedByte();
+                if (version != 1 && version != VERSION) {
+                    throw new IOException("Unsupported input recording version " + version + " in: " + path);
+                }
+                Arrays.fill(recordedMicros, -1);
+                long tick = 0;
+                long completeTicks = 0;
+                int completeCount = 0;
+                try {
+                    while (true) {
+                        int kind = in.read();
+                        if (kind < 0) throw new EOFException("Input recording ends without an END record: " + path);
+                        tick += readVarInt(in);
+                        if (kind == END) {
+                            length = tick;
+                            break;
+                        }
+                        if (kind == FRAME) {
+                            setRecordedMicros(tick, readVarInt(in));
+                            completeTicks = tick + 1;
+                            completeCount = count;
+                            continue;
+                        }
+                        int a = unzigzag(readVarInt(in));
+                        int b = kind == MOVE ? unzigzag(readVarInt(in)) : 0;
+                        if (kind != RELEASE && kind != PRESS && kind != MOVE && kind != HELD) {
+                            throw new IOException("Unknown record kind " + kind + " in: " + path);
+                        }
+                        add(tick, (byte) kind, a, b);
+                    }
+                } catch (EOFException e) {
+                    if (version == 1) throw e;
+                    // Cut short: keep the ticks closed by a FRAME record, the rest may be partial
+                    count = completeCount;
+                    length = completeTicks;
+                    System.err.println("Warning: Input recording ends without an END record: " + path
+                            + ". Replaying its first " + length + " complete ticks.");
+                }
+            }
+            replayedMicros = new int[(int) length];
+            Arrays.fill(replayedMicros, -1);
+        }
+
+        private void setRecordedMicros(long tick, int micros) {
+            if (tick >= recordedMicros.length) {
+                int oldLength = recordedMicros.length;
+                recordedMicros = Arrays.copyOf(recordedMicros, (int) Math.max(tick + 1, oldLength * 2L));
+                Arrays.fill(recordedMicros, oldLength, recordedMicros.length, -1);
+            }
+            recordedMicros[(int) tick] = micros;
+        }
+
+        /** Keeps the time a tick's frame took during the replay, to compare with the recorded run. */
+        void setReplayedFrame(long tick, long frameNanos) {
+            if (tick < replayedMicros.length) {
+                replayedMicros[(int) tick] = (int) Math.min(Integer.MAX_VALUE, frameNanos / 1000);
+            }
+        }
+
+        /**
+         * Summarizes the frame times of the recorded run and of the replay (average, 95th
+         * percentile and worst, in milliseconds), over the ticks whose times are known.
+         */
+        String frameTimeReport() {
+            int[] recorded = Arrays.copyOf(recordedMicros, replayedMicros.length);
+            if (recordedMicros.length < replayedMicros.length) {
+                Arrays.fill(recorded, recordedMicros.length, recorded.length, -1);
+            }
+            return "recorded " + summarize(recorded) + ", replayed " + summarize(replayedMicros);
+        }
+
+        private static String summarize(int[] micros) {
+            int[] known = Arrays.stream(micros).filter(m -> m >= 0).sorted().toArray();
+            if (known.length == 0) return "(no frame times)";
+            double average = Arrays.stream(known).average().orElse(0);
+            int p95 = known[Math.min(known.length - 1, (int) Math.ceil(known.length * 0.95) - 1)];
+            return String.format("avg %.2f ms, p95 %.2f ms, max %.2f ms over %d frames",
+                    average / 1000, p95 / 1000.0, known[known.length - 1] / 1000.0, known.length);
+        }
+
+        private void add(long tick, byte kind, int a, int b) {
+            if (count == ticks.length) {
+                int capacity = count * 2;
+                ticks = Arrays.copyOf(ticks, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+                first = Arrays.copyOf(first, capacity);
+                second = Arrays.copyOf(second, capacity);
+            }
+            ticks[count] = tick;
+            kinds[count] = kind;
+            first[count] = a;
+            second[count] = b;
+            count++;
+        }
+
+        /** @return true if the next record belongs to the given tick. */
+        boolean hasRecord(long tick) {
+            return cursor < count && ticks[cursor] == tick;
+        }
+
+        byte kind() { return kinds[cursor]; }
+
+        /** The key code of a key record, or the x of a MOVE record. */
+        int first() { return first[cursor]; }
+
+        /** The y of a MOVE record. */
+        int second() { return second[cursor]; }
+
+        void next() { cursor++; }
+
+        /** @return The tick of the END record. */
+        long length() { return length; }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in input recording.");
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -36,6 +36,7 @@ public abstract class BaseProjectile extends GameObject {
     protected BaseProjectile() {
         super(new org.json.JSONObject()); // Pass an empty JSON to the parent
         setCollisionType(CollisionType.DAMAGE_SOURCE);
+        this.alwaysActive = true; // Projectiles must never be throttled mid-flight.
     }
 
     /**
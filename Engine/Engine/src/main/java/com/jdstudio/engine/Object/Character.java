@@ -2,9 +2,8 @@ package com.jdstudio.engine.Object;
 
 import org.json.JSONObject;
 
-import com.jdstudio.engine.Events.CharacterSpokeEventData;
-import com.jdstudio.engine.Events.EngineEvent;
 import com.jdstudio.engine.Events.EventManager;
+import com.jdstudio.engine.Events.SpeechEvent;
 import com.jdstudio.engine.Graphics.Layers.RenderLayer;
 import com.jdstudio.engine.Graphics.Layers.RenderManager;
 import com.jdstudio.engine.Graphics.Layers.StandardLayers;
@@ -81,10 +80,8 @@ public abstract class Character extends GameObject {
      * @param durationInSeconds The duration in seconds for which the message should be displayed.
      */
     public void say(String message, float durationInSeconds) {
-        EventManager.getInstance().trigger(
-            EngineEvent.CHARACTER_SPOKE, 
-            new CharacterSpokeEventData(this, message, durationInSeconds)
-        );
+        EventManager events = EventManager.getInstance();
+        events.trigger(SpeechEvent.SPOKE, events.obtain(SpeechEvent.SPOKE).set(this, message, durationInSeconds));
     }
 
     /**
@@ -110,6 +107,7 @@ public abstract class Character extends GameObject {
         // A character with 0 or less life cannot take more damage.
         if (this.life <= 0) return;
 
+        wake(); // Being hit keeps the character simulated even far from the camera.
         this.life -= amount;
         if (this.life <= 0) {
             this.life = 0;
@@ -15,12 +15,15 @@ import org.json.JSONObject;
 
 import com.jdstudio.engine.Engine;
 import com.jdstudio.engine.Components.Component;
+import com.jdstudio.engine.Core.ActivityManager;
+import com.jdstudio.engine.Core.ActivityManager.ActivityLevel;
 import com.jdstudio.engine.Graphics.Layers.IRenderable;
 import com.jdstudio.engine.Graphics.Layers.RenderLayer;
 import com.jdstudio.engine.Graphics.Layers.RenderManager;
 import com.jdstudio.engine.Graphics.Layers.StandardLayers;
 import com.jdstudio.engine.Graphics.Sprite.Sprite;
 import com.jdstudio.engine.Graphics.Sprite.Animations.Animator;
+import com.jdstudio.engine.States.EnginePlayingState;
 import com.jdstudio.engine.Utils.PropertiesReader;
 
 /**
@@ -107,6 +110,28 @@ public abstract class GameObject implements IRenderable  {
      * Ideal for the player, who should manage their own "game over" state.
      */
     public boolean isProtectedFromCleanup = false;
+
+    // --- SIMULATION LOD ---
+
+    /**
+     * If true, the {@link ActivityManager} always ticks this object at full rate, regardless of
+     * its distance to the camera. Always-active objects also wake sleeping objects they get close to.
+     */
+    public boolean alwaysActive = false;
+
+    /** The activity level assigned by the ActivityManager for the current frame. */
+    private ActivityLevel activityLevel = ActivityLevel.ACTIVE;
+
+    /** Frames left during which this object is forced to be active. */
+    private int wakeTicks = 0;
+
+    /** Spreads the ticks of throttled objects across frames. */
+    private final int activityPhase = nextActivityPhase++;
+    private static int nextActivityPhase = 0;
+
+    /** The number of frames the current tick stands for, and the frames skipped since the last full tick. */
+    private int tickFrames = 1;
+    private int skippedTicks = 0;
     
     // --- COMPONENT SYSTEM ---
     /** A map storing all components attached to this GameObject, keyed by their class type. */
@@ -393,6 +418,84 @@ public abstract class GameObject implements IRenderable  {
         updateAllChildrenPositions();
     }
     
+    /**
+     * Updates only the components that must run even while this object is throttled or
+     * sleeping (see {@link Component#isAlwaysUpdated()}). Called by the {@link ActivityManager}
+     * on frames where {@link #tick()} is skipped.
+     */
+    public void tickAlwaysUpdatedComponents() {
+        if (isDestroyed) return;
+        for (Component component : components.values()) {
+            if (component.isAlwaysUpdated()) {
+                component.update();
+            }
+        }
+    }
+
+    /**
+     * Wakes this object, so the {@link ActivityManager} ticks it at full rate for a while
+     * even if it is far from the camera.
+     */
+    public void wake() {
+        ActivityManager.getInstance().wake(this);
+    }
+
+    /**
+     * Forces this object to be active for a number of frames.
+     * @param frames The number of frames.
+     */
+    public void wakeFor(int frames) {
+        this.wakeTicks = Math.max(this.wakeTicks, frames);
+    }
+
+    /**
+     * Consumes one frame of a pending wake-up.
+     * @return true if the object is still forced awake for this frame.
+     */
+    public boolean consumeWakeTick() {
+        if (wakeTicks <= 0) return false;
+        wakeTicks--;
+        return true;
+    }
+
+    /** @return The activity level assigned by the ActivityManager for the current frame. */
+    public ActivityLevel getActivityLevel() { return activityLevel; }
+
+    /** @param level The activity level for the current frame. Set by the ActivityManager. */
+    public void setActivityLevel(ActivityLevel level) { this.activityLevel = level; }
+
+    /** @return The phase used to spread the ticks of throttled objects across frames. */
+    public int getActivityPhase() { return activityPhase; }
+
+    /**
+     * Gets the number of frames the current tick stands for. It is 1, except on the ticks of a
+     * throttled object, which also cover the frames skipped since its last tick. Frame-based
+     * logic (movement, timers, cooldowns) should advance by this many frames, or the object
+     * runs slower while throttled. The movement components already do.
+     * @return The frames covered by the current tick, at least 1.
+     */
+    public int getTickFrames() {
+        return ActivityManager.getInstance().isEnabled() ? tickFrames : 1;
+    }
+
+    /**
+     * Sets the number of frames the next tick stands for and clears the skipped frames. Set by the ActivityManager.
+     * @param frames The frames covered by the tick.
+     */
+    public void setTickFrames(int frames) {
+        this.tickFrames = Math.max(1, frames);
+        this.skippedTicks = 0;
+    }
+
+    /** Records a frame on which the ActivityManager skipped this object's tick. */
+    public void skipTick() {
+        this.tickFrames = 1; // Always-updated components still run on this frame
+        this.skippedTicks++;
+    }
+
+    /** @return The frames skipped since this object's last full tick. */
+    public int getSkippedTicks() { return skippedTicks; }
+    
     // Implement IRenderable interface methods
     @Override
     public RenderLayer getRenderLayer() { return this.renderLayer; }
@@ -483,6 +586,20 @@ public abstract class GameObject implements IRenderable  {
         this.isDestroyed = true;
         RenderManager.getInstance().unregister(this);
     }
+
+    /**
+     * Called when this GameObject joins the game (see {@link EnginePlayingState#addGameObject}).
+     * Objects that listen to events subscribe here rather than in their constructor, so that
+     * {@link #onRemovedFromGame()} can release every subscription. Does nothing by default.
+     */
+    public void onAddedToGame() {}
+
+    /**
+     * Called when this GameObject leaves the game: removed from the playing state, cleaned up
+     * after {@link #destroy()}, or left behind by a level change. Releases whatever
+     * {@link #onAddedToGame()} acquired. Does nothing by default.
+     */
+    public void onRemovedFromGame() {}
     
     /**
      * Sets the primary sprite for this GameObject.
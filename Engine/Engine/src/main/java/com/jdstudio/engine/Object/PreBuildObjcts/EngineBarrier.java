@@ -1,13 +1,20 @@
 package com.jdstudio.engine.Object.PreBuildObjcts;
 
+import java.awt.Rectangle;
+
 import org.json.JSONObject;
 
 import com.jdstudio.engine.Components.InteractionComponent;
 import com.jdstudio.engine.Components.InteractionZone;
 import com.jdstudio.engine.Core.ISavable;
+import com.jdstudio.engine.Events.EngineEvent;
+import com.jdstudio.engine.Events.EventListener;
+import com.jdstudio.engine.Events.EventManager;
+import com.jdstudio.engine.Events.WorldLoadedEventData;
 import com.jdstudio.engine.Graphics.Sprite.Animations.Animator;
 import com.jdstudio.engine.Object.GameObject;
 import com.jdstudio.engine.Utils.PropertiesReader;
+import com.jdstudio.engine.World.World;
 
 /**
  * An abstract base class for any type of destructible barrier in the game.
@@ -32,6 +39,9 @@ public abstract class EngineBarrier extends GameObject implements ISavable {
     protected int timeSinceLastDamage = 0;
     protected boolean dropsLoot = false;
     protected String lootTable;
+    private World world; // The loaded world, whose pathfinding avoids the barrier while it stands
+    private Rectangle blockedArea; // The area blocked in the world's walkability, or null
+    private EventListener worldLoadedListener; // Subscribed while the barrier is in the game
 
     /**
      * Constructs a new EngineBarrier with the given properties.
@@ -139,6 +149,7 @@ public abstract class EngineBarrier extends GameObject implements ISavable {
         health = 0;
         animator.play("destroying");
         setCollisionType(CollisionType.NO_COLLISION);
+        updateBlocker();
         
         // Drop loot if configured
         if (dropsLoot && !lootTable.isEmpty()) {
@@ -242,6 +253,66 @@ public abstract class EngineBarrier extends GameObject implements ISavable {
         this.timeSinceLastDamage = state.getInt("timeSinceLastDamage");
         updateStateVisuals();
         setCollisionType(isDestroyed ? CollisionType.NO_COLLISION : CollisionType.SOLID);
+        updateBlocker();
+    }
+
+    /**
+     * Subscribes to {@code WORLD_LOADED}, keeping a reference to the loaded world so the barrier can
+     * signal walkability changes to pathfinding.
+     */
+    @Override
+    public void onAddedToGame() {
+        super.onAddedToGame();
+        if (worldLoadedListener != null) return;
+        worldLoadedListener = this::onWorldLoaded;
+        EventManager.getInstance().subscribe(EngineEvent.WORLD_LOADED, worldLoadedListener);
+    }
+
+    /**
+     * Unsubscribes from {@code WORLD_LOADED} and frees the tiles the barrier was blocking.
+     */
+    @Override
+    public void onRemovedFromGame() {
+        super.onRemovedFromGame();
+        if (worldLoadedListener != null) {
+            EventManager.getInstance().unsubscribe(EngineEvent.WORLD_LOADED, worldLoadedListener);
+            worldLoadedListener = null;
+        }
+        releaseBlocker();
+        world = null;
+    }
+
+    private void onWorldLoaded(Object data) {
+        if (data instanceof WorldLoadedEventData loaded) {
+            releaseBlocker();
+            this.world = loaded.world();
+            updateBlocker();
+        }
+    }
+
+    /**
+     * Blocks the tiles under this barrier in the world's walkability while it is solid, and
+     * unblocks them otherwise, so paths go around it. Does nothing before the world is loaded.
+     */
+    private void updateBlocker() {
+        if (world == null) return;
+        boolean blocks = getCollisionType() == CollisionType.SOLID;
+        if (blocks == (blockedArea != null)) return;
+        if (blocks) {
+            blockedArea = new Rectangle(getX() + maskX, getY() + maskY, maskWidth, maskHeight);
+            world.addBlocker(blockedArea);
+        } else {
+            world.removeBlocker(blockedArea);
+            blockedArea = null;
+        }
+    }
+
+    /** Unblocks the tiles this barrier blocks in the world's walkability, if any. */
+    private void releaseBlocker() {
+        if (world != null && blockedArea != null) {
+            world.removeBlocker(blockedArea);
+        }
+        blockedArea = null;
     }
     
     // Getters
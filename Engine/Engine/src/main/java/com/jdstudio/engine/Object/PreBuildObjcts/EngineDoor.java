@@ -9,9 +9,14 @@ import org.json.JSONObject;
 import com.jdstudio.engine.Components.InteractionComponent;
 import com.jdstudio.engine.Components.InteractionZone;
 import com.jdstudio.engine.Core.ISavable;
+import com.jdstudio.engine.Events.EngineEvent;
+import com.jdstudio.engine.Events.EventListener;
+import com.jdstudio.engine.Events.EventManager;
+import com.jdstudio.engine.Events.WorldLoadedEventData;
 import com.jdstudio.engine.Graphics.Sprite.Animations.Animator;
 import com.jdstudio.engine.Object.GameObject;
 import com.jdstudio.engine.Utils.PropertiesReader;
+import com.jdstudio.engine.World.World;
 
 /**
  * An abstract base class for any type of door in the game.
@@ -28,6 +33,9 @@ public abstract class EngineDoor extends GameObject implements ISavable {
     protected double interactionRadius = 35.0f; // Default interaction radius
     protected GameObject target; // The GameObject (e.g., player) for interaction checks
     private List<GameObject> allGameObjects; // Reference to the main game object list for obstruction checks
+    private World world; // The loaded world, whose pathfinding avoids the door while it is solid
+    private Rectangle blockedArea; // The area blocked in the world's walkability, or null
+    private EventListener worldLoadedListener; // Subscribed while the door is in the game
 
     /**
      * Constructs a new EngineDoor with the given properties.
@@ -89,6 +97,7 @@ public abstract class EngineDoor extends GameObject implements ISavable {
             }
             // Become solid immediately, then play the animation
             setCollisionType(CollisionType.SOLID);
+            updateBlocker();
             animator.play("closing");
             isOpen = false;
         } else {
@@ -119,6 +128,7 @@ public abstract class EngineDoor extends GameObject implements ISavable {
             if ("opening".equals(currentKey)) {
                 // Only become passable after the opening animation is complete
                 setCollisionType(CollisionType.TRIGGER);
+                updateBlocker();
                 animator.play("idleOpen");
             } else if ("closing".equals(currentKey)) {
                 animator.play("idleClosed");
@@ -138,6 +148,66 @@ public abstract class EngineDoor extends GameObject implements ISavable {
             animator.play("idleClosed");
             setCollisionType(CollisionType.SOLID);
         }
+        updateBlocker();
+    }
+
+    /**
+     * Subscribes to {@code WORLD_LOADED}, keeping a reference to the loaded world so the door can
+     * signal walkability changes to pathfinding.
+     */
+    @Override
+    public void onAddedToGame() {
+        super.onAddedToGame();
+        if (worldLoadedListener != null) return;
+        worldLoadedListener = this::onWorldLoaded;
+        EventManager.getInstance().subscribe(EngineEvent.WORLD_LOADED, worldLoadedListener);
+    }
+
+    /**
+     * Unsubscribes from {@code WORLD_LOADED} and frees the tiles the door was blocking.
+     */
+    @Override
+    public void onRemovedFromGame() {
+        super.onRemovedFromGame();
+        if (worldLoadedListener != null) {
+            EventManager.getInstance().unsubscribe(EngineEvent.WORLD_LOADED, worldLoadedListener);
+            worldLoadedListener = null;
+        }
+        releaseBlocker();
+        world = null;
+    }
+
+    private void onWorldLoaded(Object data) {
+        if (data instanceof WorldLoadedEventData loaded) {
+            releaseBlocker();
+            this.world = loaded.world();
+            updateBlocker();
+        }
+    }
+
+    /**
+     * Blocks the tiles under this door in the world's walkability while it is solid, and
+     * unblocks them otherwise, so paths go around it. Does nothing before the world is loaded.
+     */
+    private void updateBlocker() {
+        if (world == null) return;
+        boolean blocks = getCollisionType() == CollisionType.SOLID;
+        if (blocks == (blockedArea != null)) return;
+        if (blocks) {
+            blockedArea = new Rectangle(getX() + maskX, getY() + maskY, maskWidth, maskHeight);
+            world.addBlocker(blockedArea);
+        } else {
+            world.removeBlocker(blockedArea);
+            blockedArea = null;
+        }
+    }
+
+    /** Unblocks the tiles this door blocks in the world's walkability, if any. */
+    private void releaseBlocker() {
+        if (world != null && blockedArea != null) {
+            world.removeBlocker(blockedArea);
+        }
+        blockedArea = null;
     }
 
     /**
@@ -0,0 +1,402 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.jdstudio.engine.World.IWalkabilityListener;
+import com.jdstudio.engine.World.World;
+
+/**
+ * The abstract graph used for hierarchical pathfinding (HPA*).
+ * <p>
+ * The tile grid is split into square clusters. Wherever two neighbouring clusters share a run of
+ * walkable border tiles, one or two <i>entrances</i> are placed on it (one in the middle of short
+ * runs, one at each end of long ones). Inside each cluster the cheapest cost between every pair
+ * of its entrances is precomputed. A long query then searches this small graph instead of the
+ * tile grid, and only the chosen legs are refined with searches confined to a single cluster.
+ * <p>
+ * There is one graph per world, shared by {@link Pathfinder} and {@link PathfindingService}. It
+ * listens to the world's walkability changes and only rebuilds the clusters that were touched.
+ * Rebuilds happen on the game thread under a write lock; worker threads search under the read lock.
+ */
+final class ClusterGraph implements IWalkabilityListener {
+
+    static final int DEFAULT_CLUSTER_SIZE = 16;
+    /** Border runs shorter than this get a single entrance in their middle. */
+    private static final int MAX_SINGLE_ENTRANCE_RUN = 6;
+
+    private static final Map<World, ClusterGraph> graphs = new WeakHashMap<>();
+
+    /** The entrances of one cluster and the cost between each pair of them. */
+    private static final class Cluster {
+        final int x0, y0, w, h;
+        int[] entrances = new int[0];
+        /** Tiles of neighbouring clusters reached by stepping out of each entrance. */
+        int[][] partners = new int[0][];
+        /** Row-major entrance-to-entrance costs; infinity when unreachable inside the cluster. */
+        float[] costs = new float[0];
+
+        Cluster(int x0, int y0, int w, int h) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.w = w;
+            this.h = h;
+        }
+    }
+
+    /** Searches confined to one cluster. One per thread. */
+    private final class Local implements Walkability {
+        final SearchContext context = new SearchContext(clusterSize, clusterSize, tileWidth, tileHeight);
+        Walkability inner;
+        Cluster cluster;
+        float[] startCosts = new float[16];
+        float[] goalCosts = new float[16];
+
+        @Override
+        public boolean isSolid(int x, int y) {
+            return x >= cluster.w || y >= cluster.h || inner.isSolid(cluster.x0 + x, cluster.y0 + y);
+        }
+
+        @Override
+        public float movementCost(int x, int y) {
+            return inner.movementCost(cluster.x0 + x, cluster.y0 + y);
+        }
+
+        @Override
+        public boolean hasMovementCosts() {
+            return inner.hasMovementCosts();
+        }
+
+        void bind(Walkability walkability, Cluster cluster) {
+            this.inner = walkability;
+            this.cluster = cluster;
+        }
+
+        /** Fills {@code out} with the cost from a tile to each entrance of its cluster. */
+        float[] costsToEntrances(Walkability walkability, Cluster cluster, int tile, float[] out) {
+            bind(walkability, cluster);
+            context.flood(this, 1, tile % width - cluster.x0, tile / width - cluster.y0);
+            int n = cluster.entrances.length;
+            if (out.length < n) out = new float[n * 2];
+            for (int i = 0; i < n; i++) {
+                int e = cluster.entrances[i];
+                out[i] = context.costTo(e % width - cluster.x0, e / width - cluster.y0);
+            }
+            return out;
+        }
+    }
+
+    final int width;
+    final int height;
+    final int tileWidth;
+    final int tileHeight;
+    final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+    private final Cluster[] clusters;
+    /** Index of each entrance tile within its cluster, or -1 for other tiles. */
+    private final int[] entranceIndex;
+    private final boolean[] dirty;
+    private volatile boolean anyDirty = true;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Local> locals = ThreadLocal.withInitial(Local::new);
+
+    // Scratch buffers used while rebuilding (game thread, under the write lock).
+    private int[] scratchEntrances = new int[64];
+    private int[][] scratchPartners = new int[64][];
+    private int scratchCount;
+
+    ClusterGraph(int width, int height, int tileWidth, int tileHeight, int clusterSize) {
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.clusterSize = clusterSize;
+        this.clustersX = (width + clusterSize - 1) / clusterSize;
+        this.clustersY = (height + clusterSize - 1) / clusterSize;
+        this.clusters = new Cluster[clustersX * clustersY];
+        for (int cy = 0; cy < clustersY; cy++) {
+            for (int cx = 0; cx < clustersX; cx++) {
+                int x0 = cx * clusterSize, y0 = cy * clusterSize;
+                clusters[cx + cy * clustersX] = new Cluster(x0, y0,
+                        Math.min(clusterSize, width - x0), Math.min(clusterSize, height - y0));
+            }
+        }
+        this.entranceIndex = new int[width * height];
+        Arrays.fill(entranceIndex, -1);
+        this.dirty = new boolean[clusters.length];
+        Arrays.fill(dirty, true);
+    }
+
+    /**
+     * Gets the graph of a world, creating it (unbuilt) on first use. Must be called on the game thread.
+     */
+    static ClusterGraph forWorld(World world) {
+        synchronized (graphs) {
+            ClusterGraph graph = graphs.get(world);
+            if (graph == null || graph.width != world.WIDTH || graph.height != world.HEIGHT) {
+                graph = new ClusterGraph(world.WIDTH, world.HEIGHT, world.tileWidth, world.tileHeight, DEFAULT_CLUSTER_SIZE);
+                graphs.put(world, graph);
+                world.addWalkabilityListener(graph);
+            }
+            return graph;
+        }
+    }
+
+    /**
+     * Drops the graph of a world.
+     */
+    static void release(World world) {
+        synchronized (graphs) {
+            ClusterGraph graph = graphs.remove(world);
+            if (graph != null) world.removeWalkabilityListener(graph);
+        }
+    }
+
+    // --- MAINTENANCE ---
+
+    /**
+     * Marks the clusters touching a changed region (plus a one-tile margin, since border tiles
+     * also define the entrances of the neighbouring cluster) for rebuilding.
+     */
+    @Override
+    public void onWalkabilityChanged(int x, int y, int w, int h) {
+        int cx0 = Math.max(0, (x - 1) / clusterSize);
+        int cy0 = Math.max(0, (y - 1) / clusterSize);
+        int cx1 = Math.min(clustersX - 1, (x + w) / clusterSize);
+        int cy1 = Math.min(clustersY - 1, (y + h) / clusterSize);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                dirty[cx + cy * clustersX] = true;
+            }
+        }
+        anyDirty = true;
+    }
+
+    /**
+     * Rebuilds the entrances and costs of every dirty cluster. Must be called on the game thread
+     * with walkability data that reflects the current state of the world.
+     *
+     * @return The number of clusters rebuilt.
+     */
+    int update(Walkability walkability) {
+        if (!anyDirty) return 0;
+        lock.writeLock().lock();
+        try {
+            anyDirty = false;
+            int rebuilt = 0;
+            Local local = locals.get();
+            for (int i = 0; i < clusters.length; i++) {
+                if (!dirty[i]) continue;
+                dirty[i] = false;
+                rebuild(clusters[i], walkability, local);
+                rebuilt++;
+            }
+            return rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuild(Cluster c, Walkability walkability, Local local) {
+        for (int e : c.entrances) entranceIndex[e] = -1;
+
+        scratchCount = 0;
+        if (c.x0 + c.w < width) scanBorder(walkability, c.x0 + c.w - 1, c.y0, 1, 0, 0, 1, c.h);  // right
+        if (c.x0 > 0) scanBorder(walkability, c.x0, c.y0, -1, 0, 0, 1, c.h);                      // left
+        if (c.y0 + c.h < height) scanBorder(walkability, c.x0, c.y0 + c.h - 1, 0, 1, 1, 0, c.w); // bottom
+        if (c.y0 > 0) scanBorder(walkability, c.x0, c.y0, 0, -1, 1, 0, c.w);                      // top
+
+        int n = scratchCount;
+        c.entrances = Arrays.copyOf(scratchEntrances, n);
+        c.partners = Arrays.copyOf(scratchPartners, n);
+        for (int i = 0; i < n; i++) entranceIndex[c.entrances[i]] = i;
+
+        c.costs = new float[n * n];
+        for (int i = 0; i < n; i++) {
+            float[] row = local.costsToEntrances(walkability, c, c.entrances[i], local.startCosts);
+            local.startCosts = row;
+            System.arraycopy(row, 0, c.costs, i * n, n);
+        }
+    }
+
+    /**
+     * Scans one border of a cluster and adds an entrance for each run of tiles walkable on both sides.
+     *
+     * The border starts at tile (x, y) inside the cluster and advances by (sx, sy); the facing
+     * tile in the neighbouring cluster is offset by (ox, oy).
+     */
+    private void scanBorder(Walkability w, int x, int y, int ox, int oy, int sx, int sy, int length) {
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean open = i < length
+                    && !w.isSolid(x + sx * i, y + sy * i)
+                    && !w.isSolid(x + sx * i + ox, y + sy * i + oy);
+            if (open && runStart < 0) {
+                runStart = i;
+            } else if (!open && runStart >= 0) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 < MAX_SINGLE_ENTRANCE_RUN) {
+                    int mid = (runStart + runEnd) / 2;
+                    addTransition(x + sx * mid, y + sy * mid, ox, oy);
+                } else {
+                    addTransition(x + sx * runStart, y + sy * runStart, ox, oy);
+                    addTransition(x + sx * runEnd, y + sy * runEnd, ox, oy);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private void addTransition(int x, int y, int ox, int oy) {
+        int tile = x + y * width;
+        int partner = (x + ox) + (y + oy) * width;
+        for (int i = 0; i < scratchCount; i++) {
+            if (scratchEntrances[i] == tile) { // A corner tile can be an entrance on two borders.
+                int[] p = scratchPartners[i];
+                scratchPartners[i] = Arrays.copyOf(p, p.length + 1);
+                scratchPartners[i][p.length] = partner;
+                return;
+            }
+        }
+        if (scratchCount == scratchEntrances.length) {
+            scratchEntrances = Arrays.copyOf(scratchEntrances, scratchCount * 2);
+            scratchPartners = Arrays.copyOf(scratchPartners, scratchCount * 2);
+        }
+        scratchEntrances[scratchCount] = tile;
+        scratchPartners[scratchCount] = new int[] {partner};
+        scratchCount++;
+    }
+
+    // --- QUERIES ---
+
+    /** @return true if both tiles lie in the same cluster. */
+    boolean sameCluster(int ax, int ay, int bx, int by) {
+        return ax / clusterSize == bx / clusterSize && ay / clusterSize == by / clusterSize;
+    }
+
+    private Cluster clusterOf(int tile) {
+        return clusters[(tile % width) / clusterSize + ((tile / width) / clusterSize) * clustersX];
+    }
+
+    /**
+     * Finds a path by searching the abstract graph and refining each leg inside its cluster.
+     * The graph must have been {@link #update updated} on the game thread first.
+     *
+     * @param context     A full-size search context owned by the calling thread.
+     * @param walkability The solidity data used to refine the legs.
+     * @return The path in world coordinates, an empty list if the abstract graph has no route,
+     *         or null if the search could not be completed (e.g. the graph is out of date)
+     *         and the caller should fall back to a flat search.
+     */
+    List<Point> findPath(SearchContext context, Walkability walkability, int startX, int startY, int goalX, int goalY) {
+        lock.readLock().lock();
+        try {
+            int start = startX + startY * width;
+            int goal = goalX + goalY * width;
+            Cluster startCluster = clusterOf(start);
+            Cluster goalCluster = clusterOf(goal);
+            if (startCluster == goalCluster || walkability.isSolid(goalX, goalY)) return null;
+
+            Local local = locals.get();
+            local.startCosts = local.costsToEntrances(walkability, startCluster, start, local.startCosts);
+            local.goalCosts = local.costsToEntrances(walkability, goalCluster, goal, local.goalCosts);
+            float[] startCosts = local.startCosts;
+            float[] goalCosts = local.goalCosts;
+
+            // Abstract A* over entrance tiles, reusing the context's per-tile arrays.
+            boolean weighted = walkability.hasMovementCosts();
+            context.expandedNodes = 0;
+            context.walkability = walkability;
+            context.clearance = 1;
+            context.beginSearch();
+            context.g[start] = 0;
+            context.h[start] = SearchContext.heuristic(startX, startY, goalX, goalY);
+            context.f[start] = context.h[start];
+            context.parent[start] = -1;
+            context.seen[start] = context.generation;
+            context.open.push(start);
+
+            boolean found = false;
+            while (!context.open.isEmpty()) {
+                int current = context.open.pop();
+                if (current == goal) {
+                    found = true;
+                    break;
+                }
+                context.closed[current] = context.generation;
+                context.expandedNodes++;
+                float g = context.g[current];
+
+                if (current == start) {
+                    for (int i = 0; i < startCluster.entrances.length; i++) {
+                        relax(context, current, startCluster.entrances[i], startCosts[i], goalX, goalY);
+                    }
+                }
+                int index = entranceIndex[current];
+                if (index < 0) continue;
+                Cluster c = clusterOf(current);
+                int n = c.entrances.length;
+                for (int j = 0; j < n; j++) {
+                    if (j != index) relax(context, current, c.entrances[j], g + c.costs[index * n + j], goalX, goalY);
+                }
+                for (int partner : c.partners[index]) {
+                    float step = SearchContext.MOVE_STRAIGHT_COST
+                            * (weighted ? walkability.movementCost(partner % width, partner / width) : 1);
+                    relax(context, current, partner, g + step, goalX, goalY);
+                }
+                if (c == goalCluster) {
+                    relax(context, current, goal, g + goalCosts[index], goalX, goalY);
+                }
+            }
+            if (!found) return new ArrayList<>();
+
+            return refine(context, local, walkability, goal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void relax(SearchContext context, int from, int node, float cost, int goalX, int goalY) {
+        if (cost == Float.POSITIVE_INFINITY || context.closed[node] == context.generation) return;
+        context.relax(from, node, cost, goalX, goalY);
+    }
+
+    /**
+     * Turns the abstract route ending at {@code goal} into a tile-by-tile path.
+     */
+    private List<Point> refine(SearchContext context, Local local, Walkability walkability, int goal) {
+        int count = 0;
+        for (int node = goal; node != -1; node = context.parent[node]) count++;
+        int[] route = new int[count];
+        for (int node = goal, i = count - 1; node != -1; node = context.parent[node]) route[i--] = node;
+
+        List<Point> path = new ArrayList<>();
+        path.add(context.tileCenter(route[0]));
+        for (int i = 1; i < count; i++) {
+            int from = route[i - 1], to = route[i];
+            Cluster c = clusterOf(from);
+            if (c != clusterOf(to)) { // Stepping across a border.
+                path.add(context.tileCenter(to));
+                continue;
+            }
+            local.bind(walkability, c);
+            List<Point> leg = local.context.findPath(local, 1, Pathfinder.Algorithm.AUTO,
+                    from % width - c.x0, from / width - c.y0, to % width - c.x0, to / width - c.y0);
+            if (leg.isEmpty()) return null; // The graph no longer matches the tiles.
+            int offsetX = c.x0 * tileWidth, offsetY = c.y0 * tileHeight;
+            for (int p = 1; p < leg.size(); p++) {
+                Point point = leg.get(p);
+                point.translate(offsetX, offsetY);
+                path.add(point);
+            }
+        }
+        return path;
+    }
+}
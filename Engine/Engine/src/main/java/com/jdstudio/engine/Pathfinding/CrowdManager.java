@@ -0,0 +1,460 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jdstudio.engine.Object.GameObject;
+
+/**
+ * A Singleton that keeps groups of agents from stacking into each other.
+ * <p>
+ * Every tick, called from the engine's main loop, the manager buckets the members of the crowd
+ * into a uniform grid of cells as wide as the {@link #setNeighbourRadius neighbour radius} and
+ * measures each member's velocity from its displacement since the last tick. An agent then only
+ * looks at the members in the 3x3 cells around its own, so the cost grows with the local density
+ * instead of with the square of the crowd size.
+ * <p>
+ * {@link #steer} turns the velocity an agent wants (towards its next waypoint) into one that:
+ * <ul>
+ *   <li>pushes it away from neighbours closer than the separation distance (separation),</li>
+ *   <li>blends in the average velocity of its neighbours, so groups flow in lanes (alignment),</li>
+ *   <li>and, if that velocity would hit a neighbour within the avoidance horizon, picks the sampled
+ *       velocity with the best trade-off between time to collision and deviation (a simple
+ *       velocity obstacle).</li>
+ * </ul>
+ * {@link com.jdstudio.engine.Components.Moviments.AIMovementComponent}s with
+ * {@code avoidOtherActors} set join the crowd automatically. Other objects, such as the player,
+ * can {@link #join} it to be avoided without being steered.
+ *
+ * @author JDStudio
+ */
+public class CrowdManager {
+
+    private static final CrowdManager instance = new CrowdManager();
+
+    /** The angles (in radians) tried around the preferred direction when a collision is ahead. */
+    private static final double[] SAMPLE_ANGLES = {
+            0, Math.PI / 8, -Math.PI / 8, Math.PI / 4, -Math.PI / 4,
+            3 * Math.PI / 8, -3 * Math.PI / 8, Math.PI / 2, -Math.PI / 2, 3 * Math.PI / 4, -3 * Math.PI / 4
+    };
+    private static final double[] SAMPLE_COS = new double[SAMPLE_ANGLES.length];
+    private static final double[] SAMPLE_SIN = new double[SAMPLE_ANGLES.length];
+    static {
+        for (int i = 0; i < SAMPLE_ANGLES.length; i++) {
+            SAMPLE_COS[i] = Math.cos(SAMPLE_ANGLES[i]);
+            SAMPLE_SIN[i] = Math.sin(SAMPLE_ANGLES[i]);
+        }
+    }
+    /** The fractions of the preferred speed tried for each angle. */
+    private static final double[] SAMPLE_SPEEDS = { 1.0, 0.5 };
+
+    private final List<GameObject> members = new ArrayList<>();
+    private final Map<GameObject, Integer> slots = new IdentityHashMap<>();
+
+    // Snapshot of the members, rebuilt every tick. Reused to avoid allocations.
+    private double[] posX = new double[16], posY = new double[16];
+    private double[] velX = new double[16], velY = new double[16];
+    private double[] radius = new double[16];
+    private int[] cellX = new int[16], cellY = new int[16];
+    private int[] cellNext = new int[16];
+    private int[] cellHead = new int[32];
+    private boolean[] hasPosition = new boolean[16];
+    /** The members by snapshot slot; members joining or leaving during a tick don't shift it. */
+    private GameObject[] snapshot = new GameObject[16];
+    private int snapshotCount = 0;
+
+    private final int[] neighbours;
+    private final double[] neighbourDistanceSq;
+    private int neighbourCount;
+
+    private double neighbourRadius = 48;
+    private double separationDistance = 4;
+    private double separationWeight = 0.6;
+    private double alignmentWeight = 0.1;
+    private double avoidanceHorizon = 30;
+    private double avoidanceWeight = 2.0;
+    private int maxNeighbours = 8;
+
+    // Metrics
+    private long neighbourChecks = 0;
+    private long neighbourChecksLastFrame = 0;
+
+    private CrowdManager() {
+        this.neighbours = new int[32];
+        this.neighbourDistanceSq = new double[32];
+    }
+
+    /**
+     * Gets the single instance of the CrowdManager.
+     * @return The singleton instance.
+     */
+    public static CrowdManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * Adds an object to the crowd. Members are avoided by the agents steered by the crowd;
+     * joining twice has no effect. Destroyed objects leave the crowd on the next update.
+     *
+     * @param member The object to add.
+     */
+    public void join(GameObject member) {
+        if (member == null || slots.containsKey(member)) return;
+        slots.put(member, -1); // Gets its slot in the next snapshot
+        members.add(member);
+    }
+
+    /**
+     * Removes an object from the crowd.
+     * @param member The object to remove.
+     */
+    public void leave(GameObject member) {
+        if (slots.remove(member) != null) members.remove(member);
+    }
+
+    /**
+     * Checks if an object is part of the crowd.
+     * @param member The object.
+     * @return true if it has joined the crowd.
+     */
+    public boolean isMember(GameObject member) {
+        return slots.containsKey(member);
+    }
+
+    /**
+     * Rebuilds the neighbour grid from the members' current positions and measures their velocities.
+     * Called by the engine once per tick.
+     */
+    public void update() {
+        neighbourChecksLastFrame = neighbourChecks;
+        neighbourChecks = 0;
+
+        // Drop destroyed members, compacting the snapshot so velocities stay aligned with their owners.
+        int count = 0;
+        for (int i = 0; i < members.size(); i++) {
+            GameObject member = members.get(i);
+            if (member.isDestroyed) {
+                slots.remove(member);
+                continue;
+            }
+            int previous = slots.get(member);
+            members.set(count, member);
+            ensureCapacity(count + 1);
+            boolean known = previous >= 0 && hasPosition[previous];
+            double lastX = known ? posX[previous] : 0, lastY = known ? posY[previous] : 0;
+            // previous >= count always holds, so moving a slot down never overwrites an unread one.
+            double x = member.getX() + member.getMaskX() + member.getMaskWidth() / 2.0;
+            double y = member.getY() + member.getMaskY() + member.getMaskHeight() / 2.0;
+            velX[count] = known ? x - lastX : 0;
+            velY[count] = known ? y - lastY : 0;
+            posX[count] = x;
+            posY[count] = y;
+            hasPosition[count] = true;
+            radius[count] = Math.max(member.getMaskWidth(), member.getMaskHeight()) / 2.0;
+            snapshot[count] = member;
+            slots.put(member, count);
+            count++;
+        }
+        members.subList(count, members.size()).clear();
+        if (snapshotCount > count) Arrays.fill(snapshot, count, snapshotCount, null);
+        snapshotCount = count;
+
+        int buckets = Integer.highestOneBit(Math.max(16, count * 2) - 1) << 1;
+        if (cellHead.length != buckets) cellHead = new int[buckets];
+        Arrays.fill(cellHead, -1);
+        for (int i = 0; i < count; i++) {
+            cellX[i] = (int) Math.floor(posX[i] / neighbourRadius);
+            cellY[i] = (int) Math.floor(posY[i] / neighbourRadius);
+            int bucket = bucketOf(cellX[i], cellY[i]);
+            cellNext[i] = cellHead[bucket];
+            cellHead[bucket] = i;
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (posX.length >= size) return;
+        int capacity = Math.max(size, posX.length * 2);
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        velX = Arrays.copyOf(velX, capacity);
+        velY = Arrays.copyOf(velY, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        cellX = Arrays.copyOf(cellX, capacity);
+        cellY = Arrays.copyOf(cellY, capacity);
+        cellNext = Arrays.copyOf(cellNext, capacity);
+        hasPosition = Arrays.copyOf(hasPosition, capacity);
+        snapshot = Arrays.copyOf(snapshot, capacity);
+    }
+
+    private int bucketOf(int cx, int cy) {
+        int h = cx * 73856093 ^ cy * 19349663;
+        return (h ^ (h >>> 16)) & (cellHead.length - 1);
+    }
+
+    /**
+     * Collects the members closest to a snapshot slot, nearest first, in the 3x3 cells around it.
+     * Uses the members' live positions, so agents that already moved this tick are seen where they are.
+     */
+    private void gatherNeighbours(int self, double x, double y, GameObject ignored) {
+        neighbourCount = 0;
+        int limit = Math.min(maxNeighbours, neighbours.length);
+        double rangeSq = neighbourRadius * neighbourRadius;
+        int cx = (int) Math.floor(x / neighbourRadius);
+        int cy = (int) Math.floor(y / neighbourRadius);
+        for (int oy = -1; oy <= 1; oy++) {
+            for (int ox = -1; ox <= 1; ox++) {
+                int tx = cx + ox, ty = cy + oy;
+                for (int j = cellHead[bucketOf(tx, ty)]; j >= 0; j = cellNext[j]) {
+                    if (j == self || cellX[j] != tx || cellY[j] != ty) continue; // Hash collisions share buckets
+                    GameObject other = snapshot[j];
+                    if (other == ignored || other.isDestroyed) continue;
+                    neighbourChecks++;
+                    double dx = other.getX() + other.getMaskX() + other.getMaskWidth() / 2.0 - x;
+                    double dy = other.getY() + other.getMaskY() + other.getMaskHeight() / 2.0 - y;
+                    double distanceSq = dx * dx + dy * dy;
+                    if (distanceSq > rangeSq) continue;
+                    insertNeighbour(j, distanceSq, limit);
+                }
+            }
+        }
+    }
+
+    private void insertNeighbour(int index, double distanceSq, int limit) {
+        int i = neighbourCount;
+        if (i == limit) {
+            if (distanceSq >= neighbourDistanceSq[i - 1]) return;
+            i--;
+        } else {
+            neighbourCount++;
+        }
+        while (i > 0 && neighbourDistanceSq[i - 1] > distanceSq) {
+            neighbours[i] = neighbours[i - 1];
+            neighbourDistanceSq[i] = neighbourDistanceSq[i - 1];
+            i--;
+        }
+        neighbours[i] = index;
+        neighbourDistanceSq[i] = distanceSq;
+    }
+
+    /**
+     * Adjusts the velocity an agent wants so it flows around its neighbours instead of pushing into them.
+     *
+     * @param agent    The steered agent. Agents that are not members of the crowd get their desired velocity back.
+     * @param desiredX The desired velocity on the X axis, in pixels per tick (0 when standing still).
+     * @param desiredY The desired velocity on the Y axis, in pixels per tick.
+     * @param maxSpeed The maximum speed of the agent, in pixels per tick.
+     * @param ignored  A member that is not avoided (e.g. the target being chased), or null.
+     * @param out      Receives the steered velocity: {@code out[0]} on X and {@code out[1]} on Y.
+     */
+    public void steer(GameObject agent, double desiredX, double desiredY, double maxSpeed, GameObject ignored, double[] out) {
+        out[0] = desiredX;
+        out[1] = desiredY;
+        Integer slot = slots.get(agent);
+        if (slot == null || slot < 0) return;
+        int self = slot;
+
+        double x = agent.getX() + agent.getMaskX() + agent.getMaskWidth() / 2.0;
+        double y = agent.getY() + agent.getMaskY() + agent.getMaskHeight() / 2.0;
+        gatherNeighbours(self, x, y, ignored);
+        if (neighbourCount == 0) return;
+
+        // Separation and alignment
+        double pushX = 0, pushY = 0, alignX = 0, alignY = 0;
+        int moving = 0;
+        for (int n = 0; n < neighbourCount; n++) {
+            int j = neighbours[n];
+            GameObject other = snapshot[j];
+            double dx = x - (other.getX() + other.getMaskX() + other.getMaskWidth() / 2.0);
+            double dy = y - (other.getY() + other.getMaskY() + other.getMaskHeight() / 2.0);
+            double distance = Math.sqrt(neighbourDistanceSq[n]);
+            double range = radius[self] + radius[j] + separationDistance;
+            if (distance < range) {
+                if (distance < 1e-6) {
+                    // Exactly on top of each other: split them apart in a stable direction.
+                    dx = self < j ? 1 : -1;
+                    dy = 0;
+                    distance = 1;
+                }
+                double strength = 1 - distance / range;
+                pushX += dx / distance * strength;
+                pushY += dy / distance * strength;
+            }
+            if (velX[j] != 0 || velY[j] != 0) {
+                alignX += velX[j];
+                alignY += velY[j];
+                moving++;
+            }
+        }
+        double prefX = desiredX + pushX * separationWeight * maxSpeed;
+        double prefY = desiredY + pushY * separationWeight * maxSpeed;
+        if (moving > 0 && (desiredX != 0 || desiredY != 0)) {
+            prefX += (alignX / moving - desiredX) * alignmentWeight;
+            prefY += (alignY / moving - desiredY) * alignmentWeight;
+        }
+        double prefSpeed = Math.sqrt(prefX * prefX + prefY * prefY);
+        if (prefSpeed > maxSpeed) {
+            prefX *= maxSpeed / prefSpeed;
+            prefY *= maxSpeed / prefSpeed;
+            prefSpeed = maxSpeed;
+        }
+        out[0] = prefX;
+        out[1] = prefY;
+
+        // Velocity obstacle: only search for another velocity if this one collides within the horizon.
+        if (prefSpeed < 1e-6 || timeToCollision(self, x, y, prefX, prefY) >= avoidanceHorizon) return;
+
+        double bestPenalty = Double.MAX_VALUE;
+        for (double speedFactor : SAMPLE_SPEEDS) {
+            for (int k = 0; k < SAMPLE_ANGLES.length; k++) {
+                // The preferred velocity rotated by the sample angle and scaled
+                double candidateX = (prefX * SAMPLE_COS[k] - prefY * SAMPLE_SIN[k]) * speedFactor;
+                double candidateY = (prefX * SAMPLE_SIN[k] + prefY * SAMPLE_COS[k]) * speedFactor;
+                double ttc = timeToCollision(self, x, y, candidateX, candidateY);
+                double ex = candidateX - prefX, ey = candidateY - prefY;
+                double penalty = avoidanceWeight * maxSpeed / Math.max(ttc, 0.1) + Math.sqrt(ex * ex + ey * ey);
+                if (penalty < bestPenalty) {
+                    bestPenalty = penalty;
+                    out[0] = candidateX;
+                    out[1] = candidateY;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes how many ticks an agent moving at a velocity takes to touch the nearest gathered neighbour,
+     * assuming the neighbours keep their measured velocities.
+     *
+     * @return The time to collision, or {@link Double#MAX_VALUE} if none is ahead.
+     */
+    private double timeToCollision(int self, double x, double y, double vx, double vy) {
+        double best = Double.MAX_VALUE;
+        for (int n = 0; n < neighbourCount; n++) {
+            int j = neighbours[n];
+            GameObject other = snapshot[j];
+            double px = other.getX() + other.getMaskX() + other.getMaskWidth() / 2.0 - x;
+            double py = other.getY() + other.getMaskY() + other.getMaskHeight() / 2.0 - y;
+            double rvx = vx - velX[j], rvy = vy - velY[j];
+            double r = radius[self] + radius[j];
+            double c = px * px + py * py - r * r;
+            double b = px * rvx + py * rvy;
+            if (c < 0) {
+                // Already touching: only velocities that close the gap collide.
+                if (b > 0) return 0;
+                continue;
+            }
+            double a = rvx * rvx + rvy * rvy;
+            if (b <= 0 || a < 1e-9) continue; // Moving apart or together at the same velocity
+            double discriminant = b * b - a * c;
+            if (discriminant <= 0) continue; // Passes by
+            double t = (b - Math.sqrt(discriminant)) / a;
+            if (t < best) best = t;
+        }
+        return best;
+    }
+
+    /**
+     * Checks if a rectangle overlaps the collision mask of a member near an agent. Used as a hard
+     * constraint when moving, after steering. Members the agent already overlaps are not reported,
+     * so agents that spawned on top of each other can still separate.
+     *
+     * @param agent   The agent being moved (never reported as an overlap). Non-members are never blocked.
+     * @param left    The left edge of the rectangle, in pixels.
+     * @param top     The top edge of the rectangle, in pixels.
+     * @param width   The width of the rectangle.
+     * @param height  The height of the rectangle.
+     * @param ignored A member that is not checked (e.g. the target being chased), or null.
+     * @return true if the rectangle touches a member's mask.
+     */
+    public boolean overlapsMember(GameObject agent, int left, int top, int width, int height, GameObject ignored) {
+        Integer slot = slots.get(agent);
+        if (slot == null || slot < 0) return false;
+        int ax = agent.getX() + agent.getMaskX(), ay = agent.getY() + agent.getMaskY();
+        int aw = agent.getMaskWidth(), ah = agent.getMaskHeight();
+        int cx = (int) Math.floor((left + width / 2.0) / neighbourRadius);
+        int cy = (int) Math.floor((top + height / 2.0) / neighbourRadius);
+        for (int oy = -1; oy <= 1; oy++) {
+            for (int ox = -1; ox <= 1; ox++) {
+                int tx = cx + ox, ty = cy + oy;
+                for (int j = cellHead[bucketOf(tx, ty)]; j >= 0; j = cellNext[j]) {
+                    if (j == slot || cellX[j] != tx || cellY[j] != ty) continue;
+                    GameObject other = snapshot[j];
+                    if (other == ignored || other.isDestroyed) continue;
+                    int ox0 = other.getX() + other.getMaskX();
+                    int oy0 = other.getY() + other.getMaskY();
+                    int ow = other.getMaskWidth(), oh = other.getMaskHeight();
+                    if (left < ox0 + ow && left + width > ox0 && top < oy0 + oh && top + height > oy0
+                            && !(ax < ox0 + ow && ax + aw > ox0 && ay < oy0 + oh && ay + ah > oy0)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // --- CONFIGURATION ---
+
+    /**
+     * Sets the distance within which members see each other. It is also the size of the grid cells,
+     * so it should be at least the width of the largest member plus the separation distance.
+     * @param pixels The neighbour radius (at least 1).
+     */
+    public void setNeighbourRadius(double pixels) { this.neighbourRadius = Math.max(1, pixels); }
+
+    /** @return The distance within which members see each other, in pixels. */
+    public double getNeighbourRadius() { return neighbourRadius; }
+
+    /**
+     * Sets the gap agents try to keep between their masks.
+     * @param pixels The separation distance.
+     */
+    public void setSeparationDistance(double pixels) { this.separationDistance = Math.max(0, pixels); }
+
+    /**
+     * Sets the steering weights.
+     * @param separation How hard agents push away from close neighbours, relative to their speed.
+     * @param alignment  How much of the neighbours' average velocity is blended in (0 to 1).
+     * @param avoidance  How strongly imminent collisions are penalised when choosing a velocity.
+     */
+    public void setWeights(double separation, double alignment, double avoidance) {
+        this.separationWeight = Math.max(0, separation);
+        this.alignmentWeight = Math.max(0, Math.min(1, alignment));
+        this.avoidanceWeight = Math.max(0, avoidance);
+    }
+
+    /**
+     * Sets how far ahead collisions are anticipated.
+     * @param ticks The avoidance horizon in ticks.
+     */
+    public void setAvoidanceHorizon(double ticks) { this.avoidanceHorizon = Math.max(1, ticks); }
+
+    /**
+     * Sets how many of the closest neighbours each agent considers.
+     * @param count The neighbour count (1 to 32).
+     */
+    public void setMaxNeighbours(int count) { this.maxNeighbours = Math.max(1, Math.min(neighbours.length, count)); }
+
+    // --- METRICS ---
+
+    /** @return The number of members in the crowd. */
+    public int getMemberCount() { return members.size(); }
+
+    /** @return The number of neighbour distance checks performed during the last tick. */
+    public long getNeighbourChecksLastFrame() { return neighbourChecksLastFrame; }
+
+    /**
+     * Removes every member.
+     */
+    public void reset() {
+        members.clear();
+        slots.clear();
+        Arrays.fill(snapshot, null);
+        snapshotCount = 0;
+        Arrays.fill(cellHead, -1);
+        neighbourChecks = neighbourChecksLastFrame = 0;
+    }
+}
@@ -0,0 +1,257 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.util.Arrays;
+
+import com.jdstudio.engine.World.IWalkabilityListener;
+import com.jdstudio.engine.World.World;
+
+/**
+ * A flow field (Dijkstra map) that leads any number of agents to one target.
+ * <p>
+ * A single integration pass runs Dijkstra outwards from the target tile over the walkable grid.
+ * Every reached tile stores its distance to the target and the direction of the neighbour it was
+ * reached from, which is the first step of an optimal path. Agents then sample the field in O(1)
+ * instead of running their own searches, so a horde chasing the player costs one search, not N.
+ * <p>
+ * The integration is incremental: it is spread over ticks with an expansion budget and written
+ * into a back buffer, while agents keep sampling the last completed field. A new integration
+ * starts when the target changes tile or the walkability (or movement cost) of the world changes.
+ * Fields are created, registered with their world and updated by the {@link FlowFieldManager}.
+ */
+public class FlowField implements IWalkabilityListener {
+
+    /** Direction value of tiles that were not reached (or of the target tile itself). */
+    public static final byte NO_DIRECTION = -1;
+
+    private final World world;
+    private final int width;
+    private final int height;
+
+    // Published (front) buffers, sampled by agents.
+    private float[] distance;
+    private byte[] direction;
+    private int targetTileX = -1, targetTileY = -1;
+    private boolean ready = false;
+
+    // Back buffers, written by the integration in progress.
+    private float[] nextDistance;
+    private byte[] nextDirection;
+    private final float[] zeros;
+    private final IndexedMinHeap open;
+    private boolean building = false;
+    private int buildTargetX, buildTargetY;
+
+    private int requestedTargetX = -1, requestedTargetY = -1;
+    private boolean dirty = false;
+    private float maxDistance = Float.POSITIVE_INFINITY;
+    private int expansionsPerTick = 16384;
+
+    /**
+     * Creates an empty flow field over a world. It has no target until {@link #setTargetTile} is
+     * called, and does not see walkability changes until the {@link FlowFieldManager} registers it.
+     * @param world The world to integrate over.
+     */
+    FlowField(World world) {
+        this.world = world;
+        this.width = world.WIDTH;
+        this.height = world.HEIGHT;
+        int size = width * height;
+        this.distance = new float[size];
+        this.direction = new byte[size];
+        this.nextDistance = new float[size];
+        this.nextDirection = new byte[size];
+        this.zeros = new float[size];
+        this.open = new IndexedMinHeap(size);
+        this.open.setPriorities(nextDistance, zeros);
+        Arrays.fill(distance, Float.POSITIVE_INFINITY);
+        Arrays.fill(direction, NO_DIRECTION);
+    }
+
+    /**
+     * Sets the target tile. If it differs from the current one, a new integration is scheduled.
+     * @param tileX The target x-coordinate in the tile grid.
+     * @param tileY The target y-coordinate in the tile grid.
+     */
+    public void setTargetTile(int tileX, int tileY) {
+        if (tileX == requestedTargetX && tileY == requestedTargetY) return;
+        requestedTargetX = tileX;
+        requestedTargetY = tileY;
+        dirty = true;
+    }
+
+    /** Forces a new integration on the next update (e.g. after changing tile costs in place). */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    @Override
+    public void onWalkabilityChanged(int x, int y, int w, int h) {
+        dirty = true;
+    }
+
+    /**
+     * Advances the integration by up to the configured expansion budget, starting a new one if
+     * the target moved or the world changed. Called once per tick by the {@link FlowFieldManager}.
+     */
+    public void update() {
+        if (!building) {
+            if (!dirty || requestedTargetX < 0) return;
+            startBuild();
+        }
+        step(expansionsPerTick);
+    }
+
+    /**
+     * Runs the whole integration immediately.
+     */
+    public void rebuildNow() {
+        if (requestedTargetX < 0) return;
+        if (!building || dirty) startBuild();
+        step(Integer.MAX_VALUE);
+    }
+
+    private void startBuild() {
+        dirty = false;
+        building = true;
+        buildTargetX = Math.max(0, Math.min(width - 1, requestedTargetX));
+        buildTargetY = Math.max(0, Math.min(height - 1, requestedTargetY));
+        open.clear();
+        Arrays.fill(nextDistance, Float.POSITIVE_INFINITY);
+        Arrays.fill(nextDirection, NO_DIRECTION);
+        int target = buildTargetX + buildTargetY * width;
+        nextDistance[target] = 0;
+        open.push(target);
+    }
+
+    private void step(int budget) {
+        boolean weighted = world.hasMovementCosts();
+        int expanded = 0;
+        while (!open.isEmpty() && expanded < budget) {
+            int current = open.pop();
+            expanded++;
+            float currentDistance = nextDistance[current];
+            if (currentDistance > maxDistance) {
+                open.clear();
+                break;
+            }
+            int cx = current % width;
+            int cy = current / width;
+            for (int d = 0; d < 8; d++) {
+                int nx = cx + SearchContext.DX[d];
+                int ny = cy + SearchContext.DY[d];
+                if (nx < 0 || nx >= width || ny < 0 || ny >= height || isSolid(nx, ny)) continue;
+                int neighbour = nx + ny * width;
+                float step = (SearchContext.DX[d] != 0 && SearchContext.DY[d] != 0)
+                        ? SearchContext.MOVE_DIAGONAL_COST : SearchContext.MOVE_STRAIGHT_COST;
+                if (weighted) step *= world.getMovementCost(cx, cy); // Entering the current tile
+                float candidate = currentDistance + step;
+                if (candidate < nextDistance[neighbour]) {
+                    nextDistance[neighbour] = candidate;
+                    // The neighbour's first step leads back to the tile it was reached from: 7 - d is the opposite offset.
+                    nextDirection[neighbour] = (byte) (7 - d);
+                    if (open.contains(neighbour)) {
+                        open.decreaseKey(neighbour);
+                    } else {
+                        open.push(neighbour);
+                    }
+                }
+            }
+        }
+        if (open.isEmpty()) {
+            publish();
+        }
+    }
+
+    private void publish() {
+        float[] d = distance;
+        distance = nextDistance;
+        nextDistance = d;
+        byte[] dir = direction;
+        direction = nextDirection;
+        nextDirection = dir;
+        open.setPriorities(nextDistance, zeros);
+        targetTileX = buildTargetX;
+        targetTileY = buildTargetY;
+        building = false;
+        ready = true;
+    }
+
+    private boolean isSolid(int x, int y) {
+        return world.isBlocked(x, y);
+    }
+
+    // --- SAMPLING ---
+
+    /** @return true once at least one integration has completed. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** @return true while a new integration is in progress (the previous field is still sampled). */
+    public boolean isBuilding() {
+        return building;
+    }
+
+    /**
+     * Gets the step direction of a tile as an index into the 8 neighbour offsets,
+     * or {@link #NO_DIRECTION} if the tile is the target or cannot reach it.
+     */
+    public byte getDirection(int tileX, int tileY) {
+        if (tileX < 0 || tileX >= width || tileY < 0 || tileY >= height) return NO_DIRECTION;
+        return direction[tileX + tileY * width];
+    }
+
+    /** @return The x step (-1, 0 or 1) of a direction returned by {@link #getDirection}. */
+    public static int stepX(byte direction) {
+        return direction < 0 ? 0 : SearchContext.DX[direction];
+    }
+
+    /** @return The y step (-1, 0 or 1) of a direction returned by {@link #getDirection}. */
+    public static int stepY(byte direction) {
+        return direction < 0 ? 0 : SearchContext.DY[direction];
+    }
+
+    /**
+     * Gets the path cost from a tile to the target (10 per straight step, 14.14 per diagonal step,
+     * multiplied by the {@link World#getMovementCost movement cost} of the tile entered).
+     * @return The cost, or {@link Float#POSITIVE_INFINITY} if the tile cannot reach the target.
+     */
+    public float getDistance(int tileX, int tileY) {
+        if (tileX < 0 || tileX >= width || tileY < 0 || tileY >= height) return Float.POSITIVE_INFINITY;
+        return distance[tileX + tileY * width];
+    }
+
+    /** @return The target tile x of the published field, or -1 if none. */
+    public int getTargetTileX() { return targetTileX; }
+
+    /** @return The target tile y of the published field, or -1 if none. */
+    public int getTargetTileY() { return targetTileY; }
+
+    /** @return The world this field integrates over. */
+    public World getWorld() { return world; }
+
+    // --- CONFIGURATION ---
+
+    /**
+     * Limits the integration to tiles whose distance to the target is at most the given number
+     * of straight steps. Agents farther away get no direction. Unlimited by default.
+     * @param tiles The radius in tiles, or 0 or less for no limit.
+     */
+    public void setMaxDistance(int tiles) {
+        this.maxDistance = tiles <= 0 ? Float.POSITIVE_INFINITY : tiles * SearchContext.MOVE_STRAIGHT_COST;
+        dirty = true;
+    }
+
+    /**
+     * Sets how many tiles the integration may expand per tick.
+     * @param expansions The budget per tick (at least 1).
+     */
+    public void setExpansionsPerTick(int expansions) {
+        this.expansionsPerTick = Math.max(1, expansions);
+    }
+
+    /** Stops listening to the world. Called when the field is removed from its manager. */
+    public void dispose() {
+        world.removeWalkabilityListener(this);
+    }
+}
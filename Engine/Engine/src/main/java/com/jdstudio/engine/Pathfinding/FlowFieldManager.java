@@ -0,0 +1,123 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.jdstudio.engine.Object.GameObject;
+import com.jdstudio.engine.World.World;
+
+/**
+ * A Singleton that owns the named {@link FlowField}s of the game and keeps them up to date.
+ * <p>
+ * A field is created once (e.g. {@code "player"} when a level loads) and given a target, either a
+ * fixed tile or a GameObject it follows. Every tick, called from the engine's main loop, the
+ * manager moves each field's target to the tile its GameObject stands on and advances any
+ * integration in progress. {@link com.jdstudio.engine.Components.Moviments.AIMovementComponent}s
+ * can follow a field by name instead of requesting their own paths.
+ *
+ * @author JDStudio
+ */
+public class FlowFieldManager {
+
+    private static final FlowFieldManager instance = new FlowFieldManager();
+
+    private final Map<String, FlowField> fields = new HashMap<>();
+    private final Map<String, GameObject> targets = new HashMap<>();
+
+    private FlowFieldManager() {}
+
+    /**
+     * Gets the single instance of the FlowFieldManager.
+     * @return The singleton instance.
+     */
+    public static FlowFieldManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * Creates (or replaces) a named flow field over a world.
+     *
+     * @param name  The name agents use to follow the field.
+     * @param world The world to integrate over.
+     * @return The new field, for further configuration.
+     */
+    public FlowField createField(String name, World world) {
+        removeField(name);
+        FlowField field = new FlowField(world);
+        world.addWalkabilityListener(field);
+        fields.put(name, field);
+        return field;
+    }
+
+    /**
+     * Gets a named flow field.
+     * @param name The name of the field.
+     * @return The field, or null if none exists with that name.
+     */
+    public FlowField getField(String name) {
+        return fields.get(name);
+    }
+
+    /**
+     * Removes a named flow field.
+     * @param name The name of the field.
+     */
+    public void removeField(String name) {
+        FlowField field = fields.remove(name);
+        targets.remove(name);
+        if (field != null) field.dispose();
+    }
+
+    /**
+     * Makes a field lead to a GameObject. The target tile follows the object's center every tick.
+     *
+     * @param name   The name of the field.
+     * @param target The GameObject to lead to.
+     */
+    public void setTarget(String name, GameObject target) {
+        if (!fields.containsKey(name)) return;
+        targets.put(name, target);
+    }
+
+    /**
+     * Makes a field lead to a fixed point.
+     *
+     * @param name The name of the field.
+     * @param x    The target x-coordinate in world coordinates (pixels).
+     * @param y    The target y-coordinate in world coordinates (pixels).
+     */
+    public void setTarget(String name, int x, int y) {
+        FlowField field = fields.get(name);
+        if (field == null) return;
+        targets.remove(name);
+        World world = field.getWorld();
+        field.setTargetTile(x / world.tileWidth, y / world.tileHeight);
+    }
+
+    /**
+     * Moves every field's target to its GameObject's current tile and advances the integrations.
+     * Called by the engine once per tick.
+     */
+    public void update() {
+        for (Map.Entry<String, FlowField> entry : fields.entrySet()) {
+            FlowField field = entry.getValue();
+            GameObject target = targets.get(entry.getKey());
+            if (target != null && !target.isDestroyed) {
+                World world = field.getWorld();
+                field.setTargetTile((int) target.getCenterX() / world.tileWidth, (int) target.getCenterY() / world.tileHeight);
+            }
+            field.update();
+        }
+    }
+
+    /**
+     * Removes every flow field.
+     */
+    public void reset() {
+        for (FlowField field : fields.values()) {
+            field.dispose();
+        }
+        fields.clear();
+        targets.clear();
+    }
+}
@@ -103,14 +103,14 @@ public class Grid {
     }
 
     /**
-     * Gets the movement penalty for a given node.
-     * This can be used to make certain tiles more "expensive" to traverse.
+     * Gets the movement penalty for a given node: the extra cost of a straight step onto it,
+     * derived from the world's {@link World#getMovementCost movement cost} of the tile
+     * (e.g. "water" or "mud" tiles). The {@link Pathfinder} reads the tile costs itself
+     * instead of going through this method.
      * @param node The node to check.
-     * @return The movement penalty cost.
+     * @return The movement penalty cost (0 for plain tiles).
      */
     public double getMovementPenalty(Node node) {
-        // For now, we don't have different penalties for different tiles.
-        // This could be extended to, for example, add a higher cost for "water" or "mud" tiles.
-        return 0;
+        return (world.getMovementCost(node.x, node.y) - 1) * SearchContext.MOVE_STRAIGHT_COST;
     }
 }
@@ -0,0 +1,271 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.awt.Point;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import com.jdstudio.engine.World.World;
+
+/**
+ * A Singleton that solves path searches on the game thread under a fixed per-frame budget.
+ * <p>
+ * Every tick, called from the engine's main loop, the manager spends at most
+ * {@link #setExpansionBudget(int) a number of node expansions} shared by all running searches,
+ * so a burst of agents repathing at once (or one cross-map query) can never cost more than that
+ * budget in a frame. A few searches run at the same time, each in its own reusable search
+ * context; the others wait by priority. While a search is running, its agent can follow the
+ * {@link IncrementalSearch#getPartialPath() best partial path} found so far.
+ * <p>
+ * Unlike the {@link PathfindingService}, no worker threads are involved, which keeps results
+ * deterministic. Only the latest search of each agent matters, and solved paths go through the
+ * world's {@link PathCache}.
+ *
+ * @author JDStudio
+ */
+public class IncrementalPathfinder {
+
+    /** The smallest slice of the budget given to a running search, so tiny slices don't thrash. */
+    private static final int MIN_SLICE = 64;
+
+    /** Higher priority first, then first come, first served. */
+    private static final Comparator<IncrementalSearch> ORDER =
+            Comparator.comparingInt((IncrementalSearch s) -> -s.priority).thenComparingLong(s -> s.sequence);
+
+    // Declared after ORDER, which the constructor needs.
+    private static final IncrementalPathfinder instance = new IncrementalPathfinder();
+
+    private final PriorityQueue<IncrementalSearch> waiting = new PriorityQueue<>(ORDER);
+    private final List<IncrementalSearch> running = new ArrayList<>();
+    private final ArrayDeque<IncrementalSearch> finished = new ArrayDeque<>();
+    private final Map<Object, IncrementalSearch> pendingByAgent = new HashMap<>();
+    private final List<SearchContext> freeContexts = new ArrayList<>();
+    private long nextSequence = 0;
+
+    private int expansionBudget = 20000;
+    private int maxConcurrentSearches = 4;
+
+    // Metrics
+    private int expansionsLastFrame = 0;
+    private long completedCount = 0;
+    private long restartCount = 0;
+
+    private IncrementalPathfinder() {}
+
+    /**
+     * Gets the single instance of the IncrementalPathfinder.
+     * @return The singleton instance.
+     */
+    public static IncrementalPathfinder getInstance() {
+        return instance;
+    }
+
+    /**
+     * Submits a path search. A newer search from the same agent supersedes this one.
+     *
+     * @param agent     The requesting agent. May be null to opt out of coalescing.
+     * @param world     The world to search.
+     * @param start     The starting point in world coordinates (pixels).
+     * @param goal      The target point in world coordinates (pixels).
+     * @param agentSize The larger side of the agent in pixels (0 or less behaves as one tile).
+     * @param priority  Searches with a higher priority are started first.
+     * @param algorithm The search algorithm to use ({@code HIERARCHICAL} searches flat).
+     * @param callback  Receives the path (empty if none was found) during a later {@link #update()}.
+     * @return A handle to cancel the search or read its partial path.
+     */
+    public IncrementalSearch requestPath(Object agent, World world, Point start, Point goal, int agentSize,
+                                         int priority, Pathfinder.Algorithm algorithm, Consumer<List<Point>> callback) {
+        IncrementalSearch search = new IncrementalSearch(agent, world,
+                start.x / world.tileWidth, start.y / world.tileHeight,
+                goal.x / world.tileWidth, goal.y / world.tileHeight,
+                Pathfinder.clearanceFor(world.tileWidth, world.tileHeight, agentSize), algorithm,
+                priority, nextSequence++, callback);
+
+        if (agent != null) {
+            IncrementalSearch previous = pendingByAgent.put(agent, search);
+            if (previous != null) previous.cancel();
+        }
+
+        if (PathCache.isEnabled()) {
+            search.result = PathCache.forWorld(world).get(search.startX, search.startY, search.goalX, search.goalY,
+                    search.clearance, search.algorithm);
+        }
+        if (search.result != null) {
+            finished.add(search);
+        } else {
+            waiting.add(search);
+        }
+        return search;
+    }
+
+    /**
+     * Cancels the search of an agent, if any.
+     * @param agent The agent whose search should be dropped.
+     */
+    public void cancel(Object agent) {
+        IncrementalSearch previous = pendingByAgent.remove(agent);
+        if (previous != null) previous.cancel();
+    }
+
+    /**
+     * Gets the search of an agent that has not been delivered yet.
+     * @param agent The agent.
+     * @return The search, or null if the agent has none.
+     */
+    public IncrementalSearch getSearch(Object agent) {
+        return pendingByAgent.get(agent);
+    }
+
+    /**
+     * Advances the running searches by up to the expansion budget and delivers the finished ones.
+     * Called by the engine once per tick.
+     */
+    public void update() {
+        int budget = expansionBudget;
+        startWaitingSearches();
+        while (budget > 0 && !running.isEmpty()) {
+            int slice = Math.max(MIN_SLICE, budget / running.size());
+            for (int i = 0; i < running.size() && budget > 0; i++) {
+                IncrementalSearch search = running.get(i);
+                int status = SearchContext.RUNNING;
+                if (search.isCancelled()) {
+                    status = SearchContext.NOT_FOUND;
+                } else if (search.version != search.world.getWalkabilityVersion()) {
+                    restartCount++;
+                    status = search.begin(search.context); // The tiles changed under the search
+                }
+                if (status == SearchContext.RUNNING) {
+                    SearchContext context = search.context;
+                    int before = context.expandedNodes;
+                    status = context.step(Math.min(slice, budget));
+                    budget -= context.expandedNodes - before;
+                }
+                if (status != SearchContext.RUNNING) {
+                    finish(search, status);
+                    running.remove(i--);
+                }
+            }
+            startWaitingSearches();
+        }
+        expansionsLastFrame = expansionBudget - budget;
+
+        IncrementalSearch search;
+        while ((search = finished.poll()) != null) {
+            if (search.agent != null && pendingByAgent.get(search.agent) == search) {
+                pendingByAgent.remove(search.agent);
+            }
+            if (search.isCancelled()) continue;
+            completedCount++;
+            if (search.callback != null) {
+                search.callback.accept(search.result);
+            }
+        }
+    }
+
+    /**
+     * Moves waiting searches into free slots, dropping cancelled ones.
+     */
+    private void startWaitingSearches() {
+        while (running.size() < maxConcurrentSearches && !waiting.isEmpty()) {
+            IncrementalSearch search = waiting.poll();
+            if (search.isCancelled()) continue;
+            int status = search.begin(acquireContext(search.world));
+            if (status == SearchContext.RUNNING) {
+                running.add(search);
+            } else {
+                finish(search, status);
+            }
+        }
+    }
+
+    private void finish(IncrementalSearch search, int status) {
+        SearchContext context = search.context;
+        search.result = status == SearchContext.FOUND ? context.pathTo(context.bestNode) : new ArrayList<>();
+        search.context = null;
+        freeContexts.add(context);
+        if (!search.isCancelled() && PathCache.isEnabled()) {
+            PathCache.forWorld(search.world).put(search.startX, search.startY, search.goalX, search.goalY,
+                    search.clearance, search.algorithm, search.version, search.result, search.tiles);
+        }
+        finished.add(search);
+    }
+
+    private SearchContext acquireContext(World world) {
+        for (int i = freeContexts.size() - 1; i >= 0; i--) {
+            SearchContext context = freeContexts.remove(i);
+            if (context.fits(world.WIDTH, world.HEIGHT, world.tileWidth, world.tileHeight)) return context;
+        }
+        // Contexts that do not fit belong to another map size and are dropped.
+        return new SearchContext(world.WIDTH, world.HEIGHT, world.tileWidth, world.tileHeight);
+    }
+
+    // --- CONFIGURATION ---
+
+    /**
+     * Sets how many node expansions all searches may perform together per frame.
+     * @param expansions The budget per frame (at least 1).
+     */
+    public void setExpansionBudget(int expansions) {
+        this.expansionBudget = Math.max(1, expansions);
+    }
+
+    /** @return The number of node expansions allowed per frame. */
+    public int getExpansionBudget() {
+        return expansionBudget;
+    }
+
+    /**
+     * Sets how many searches are advanced at the same time. Each one holds a search context
+     * sized to its world, so this also bounds the memory used.
+     * @param count The number of concurrent searches (at least 1).
+     */
+    public void setMaxConcurrentSearches(int count) {
+        this.maxConcurrentSearches = Math.max(1, count);
+    }
+
+    /** @return The number of searches advanced at the same time. */
+    public int getMaxConcurrentSearches() {
+        return maxConcurrentSearches;
+    }
+
+    // --- METRICS ---
+
+    /** @return The number of node expansions performed during the last update. */
+    public int getExpansionsLastFrame() { return expansionsLastFrame; }
+
+    /** @return The number of searches currently being advanced. */
+    public int getRunningCount() { return running.size(); }
+
+    /** @return The number of searches waiting for a free slot. */
+    public int getWaitingCount() { return waiting.size(); }
+
+    /** @return The number of paths delivered since the last reset. */
+    public long getCompletedCount() { return completedCount; }
+
+    /** @return The number of searches restarted because the world changed while they ran. */
+    public long getRestartCount() { return restartCount; }
+
+    /**
+     * Drops every search and metric. Search contexts are released.
+     */
+    public void reset() {
+        for (IncrementalSearch search : pendingByAgent.values()) {
+            search.cancel();
+        }
+        for (IncrementalSearch search : running) {
+            search.context = null;
+        }
+        pendingByAgent.clear();
+        waiting.clear();
+        running.clear();
+        finished.clear();
+        freeContexts.clear();
+        expansionsLastFrame = 0;
+        completedCount = restartCount = 0;
+    }
+}
@@ -0,0 +1,117 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.jdstudio.engine.World.World;
+
+/**
+ * A path search advanced a few node expansions at a time by the {@link IncrementalPathfinder}.
+ * <p>
+ * The search runs on the game thread against the live tiles of its world. While it is running,
+ * {@link #getPartialPath()} gives the path to the tile closest to the goal found so far, so the
+ * agent can start walking before the full path is known. If the world's walkability changes
+ * before the search ends, it starts over.
+ */
+public final class IncrementalSearch {
+
+    final Object agent;
+    final World world;
+    final int startX, startY, goalX, goalY;
+    final int clearance;
+    final Pathfinder.Algorithm algorithm;
+    final int priority;
+    final long sequence;
+    final Consumer<List<Point>> callback;
+    /** The live tiles of the world. */
+    final Walkability tiles;
+
+    /** The context holding the search state while it runs, otherwise null. */
+    SearchContext context;
+    /** The walkability version the running search started at. */
+    int version;
+    List<Point> result;
+    private boolean cancelled = false;
+
+    IncrementalSearch(Object agent, World world, int startX, int startY, int goalX, int goalY, int clearance,
+                      Pathfinder.Algorithm algorithm, int priority, long sequence, Consumer<List<Point>> callback) {
+        this.agent = agent;
+        this.world = world;
+        this.startX = startX;
+        this.startY = startY;
+        this.goalX = goalX;
+        this.goalY = goalY;
+        this.clearance = clearance;
+        // The hierarchical planner is not time-sliced; long routes are simply spread over more frames.
+        this.algorithm = algorithm == Pathfinder.Algorithm.HIERARCHICAL ? Pathfinder.Algorithm.AUTO : algorithm;
+        this.priority = priority;
+        this.sequence = sequence;
+        this.callback = callback;
+        this.tiles = new Walkability() {
+            @Override
+            public boolean isSolid(int x, int y) {
+                return world.isBlocked(x, y);
+            }
+
+            @Override
+            public float movementCost(int x, int y) {
+                return world.getMovementCost(x, y);
+            }
+
+            @Override
+            public boolean hasMovementCosts() {
+                return world.hasMovementCosts();
+            }
+        };
+    }
+
+    /**
+     * Starts (or restarts) the search in a context.
+     * @return The status returned by {@link SearchContext#begin}.
+     */
+    int begin(SearchContext context) {
+        this.context = context;
+        this.version = world.getWalkabilityVersion();
+        return context.begin(tiles, clearance, algorithm, startX, startY, goalX, goalY);
+    }
+
+    /**
+     * Gets the path from the start to the tile closest to the goal reached so far.
+     * Allocates a new list, so call it only when the agent needs a new waypoint.
+     *
+     * @return The partial path in world coordinates, or an empty list if the search is not running.
+     */
+    public List<Point> getPartialPath() {
+        if (context == null || context.bestNode < 0) return new ArrayList<>();
+        return context.pathTo(context.bestNode);
+    }
+
+    /**
+     * Cancels the search. Its callback will never be invoked.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** @return true if the search was cancelled or superseded by a newer search of its agent. */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** @return true while the search is being advanced (it has a partial path). */
+    public boolean isRunning() {
+        return context != null;
+    }
+
+    /** @return true once the search has ended (its path may not have been delivered yet). */
+    public boolean isSolved() {
+        return result != null;
+    }
+
+    /** @return The agent that submitted the search. */
+    public Object getAgent() {
+        return agent;
+    }
+}
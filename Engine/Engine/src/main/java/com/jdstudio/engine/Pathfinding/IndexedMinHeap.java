@@ -0,0 +1,124 @@
+package com.jdstudio.engine.Pathfinding;
+
+/**
+ * A binary min-heap of {@code int} node indices with decrease-key support.
+ * <p>
+ * Priorities live in arrays owned by the caller ({@code f}, with {@code h} as a tie-breaker,
+ * matching the ordering of {@link com.jdstudio.engine.Utils.Node#compareTo}), and the heap
+ * keeps the position of every node so {@link #contains} and {@link #decreaseKey} are O(1)
+ * and O(log n). Nothing is allocated after construction.
+ */
+final class IndexedMinHeap {
+
+    private final int[] heap;
+    /** Position of each node in {@link #heap}, or -1 if absent. */
+    private final int[] position;
+    private int size;
+
+    private float[] f;
+    private float[] h;
+
+    /**
+     * @param capacity The number of distinct node indices (the grid size).
+     */
+    IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        java.util.Arrays.fill(position, -1);
+    }
+
+    /**
+     * Binds the priority arrays read by the heap.
+     * @param f The primary priority of each node (lower first).
+     * @param h The tie-breaker of each node (lower first).
+     */
+    void setPriorities(float[] f, float[] h) {
+        this.f = f;
+        this.h = h;
+    }
+
+    /** Removes every node. Only touches the nodes currently in the heap. */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int node) {
+        return position[node] >= 0;
+    }
+
+    /** Adds a node whose priority is already set. */
+    void push(int node) {
+        heap[size] = node;
+        position[node] = size;
+        siftUp(size++);
+    }
+
+    /** Removes and returns the node with the lowest priority. */
+    int pop() {
+        int top = heap[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /** @return The node with the lowest priority, without removing it. */
+    int peek() {
+        return heap[0];
+    }
+
+    /** Restores the heap order after the priority of a contained node was lowered. */
+    void decreaseKey(int node) {
+        siftUp(position[node]);
+    }
+
+    private boolean less(int a, int b) {
+        float fa = f[a], fb = f[b];
+        return fa < fb || (fa == fb && h[a] < h[b]);
+    }
+
+    private void siftUp(int i) {
+        int node = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int parentNode = heap[parent];
+            if (!less(node, parentNode)) break;
+            heap[i] = parentNode;
+            position[parentNode] = i;
+            i = parent;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+
+    private void siftDown(int i) {
+        int node = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], heap[child])) child = right;
+            if (!less(heap[child], node)) break;
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+}
@@ -0,0 +1,164 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jump Point Search over the state of a {@link SearchContext}.
+ * <p>
+ * On grids where every tile costs the same, many optimal paths are symmetric and plain A* expands
+ * all of them. JPS prunes those symmetric branches: from each expanded tile it only follows the
+ * "natural" and "forced" directions, and scans ("jumps") along each one until it reaches the goal
+ * or a tile with a forced neighbour. Only those jump points enter the open set.
+ * <p>
+ * The movement rules are the same as {@link SearchContext#expand} (8 directions, diagonal moves
+ * allowed past corners), so the paths have the same cost as A*. Paths are expanded back to one
+ * waypoint per tile, keeping the {@link Pathfinder#findPath} format.
+ */
+final class JumpPointSearch {
+
+    private final SearchContext c;
+
+    // Candidate directions of the tile being expanded (at most 8).
+    private final int[] dirX = new int[8];
+    private final int[] dirY = new int[8];
+    private int dirCount;
+
+    private int goalX, goalY;
+
+    JumpPointSearch(SearchContext context) {
+        this.c = context;
+    }
+
+    /**
+     * Finds the jump points reachable from an expanded tile and relaxes them.
+     */
+    void expand(int current, int goalX, int goalY) {
+        this.goalX = goalX;
+        this.goalY = goalY;
+        int x = current % c.width;
+        int y = current / c.width;
+        collectDirections(current, x, y);
+
+        float currentG = c.g[current];
+        for (int i = 0; i < dirCount; i++) {
+            int jumpPoint = jump(x + dirX[i], y + dirY[i], dirX[i], dirY[i]);
+            if (jumpPoint < 0 || c.closed[jumpPoint] == c.generation) continue;
+
+            int jx = jumpPoint % c.width;
+            int jy = jumpPoint / c.width;
+            c.relax(current, jumpPoint, currentG + SearchContext.heuristic(x, y, jx, jy), goalX, goalY);
+        }
+    }
+
+    /**
+     * Fills the candidate directions of a tile: all 8 for the start tile, otherwise the natural
+     * neighbours in the direction of travel plus any forced neighbours.
+     */
+    private void collectDirections(int current, int x, int y) {
+        dirCount = 0;
+        int parent = c.parent[current];
+        if (parent < 0) {
+            for (int d = 0; d < 8; d++) {
+                addDirection(x, y, SearchContext.DX[d], SearchContext.DY[d]);
+            }
+            return;
+        }
+
+        int dx = Integer.signum(x - parent % c.width);
+        int dy = Integer.signum(y - parent / c.width);
+        if (dx != 0 && dy != 0) {
+            addDirection(x, y, 0, dy);
+            addDirection(x, y, dx, 0);
+            addDirection(x, y, dx, dy);
+            if (!c.isWalkable(x - dx, y)) addDirection(x, y, -dx, dy);
+            if (!c.isWalkable(x, y - dy)) addDirection(x, y, dx, -dy);
+        } else if (dx != 0) {
+            addDirection(x, y, dx, 0);
+            if (!c.isWalkable(x, y + 1)) addDirection(x, y, dx, 1);
+            if (!c.isWalkable(x, y - 1)) addDirection(x, y, dx, -1);
+        } else {
+            addDirection(x, y, 0, dy);
+            if (!c.isWalkable(x + 1, y)) addDirection(x, y, 1, dy);
+            if (!c.isWalkable(x - 1, y)) addDirection(x, y, -1, dy);
+        }
+    }
+
+    private void addDirection(int x, int y, int dx, int dy) {
+        if (c.isWalkable(x + dx, y + dy)) {
+            dirX[dirCount] = dx;
+            dirY[dirCount] = dy;
+            dirCount++;
+        }
+    }
+
+    /**
+     * Scans from a tile in one direction.
+     *
+     * @return The index of the first jump point found, or -1 if the scan hits an obstacle.
+     */
+    private int jump(int x, int y, int dx, int dy) {
+        while (true) {
+            if (!c.isWalkable(x, y)) return -1;
+            if (x == goalX && y == goalY) return x + y * c.width;
+
+            if (dx != 0 && dy != 0) {
+                if ((c.isWalkable(x - dx, y + dy) && !c.isWalkable(x - dx, y))
+                        || (c.isWalkable(x + dx, y - dy) && !c.isWalkable(x, y - dy))) {
+                    return x + y * c.width;
+                }
+                // A diagonal step is a jump point if a straight scan from it finds one.
+                if (jump(x + dx, y, dx, 0) >= 0 || jump(x, y + dy, 0, dy) >= 0) {
+                    return x + y * c.width;
+                }
+            } else if (dx != 0) {
+                if ((c.isWalkable(x + dx, y + 1) && !c.isWalkable(x, y + 1))
+                        || (c.isWalkable(x + dx, y - 1) && !c.isWalkable(x, y - 1))) {
+                    return x + y * c.width;
+                }
+            } else {
+                if ((c.isWalkable(x + 1, y + dy) && !c.isWalkable(x + 1, y))
+                        || (c.isWalkable(x - 1, y + dy) && !c.isWalkable(x - 1, y))) {
+                    return x + y * c.width;
+                }
+            }
+            x += dx;
+            y += dy;
+        }
+    }
+
+    /**
+     * Walks the jump point chain back from the goal and fills in the tiles between jump points
+     * (each segment is straight or diagonal), returning one waypoint per tile.
+     */
+    List<Point> reconstructPath(int end) {
+        int length = 1;
+        for (int node = end; c.parent[node] != -1; node = c.parent[node]) {
+            length += segmentLength(node, c.parent[node]);
+        }
+        Point[] points = new Point[length];
+        int i = length;
+        int node = end;
+        points[--i] = c.tileCenter(node);
+        while (c.parent[node] != -1) {
+            int from = c.parent[node];
+            int x = node % c.width, y = node / c.width;
+            int dx = Integer.signum(from % c.width - x);
+            int dy = Integer.signum(from / c.width - y);
+            for (int step = segmentLength(node, from); step > 0; step--) {
+                x += dx;
+                y += dy;
+                points[--i] = c.tileCenter(x + y * c.width);
+            }
+            node = from;
+        }
+        List<Point> path = new ArrayList<>(length);
+        for (Point p : points) path.add(p);
+        return path;
+    }
+
+    private int segmentLength(int a, int b) {
+        return Math.max(Math.abs(a % c.width - b % c.width), Math.abs(a / c.width - b / c.width));
+    }
+}
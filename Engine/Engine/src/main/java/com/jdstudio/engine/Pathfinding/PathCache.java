@@ -0,0 +1,242 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.jdstudio.engine.World.IWalkabilityListener;
+import com.jdstudio.engine.World.World;
+
+/**
+ * A least-recently-used cache of solved paths, one per world.
+ * <p>
+ * Agents that patrol or keep walking between the same places (guard posts, doors, shop counters)
+ * request the same tile pairs over and over. Entries are keyed by start tile, goal tile, agent
+ * clearance and algorithm, and tagged with the world's {@link World#getWalkabilityVersion()
+ * walkability version}: a path solved against an older version is never stored.
+ * <p>
+ * When a region's walkability changes, only the entries it can affect are evicted: those whose
+ * path crosses the region (it may now be blocked), those that could become shorter by passing
+ * through it (a lower bound of the detour is below their cost), and every "no path" entry.
+ * <p>
+ * The hit and miss counters are global, so they can be shown in a debug overlay.
+ */
+public final class PathCache implements IWalkabilityListener {
+
+    /** The default maximum number of paths kept per world. */
+    public static final int DEFAULT_CAPACITY = 512;
+
+    private static final Map<World, PathCache> caches = new WeakHashMap<>();
+
+    private static volatile int capacity = DEFAULT_CAPACITY;
+    private static volatile boolean enabled = true;
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
+
+    private record Key(int startX, int startY, int goalX, int goalY, int clearance, Pathfinder.Algorithm algorithm) {}
+
+    /** A cached path, with the tile bounds it covers (footprint included) and its cost. */
+    private static final class Entry {
+        final Point[] points;
+        final int minX, minY, maxX, maxY;
+        final float cost;
+
+        Entry(Point[] points, int minX, int minY, int maxX, int maxY, float cost) {
+            this.points = points;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.cost = cost;
+        }
+    }
+
+    private final int width;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    /** Mirrors the world's walkability version; bumped by every change notification. */
+    private int version;
+
+    private PathCache(World world) {
+        this.width = world.WIDTH;
+        this.tileWidth = world.tileWidth;
+        this.tileHeight = world.tileHeight;
+        this.version = world.getWalkabilityVersion();
+    }
+
+    /**
+     * Gets the cache of a world, creating it (and registering it for walkability changes) on first use.
+     * Must be called on the game thread the first time, since it registers a listener on the world.
+     */
+    static PathCache forWorld(World world) {
+        synchronized (caches) {
+            PathCache cache = caches.get(world);
+            if (cache == null) {
+                cache = new PathCache(world);
+                caches.put(world, cache);
+                world.addWalkabilityListener(cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Drops the cache of a world.
+     */
+    static void release(World world) {
+        PathCache cache;
+        synchronized (caches) {
+            cache = caches.remove(world);
+        }
+        if (cache != null) world.removeWalkabilityListener(cache);
+    }
+
+    /**
+     * Looks up a path.
+     *
+     * @return A fresh copy of the cached path (callers may modify it), or null on a miss.
+     */
+    synchronized List<Point> get(int startX, int startY, int goalX, int goalY, int clearance, Pathfinder.Algorithm algorithm) {
+        Entry entry = entries.get(new Key(startX, startY, goalX, goalY, clearance, algorithm));
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        List<Point> path = new ArrayList<>(entry.points.length);
+        for (Point p : entry.points) path.add(new Point(p));
+        return path;
+    }
+
+    /**
+     * Stores a solved path, unless the world changed since the data it was solved against.
+     *
+     * @param version The walkability version the path was solved against.
+     * @param tiles   The tiles the path was solved against, read for their movement costs.
+     */
+    synchronized void put(int startX, int startY, int goalX, int goalY, int clearance, Pathfinder.Algorithm algorithm,
+                          int version, List<Point> path, Walkability tiles) {
+        if (!enabled || version != this.version) return;
+
+        Point[] points = new Point[path.size()];
+        int minX = startX, minY = startY, maxX = startX, maxY = startY;
+        boolean weighted = tiles.hasMovementCosts();
+        float cost = 0;
+        int px = startX, py = startY;
+        for (int i = 0; i < points.length; i++) {
+            Point p = path.get(i);
+            points[i] = new Point(p);
+            int tx = p.x / tileWidth, ty = p.y / tileHeight;
+            float step = SearchContext.heuristic(px, py, tx, ty);
+            cost += weighted ? step * tiles.movementCost(tx, ty) : step;
+            px = tx;
+            py = ty;
+            minX = Math.min(minX, tx);
+            minY = Math.min(minY, ty);
+            maxX = Math.max(maxX, tx);
+            maxY = Math.max(maxY, ty);
+        }
+        int margin = clearance - 1; // The footprint of large agents reaches past the path tiles
+        entries.put(new Key(startX, startY, goalX, goalY, clearance, algorithm),
+                new Entry(points, minX - margin, minY - margin, maxX + margin, maxY + margin, cost));
+
+        int limit = capacity;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > limit && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public synchronized void onWalkabilityChanged(int x, int y, int width, int height) {
+        version++;
+        int x1 = x + width - 1, y1 = y + height - 1;
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            if (isAffected(e.getKey(), e.getValue(), x, y, x1, y1)) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static boolean isAffected(Key key, Entry entry, int x0, int y0, int x1, int y1) {
+        if (entry.points.length == 0) return true; // An opening anywhere may connect them
+        if (entry.maxX >= x0 && entry.minX <= x1 && entry.maxY >= y0 && entry.minY <= y1) return true;
+
+        // Could a detour through the region beat the cached path? Octile distance is a lower bound
+        // (movement costs are never below 1), which also covers regions that became cheaper.
+        int margin = key.clearance() - 1;
+        int rx0 = x0 - margin, ry0 = y0 - margin, rx1 = x1 + margin, ry1 = y1 + margin;
+        float viaRegion = SearchContext.heuristic(key.startX(), key.startY(),
+                        clamp(key.startX(), rx0, rx1), clamp(key.startY(), ry0, ry1))
+                + SearchContext.heuristic(clamp(key.goalX(), rx0, rx1), clamp(key.goalY(), ry0, ry1),
+                        key.goalX(), key.goalY());
+        return viaRegion < entry.cost - 0.01f;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return value < min ? min : (value > max ? max : value);
+    }
+
+    // --- CONFIGURATION AND METRICS ---
+
+    /**
+     * Sets the maximum number of paths kept per world. Larger caches are trimmed on their next insertion.
+     * @param maxEntries The capacity (0 disables caching).
+     */
+    public static void setCapacity(int maxEntries) {
+        capacity = Math.max(0, maxEntries);
+        enabled = capacity > 0;
+    }
+
+    /** @return The maximum number of paths kept per world. */
+    public static int getCapacity() { return capacity; }
+
+    /** @return true if solved paths are cached. */
+    public static boolean isEnabled() { return enabled; }
+
+    /** @return The number of lookups answered from the cache since the last counter reset. */
+    public static long getHitCount() { return hits.sum(); }
+
+    /** @return The number of lookups that had to be solved since the last counter reset. */
+    public static long getMissCount() { return misses.sum(); }
+
+    /** @return The number of entries dropped, by walkability changes or by the LRU limit. */
+    public static long getEvictionCount() { return evictions.sum(); }
+
+    /** @return The fraction of lookups answered from the cache, between 0 and 1. */
+    public static double getHitRate() {
+        long h = hits.sum(), total = h + misses.sum();
+        return total == 0 ? 0 : h / (double) total;
+    }
+
+    /** Resets the hit, miss and eviction counters. */
+    public static void resetCounters() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /** Empties the cache of every world. */
+    public static void clearAll() {
+        synchronized (caches) {
+            for (PathCache cache : caches.values()) {
+                synchronized (cache) {
+                    cache.entries.clear();
+                }
+            }
+        }
+    }
+}
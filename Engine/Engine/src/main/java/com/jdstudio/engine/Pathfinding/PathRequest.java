@@ -0,0 +1,80 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.awt.Point;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A path request submitted to the {@link PathfindingService}.
+ * <p>
+ * The request is solved on a worker thread against the {@link WalkabilityGrid} snapshot that was
+ * current when it was submitted, and its callback is invoked on the game thread at the start of
+ * a later tick. A request can be cancelled at any time; a newer request from the same agent
+ * cancels the older one automatically.
+ */
+public final class PathRequest {
+
+    final Object agent;
+    final WalkabilityGrid grid;
+    final int startX, startY, goalX, goalY;
+    final int clearance;
+    final Pathfinder.Algorithm algorithm;
+    /** The world's cluster graph when the request is hierarchical, otherwise null. */
+    ClusterGraph hierarchy;
+    /** The world's path cache the solved path is stored in, or null when caching is disabled. */
+    PathCache cache;
+    final int priority;
+    final long sequence;
+    final int epoch;
+    final Consumer<List<Point>> callback;
+    final long submitNanos;
+
+    private volatile boolean cancelled = false;
+    volatile List<Point> result;
+    long solveNanos;
+
+    PathRequest(Object agent, WalkabilityGrid grid, int startX, int startY, int goalX, int goalY,
+                int clearance, Pathfinder.Algorithm algorithm, int priority, long sequence, int epoch, Consumer<List<Point>> callback) {
+        this.agent = agent;
+        this.grid = grid;
+        this.startX = startX;
+        this.startY = startY;
+        this.goalX = goalX;
+        this.goalY = goalY;
+        this.clearance = clearance;
+        this.algorithm = algorithm;
+        this.priority = priority;
+        this.sequence = sequence;
+        this.epoch = epoch;
+        this.callback = callback;
+        this.submitNanos = System.nanoTime();
+    }
+
+    /**
+     * Cancels the request. If it has not been solved yet it is skipped, and its callback
+     * will never be invoked.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** @return true if the request was cancelled or superseded by a newer request of its agent. */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** @return true once a worker has solved the request (it may not have been delivered yet). */
+    public boolean isSolved() {
+        return result != null;
+    }
+
+    /** @return The agent that submitted the request. */
+    public Object getAgent() {
+        return agent;
+    }
+
+    /** @return The request priority (higher values are solved first). */
+    public int getPriority() {
+        return priority;
+    }
+}
@@ -1,26 +1,82 @@
 package com.jdstudio.engine.Pathfinding;
 
 import java.awt.Point;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.Map;
+import java.util.WeakHashMap;
 
-import com.jdstudio.engine.Utils.Node;
 import com.jdstudio.engine.World.World;
-import com.jdstudio.engine.World.Tile.TileType;
 
 /**
  * A static utility class that finds the shortest path between two points in a given world
  * using the A* (A-star) pathfinding algorithm. It navigates a grid representation
- * of the world, avoiding solid obstacles.
+ * of the world, avoiding solid obstacles and preferring cheap terrain
+ * (see {@link World#getMovementCost}).
+ * <p>
+ * The search state (cost arrays, open heap and visited stamps) is created once per world and
+ * reused by every subsequent search, so steady-state pathfinding does not allocate per node.
+ * Solved paths are remembered in a per-world {@link PathCache} until the tiles they depend on change.
+ * To search off the game thread, see {@link PathfindingService}.
  */
 public class Pathfinder {
 
-    private static final double MOVE_STRAIGHT_COST = 10.0;
-    private static final double MOVE_DIAGONAL_COST = 14.14;
+    /**
+     * The search algorithm used to solve a path.
+     */
+    public enum Algorithm {
+        /** Jump Point Search when every tile costs the same to enter, plain A* otherwise. */
+        AUTO,
+        /** Plain A*, expanding every neighbour of every visited tile. */
+        A_STAR,
+        /**
+         * Jump Point Search: A* that skips symmetric paths, expanding far fewer tiles on open,
+         * uniform-cost maps. Movement costs are ignored.
+         */
+        JUMP_POINT,
+        /**
+         * Hierarchical A* (HPA*): searches a precomputed graph of cluster entrances and refines
+         * each leg inside its cluster. Near-optimal and much cheaper on long routes across big maps.
+         * Falls back to a flat search for agents larger than a tile or when start and goal share a cluster.
+         */
+        HIERARCHICAL
+    }
+
+    /**
+     * With {@link Algorithm#AUTO}, routes at least this many tiles long (on either axis) use the
+     * hierarchical planner.
+     */
+    public static final int HIERARCHICAL_MIN_DISTANCE = 4 * ClusterGraph.DEFAULT_CLUSTER_SIZE;
+
+    /**
+     * The reusable search state of one world, searching its live tiles. The world is only
+     * referenced during a search, so the context does not keep its (weak) key alive.
+     */
+    private static final class WorldContext implements Walkability {
+        final SearchContext search;
+        World world;
+
+        WorldContext(World world) {
+            this.search = new SearchContext(world.WIDTH, world.HEIGHT, world.tileWidth, world.tileHeight);
+        }
+
+        @Override
+        public boolean isSolid(int x, int y) {
+            return world.isBlocked(x, y);
+        }
+
+        @Override
+        public float movementCost(int x, int y) {
+            return world.getMovementCost(x, y);
+        }
+
+        @Override
+        public boolean hasMovementCosts() {
+            return world.hasMovementCosts();
+        }
+    }
+
+    /** One reusable search context per world. Weak keys let unloaded worlds be collected. */
+    private static final Map<World, WorldContext> contexts = new WeakHashMap<>();
 
     /**
      * Finds a path between a start and end point in the world using the A* algorithm.
@@ -32,100 +88,130 @@ public class Pathfinder {
      *         The list will be empty if no path is found.
      */
     public static List<Point> findPath(World world, Point start, Point end) {
-        Grid grid = new Grid(world);
-        Point startPoint = grid.worldToGrid(start);
-        Point endPoint = grid.worldToGrid(end);
-
-        Node startNode = grid.getNode(startPoint.x, startPoint.y);
-        Node endNode = grid.getNode(endPoint.x, endPoint.y);
-
-        // The set of nodes to be evaluated
-        PriorityQueue<Node> openList = new PriorityQueue<>();
-        // The set of nodes already evaluated
-        Set<Node> closedList = new HashSet<>();
-
-        startNode.gCost = 0;
-        startNode.hCost = calculateHeuristic(startNode, endNode);
-        startNode.calculateFCost();
-        openList.add(startNode);
-
-        while (!openList.isEmpty()) {
-            Node currentNode = openList.poll();
-
-            if (currentNode.equals(endNode)) {
-                return reconstructPath(currentNode, grid);
-            }
-
-            closedList.add(currentNode);
-
-            for (Node neighbourNode : grid.getNeighbours(currentNode)) {
-                if (closedList.contains(neighbourNode) || world.getTile(neighbourNode.x, neighbourNode.y).getTileType() == TileType.SOLID) {
-                    continue;
-                }
-
-                double tentativeGCost = currentNode.gCost + calculateDistanceCost(currentNode, neighbourNode) + grid.getMovementPenalty(neighbourNode);
+        return findPath(world, start, end, 0, Algorithm.AUTO);
+    }
 
-                if (tentativeGCost < neighbourNode.gCost || !openList.contains(neighbourNode)) {
-                    neighbourNode.parent = currentNode;
-                    neighbourNode.gCost = tentativeGCost;
-                    neighbourNode.hCost = calculateHeuristic(neighbourNode, endNode);
-                    neighbourNode.calculateFCost();
+    /**
+     * Finds a path for an agent of a given size, only crossing tiles where its whole
+     * footprint fits.
+     *
+     * @param world     The game world, containing the tile map information.
+     * @param start     The starting point of the path in world coordinates (pixels).
+     * @param end       The target point of the path in world coordinates (pixels).
+     * @param agentSize The larger side of the agent in pixels (0 or less behaves as one tile).
+     * @return A List of Points representing the path from start to end in world coordinates.
+     *         The list will be empty if no path is found.
+     */
+    public static List<Point> findPath(World world, Point start, Point end, int agentSize) {
+        return findPath(world, start, end, agentSize, Algorithm.AUTO);
+    }
 
-                    if (!openList.contains(neighbourNode)) {
-                        openList.add(neighbourNode);
-                    }
+    /**
+     * Finds a path for an agent of a given size with a specific search algorithm.
+     *
+     * @param world     The game world, containing the tile map information.
+     * @param start     The starting point of the path in world coordinates (pixels).
+     * @param end       The target point of the path in world coordinates (pixels).
+     * @param agentSize The larger side of the agent in pixels (0 or less behaves as one tile).
+     * @param algorithm The search algorithm to use.
+     * @return A List of Points representing the path from start to end in world coordinates.
+     *         The list will be empty if no path is found.
+     */
+    public static List<Point> findPath(World world, Point start, Point end, int agentSize, Algorithm algorithm) {
+        WorldContext context = getContext(world);
+        int clearance = clearanceFor(world.tileWidth, world.tileHeight, agentSize);
+        int startX = start.x / world.tileWidth, startY = start.y / world.tileHeight;
+        int goalX = end.x / world.tileWidth, goalY = end.y / world.tileHeight;
+        PathCache cache = PathCache.isEnabled() ? PathCache.forWorld(world) : null;
+        if (cache != null) {
+            List<Point> cached = cache.get(startX, startY, goalX, goalY, clearance, algorithm);
+            if (cached != null) return cached;
+        }
+        int version = world.getWalkabilityVersion();
+        List<Point> path;
+        synchronized (context) {
+            context.world = world;
+            try {
+                ClusterGraph hierarchy = null;
+                if (usesHierarchy(algorithm, clearance, startX, startY, goalX, goalY)) {
+                    hierarchy = ClusterGraph.forWorld(world);
+                    hierarchy.update(context);
                 }
+                path = solve(context.search, hierarchy, context, clearance, algorithm, startX, startY, goalX, goalY);
+                if (cache != null) cache.put(startX, startY, goalX, goalY, clearance, algorithm, version, path, context);
+            } finally {
+                context.world = null;
             }
         }
+        return path;
+    }
 
-        return new ArrayList<>(); // No path found
+    /**
+     * Releases the search context, hierarchical graph and path cache kept for a world (e.g. when a level is unloaded).
+     * @param world The world whose pathfinding state should be dropped.
+     */
+    public static void releaseContext(World world) {
+        synchronized (contexts) {
+            contexts.remove(world);
+        }
+        ClusterGraph.release(world);
+        PathCache.release(world);
     }
 
     /**
-     * Reconstructs the path from the end node back to the start node.
-     *
-     * @param endNode The final node in the path.
-     * @param grid    The grid used for pathfinding, to convert grid coordinates back to world coordinates.
-     * @return The complete path as a list of points in world coordinates.
+     * Builds (or brings up to date) the hierarchical graph of a world ahead of time, so the first
+     * long-distance query does not pay for it. Call it on the game thread, e.g. after loading a level.
+     * @param world The world to prepare.
      */
-    private static List<Point> reconstructPath(Node endNode, Grid grid) {
-        List<Point> path = new ArrayList<>();
-        Node currentNode = endNode;
-        while (currentNode != null) {
-            path.add(grid.gridToWorld(new Point(currentNode.x, currentNode.y)));
-            currentNode = currentNode.parent;
+    public static void prepareHierarchy(World world) {
+        WorldContext context = getContext(world);
+        synchronized (context) {
+            context.world = world;
+            try {
+                ClusterGraph.forWorld(world).update(context);
+            } finally {
+                context.world = null;
+            }
         }
-        Collections.reverse(path);
-        return path;
     }
 
     /**
-     * Calculates the heuristic (estimated cost) between two nodes using the Diagonal Distance method.
-     *
-     * @param a The starting node.
-     * @param b The ending node.
-     * @return The estimated heuristic cost.
+     * Checks if a query should go through the hierarchical planner.
      */
-    private static double calculateHeuristic(Node a, Node b) {
-        int dstX = Math.abs(a.x - b.x);
-        int dstY = Math.abs(a.y - b.y);
-        return MOVE_STRAIGHT_COST * (Math.max(dstX, dstY) - Math.min(dstX, dstY)) + MOVE_DIAGONAL_COST * Math.min(dstX, dstY);
+    static boolean usesHierarchy(Algorithm algorithm, int clearance, int startX, int startY, int goalX, int goalY) {
+        if (clearance != 1) return false;
+        if (algorithm == Algorithm.HIERARCHICAL) return true;
+        return algorithm == Algorithm.AUTO
+                && Math.max(Math.abs(goalX - startX), Math.abs(goalY - startY)) >= HIERARCHICAL_MIN_DISTANCE;
     }
 
     /**
-     * Calculates the actual cost of moving from one node to an adjacent one.
+     * Solves a query with the requested algorithm, falling back to a flat search when the
+     * hierarchical planner cannot answer it.
      *
-     * @param a The first node.
-     * @param b The second, adjacent node.
-     * @return The cost for moving (10 for straight, 14.14 for diagonal).
+     * @param hierarchy The world's up-to-date cluster graph, or null for a flat search.
      */
-    private static double calculateDistanceCost(Node a, Node b) {
-        int dstX = Math.abs(a.x - b.x);
-        int dstY = Math.abs(a.y - b.y);
+    static List<Point> solve(SearchContext search, ClusterGraph hierarchy, Walkability walkability, int clearance,
+                             Algorithm algorithm, int startX, int startY, int goalX, int goalY) {
+        if (hierarchy != null && search.inBounds(startX, startY) && search.inBounds(goalX, goalY)) {
+            List<Point> path = hierarchy.findPath(search, walkability, startX, startY, goalX, goalY);
+            if (path != null) return path;
+        }
+        Algorithm flat = algorithm == Algorithm.HIERARCHICAL ? Algorithm.AUTO : algorithm;
+        return search.findPath(walkability, clearance, flat, startX, startY, goalX, goalY);
+    }
+
+    /**
+     * Converts an agent size in pixels to the side, in tiles, of the footprint it needs.
+     */
+    static int clearanceFor(int tileWidth, int tileHeight, int agentSize) {
+        int tileSize = Math.max(tileWidth, tileHeight);
+        return Math.max(1, (agentSize + tileSize - 1) / tileSize);
+    }
 
-        if (dstX > 0 && dstY > 0) {
-            return MOVE_DIAGONAL_COST;
+    private static WorldContext getContext(World world) {
+        synchronized (contexts) {
+            return contexts.computeIfAbsent(world, WorldContext::new);
         }
-        return MOVE_STRAIGHT_COST;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,376 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.Consumer;
+
+import com.jdstudio.engine.World.IWalkabilityListener;
+import com.jdstudio.engine.World.World;
+
+/**
+ * A Singleton that solves path requests asynchronously on a small pool of worker threads.
+ * <p>
+ * Requests are submitted from the game thread with {@link #requestPath}. Each one captures an
+ * immutable {@link WalkabilityGrid} snapshot of the world (re-taken only when the world's
+ * walkability version changes, rescanning only the regions the world reported as changed), so
+ * workers never touch live game state. Higher-priority requests
+ * are solved first. Solved paths are handed back on the game thread by {@link #update()}, which
+ * the engine calls at the start of every tick, so callbacks can safely modify game objects.
+ * <p>
+ * Only the latest request of each agent matters: submitting a new one cancels the agent's
+ * previous request if it has not been delivered yet. Requests answered by the world's
+ * {@link PathCache} skip the workers and are delivered on the next update.
+ *
+ * @author JDStudio
+ */
+public class PathfindingService {
+
+    private static PathfindingService instance;
+
+    /** Higher priority first, then first come, first served. */
+    private static final Comparator<PathRequest> ORDER =
+            Comparator.comparingInt((PathRequest r) -> -r.priority).thenComparingLong(r -> r.sequence);
+
+    private final PriorityBlockingQueue<PathRequest> queue = new PriorityBlockingQueue<>(64, ORDER);
+    private final ConcurrentLinkedQueue<PathRequest> completed = new ConcurrentLinkedQueue<>();
+
+    // Game-thread state
+    private final Map<Object, PathRequest> pendingByAgent = new HashMap<>();
+    private final Map<World, WorldSnapshot> snapshots = new WeakHashMap<>();
+    private long nextSequence = 0;
+    /** Incremented by {@link #reset()} so requests solved before a reset are never delivered. */
+    private int epoch = 0;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private int workerCount = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+    // Metrics
+    private long solvedCount = 0;
+    private long coalescedCount = 0;
+    private long totalSolveNanos = 0;
+    private long maxSolveNanos = 0;
+    private long lastSolveNanos = 0;
+    private long totalLatencyNanos = 0;
+
+    private PathfindingService() {}
+
+    /**
+     * Gets the single instance of the PathfindingService.
+     * @return The singleton instance.
+     */
+    public static PathfindingService getInstance() {
+        if (instance == null) {
+            synchronized (PathfindingService.class) {
+                if (instance == null) {
+                    instance = new PathfindingService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Submits a path request. Must be called on the game thread.
+     *
+     * @param agent     The requesting agent (usually a component or GameObject). A newer request
+     *                  from the same agent supersedes this one. May be null to opt out of coalescing.
+     * @param world     The world to search.
+     * @param start     The starting point in world coordinates (pixels).
+     * @param goal      The target point in world coordinates (pixels).
+     * @param agentSize The larger side of the agent in pixels (0 or less behaves as one tile).
+     * @param priority  Requests with a higher priority are solved first.
+     * @param callback  Receives the path (empty if none was found) on the game thread.
+     * @return A handle that can be used to cancel the request.
+     */
+    public PathRequest requestPath(Object agent, World world, Point start, Point goal, int agentSize,
+                                   int priority, Consumer<List<Point>> callback) {
+        return requestPath(agent, world, start, goal, agentSize, priority, Pathfinder.Algorithm.AUTO, callback);
+    }
+
+    /**
+     * Submits a path request solved with a specific search algorithm. Must be called on the game thread.
+     *
+     * @param agent     The requesting agent. A newer request from the same agent supersedes this one.
+     *                  May be null to opt out of coalescing.
+     * @param world     The world to search.
+     * @param start     The starting point in world coordinates (pixels).
+     * @param goal      The target point in world coordinates (pixels).
+     * @param agentSize The larger side of the agent in pixels (0 or less behaves as one tile).
+     * @param priority  Requests with a higher priority are solved first.
+     * @param algorithm The search algorithm to use.
+     * @param callback  Receives the path (empty if none was found) on the game thread.
+     * @return A handle that can be used to cancel the request.
+     */
+    public PathRequest requestPath(Object agent, World world, Point start, Point goal, int agentSize,
+                                   int priority, Pathfinder.Algorithm algorithm, Consumer<List<Point>> callback) {
+        WalkabilityGrid grid = getSnapshot(world);
+        PathRequest request = new PathRequest(agent, grid,
+                start.x / world.tileWidth, start.y / world.tileHeight,
+                goal.x / world.tileWidth, goal.y / world.tileHeight,
+                Pathfinder.clearanceFor(world.tileWidth, world.tileHeight, agentSize), algorithm,
+                priority, nextSequence++, epoch, callback);
+
+        List<Point> cached = null;
+        if (PathCache.isEnabled()) {
+            request.cache = PathCache.forWorld(world);
+            cached = request.cache.get(request.startX, request.startY, request.goalX, request.goalY,
+                    request.clearance, algorithm);
+        }
+
+        if (cached == null && Pathfinder.usesHierarchy(algorithm, request.clearance, request.startX, request.startY, request.goalX, request.goalY)) {
+            // Bring the shared graph up to date on the game thread; workers only read it.
+            request.hierarchy = ClusterGraph.forWorld(world);
+            request.hierarchy.update(grid);
+        }
+
+        if (agent != null) {
+            PathRequest previous = pendingByAgent.put(agent, request);
+            if (previous != null) {
+                previous.cancel();
+                queue.remove(previous);
+                coalescedCount++;
+            }
+        }
+        if (cached != null) {
+            // Cache hit: skip the workers, the path is delivered on the next update like any other.
+            request.cache = null;
+            request.result = cached;
+            completed.add(request);
+            return request;
+        }
+        ensureWorkers();
+        queue.add(request);
+        return request;
+    }
+
+    /**
+     * Cancels the pending request of an agent, if any. Must be called on the game thread.
+     * @param agent The agent whose request should be dropped.
+     */
+    public void cancel(Object agent) {
+        PathRequest previous = pendingByAgent.remove(agent);
+        if (previous != null) {
+            previous.cancel();
+            queue.remove(previous);
+        }
+    }
+
+    /**
+     * Checks if an agent has a request that has not been delivered yet.
+     * @param agent The agent to check.
+     * @return true if a request of the agent is queued or being solved.
+     */
+    public boolean hasPendingRequest(Object agent) {
+        return pendingByAgent.containsKey(agent);
+    }
+
+    /**
+     * Delivers every solved path to its callback. Called by the engine on the game thread at the
+     * start of each tick.
+     */
+    public void update() {
+        PathRequest request;
+        long now = System.nanoTime();
+        while ((request = completed.poll()) != null) {
+            if (request.agent != null && pendingByAgent.get(request.agent) == request) {
+                pendingByAgent.remove(request.agent);
+            }
+            if (request.epoch != epoch) continue;
+            if (request.cache != null) {
+                request.cache.put(request.startX, request.startY, request.goalX, request.goalY, request.clearance,
+                        request.algorithm, request.grid.getVersion(), request.result, request.grid);
+            }
+            if (request.isCancelled()) continue;
+
+            solvedCount++;
+            lastSolveNanos = request.solveNanos;
+            totalSolveNanos += request.solveNanos;
+            maxSolveNanos = Math.max(maxSolveNanos, request.solveNanos);
+            totalLatencyNanos += now - request.submitNanos;
+
+            if (request.callback != null) {
+                request.callback.accept(request.result);
+            }
+        }
+    }
+
+    /**
+     * The latest snapshot of a world, and the strips of it the world reported as changed since.
+     * Registered as a listener of the world; it holds no reference back to the world, so the
+     * weak key of {@link #snapshots} can still be collected.
+     */
+    private static final class WorldSnapshot implements IWalkabilityListener {
+        final int stripCount;
+        WalkabilityGrid grid;
+        final BitSet dirtyStrips = new BitSet();
+        /** The number of changes reported since {@link #grid} was taken. */
+        int reportedChanges;
+
+        WorldSnapshot(World world) {
+            this.stripCount = WalkabilityGrid.stripCount(world.HEIGHT);
+        }
+
+        @Override
+        public void onWalkabilityChanged(int x, int y, int width, int height) {
+            reportedChanges++;
+            if (width <= 0 || height <= 0) return;
+            int first = WalkabilityGrid.stripOf(Math.max(0, y));
+            int last = Math.min(stripCount - 1, WalkabilityGrid.stripOf(y + height - 1));
+            if (first <= last) dirtyStrips.set(first, last + 1);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the world's walkability, re-taking it if the world changed. Only the
+     * strips changed since the previous snapshot are rescanned; the rest are shared with it.
+     */
+    private WalkabilityGrid getSnapshot(World world) {
+        WorldSnapshot snapshot = snapshots.get(world);
+        if (snapshot == null) {
+            snapshot = new WorldSnapshot(world);
+            world.addWalkabilityListener(snapshot);
+            snapshots.put(world, snapshot);
+        }
+        WalkabilityGrid grid = snapshot.grid;
+        if (grid == null || !grid.isCurrent(world)) {
+            // Every version bump is reported to listeners; if some were not, rescan everything
+            boolean complete = grid != null
+                    && world.getWalkabilityVersion() - grid.getVersion() == snapshot.reportedChanges;
+            grid = WalkabilityGrid.update(grid, world, complete ? snapshot.dirtyStrips : null);
+            snapshot.grid = grid;
+            snapshot.dirtyStrips.clear();
+            snapshot.reportedChanges = 0;
+        }
+        return grid;
+    }
+
+    // --- WORKERS ---
+
+    private synchronized void ensureWorkers() {
+        if (!workers.isEmpty()) return;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::workerLoop, "PathfindingWorker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    private void workerLoop() {
+        SearchContext context = null;
+        while (!Thread.currentThread().isInterrupted()) {
+            PathRequest request;
+            try {
+                request = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (request.isCancelled()) continue;
+
+            WalkabilityGrid grid = request.grid;
+            if (context == null || !context.fits(grid.getWidth(), grid.getHeight(), grid.getTileWidth(), grid.getTileHeight())) {
+                context = new SearchContext(grid.getWidth(), grid.getHeight(), grid.getTileWidth(), grid.getTileHeight());
+            }
+
+            long start = System.nanoTime();
+            List<Point> path;
+            try {
+                path = Pathfinder.solve(context, request.hierarchy, grid, request.clearance, request.algorithm,
+                        request.startX, request.startY, request.goalX, request.goalY);
+            } catch (RuntimeException e) {
+                System.err.println("Pathfinding request failed: " + e.getMessage());
+                path = new ArrayList<>();
+            }
+            request.solveNanos = System.nanoTime() - start;
+            request.result = path;
+            completed.add(request);
+        }
+    }
+
+    /**
+     * Sets the number of worker threads. Running workers are stopped and a new pool is started
+     * with the next request.
+     * @param count The number of workers (at least 1).
+     */
+    public synchronized void setWorkerCount(int count) {
+        this.workerCount = Math.max(1, count);
+        stopWorkers();
+    }
+
+    /** @return The configured number of worker threads. */
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    private synchronized void stopWorkers() {
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        workers.clear();
+    }
+
+    // --- METRICS ---
+
+    /** @return The number of requests waiting for a worker. */
+    public int getQueueDepth() { return queue.size(); }
+
+    /** @return The number of agents with a request that has not been delivered yet. */
+    public int getPendingCount() { return pendingByAgent.size(); }
+
+    /** @return The number of paths delivered since the last reset. */
+    public long getSolvedCount() { return solvedCount; }
+
+    /** @return The number of requests superseded by a newer request from the same agent. */
+    public long getCoalescedCount() { return coalescedCount; }
+
+    /** @return The time a worker spent on the last delivered path, in milliseconds. */
+    public double getLastSolveTimeMillis() { return lastSolveNanos / 1_000_000.0; }
+
+    /** @return The average time a worker spent per delivered path, in milliseconds. */
+    public double getAverageSolveTimeMillis() {
+        return solvedCount == 0 ? 0 : totalSolveNanos / (double) solvedCount / 1_000_000.0;
+    }
+
+    /** @return The longest time a worker spent on a delivered path, in milliseconds. */
+    public double getMaxSolveTimeMillis() { return maxSolveNanos / 1_000_000.0; }
+
+    /** @return The average time from submission to delivery, in milliseconds (includes queueing). */
+    public double getAverageLatencyMillis() {
+        return solvedCount == 0 ? 0 : totalLatencyNanos / (double) solvedCount / 1_000_000.0;
+    }
+
+    /**
+     * Drops every pending request, snapshot and metric. Worker threads are kept alive.
+     */
+    public void reset() {
+        for (PathRequest request : pendingByAgent.values()) {
+            request.cancel();
+        }
+        pendingByAgent.clear();
+        queue.clear();
+        epoch++;
+        completed.clear();
+        for (Map.Entry<World, WorldSnapshot> entry : snapshots.entrySet()) {
+            entry.getKey().removeWalkabilityListener(entry.getValue());
+        }
+        snapshots.clear();
+        solvedCount = coalescedCount = 0;
+        totalSolveNanos = maxSolveNanos = lastSolveNanos = totalLatencyNanos = 0;
+    }
+
+    /**
+     * Stops the worker threads and drops every pending request.
+     */
+    public void shutdown() {
+        reset();
+        stopWorkers();
+    }
+}
@@ -0,0 +1,343 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reusable A* state for grids of one size.
+ * <p>
+ * All per-tile data lives in flat arrays indexed by {@code x + y * width}. Instead of clearing
+ * them between searches, every search increments a generation counter and a tile's data is only
+ * considered valid when its stamp matches the current generation. The open set is an
+ * {@link IndexedMinHeap} with decrease-key, and neighbours are visited through fixed offset
+ * tables, so a search allocates nothing but the returned path. The same state backs both plain
+ * A* and {@link JumpPointSearch}, and a search can either run to completion or be advanced a few
+ * expansions at a time (see {@link IncrementalPathfinder}).
+ */
+final class SearchContext {
+
+    /** Results of {@link #begin} and {@link #step}. */
+    static final int RUNNING = 0, FOUND = 1, NOT_FOUND = 2;
+
+    static final float MOVE_STRAIGHT_COST = 10.0f;
+    static final float MOVE_DIAGONAL_COST = 14.14f;
+
+    /** Offsets of the 8 neighbours of a tile. */
+    static final int[] DX = {-1, -1, -1, 0, 0, 1, 1, 1};
+    static final int[] DY = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    final int width;
+    final int height;
+    final int tileWidth;
+    final int tileHeight;
+
+    final float[] g;
+    final float[] h;
+    final float[] f;
+    final int[] parent;
+    /** Generation in which a tile was first reached (its g/h/f/parent are valid). */
+    final int[] seen;
+    /** Generation in which a tile was expanded. */
+    final int[] closed;
+    final IndexedMinHeap open;
+
+    int generation = 0;
+
+    /** The solidity data of the current search. */
+    Walkability walkability;
+    /** True if the current search reads the {@link Walkability#movementCost movement costs} of its tiles. */
+    boolean weighted;
+    /** Side, in tiles, of the square footprint that must be free for a tile to be walkable. */
+    int clearance = 1;
+    /** The number of tiles taken off the open set by the last search. */
+    int expandedNodes = 0;
+    /** The tile closest to the goal (lowest heuristic) expanded so far by the current search. */
+    int bestNode = -1;
+    /** True while running {@link #flood}, which has no goal and therefore no heuristic. */
+    private boolean flooding = false;
+
+    private JumpPointSearch jumpPoints;
+    private boolean useJumpPoints;
+    private int goalNode, searchGoalX, searchGoalY;
+
+    SearchContext(int width, int height, int tileWidth, int tileHeight) {
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        int size = width * height;
+        this.g = new float[size];
+        this.h = new float[size];
+        this.f = new float[size];
+        this.parent = new int[size];
+        this.seen = new int[size];
+        this.closed = new int[size];
+        this.open = new IndexedMinHeap(size);
+        this.open.setPriorities(f, h);
+    }
+
+    /**
+     * Starts a new search, invalidating all per-tile data in O(1).
+     */
+    void beginSearch() {
+        open.clear();
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Extremely rare: reset the stamps once the counter wraps.
+            java.util.Arrays.fill(seen, 0);
+            java.util.Arrays.fill(closed, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Checks if this context can search a grid of the given size.
+     */
+    boolean fits(int width, int height, int tileWidth, int tileHeight) {
+        return this.width == width && this.height == height && this.tileWidth == tileWidth && this.tileHeight == tileHeight;
+    }
+
+    /**
+     * Runs a full search between two tiles.
+     *
+     * @param walkability The solidity data to search against.
+     * @param clearance   The agent footprint in tiles (1 for agents no larger than a tile).
+     * @param algorithm   The search algorithm; {@code AUTO} uses Jump Point Search on uniform-cost grids.
+     * @return The path in world coordinates (tile centers), or an empty list if there is none.
+     */
+    List<Point> findPath(Walkability walkability, int clearance, Pathfinder.Algorithm algorithm,
+                         int startX, int startY, int goalX, int goalY) {
+        if (begin(walkability, clearance, algorithm, startX, startY, goalX, goalY) != RUNNING) {
+            return new ArrayList<>();
+        }
+        return step(Integer.MAX_VALUE) == FOUND ? pathTo(goalNode) : new ArrayList<>();
+    }
+
+    /**
+     * Starts a search that is then advanced with {@link #step}. The search state lives in this
+     * context, so it must not be used for anything else until the search ends.
+     *
+     * @return {@link #RUNNING}, or {@link #NOT_FOUND} if the search can be rejected right away.
+     */
+    int begin(Walkability walkability, int clearance, Pathfinder.Algorithm algorithm,
+              int startX, int startY, int goalX, int goalY) {
+        expandedNodes = 0;
+        if (!inBounds(startX, startY) || !inBounds(goalX, goalY)) {
+            return NOT_FOUND;
+        }
+        this.walkability = walkability;
+        this.weighted = walkability.hasMovementCosts();
+        this.clearance = Math.max(1, clearance);
+        useJumpPoints = algorithm == Pathfinder.Algorithm.JUMP_POINT
+                || (algorithm == Pathfinder.Algorithm.AUTO && isUniformCost());
+        if (useJumpPoints && jumpPoints == null) {
+            jumpPoints = new JumpPointSearch(this);
+        }
+        if (isSolid(goalX, goalY)) {
+            return NOT_FOUND; // Unreachable: don't flood the whole map to find out.
+        }
+        beginSearch();
+        int start = startX + startY * width;
+        goalNode = goalX + goalY * width;
+        searchGoalX = goalX;
+        searchGoalY = goalY;
+        bestNode = start;
+
+        g[start] = 0;
+        h[start] = heuristic(startX, startY, goalX, goalY);
+        f[start] = h[start];
+        parent[start] = -1;
+        seen[start] = generation;
+        open.push(start);
+        return RUNNING;
+    }
+
+    /**
+     * Advances the search started by {@link #begin} by up to a number of expansions.
+     *
+     * @param budget The maximum number of tiles to expand.
+     * @return {@link #RUNNING} if the budget ran out, {@link #FOUND} or {@link #NOT_FOUND} once it ended.
+     */
+    int step(int budget) {
+        int expanded = 0;
+        while (!open.isEmpty()) {
+            if (expanded >= budget) return RUNNING;
+            int current = open.pop();
+            if (current == goalNode) {
+                bestNode = current;
+                return FOUND;
+            }
+            closed[current] = generation;
+            expandedNodes++;
+            expanded++;
+            if (h[current] < h[bestNode]) bestNode = current;
+            if (useJumpPoints) {
+                jumpPoints.expand(current, searchGoalX, searchGoalY);
+            } else {
+                expand(current, searchGoalX, searchGoalY);
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Builds the path from the start of the current search to a tile it has reached.
+     * With the goal this is the result; with {@link #bestNode} it is the best partial path so far.
+     */
+    List<Point> pathTo(int node) {
+        return useJumpPoints ? jumpPoints.reconstructPath(node) : reconstructPath(node);
+    }
+
+    /**
+     * Runs Dijkstra from a tile over the whole reachable grid. Afterwards {@link #costTo} gives
+     * the cheapest cost from the start to every tile.
+     *
+     * @param walkability The solidity data to search against.
+     * @param clearance   The agent footprint in tiles.
+     */
+    void flood(Walkability walkability, int clearance, int startX, int startY) {
+        expandedNodes = 0;
+        this.walkability = walkability;
+        this.weighted = walkability.hasMovementCosts();
+        this.clearance = Math.max(1, clearance);
+        beginSearch();
+        if (!inBounds(startX, startY)) return;
+        int start = startX + startY * width;
+        g[start] = 0;
+        h[start] = 0;
+        f[start] = 0;
+        parent[start] = -1;
+        seen[start] = generation;
+        open.push(start);
+
+        flooding = true;
+        try {
+            while (!open.isEmpty()) {
+                int current = open.pop();
+                closed[current] = generation;
+                expandedNodes++;
+                expand(current, startX, startY);
+            }
+        } finally {
+            flooding = false;
+        }
+    }
+
+    /**
+     * @return The cost of a tile found by the last {@link #flood}, or infinity if it was not reached.
+     */
+    float costTo(int x, int y) {
+        int node = x + y * width;
+        return seen[node] == generation ? g[node] : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Relaxes the 8 neighbours of an expanded tile.
+     */
+    void expand(int current, int goalX, int goalY) {
+        int cx = current % width;
+        int cy = current / width;
+        float currentG = g[current];
+        for (int d = 0; d < 8; d++) {
+            int nx = cx + DX[d];
+            int ny = cy + DY[d];
+            if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+            int neighbour = nx + ny * width;
+            if (closed[neighbour] == generation || isSolid(nx, ny)) continue;
+
+            float step = (DX[d] != 0 && DY[d] != 0) ? MOVE_DIAGONAL_COST : MOVE_STRAIGHT_COST;
+            if (weighted) step *= walkability.movementCost(nx, ny);
+            relax(current, neighbour, currentG + step, goalX, goalY);
+        }
+    }
+
+    /**
+     * Records a new or cheaper way of reaching a tile that has not been expanded yet.
+     */
+    void relax(int from, int node, float tentative, int goalX, int goalY) {
+        if (seen[node] != generation) {
+            seen[node] = generation;
+            parent[node] = from;
+            g[node] = tentative;
+            h[node] = flooding ? 0 : heuristic(node % width, node / width, goalX, goalY);
+            f[node] = tentative + h[node];
+            open.push(node);
+        } else if (tentative < g[node]) {
+            parent[node] = from;
+            g[node] = tentative;
+            f[node] = tentative + h[node];
+            open.decreaseKey(node);
+        }
+    }
+
+    boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * Checks if an agent centered on a tile would overlap a solid tile or leave the grid.
+     */
+    boolean isSolid(int x, int y) {
+        if (clearance == 1) {
+            return walkability.isSolid(x, y);
+        }
+        int x0 = x - (clearance - 1) / 2;
+        int y0 = y - (clearance - 1) / 2;
+        int x1 = x0 + clearance - 1;
+        int y1 = y0 + clearance - 1;
+        if (x0 < 0 || y0 < 0 || x1 >= width || y1 >= height) return true;
+        for (int ty = y0; ty <= y1; ty++) {
+            for (int tx = x0; tx <= x1; tx++) {
+                if (walkability.isSolid(tx, ty)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a tile is inside the grid and can be walked on.
+     */
+    boolean isWalkable(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height && !isSolid(x, y);
+    }
+
+    /**
+     * Checks if every walkable tile costs the same to enter, which is what Jump Point Search
+     * requires to stay optimal.
+     */
+    boolean isUniformCost() {
+        return !weighted;
+    }
+
+    /**
+     * Diagonal (octile) distance between two tiles.
+     */
+    static float heuristic(int ax, int ay, int bx, int by) {
+        int dstX = Math.abs(ax - bx);
+        int dstY = Math.abs(ay - by);
+        return MOVE_STRAIGHT_COST * (Math.max(dstX, dstY) - Math.min(dstX, dstY)) + MOVE_DIAGONAL_COST * Math.min(dstX, dstY);
+    }
+
+    /**
+     * Walks the parent links back from a tile and returns the path in world coordinates.
+     */
+    List<Point> reconstructPath(int end) {
+        int length = 0;
+        for (int node = end; node != -1; node = parent[node]) length++;
+        Point[] points = new Point[length];
+        int i = length;
+        for (int node = end; node != -1; node = parent[node]) {
+            points[--i] = tileCenter(node);
+        }
+        List<Point> path = new ArrayList<>(length);
+        for (Point p : points) path.add(p);
+        return path;
+    }
+
+    Point tileCenter(int node) {
+        int x = node % width;
+        int y = node / width;
+        return new Point(x * tileWidth + tileWidth / 2, y * tileHeight + tileHeight / 2);
+    }
+}
@@ -0,0 +1,32 @@
+package com.jdstudio.engine.Pathfinding;
+
+/**
+ * The solidity and movement cost data a search runs against: either the live tiles of a world
+ * or an immutable {@link WalkabilityGrid} snapshot.
+ */
+interface Walkability {
+
+    /**
+     * @param x The x-coordinate in the tile grid (always in bounds).
+     * @param y The y-coordinate in the tile grid (always in bounds).
+     * @return true if the tile cannot be walked on.
+     */
+    boolean isSolid(int x, int y);
+
+    /**
+     * @param x The x-coordinate in the tile grid (always in bounds).
+     * @param y The y-coordinate in the tile grid (always in bounds).
+     * @return How many times more than a plain tile it costs to enter the tile.
+     */
+    default float movementCost(int x, int y) {
+        return 1;
+    }
+
+    /**
+     * @return true if some tile costs more than 1, so searches must read {@link #movementCost};
+     *         false if every tile costs the same.
+     */
+    default boolean hasMovementCosts() {
+        return false;
+    }
+}
@@ -0,0 +1,180 @@
+package com.jdstudio.engine.Pathfinding;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.jdstudio.engine.World.World;
+
+/**
+ * An immutable snapshot of which tiles of a {@link World} are solid and what they cost to cross.
+ * <p>
+ * Snapshots are taken on the game thread and can then be searched from any thread, which is
+ * what allows the {@link PathfindingService} to solve paths off the game loop while the world
+ * keeps changing. Each snapshot remembers the {@link World#getWalkabilityVersion() walkability
+ * version} it was taken at, so callers can tell when it has gone stale.
+ * <p>
+ * A new snapshot taken {@link #update from the previous one} only rescans the horizontal strips
+ * of {@value #STRIP_ROWS} rows the world reported as changed, so opening a door costs a few rows,
+ * not the whole map. Movement costs are stored per strip and unchanged strips are shared with the
+ * previous snapshot; solidity, which every search step reads, stays one flat bit array that is
+ * copied word by word (64 tiles per word) rather than rescanned.
+ */
+public final class WalkabilityGrid implements Walkability {
+
+    private static final int STRIP_SHIFT = 5;
+    /** The height of a strip, in rows. */
+    static final int STRIP_ROWS = 1 << STRIP_SHIFT;
+    private static final int ROW_MASK = STRIP_ROWS - 1;
+
+    private final int width;
+    private final int height;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int version;
+    /** The solid tiles as bits, indexed by {@code x + y * width}. Never modified. */
+    private final long[] solid;
+    /** The movement costs of each strip, or null for a strip where every tile costs 1. Never modified. */
+    private final float[][] costs;
+    private final boolean weighted;
+
+    private WalkabilityGrid(int width, int height, int tileWidth, int tileHeight, int version,
+                            long[] solid, float[][] costs) {
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.version = version;
+        this.solid = solid;
+        this.costs = costs;
+        boolean anyCost = false;
+        for (float[] strip : costs) {
+            if (strip != null) {
+                anyCost = true;
+                break;
+            }
+        }
+        this.weighted = anyCost;
+    }
+
+    /**
+     * Captures the current solidity of every tile in a world, counting tiles blocked by dynamic
+     * obstacles (see {@link World#addBlocker}) as solid. Must be called on the game thread.
+     * Null tiles are treated as walkable.
+     *
+     * @param world The world to capture.
+     * @return A new immutable snapshot.
+     */
+    public static WalkabilityGrid snapshot(World world) {
+        return update(null, world, null);
+    }
+
+    /**
+     * Captures the current walkability of a world, rescanning only the strips that changed since
+     * a previous snapshot. Must be called on the game thread.
+     *
+     * @param previous    An earlier snapshot of the same world, or null to scan every strip.
+     * @param world       The world to capture.
+     * @param dirtyStrips The strips changed since {@code previous} (see {@link #stripOf}),
+     *                    or null if unknown, which rescans every strip.
+     * @return A new immutable snapshot, sharing the unchanged strips with {@code previous}.
+     */
+    static WalkabilityGrid update(WalkabilityGrid previous, World world, BitSet dirtyStrips) {
+        int stripCount = stripCount(world.HEIGHT);
+        boolean full = previous == null || dirtyStrips == null || previous.width != world.WIDTH
+                || previous.height != world.HEIGHT;
+        long[] solid = full ? new long[words(world.WIDTH * world.HEIGHT)] : previous.solid.clone();
+        float[][] costs = full ? new float[stripCount][] : previous.costs.clone();
+        boolean anyCost = world.hasMovementCosts();
+        for (int strip = full ? 0 : dirtyStrips.nextSetBit(0); strip >= 0 && strip < stripCount;
+             strip = full ? strip + 1 : dirtyStrips.nextSetBit(strip + 1)) {
+            scanStrip(world, strip, anyCost, solid, costs);
+        }
+        return new WalkabilityGrid(world.WIDTH, world.HEIGHT, world.tileWidth, world.tileHeight,
+                world.getWalkabilityVersion(), solid, costs);
+    }
+
+    /**
+     * Reads one strip of a world into a snapshot's own arrays; the strip's costs go into a fresh
+     * array, so older snapshots sharing the previous one are untouched.
+     */
+    private static void scanStrip(World world, int strip, boolean anyCost, long[] solid, float[][] costs) {
+        int width = world.WIDTH;
+        int y0 = strip << STRIP_SHIFT;
+        int y1 = Math.min(world.HEIGHT, y0 + STRIP_ROWS);
+        float[] stripCosts = null;
+        for (int y = y0; y < y1; y++) {
+            for (int x = 0; x < width; x++) {
+                int tile = x + y * width;
+                if (world.isBlocked(x, y)) {
+                    solid[tile >> 6] |= 1L << tile;
+                } else {
+                    solid[tile >> 6] &= ~(1L << tile);
+                }
+                int i = x + (y - y0) * width;
+                float cost = anyCost ? world.getMovementCost(x, y) : 1;
+                if (cost != 1) {
+                    if (stripCosts == null) {
+                        stripCosts = new float[width * STRIP_ROWS];
+                        Arrays.fill(stripCosts, 1);
+                    }
+                    stripCosts[i] = cost;
+                }
+            }
+        }
+        costs[strip] = stripCosts;
+    }
+
+    /**
+     * Creates a snapshot from raw solidity data (e.g. for tools and benchmarks). Every tile costs 1.
+     */
+    static WalkabilityGrid of(int width, int height, int tileWidth, int tileHeight, BitSet solidTiles) {
+        long[] solid = Arrays.copyOf(solidTiles.get(0, width * height).toLongArray(), words(width * height));
+        return new WalkabilityGrid(width, height, tileWidth, tileHeight, 0, solid, new float[stripCount(height)][]);
+    }
+
+    private static int words(int bits) {
+        return (bits + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /** @return The number of strips of a grid of the given height. */
+    static int stripCount(int height) {
+        return (height + STRIP_ROWS - 1) >> STRIP_SHIFT;
+    }
+
+    /** @return The strip holding a row. */
+    static int stripOf(int y) {
+        return y >> STRIP_SHIFT;
+    }
+
+    @Override
+    public boolean isSolid(int x, int y) {
+        int i = x + y * width;
+        return (solid[i >> 6] & (1L << i)) != 0;
+    }
+
+    @Override
+    public float movementCost(int x, int y) {
+        float[] strip = costs[y >> STRIP_SHIFT];
+        return strip == null ? 1 : strip[x + (y & ROW_MASK) * width];
+    }
+
+    @Override
+    public boolean hasMovementCosts() {
+        return weighted;
+    }
+
+    /**
+     * Checks if this snapshot still matches the world's current walkability.
+     * @param world The world the snapshot was taken from.
+     * @return true if no tile's solidity or cost changed since the snapshot was taken.
+     */
+    public boolean isCurrent(World world) {
+        return world.getWalkabilityVersion() == version && world.WIDTH == width && world.HEIGHT == height;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getTileWidth() { return tileWidth; }
+    public int getTileHeight() { return tileHeight; }
+    public int getVersion() { return version; }
+}
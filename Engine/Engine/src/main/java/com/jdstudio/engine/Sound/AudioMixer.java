@@ -0,0 +1,715 @@
+package com.jdstudio.engine.Sound;
+
+import java.util.Arrays;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+import com.jdstudio.engine.Sound.Sound.SoundChannel;
+
+/**
+ * A software mixer that plays any number of sounds through a single output line.
+ * <p>
+ * Sounds are {@link SoundBuffer}s already converted to the mixer's format, so mixing is just
+ * scaling and adding samples. Each voice has its own gain and pan, and goes through the bus of its
+ * {@link SoundChannel}, whose gain applies to all of its voices. Gain changes are ramped over one
+ * block to avoid clicks, and voices can {@link #fadeTo fade} over longer times (e.g. to crossfade
+ * music). Besides buffers, a voice can play a stream (see {@link MusicStream}) that is decoded on
+ * another thread and pulled one block at a time.
+ * <p>
+ * Before a sound gets a voice, it goes through cheap checks that reject it without touching any
+ * voice: it must be audible, respect its {@link SoundBuffer#setMinRetriggerMillis minimum
+ * retrigger interval}, and fit within its sound's {@link SoundBuffer#setMaxVoices voice limit},
+ * its channel's {@link #setChannelVoiceLimit voice limit} and the mixer's voices. When a limit is
+ * reached, the new sound steals the weakest voice under that limit (lowest priority, then least
+ * audible, then oldest) if it is at least as important, and is rejected otherwise. Rejections are
+ * counted by {@link Rejection reason}.
+ * <p>
+ * {@link #start()} opens the output line and runs a daemon thread that renders blocks of
+ * {@value #BLOCK_FRAMES} frames into it. {@link #render(byte[], int)} can also be called directly
+ * without any audio device, e.g. to check the mix in a headless test.
+ * <p>
+ * All methods are thread-safe; voices are addressed through the int handles returned by
+ * {@link #play}, which become invalid (and are ignored) once their voice ends or is stolen.
+ *
+ * @author JDStudio
+ */
+public class AudioMixer {
+
+    /** The sample rate of the mixer and of every SoundBuffer. */
+    public static final int SAMPLE_RATE = 44100;
+
+    /** The output format: 16-bit signed little-endian stereo at {@link #SAMPLE_RATE}. */
+    public static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+
+    /** The number of voices of the engine's mixer. */
+    public static final int DEFAULT_VOICES = 32;
+
+    /** Returned by {@link #play} when the sound could not get a voice. */
+    public static final int NO_VOICE = -1;
+
+    /** The number of frames rendered per block by the mixer thread (about 11.6 ms). */
+    public static final int BLOCK_FRAMES = 512;
+
+    /** Sounds quieter than this (after the bus gain) are rejected without taking a voice. */
+    public static final float INAUDIBLE_GAIN = 0.001f;
+
+    /** Why a sound did not get a voice. */
+    public enum Rejection {
+        /** Its gain, after the bus gain, was below {@link #INAUDIBLE_GAIN}. */
+        INAUDIBLE,
+        /** The same sound started less than its minimum retrigger interval ago. */
+        RETRIGGER,
+        /** Its sound's voice limit was reached by more important voices. */
+        SOUND_LIMIT,
+        /** Its channel's voice limit was reached by more important voices. */
+        CHANNEL_LIMIT,
+        /** Every voice of the mixer was busy with more important sounds. */
+        NO_VOICE
+    }
+
+    /** The number of blocks buffered by the output line. */
+    private static final int LINE_BLOCKS = 4;
+
+    private static final int SLOT_BITS = 8;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+
+    /**
+     * Audio decoded incrementally, pulled by the mixer thread one block at a time.
+     */
+    interface StreamSource {
+        /**
+         * Copies the next frames, as interleaved stereo samples in the mixer's format. Must not block.
+         * @return The number of frames copied (fewer if the decoder fell behind), or -1 at the end.
+         */
+        int read(short[] stereo, int frames);
+
+        /** Stops decoding. Called once, when the voice ends. Must not block. */
+        void close();
+    }
+
+    /** A voice slot. Only touched while holding the mixer's lock. */
+    private static final class Voice {
+        boolean active;
+        int generation;
+        long startOrder;
+
+        SoundBuffer buffer;
+        StreamSource stream;
+        SoundChannel channel;
+        int position;
+        boolean loop;
+        int priority;
+
+        /** The gain and pan set by the game. */
+        float gain;
+        float pan;
+
+        /** A fade in progress: the gain it ends at, the frames left, and whether the voice then stops. */
+        float fadeTarget;
+        int fadeFrames;
+        boolean stopAfterFade;
+
+        /** The per-side gains applied at the end of the last block, ramped towards the targets. */
+        float appliedLeft;
+        float appliedRight;
+        boolean started;
+    }
+
+    private final Voice[] voices;
+    private final float[] busGains = new float[SoundChannel.values().length];
+    private final int[] channelVoiceLimits = new int[SoundChannel.values().length];
+    private float masterGain = 1.0f;
+    private float[] mixBuffer = new float[0];
+    private short[] streamBuffer = new short[0];
+    private long playOrder = 0;
+
+    // Metrics
+    private long stolenCount = 0;
+    private final long[] rejectedCounts = new long[Rejection.values().length];
+
+    // Output
+    private SourceDataLine line;
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Creates a mixer. It plays nothing until {@link #start()} is called or blocks are rendered
+     * with {@link #render(byte[], int)}.
+     *
+     * @param voiceCount The maximum number of sounds playing at once (1 to 256).
+     */
+    public AudioMixer(int voiceCount) {
+        voiceCount = Math.max(1, Math.min(1 << SLOT_BITS, voiceCount));
+        voices = new Voice[voiceCount];
+        for (int i = 0; i < voiceCount; i++) {
+            voices[i] = new Voice();
+        }
+        Arrays.fill(busGains, 1.0f);
+        Arrays.fill(channelVoiceLimits, voiceCount);
+    }
+
+    // --- OUTPUT ---
+
+    /**
+     * Opens the default output line and starts the mixer thread. Does nothing if it is running.
+     *
+     * @return true if the mixer is running, false if no output line is available.
+     */
+    public synchronized boolean start() {
+        if (running) return true;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, BLOCK_FRAMES * FORMAT.getFrameSize() * LINE_BLOCKS);
+            line.start();
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.err.println("Warning: No audio output line available (" + e.getMessage() + "). Sounds are muted.");
+            line = null;
+            return false;
+        }
+        running = true;
+        thread = new Thread(this::run, "AudioMixer");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    /**
+     * Stops the mixer thread and closes the output line. Playing voices are kept.
+     */
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            if (!running) return;
+            running = false;
+            current = thread;
+            thread = null;
+        }
+        try {
+            current.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (line != null) {
+                line.close();
+                line = null;
+            }
+        }
+    }
+
+    /** @return true while the mixer thread is feeding the output line. */
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        SourceDataLine output = line;
+        byte[] block = new byte[BLOCK_FRAMES * FORMAT.getFrameSize()];
+        while (running) {
+            render(block, BLOCK_FRAMES);
+            output.write(block, 0, block.length); // Blocks while the line is full, pacing the loop
+        }
+        output.drain();
+    }
+
+    // --- VOICES ---
+
+    /**
+     * Starts playing a sound with its buffer's priority.
+     *
+     * @param buffer  The sound.
+     * @param channel The bus the voice goes through.
+     * @param gain    The volume of the voice (0.0 to 1.0, before the bus and master gains).
+     * @param pan     The pan, from -1.0 (left) to 1.0 (right).
+     * @param loop    true to loop until stopped.
+     * @return A handle to the voice, or {@link #NO_VOICE} if the sound was rejected.
+     */
+    public int play(SoundBuffer buffer, SoundChannel channel, float gain, float pan, boolean loop) {
+        return play(buffer, channel, gain, pan, loop, buffer == null ? 0 : buffer.getPriority());
+    }
+
+    /**
+     * Starts playing a sound.
+     *
+     * @param buffer   The sound.
+     * @param channel  The bus the voice goes through.
+     * @param gain     The volume of the voice (0.0 to 1.0, before the bus and master gains).
+     * @param pan      The pan, from -1.0 (left) to 1.0 (right).
+     * @param loop     true to loop until stopped.
+     * @param priority Voices with a higher priority are never stolen by this one.
+     * @return A handle to the voice, or {@link #NO_VOICE} if the sound was rejected.
+     */
+    public int play(SoundBuffer buffer, SoundChannel channel, float gain, float pan, boolean loop, int priority) {
+        return play(buffer, channel, gain, pan, loop, priority, 0, false);
+    }
+
+    /**
+     * Starts playing a sound from a given frame, e.g. to resume a virtual voice where it would be.
+     * A looping sound wraps the frame around; any other sound is rejected past its end. A resumed
+     * voice only steals from voices strictly less audible than itself, so two voices of equal
+     * audibility do not keep taking the slot from each other.
+     */
+    synchronized int play(SoundBuffer buffer, SoundChannel channel, float gain, float pan, boolean loop, int priority,
+                          int startFrame, boolean resume) {
+        if (buffer == null || buffer.getFrames() == 0) return NO_VOICE;
+        if (loop) startFrame %= buffer.getFrames();
+        if (startFrame < 0 || startFrame >= buffer.getFrames()) return NO_VOICE;
+        gain = clamp(gain, 0, 1);
+        float audibility = gain * busGains[channel.ordinal()];
+
+        // Cheap rejections first: nothing below touches a voice
+        if (audibility < INAUDIBLE_GAIN) return reject(Rejection.INAUDIBLE);
+        long now = System.nanoTime();
+        long interval = buffer.getMinRetriggerMillis() * 1_000_000L;
+        if (interval > 0 && buffer.lastStartNanos != 0 && now - buffer.lastStartNanos < interval) {
+            return reject(Rejection.RETRIGGER);
+        }
+
+        int slot;
+        if (buffer.getMaxVoices() > 0 && countVoices(buffer, null) >= buffer.getMaxVoices()) {
+            slot = weakestSlot(buffer, null);
+            if (!canSteal(voices[slot], priority, audibility, resume)) return reject(Rejection.SOUND_LIMIT);
+        } else if (countVoices(null, channel) >= channelVoiceLimits[channel.ordinal()]) {
+            slot = weakestSlot(null, channel);
+            if (slot < 0 || !canSteal(voices[slot], priority, audibility, resume)) return reject(Rejection.CHANNEL_LIMIT);
+        } else {
+            slot = freeSlot();
+            if (slot < 0) {
+                slot = weakestSlot(null, null);
+                if (!canSteal(voices[slot], priority, audibility, resume)) return reject(Rejection.NO_VOICE);
+            }
+        }
+        if (voices[slot].active) {
+            release(voices[slot]);
+            stolenCount++;
+        }
+
+        Voice voice = voices[slot];
+        voice.active = true;
+        voice.generation = (voice.generation + 1) & (Integer.MAX_VALUE >>> SLOT_BITS);
+        voice.startOrder = playOrder++;
+        voice.buffer = buffer;
+        voice.channel = channel;
+        voice.position = startFrame;
+        voice.loop = loop;
+        voice.priority = priority;
+        voice.gain = gain;
+        voice.pan = clamp(pan, -1, 1);
+        voice.fadeFrames = 0;
+        voice.started = false;
+        buffer.lastStartNanos = now;
+        return (voice.generation << SLOT_BITS) | slot;
+    }
+
+    /**
+     * Starts playing a stream. It gets a free voice, or steals the weakest one if it is at least
+     * as important; channel and sound limits do not apply.
+     *
+     * @param stream   The stream; closed when the voice ends, is stopped or cannot start.
+     * @param channel  The bus the voice goes through.
+     * @param gain     The volume of the voice (0.0 to 1.0).
+     * @param priority Voices with a higher priority are never stolen by this one.
+     * @return A handle to the voice, or {@link #NO_VOICE} if every voice is more important.
+     */
+    synchronized int playStream(StreamSource stream, SoundChannel channel, float gain, int priority) {
+        gain = clamp(gain, 0, 1);
+        int slot = freeSlot();
+        if (slot < 0) {
+            slot = weakestSlot(null, null);
+            if (!canSteal(voices[slot], priority, gain * busGains[channel.ordinal()], false)) {
+                stream.close();
+                return reject(Rejection.NO_VOICE);
+            }
+            release(voices[slot]);
+            stolenCount++;
+        }
+
+        Voice voice = voices[slot];
+        voice.active = true;
+        voice.generation = (voice.generation + 1) & (Integer.MAX_VALUE >>> SLOT_BITS);
+        voice.startOrder = playOrder++;
+        voice.stream = stream;
+        voice.channel = channel;
+        voice.loop = false;
+        voice.priority = priority;
+        voice.gain = gain;
+        voice.pan = 0;
+        voice.fadeFrames = 0;
+        voice.started = false;
+        return (voice.generation << SLOT_BITS) | slot;
+    }
+
+    /**
+     * Fades the volume of a playing voice.
+     *
+     * @param handle    The voice handle.
+     * @param gain      The volume at the end of the fade (0.0 to 1.0).
+     * @param millis    The duration of the fade.
+     * @param stopAtEnd true to stop the voice when the fade ends (e.g. fading out music).
+     */
+    public synchronized void fadeTo(int handle, float gain, int millis, boolean stopAtEnd) {
+        Voice voice = voiceOf(handle);
+        if (voice == null) return;
+        voice.fadeTarget = clamp(gain, 0, 1);
+        voice.fadeFrames = Math.max(1, (int) ((long) millis * SAMPLE_RATE / 1000));
+        voice.stopAfterFade = stopAtEnd;
+    }
+
+    /**
+     * Stops a voice.
+     * @param handle The handle returned by {@link #play}; ignored if the voice already ended.
+     */
+    public synchronized void stop(int handle) {
+        Voice voice = voiceOf(handle);
+        if (voice != null) release(voice);
+    }
+
+    /**
+     * Stops every voice.
+     */
+    public synchronized void stopAll() {
+        for (Voice voice : voices) {
+            if (voice.active) release(voice);
+        }
+    }
+
+    /**
+     * Updates the gain and pan of many voices under a single lock, e.g. once per tick for every
+     * positional voice. A voice whose gain (with its bus) drops below {@link #INAUDIBLE_GAIN} is
+     * stopped, to be resumed later at its position.
+     *
+     * @param handles   The voice handles; set to {@link #NO_VOICE} for voices that ended, were
+     *                  stolen or were stopped by this call.
+     * @param gains     The new volumes (0.0 to 1.0).
+     * @param pans      The new pans (-1.0 to 1.0).
+     * @param positions Receives the frame each voice had reached, or -1 for a voice that played to
+     *                  its end; left unchanged for a stolen voice.
+     * @param count     The number of voices to update.
+     */
+    synchronized void updateVoices(int[] handles, float[] gains, float[] pans, int[] positions, int count) {
+        for (int i = 0; i < count; i++) {
+            Voice voice = voiceOf(handles[i]);
+            if (voice == null) {
+                // Same generation but inactive: nothing reused the slot, so the voice ended on its own
+                Voice slot = handles[i] < 0 ? null : voices[handles[i] & SLOT_MASK];
+                if (slot != null && slot.generation == (handles[i] >>> SLOT_BITS)) positions[i] = -1;
+                handles[i] = NO_VOICE;
+                continue;
+            }
+            positions[i] = voice.position;
+            float gain = clamp(gains[i], 0, 1);
+            if (gain * busGains[voice.channel.ordinal()] < INAUDIBLE_GAIN) {
+                release(voice);
+                handles[i] = NO_VOICE;
+                continue;
+            }
+            voice.gain = gain;
+            voice.pan = clamp(pans[i], -1, 1);
+            voice.fadeFrames = 0;
+        }
+    }
+
+    /**
+     * Changes the volume of a playing voice. The change is ramped over the next block.
+     * @param handle The voice handle.
+     * @param gain   The new volume (0.0 to 1.0).
+     */
+    public synchronized void setGain(int handle, float gain) {
+        Voice voice = voiceOf(handle);
+        if (voice != null) {
+            voice.gain = clamp(gain, 0, 1);
+            voice.fadeFrames = 0; // Cancels a fade in progress
+        }
+    }
+
+    /**
+     * Changes the pan of a playing voice.
+     * @param handle The voice handle.
+     * @param pan    The new pan, from -1.0 (left) to 1.0 (right).
+     */
+    public synchronized void setPan(int handle, float pan) {
+        Voice voice = voiceOf(handle);
+        if (voice != null) voice.pan = clamp(pan, -1, 1);
+    }
+
+    /**
+     * @param handle The voice handle.
+     * @return true if the voice is still playing.
+     */
+    public synchronized boolean isPlaying(int handle) {
+        return voiceOf(handle) != null;
+    }
+
+    /**
+     * Sets the gain of a channel's bus, applied to all of its voices.
+     * @param channel The channel.
+     * @param gain    The gain (0.0 to 1.0).
+     */
+    public synchronized void setBusGain(SoundChannel channel, float gain) {
+        busGains[channel.ordinal()] = clamp(gain, 0, 1);
+    }
+
+    /**
+     * @param channel The channel.
+     * @return The gain of the channel's bus.
+     */
+    public synchronized float getBusGain(SoundChannel channel) {
+        return busGains[channel.ordinal()];
+    }
+
+    /**
+     * Limits the number of voices a channel can use at once (e.g. so ambient SFX never take the
+     * voices UI sounds need).
+     * @param channel The channel.
+     * @param limit   The maximum number of voices, at most the mixer's voice count.
+     */
+    public synchronized void setChannelVoiceLimit(SoundChannel channel, int limit) {
+        channelVoiceLimits[channel.ordinal()] = Math.max(0, Math.min(voices.length, limit));
+    }
+
+    /**
+     * Sets the gain applied to the whole mix.
+     * @param gain The gain (0.0 to 1.0).
+     */
+    public synchronized void setMasterGain(float gain) {
+        masterGain = clamp(gain, 0, 1);
+    }
+
+    // --- MIXING ---
+
+    /**
+     * Mixes the next frames of every voice into a buffer in {@link #FORMAT}, advancing the voices.
+     * The mixer thread calls this for every block; it can also be called directly to render
+     * without an audio device.
+     *
+     * @param out    The destination, at least {@code frames * 4} bytes long.
+     * @param frames The number of frames to render.
+     */
+    public synchronized void render(byte[] out, int frames) {
+        int sampleCount = frames * 2;
+        if (mixBuffer.length < sampleCount) mixBuffer = new float[sampleCount];
+        float[] mix = mixBuffer;
+        Arrays.fill(mix, 0, sampleCount, 0f);
+
+        for (Voice voice : voices) {
+            if (voice.active) mixVoice(voice, mix, frames);
+        }
+
+        for (int i = 0; i < sampleCount; i++) {
+            int sample = Math.round(mix[i]);
+            if (sample > Short.MAX_VALUE) sample = Short.MAX_VALUE;
+            else if (sample < Short.MIN_VALUE) sample = Short.MIN_VALUE;
+            out[i * 2] = (byte) sample;
+            out[i * 2 + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    private void mixVoice(Voice voice, float[] mix, int frames) {
+        boolean fadeEnds = false;
+        if (voice.fadeFrames > 0) {
+            int step = Math.min(frames, voice.fadeFrames);
+            voice.gain += (voice.fadeTarget - voice.gain) * step / voice.fadeFrames;
+            voice.fadeFrames -= step;
+            fadeEnds = voice.fadeFrames == 0 && voice.stopAfterFade;
+        }
+
+        float gain = voice.gain * busGains[voice.channel.ordinal()] * masterGain;
+        float targetLeft = gain * Math.min(1f, 1f - voice.pan);
+        float targetRight = gain * Math.min(1f, 1f + voice.pan);
+        if (!voice.started) {
+            // A new voice starts at its gain, so its attack is not smoothed away
+            voice.appliedLeft = targetLeft;
+            voice.appliedRight = targetRight;
+            voice.started = true;
+        }
+        float left = voice.appliedLeft;
+        float right = voice.appliedRight;
+        float stepLeft = (targetLeft - left) / frames;
+        float stepRight = (targetRight - right) / frames;
+
+        if (voice.stream != null) {
+            mixStream(voice, mix, frames, left, right, stepLeft, stepRight);
+            if (fadeEnds && voice.active) release(voice);
+            return;
+        }
+
+        short[] samples = voice.buffer.getSamples();
+        int length = voice.buffer.getFrames();
+        boolean stereo = voice.buffer.getChannels() == 2;
+        int position = voice.position;
+
+        for (int f = 0; f < frames; f++) {
+            if (position >= length) {
+                if (!voice.loop) {
+                    release(voice);
+                    return;
+                }
+                position = 0;
+            }
+            float l, r;
+            if (stereo) {
+                l = samples[position * 2];
+                r = samples[position * 2 + 1];
+            } else {
+                l = r = samples[position];
+            }
+            mix[f * 2] += l * left;
+            mix[f * 2 + 1] += r * right;
+            left += stepLeft;
+            right += stepRight;
+            position++;
+        }
+        voice.position = position;
+        voice.appliedLeft = targetLeft;
+        voice.appliedRight = targetRight;
+        if (fadeEnds) release(voice);
+    }
+
+    private void mixStream(Voice voice, float[] mix, int frames, float left, float right, float stepLeft, float stepRight) {
+        if (streamBuffer.length < frames * 2) streamBuffer = new short[frames * 2];
+        short[] samples = streamBuffer;
+        int read = voice.stream.read(samples, frames);
+        if (read < 0) {
+            release(voice);
+            return;
+        }
+        // Frames the decoder has not produced yet are silence; the gain still advances
+        for (int f = 0; f < read; f++) {
+            mix[f * 2] += samples[f * 2] * left;
+            mix[f * 2 + 1] += samples[f * 2 + 1] * right;
+            left += stepLeft;
+            right += stepRight;
+        }
+        voice.appliedLeft = left + stepLeft * (frames - read);
+        voice.appliedRight = right + stepRight * (frames - read);
+    }
+
+    // --- HELPERS ---
+
+    private Voice voiceOf(int handle) {
+        if (handle < 0) return null;
+        int slot = handle & SLOT_MASK;
+        if (slot >= voices.length) return null;
+        Voice voice = voices[slot];
+        return voice.active && voice.generation == (handle >>> SLOT_BITS) ? voice : null;
+    }
+
+    private int freeSlot() {
+        for (int i = 0; i < voices.length; i++) {
+            if (!voices[i].active) return i;
+        }
+        return -1;
+    }
+
+    /** Counts the voices playing a sound and/or on a channel (null matches any). */
+    private int countVoices(SoundBuffer buffer, SoundChannel channel) {
+        int count = 0;
+        for (Voice voice : voices) {
+            if (voice.active && (buffer == null || voice.buffer == buffer) && (channel == null || voice.channel == channel)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Finds the voice to steal among the busy voices playing a sound and/or on a channel (null
+     * matches any): the lowest priority, then the least audible, then the oldest.
+     * @return The slot, or -1 if no busy voice matches.
+     */
+    private int weakestSlot(SoundBuffer buffer, SoundChannel channel) {
+        int best = -1;
+        for (int i = 0; i < voices.length; i++) {
+            Voice voice = voices[i];
+            if (!voice.active || (buffer != null && voice.buffer != buffer) || (channel != null && voice.channel != channel)) continue;
+            if (best < 0 || isWeaker(voice, voices[best])) best = i;
+        }
+        return best;
+    }
+
+    private boolean isWeaker(Voice a, Voice b) {
+        if (a.priority != b.priority) return a.priority < b.priority;
+        float audibilityA = audibility(a);
+        float audibilityB = audibility(b);
+        if (audibilityA != audibilityB) return audibilityA < audibilityB;
+        return a.startOrder < b.startOrder;
+    }
+
+    private boolean canSteal(Voice victim, int priority, float audibility, boolean strict) {
+        if (priority != victim.priority) return priority > victim.priority;
+        return strict ? audibility > audibility(victim) : audibility >= audibility(victim);
+    }
+
+    private int reject(Rejection reason) {
+        rejectedCounts[reason.ordinal()]++;
+        return NO_VOICE;
+    }
+
+    private float audibility(Voice voice) {
+        return voice.gain * busGains[voice.channel.ordinal()];
+    }
+
+    private static void release(Voice voice) {
+        voice.active = false;
+        voice.buffer = null;
+        if (voice.stream != null) {
+            voice.stream.close();
+            voice.stream = null;
+        }
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    // --- METRICS ---
+
+    /** @return The number of voices playing. */
+    public synchronized int getActiveVoiceCount() {
+        int count = 0;
+        for (Voice voice : voices) {
+            if (voice.active) count++;
+        }
+        return count;
+    }
+
+    /** @return The maximum number of voices. */
+    public int getVoiceCount() {
+        return voices.length;
+    }
+
+    /**
+     * @param channel The channel.
+     * @return The number of voices playing on the channel.
+     */
+    public synchronized int getActiveVoiceCount(SoundChannel channel) {
+        return countVoices(null, channel);
+    }
+
+    /** @return The number of voices stopped to make room for a new sound. */
+    public synchronized long getStolenCount() {
+        return stolenCount;
+    }
+
+    /**
+     * @param reason The reason.
+     * @return The number of sounds rejected for that reason.
+     */
+    public synchronized long getRejectedCount(Rejection reason) {
+        return rejectedCounts[reason.ordinal()];
+    }
+
+    /** @return The number of sounds rejected for any reason. */
+    public synchronized long getRejectedCount() {
+        long total = 0;
+        for (long count : rejectedCounts) total += count;
+        return total;
+    }
+
+    /** Resets the stolen and rejected counts. */
+    public synchronized void resetMetrics() {
+        stolenCount = 0;
+        Arrays.fill(rejectedCounts, 0);
+    }
+}
@@ -0,0 +1,199 @@
+package com.jdstudio.engine.Sound;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * A music track decoded while it plays, so a track of any length only costs a small buffer.
+ * <p>
+ * A decoder thread reads the file, converts it to the mixer's format and writes it into a ring of
+ * {@link #RING_FRAMES} stereo frames (128 KB, under 0.75 s of audio);
+ * the mixer thread reads from the other end. The ring has a single writer and a single reader, so
+ * neither side takes a lock: if the decoder falls behind, the mixer plays silence for the missing
+ * frames instead of waiting (see {@link #getUnderrunCount()}).
+ *
+ * @author JDStudio
+ */
+final class MusicStream implements AudioMixer.StreamSource {
+
+    /** The capacity of the ring, in stereo frames. A power of two. */
+    static final int RING_FRAMES = 32768;
+
+    private static final int MASK = RING_FRAMES - 1;
+    private static final int CHUNK_BYTES = 8192;
+    private static final long FULL_WAIT_NANOS = 2_000_000L;
+    private static final int PUBLISH_FRAMES = 1024;
+
+    private final String path;
+    private final boolean loop;
+    private final short[] ring = new short[RING_FRAMES * 2];
+
+    // Frame counters: written only by the decoder and the mixer, respectively
+    private volatile long written = 0;
+    private volatile long read = 0;
+
+    private volatile boolean finished = false;
+    private volatile boolean closed = false;
+    private volatile int underruns = 0;
+
+    /** The decoder's write position; published to {@link #written} in batches. */
+    private long writePosition = 0;
+
+    private final Thread decoder;
+
+    /**
+     * Opens a track and starts decoding it on a daemon thread.
+     *
+     * @param path The resource path to the audio file.
+     * @param loop true to restart from the beginning at the end of the file.
+     */
+    MusicStream(String path, boolean loop) {
+        this.path = path;
+        this.loop = loop;
+        this.decoder = new Thread(this::decode, "MusicDecoder");
+        decoder.setDaemon(true);
+        decoder.start();
+    }
+
+    @Override
+    public int read(short[] stereo, int frames) {
+        boolean done = finished; // Read before 'written', so no frames can follow it
+        long start = read;
+        int available = (int) Math.min(frames, written - start);
+        if (available <= 0) {
+            if (done) return -1;
+            underruns++;
+            return 0;
+        }
+        int index = (int) (start & MASK);
+        int first = Math.min(available, RING_FRAMES - index);
+        System.arraycopy(ring, index * 2, stereo, 0, first * 2);
+        System.arraycopy(ring, 0, stereo, first * 2, (available - first) * 2);
+        read = start + available;
+        if (available < frames && !done) underruns++;
+        return available;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(decoder);
+    }
+
+    /** @return How many times the mixer found fewer frames than it needed. */
+    int getUnderrunCount() {
+        return underruns;
+    }
+
+    // --- DECODER THREAD ---
+
+    private void decode() {
+        byte[] bytes = new byte[CHUNK_BYTES];
+        short[] samples = new short[CHUNK_BYTES / 2];
+        short[] frame = new short[2];
+        try {
+            do {
+                if (!decodeOnce(bytes, samples, frame)) break;
+            } while (loop && !closed);
+        } catch (IOException e) {
+            System.err.println("Error streaming music from: " + path);
+            e.printStackTrace();
+        } finally {
+            written = writePosition;
+            finished = true;
+        }
+    }
+
+    /**
+     * Decodes the file once, from the beginning.
+     * @return false if the file holds no audio, so looping it would spin.
+     */
+    private boolean decodeOnce(byte[] bytes, short[] samples, short[] frame) throws IOException {
+        try (InputStream rawIs = MusicStream.class.getResourceAsStream(path)) {
+            if (rawIs == null) throw new IOException("Music file not found: " + path);
+            try (AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(rawIs));
+                 AudioInputStream pcm = SoundBuffer.toPcm16(source)) {
+                AudioFormat format = pcm.getFormat();
+                int channels = format.getChannels();
+                float sampleRate = format.getSampleRate();
+                double step = sampleRate > 0 ? sampleRate / AudioMixer.SAMPLE_RATE : 1;
+
+                // Linear resampling across chunk boundaries: the output sits at 'phase' between
+                // the previous source frame and the current one
+                double phase = 0;
+                int prevLeft = 0, prevRight = 0;
+                boolean havePrev = false;
+                boolean any = false;
+                int leftover = 0;
+
+                int count;
+                while (!closed && (count = pcm.read(bytes, leftover, bytes.length - leftover)) != -1) {
+                    int total = leftover + count;
+                    int usable = total - total % (channels * 2);
+                    int frames = usable / (channels * 2);
+                    for (int i = 0; i < frames * channels; i++) {
+                        samples[i] = (short) ((bytes[i * 2] & 0xFF) | (bytes[i * 2 + 1] << 8));
+                    }
+                    leftover = total - usable;
+                    System.arraycopy(bytes, usable, bytes, 0, leftover);
+
+                    for (int f = 0; f < frames && !closed; f++) {
+                        int left = samples[f * channels];
+                        int right = channels == 2 ? samples[f * channels + 1] : left;
+                        any = true;
+                        if (!havePrev) {
+                            prevLeft = left;
+                            prevRight = right;
+                            havePrev = true;
+                            continue;
+                        }
+                        while (phase < 1 && !closed) {
+                            frame[0] = (short) Math.round(prevLeft + (left - prevLeft) * phase);
+                            frame[1] = (short) Math.round(prevRight + (right - prevRight) * phase);
+                            put(frame);
+                            phase += step;
+                        }
+                        phase -= 1;
+                        prevLeft = left;
+                        prevRight = right;
+                    }
+                    written = writePosition;
+                }
+                if (havePrev && !closed) {
+                    frame[0] = (short) prevLeft;
+                    frame[1] = (short) prevRight;
+                    put(frame);
+                }
+                return any;
+            }
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("Unsupported audio file: " + path, e);
+        }
+    }
+
+    /**
+     * Writes one frame, waiting while the ring is full.
+     */
+    private void put(short[] frame) {
+        long position = writePosition;
+        if (position - read >= RING_FRAMES) {
+            written = position; // Everything written so far must be readable before waiting
+            while (position - read >= RING_FRAMES) {
+                if (closed) return;
+                LockSupport.parkNanos(FULL_WAIT_NANOS);
+            }
+        }
+        int index = (int) (position & MASK) * 2;
+        ring[index] = frame[0];
+        ring[index + 1] = frame[1];
+        writePosition = position + 1;
+        if ((writePosition & (PUBLISH_FRAMES - 1)) == 0) written = writePosition;
+    }
+}
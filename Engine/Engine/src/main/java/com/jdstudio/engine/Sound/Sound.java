@@ -1,23 +1,12 @@
 
 package com.jdstudio.engine.Sound;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
-import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.FloatControl;
-import javax.sound.sampled.UnsupportedAudioFileException;
-
-import com.jdstudio.engine.Engine;
+import com.jdstudio.engine.Object.GameObject;
 
 /**
  * A final utility class for handling all sound-related operations in the engine.
@@ -25,9 +14,14 @@ import com.jdstudio.engine.Engine;
  * This class provides a centralized system for playing, looping, and managing sound effects and music.
  * Key features include:
  * <ul>
- *   <li>Caching of sound data to prevent repeated disk I/O.</li>
+ *   <li>Caching of sound data, decoded once into the mixer's format, to prevent repeated disk I/O.</li>
+ *   <li>Sound effects mixed in software by an {@link AudioMixer} on a single output line, so playing
+ *       a sound opens no native line.</li>
+ *   <li>Music streamed from disk while it plays, so a track only keeps a small buffer in memory,
+ *       and crossfaded when the track changes.</li>
  *   <li>Multiple sound channels (MUSIC, SFX, UI) with independent volume control.</li>
- *   <li>Spatial (3D) sound for sound effects, with volume attenuation and panning based on distance.</li>
+ *   <li>Spatial sound for sound effects, with volume attenuation and panning based on the distance to
+ *       the camera, kept up to date by {@link SpatialAudio} while the sound plays.</li>
  *   <li>A clear separation between one-shot sound effects and looping music.</li>
  * </ul>
  * This is a static utility class and cannot be instantiated.
@@ -47,26 +41,22 @@ public final class Sound {
         UI
     }
 
-    /**
-     * A private inner class to hold pre-loaded audio data in memory.
-     * This includes the raw byte data and the audio format, necessary for creating new clips quickly.
-     */
-    private static class AudioData {
-        final byte[] data;
-        final AudioFormat format;
+    private static final Map<String, SoundBuffer> sfxDataCache = new HashMap<>();
 
-        AudioData(byte[] data, AudioFormat format) {
-            this.data = data;
-            this.format = format;
-        }
-    }
+    /** The default crossfade between two music tracks, in milliseconds. */
+    public static final int DEFAULT_CROSSFADE_MILLIS = 1000;
+
+    /** Music voices are never stolen by sound effects. */
+    private static final int MUSIC_PRIORITY = Integer.MAX_VALUE;
+
+    private static int musicVoice = AudioMixer.NO_VOICE;
+    private static String currentMusicPath;
 
-    private static final Map<String, AudioData> sfxDataCache = new HashMap<>();
-    private static final Map<String, Clip> musicClipCache = new HashMap<>();
-    
-    private static Clip currentMusic;
-    
     private static final Map<SoundChannel, Float> channelVolumes = new EnumMap<>(SoundChannel.class);
+
+    /** Mixes every sound effect and the music; its output line is opened on the first sound. */
+    private static final AudioMixer mixer = new AudioMixer(AudioMixer.DEFAULT_VOICES);
+    private static boolean mixerStarted = false;
     
     // Static initializer to set default volumes for each channel.
     static {
@@ -81,45 +71,90 @@ public final class Sound {
     private Sound() {}
 
     /**
-     * Loads audio data from a given path and caches it.
-     * If the data is already in the cache, it returns the cached version.
-     * Otherwise, it loads the audio file, converts it to a byte array, and stores it in the cache.
+     * Loads a sound and caches it.
+     * If the sound is already in the cache, it returns the cached version.
+     * Otherwise, it decodes the audio file and converts it to the mixer's format.
      *
      * @param path The resource path to the audio file.
-     * @return An {@link AudioData} object containing the sound's bytes and format, or null if loading fails.
+     * @return The decoded {@link SoundBuffer}, or null if loading fails.
      */
-    private static AudioData loadAudioData(String path) {
+    private static SoundBuffer loadAudioData(String path) {
         if (sfxDataCache.containsKey(path)) {
             return sfxDataCache.get(path);
         }
 
-        try (InputStream rawIs = Sound.class.getResourceAsStream(path)) {
-            if (rawIs == null) throw new IOException("Sound file not found: " + path);
-            
-            InputStream bufferedIs = new BufferedInputStream(rawIs);
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(bufferedIs);
-            AudioFormat format = audioStream.getFormat();
-            
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            byte[] buffer = new byte[4096];
-            int read;
-            while ((read = audioStream.read(buffer, 0, buffer.length)) != -1) {
-                baos.write(buffer, 0, read);
-            }
-            byte[] audioBytes = baos.toByteArray();
-            
-            AudioData audioData = new AudioData(audioBytes, format);
-            sfxDataCache.put(path, audioData);
-            audioStream.close();
-            return audioData;
-
-        } catch (UnsupportedAudioFileException | IOException e) {
+        try {
+            SoundBuffer buffer = SoundBuffer.load(path);
+            sfxDataCache.put(path, buffer);
+            return buffer;
+        } catch (IOException e) {
             System.err.println("Error loading sound data from: " + path);
             e.printStackTrace();
             return null;
         }
     }
 
+    /**
+     * Gets a sound from the cache, loading it if needed.
+     */
+    static SoundBuffer getBuffer(String path) {
+        return loadAudioData(path);
+    }
+
+    /**
+     * Decodes sounds ahead of time (e.g. while a level loads), so their first play does not
+     * stall the game.
+     *
+     * @param paths The resource paths of the sound files.
+     */
+    public static void preload(String... paths) {
+        for (String path : paths) {
+            loadAudioData(path);
+        }
+    }
+
+    /**
+     * Sets the playback limits of a sound (loading it if needed): frequent sounds such as hits
+     * and footsteps should be capped so a busy frame does not stack dozens of copies.
+     *
+     * @param path               The resource path to the sound file.
+     * @param maxVoices          The maximum number of copies playing at once, or 0 for no limit.
+     * @param minRetriggerMillis The minimum time between two starts, in milliseconds, or 0.
+     * @param priority           The priority of the sound's voices when voices run out (0 by default).
+     */
+    public static void setSoundLimits(String path, int maxVoices, int minRetriggerMillis, int priority) {
+        SoundBuffer buffer = loadAudioData(path);
+        if (buffer == null) return;
+        buffer.setMaxVoices(maxVoices);
+        buffer.setMinRetriggerMillis(minRetriggerMillis);
+        buffer.setPriority(priority);
+    }
+
+    /**
+     * Limits the number of sounds a channel can play at once.
+     *
+     * @param channel The {@link SoundChannel} to limit.
+     * @param limit   The maximum number of voices, at most {@link AudioMixer#DEFAULT_VOICES}.
+     */
+    public static void setChannelVoiceLimit(SoundChannel channel, int limit) {
+        mixer.setChannelVoiceLimit(channel, limit);
+    }
+
+    /**
+     * Gets the mixer that plays the sound effects, starting its output line if needed.
+     * @return The engine's mixer.
+     */
+    public static AudioMixer getMixer() {
+        if (!mixerStarted) {
+            mixerStarted = true; // Tried once: without an output line, sounds stay muted
+            for (SoundChannel channel : SoundChannel.values()) {
+                mixer.setBusGain(channel, channelVolumes.get(channel));
+            }
+            mixer.start();
+        }
+        return mixer;
+    }
+
     /**
      * Plays a sound effect on a specific channel with default volume.
      *
@@ -127,7 +162,7 @@ public final class Sound {
      * @param channel The {@link SoundChannel} to play the sound on.
      */
     public static void play(String path, SoundChannel channel) {
-        play(path, channel, 1.0f, false, 0, 0);
+        play(path, channel, 1.0f);
     }
     
     /**
@@ -139,12 +174,22 @@ public final class Sound {
      * @param volumeScale A multiplier for the sound's volume (0.0 to 1.0).
      */
     public static void play(String path, SoundChannel channel, float volumeScale) {
-        play(path, channel, volumeScale, false, 0, 0);
+        // Channel volume is applied by the mixer's bus; inaudible sounds are dropped before any loading or mixer work
+        if (volumeScale * channelVolumes.get(channel) < AudioMixer.INAUDIBLE_GAIN) {
+            return;
+        }
+
+        // Without an output line nothing would consume the voices
+        if (!getMixer().isRunning()) return;
+
+        SoundBuffer buffer = loadAudioData(path);
+        if (buffer == null) return;
+        mixer.play(buffer, channel, volumeScale, 0f, false);
     }
 
     /**
      * Plays a spatial sound effect that originates from a specific point in the world.
-     * Its volume and panning will be adjusted based on the listener's position (camera center).
+     * Its volume and panning follow the listener's position (camera center) while it plays.
      *
      * @param path     The resource path to the sound file.
      * @param channel  The {@link SoundChannel} to play the sound on (usually SFX).
@@ -152,124 +197,88 @@ public final class Sound {
      * @param emitterY The world Y-coordinate of the sound's origin.
      */
     public static void play(String path, SoundChannel channel, int emitterX, int emitterY) {
-        play(path, channel, 1.0f, true, emitterX, emitterY);
+        SpatialAudio.getInstance().play(path, channel, emitterX, emitterY, false);
     }
-    
+
     /**
-     * The master private method for playing any sound.
-     * It handles loading, volume/pan calculation, and playback.
+     * Plays a spatial sound effect that follows an object, e.g. an enemy's footsteps.
      *
-     * @param path        The resource path to the sound file.
-     * @param channel     The channel to play on.
-     * @param volumeScale An individual volume multiplier.
-     * @param isSpatial   Whether to calculate spatial audio properties.
-     * @param emitterX    World X-coordinate (if spatial).
-     * @param emitterY    World Y-coordinate (if spatial).
+     * @param path    The resource path to the sound file.
+     * @param channel The {@link SoundChannel} to play the sound on (usually SFX).
+     * @param source  The object the sound follows.
+     * @return The sound's emitter, or null if the sound could not be loaded.
      */
-     private static void play(String path, SoundChannel channel, float volumeScale, boolean isSpatial, int emitterX, int emitterY) {
-         AudioData audioData = loadAudioData(path);
-         if (audioData == null) return;
-
-         float finalVolume = channelVolumes.get(channel) * volumeScale;
-         float pan = 0.0f;
-
-         if (isSpatial) {
-             int listenerX = Engine.camera.getX() + Engine.getWIDTH() / 2;
-             
-             double distance = Math.abs(emitterX - listenerX);
-             double maxHearingDistance = 400.0; // Increased hearing distance
-             
-             float spatialVolume = (distance > maxHearingDistance) ? 0.0f : (float)(1.0 - (distance / maxHearingDistance));
-             finalVolume *= spatialVolume;
-
-             double horizontalOffset = emitterX - listenerX;
-             double panWidth = Engine.getWIDTH(); // Panning is full screen width
-             pan = (float) Math.max(-1.0, Math.min(1.0, horizontalOffset / panWidth));
-         }
-         
-         if (finalVolume <= 0.001f) {
-             return;
-         }
-
-         try {
-             Clip clip = AudioSystem.getClip();
-             InputStream inputStream = new ByteArrayInputStream(audioData.data);
-             AudioInputStream audioStream = new AudioInputStream(inputStream, audioData.format, audioData.data.length / audioData.format.getFrameSize());
-             clip.open(audioStream);
-             setClipControls(clip, finalVolume, pan);
-             clip.start();
-         } catch (Exception e) {
-             e.printStackTrace();
-         }
-     }
+    public static SoundEmitter play(String path, SoundChannel channel, GameObject source) {
+        return SpatialAudio.getInstance().play(path, channel, source, false);
+    }
+
+    /**
+     * Loops a spatial sound attached to an object until it is stopped or the object is destroyed,
+     * e.g. a torch or a waterfall. Out of range, the sound costs no mixer voice.
+     *
+     * @param path    The resource path to the sound file.
+     * @param channel The {@link SoundChannel} to play the sound on (usually SFX).
+     * @param source  The object the sound follows.
+     * @return The sound's emitter, to tune its volume and range or stop it, or null if the sound could not be loaded.
+     */
+    public static SoundEmitter loop(String path, SoundChannel channel, GameObject source) {
+        return SpatialAudio.getInstance().play(path, channel, source, true);
+    }
     
     /**
-     * Plays a music track in a continuous loop. If another track is playing, it is stopped first.
-     * The music is always played on the {@link SoundChannel#MUSIC} channel.
+     * Plays a music track in a continuous loop, crossfading from the current track over
+     * {@link #DEFAULT_CROSSFADE_MILLIS}. The music is always played on the {@link SoundChannel#MUSIC} channel.
      *
      * @param path The resource path to the music file.
      */
     public static void loop(String path) {
-        stopMusic();
-        
-        if (musicClipCache.containsKey(path)) {
-            currentMusic = musicClipCache.get(path);
+        loop(path, DEFAULT_CROSSFADE_MILLIS);
+    }
+
+    /**
+     * Plays a music track in a continuous loop. The track is decoded while it plays; the current
+     * track fades out while the new one fades in. Playing the track that is already playing does
+     * nothing.
+     *
+     * @param path            The resource path to the music file.
+     * @param crossfadeMillis The duration of the crossfade, or 0 to switch at once.
+     */
+    public static void loop(String path, int crossfadeMillis) {
+        AudioMixer mixer = getMixer();
+        if (path.equals(currentMusicPath) && mixer.isPlaying(musicVoice)) return;
+        stopMusic(crossfadeMillis);
+        if (!mixer.isRunning()) return;
+
+        if (crossfadeMillis > 0) {
+            musicVoice = mixer.playStream(new MusicStream(path, true), SoundChannel.MUSIC, 0f, MUSIC_PRIORITY);
+            mixer.fadeTo(musicVoice, 1f, crossfadeMillis, false);
         } else {
-            try (InputStream rawIs = Sound.class.getResourceAsStream(path)) {
-                if (rawIs == null) throw new IOException("Music file not found: " + path);
-                
-                InputStream bufferedIs = new BufferedInputStream(rawIs);
-                AudioInputStream audioStream = AudioSystem.getAudioInputStream(bufferedIs);
-                
-                Clip musicClip = AudioSystem.getClip();
-                musicClip.open(audioStream);
-                musicClipCache.put(path, musicClip);
-                currentMusic = musicClip;
-            } catch (Exception e) {
-                System.err.println("Error loading music from: " + path);
-                e.printStackTrace();
-                return;
-            }
+            musicVoice = mixer.playStream(new MusicStream(path, true), SoundChannel.MUSIC, 1f, MUSIC_PRIORITY);
         }
-        
-        setClipControls(currentMusic, channelVolumes.get(SoundChannel.MUSIC), 0.0f);
-        
-        currentMusic.setFramePosition(0);
-        currentMusic.loop(Clip.LOOP_CONTINUOUSLY);
+        currentMusicPath = path;
     }
-    
+
     /**
      * Stops the currently playing music track, if any.
      */
     public static void stopMusic() {
-        if (currentMusic != null) {
-            currentMusic.stop();
-        }
+        stopMusic(0);
     }
 
     /**
-     * A private helper to set the volume (gain) and pan (balance) of a given clip.
+     * Fades out the currently playing music track, if any, and stops it.
      *
-     * @param clip   The {@link Clip} to control.
-     * @param volume The target volume (0.0 to 1.0).
-     * @param pan    The target pan (-1.0 for left, 0.0 for center, 1.0 for right).
+     * @param fadeMillis The duration of the fade, or 0 to stop at once.
      */
-    private static void setClipControls(Clip clip, float volume, float pan) {
-        if (clip == null) return;
-        
-        volume = Math.max(0.0f, Math.min(1.0f, volume));
-        pan = Math.max(-1.0f, Math.min(1.0f, pan));
-        
-        try {
-            FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-            float dB = (float) (Math.log(volume == 0.0 ? 0.0001 : volume) / Math.log(10.0) * 20.0);
-            gainControl.setValue(dB);
-        } catch (IllegalArgumentException e) { /* Ignore if control is not supported */ }
-
-        try {
-            FloatControl panControl = (FloatControl) clip.getControl(FloatControl.Type.PAN);
-            panControl.setValue(pan);
-        } catch (IllegalArgumentException e) { /* Ignore if control is not supported */ }
+    public static void stopMusic(int fadeMillis) {
+        if (musicVoice == AudioMixer.NO_VOICE) return;
+        if (fadeMillis > 0) {
+            mixer.fadeTo(musicVoice, 0f, fadeMillis, true);
+        } else {
+            mixer.stop(musicVoice);
+        }
+        musicVoice = AudioMixer.NO_VOICE;
+        currentMusicPath = null;
     }
     
     /**
@@ -281,10 +290,7 @@ public final class Sound {
     public static void setChannelVolume(SoundChannel channel, float volume) {
         volume = Math.max(0.0f, Math.min(1.0f, volume));
         channelVolumes.put(channel, volume);
-
-        if (channel == SoundChannel.MUSIC && currentMusic != null) {
-            setClipControls(currentMusic, volume, 0.0f);
-        }
+        mixer.setBusGain(channel, volume);
     }
 
     /**
@@ -0,0 +1,173 @@
+package com.jdstudio.engine.Sound;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * A decoded sound in the mixer's format: 16-bit signed samples at {@link AudioMixer#SAMPLE_RATE},
+ * mono or stereo (interleaved). Sounds are converted once, when they are loaded, so the mixer
+ * only has to add samples together.
+ * <p>
+ * A buffer also carries the playback rules of its sound, which the mixer applies before giving it
+ * a voice: how many voices it may use at once, how soon it may start again, and its priority.
+ *
+ * @author JDStudio
+ */
+public final class SoundBuffer {
+
+    private final short[] samples;
+    private final int channels;
+    private final int frames;
+
+    private int maxVoices = 0;
+    private int minRetriggerMillis = 0;
+    private int priority = 0;
+
+    /** When the sound last got a voice ({@link System#nanoTime()}); kept by the mixer under its lock. */
+    long lastStartNanos = 0;
+
+    /**
+     * Wraps samples that are already in the mixer's format.
+     *
+     * @param samples  The samples, interleaved if stereo.
+     * @param channels 1 for mono, 2 for stereo.
+     */
+    public SoundBuffer(short[] samples, int channels) {
+        if (channels != 1 && channels != 2) {
+            throw new IllegalArgumentException("Only mono and stereo sounds are supported, not " + channels + " channels.");
+        }
+        this.samples = samples;
+        this.channels = channels;
+        this.frames = samples.length / channels;
+    }
+
+    /**
+     * Decodes a sound file and converts it to the mixer's format.
+     *
+     * @param path The resource path to the audio file.
+     * @return The decoded sound.
+     * @throws IOException if the file is missing or cannot be decoded.
+     */
+    public static SoundBuffer load(String path) throws IOException {
+        try (InputStream rawIs = SoundBuffer.class.getResourceAsStream(path)) {
+            if (rawIs == null) throw new IOException("Sound file not found: " + path);
+            try (AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(rawIs));
+                 AudioInputStream pcm = toPcm16(source)) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = pcm.read(buffer, 0, buffer.length)) != -1) {
+                    bytes.write(buffer, 0, read);
+                }
+                AudioFormat format = pcm.getFormat();
+                short[] samples = toShorts(bytes.toByteArray(), bytes.size());
+                return new SoundBuffer(resample(samples, format.getChannels(), format.getSampleRate()), format.getChannels());
+            }
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("Unsupported audio file: " + path, e);
+        }
+    }
+
+    /**
+     * Converts a stream to 16-bit signed little-endian PCM, keeping its sample rate and channels.
+     *
+     * @throws IOException if the stream has more than two channels or cannot be converted.
+     */
+    static AudioInputStream toPcm16(AudioInputStream source) throws IOException {
+        AudioFormat format = source.getFormat();
+        if (format.getChannels() > 2) {
+            throw new IOException("Only mono and stereo sounds are supported, not " + format.getChannels() + " channels.");
+        }
+        AudioFormat target = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+                format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false);
+        if (format.matches(target)) return source;
+        try {
+            return AudioSystem.getAudioInputStream(target, source);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Cannot convert " + format + " to 16-bit PCM.", e);
+        }
+    }
+
+    /**
+     * Reads little-endian 16-bit samples.
+     */
+    static short[] toShorts(byte[] bytes, int length) {
+        short[] samples = new short[length / 2];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) ((bytes[i * 2] & 0xFF) | (bytes[i * 2 + 1] << 8));
+        }
+        return samples;
+    }
+
+    /**
+     * Resamples interleaved samples to {@link AudioMixer#SAMPLE_RATE} with linear interpolation.
+     */
+    static short[] resample(short[] samples, int channels, float sampleRate) {
+        if (sampleRate == AudioMixer.SAMPLE_RATE || sampleRate <= 0) return samples;
+        int frames = samples.length / channels;
+        double step = sampleRate / AudioMixer.SAMPLE_RATE;
+        int outFrames = (int) (frames / step);
+        short[] out = new short[outFrames * channels];
+        for (int f = 0; f < outFrames; f++) {
+            double position = f * step;
+            int index = (int) position;
+            double fraction = position - index;
+            int next = Math.min(index + 1, frames - 1);
+            for (int c = 0; c < channels; c++) {
+                int a = samples[index * channels + c];
+                int b = samples[next * channels + c];
+                out[f * channels + c] = (short) Math.round(a + (b - a) * fraction);
+            }
+        }
+        return out;
+    }
+
+    /** @return The samples, interleaved if stereo. Must not be modified. */
+    short[] getSamples() { return samples; }
+
+    /** @return 1 for mono, 2 for stereo. */
+    public int getChannels() { return channels; }
+
+    /** @return The length of the sound, in frames. */
+    public int getFrames() { return frames; }
+
+    /** @return The length of the sound, in seconds. */
+    public double getDuration() { return frames / (double) AudioMixer.SAMPLE_RATE; }
+
+    /**
+     * Limits how many voices can play this sound at once. When the limit is reached, a new play
+     * replaces the weakest instance if it is at least as loud, and is rejected otherwise.
+     * @param maxVoices The limit, or 0 for no limit.
+     */
+    public void setMaxVoices(int maxVoices) { this.maxVoices = Math.max(0, maxVoices); }
+
+    /** @return The maximum number of voices playing this sound at once, 0 if unlimited. */
+    public int getMaxVoices() { return maxVoices; }
+
+    /**
+     * Sets the minimum time between two starts of this sound; plays within it are rejected
+     * (e.g. so 30 enemies hit on the same frame play one hit sound, not 30).
+     * @param minRetriggerMillis The interval in milliseconds, or 0 for none.
+     */
+    public void setMinRetriggerMillis(int minRetriggerMillis) { this.minRetriggerMillis = Math.max(0, minRetriggerMillis); }
+
+    /** @return The minimum time between two starts of this sound, in milliseconds. */
+    public int getMinRetriggerMillis() { return minRetriggerMillis; }
+
+    /**
+     * Sets the priority of this sound's voices. A sound never steals the voice of a sound with a
+     * higher priority, and always may steal one with a lower priority.
+     * @param priority The priority (0 by default).
+     */
+    public void setPriority(int priority) { this.priority = priority; }
+
+    /** @return The priority of this sound's voices. */
+    public int getPriority() { return priority; }
+}
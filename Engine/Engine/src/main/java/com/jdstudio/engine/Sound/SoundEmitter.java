@@ -0,0 +1,174 @@
+package com.jdstudio.engine.Sound;
+
+import com.jdstudio.engine.Object.GameObject;
+import com.jdstudio.engine.Sound.Sound.SoundChannel;
+
+/**
+ * A sound playing at a position in the world, usually attached to a {@link GameObject}.
+ * <p>
+ * Emitters are created and updated by the {@link SpatialAudio} manager, which sets their volume
+ * and pan from the distance to the listener once per tick. An emitter out of range holds no
+ * voice: it is <i>virtual</i>, and only keeps track of where its sound would be, so it resumes at
+ * the right point when the listener comes back in range.
+ *
+ * @author JDStudio
+ */
+public final class SoundEmitter {
+
+    /**
+     * How the volume falls off between the minimum and the maximum distance.
+     */
+    public enum Rolloff {
+        /** Falls off evenly, reaching silence at the maximum distance. */
+        LINEAR,
+        /** Falls off quickly near the minimum distance, then slowly (like real sound), reaching silence at the maximum distance. */
+        INVERSE
+    }
+
+    /** The default distance at which emitters become silent, in pixels. */
+    public static final float DEFAULT_MAX_DISTANCE = 400f;
+
+    final SoundBuffer buffer;
+    final SoundChannel channel;
+    final boolean loop;
+
+    private GameObject source;
+    private double x, y;
+    private float volume = 1f;
+    private float minDistance = 0f;
+    private float maxDistance = DEFAULT_MAX_DISTANCE;
+    private Rolloff rolloff = Rolloff.LINEAR;
+
+    // Playback state, kept by the SpatialAudio manager
+    int handle = AudioMixer.NO_VOICE;
+    double position = 0;
+    boolean stopped = false;
+    /** true once an update has seen the emitter: from then on it keeps time while virtual. */
+    boolean tracked = false;
+    /** true once the emitter has held a voice: it then resumes rather than starts. */
+    boolean started = false;
+    /** When a looping emitter turned down by the mixer's limits may ask again ({@link System#nanoTime()}). */
+    long retryAtNanos = 0;
+
+    SoundEmitter(SoundBuffer buffer, SoundChannel channel, boolean loop) {
+        this.buffer = buffer;
+        this.channel = channel;
+        this.loop = loop;
+    }
+
+    /**
+     * Attaches the emitter to an object: it follows the object's center, and stops when the
+     * object is destroyed.
+     * @param source The object, or null to stay at the current position.
+     */
+    public void setSource(GameObject source) {
+        this.source = source;
+    }
+
+    /** @return The object this emitter follows, or null. */
+    public GameObject getSource() {
+        return source;
+    }
+
+    /**
+     * Places the emitter at a fixed point; it stops following its object.
+     * @param x The world X-coordinate.
+     * @param y The world Y-coordinate.
+     */
+    public void setPosition(double x, double y) {
+        this.source = null;
+        this.x = x;
+        this.y = y;
+    }
+
+    /** @return The world X-coordinate of the emitter. */
+    public double getX() {
+        return source != null ? source.getX() + source.getWidth() / 2.0 : x;
+    }
+
+    /** @return The world Y-coordinate of the emitter. */
+    public double getY() {
+        return source != null ? source.getY() + source.getHeight() / 2.0 : y;
+    }
+
+    /**
+     * Sets the volume of the emitter before distance attenuation.
+     * @param volume The volume (0.0 to 1.0).
+     */
+    public void setVolume(float volume) {
+        this.volume = Math.max(0f, Math.min(1f, volume));
+    }
+
+    /** @return The volume of the emitter before distance attenuation. */
+    public float getVolume() {
+        return volume;
+    }
+
+    /**
+     * Sets the distances over which the emitter fades out.
+     * @param minDistance The distance within which it plays at full volume.
+     * @param maxDistance The distance beyond which it is silent (and virtual).
+     */
+    public void setRange(float minDistance, float maxDistance) {
+        this.minDistance = Math.max(0f, minDistance);
+        this.maxDistance = Math.max(this.minDistance + 1f, maxDistance);
+    }
+
+    /** @return The distance within which the emitter plays at full volume. */
+    public float getMinDistance() {
+        return minDistance;
+    }
+
+    /** @return The distance beyond which the emitter is silent. */
+    public float getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Sets how the volume falls off with distance.
+     * @param rolloff The curve, {@link Rolloff#LINEAR} by default.
+     */
+    public void setRolloff(Rolloff rolloff) {
+        this.rolloff = rolloff;
+    }
+
+    /** @return How the volume falls off with distance. */
+    public Rolloff getRolloff() {
+        return rolloff;
+    }
+
+    /**
+     * Gets the attenuation at a distance from the emitter.
+     * @param distance The distance to the listener.
+     * @return The volume multiplier, from 1.0 within the minimum distance to 0.0 at the maximum.
+     */
+    public float attenuation(double distance) {
+        if (distance <= minDistance) return 1f;
+        if (distance >= maxDistance) return 0f;
+        if (rolloff == Rolloff.INVERSE) {
+            // min/d, shifted and scaled so it reaches 0 at the maximum distance instead of cutting off
+            double near = Math.max(minDistance, 1f);
+            double atDistance = near / Math.max(distance, near);
+            double atMax = near / maxDistance;
+            return (float) ((atDistance - atMax) / (1 - atMax));
+        }
+        return (float) (1 - (distance - minDistance) / (maxDistance - minDistance));
+    }
+
+    /**
+     * Stops the emitter; the manager releases its voice on the next update.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /** @return true while the emitter plays, audibly or not. */
+    public boolean isActive() {
+        return !stopped;
+    }
+
+    /** @return true if the emitter currently holds a mixer voice, false if it is virtual. */
+    public boolean isAudible() {
+        return handle != AudioMixer.NO_VOICE;
+    }
+}
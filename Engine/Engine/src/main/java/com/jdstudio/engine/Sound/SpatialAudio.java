@@ -0,0 +1,260 @@
+package com.jdstudio.engine.Sound;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.jdstudio.engine.Engine;
+import com.jdstudio.engine.Object.GameObject;
+import com.jdstudio.engine.Sound.Sound.SoundChannel;
+
+/**
+ * A singleton manager for positional sounds ({@link SoundEmitter}s).
+ * <p>
+ * Once per tick, {@link #update()} measures every emitter's distance to the listener (the center of
+ * {@link Engine#camera}) in both axes, and sends the resulting volumes and pans to the mixer in a
+ * single batch. Emitters out of range give their voice back and become virtual: they only advance
+ * a position counter, so hundreds of inaudible ambient emitters cost almost nothing, and resume
+ * at the right point when they come back in range. An emitter turned down by the mixer's limits
+ * (see {@link SoundBuffer#setMaxVoices} and {@link AudioMixer#setChannelVoiceLimit}) is not out of
+ * range: a one-shot is dropped, as a non-positional sound would be, and a loop waits a moment
+ * before asking again.
+ *
+ * @author JDStudio
+ */
+public class SpatialAudio {
+
+    private static SpatialAudio instance;
+
+    /** How many virtual emitters may ask the mixer for a voice in one tick. */
+    private static final int MAX_STARTS_PER_TICK = 8;
+
+    /** A virtual emitter needs this much more than the inaudible gain to start, so it does not flicker at the edge of its range. */
+    private static final float START_GAIN_FACTOR = 2f;
+
+    /** How long a looping emitter turned down by the mixer's limits waits before asking again. */
+    private static final long RETRY_DELAY_NANOS = 250_000_000L;
+
+    private final List<SoundEmitter> emitters = new ArrayList<>();
+
+    // The batch sent to the mixer: the emitters holding a voice this tick
+    private SoundEmitter[] batch = new SoundEmitter[16];
+    private int[] handles = new int[16];
+    private float[] gains = new float[16];
+    private float[] pans = new float[16];
+    private int[] positions = new int[16];
+
+    private long lastUpdateNanos = 0;
+    private int audibleCount = 0;
+    private int virtualCount = 0;
+
+    private SpatialAudio() {}
+
+    /**
+     * Gets the single instance of the SpatialAudio manager.
+     * @return The singleton instance.
+     */
+    public static SpatialAudio getInstance() {
+        if (instance == null) {
+            synchronized (SpatialAudio.class) {
+                if (instance == null) {
+                    instance = new SpatialAudio();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Starts a sound that follows an object.
+     *
+     * @param path    The resource path to the sound file.
+     * @param channel The {@link SoundChannel} to play the sound on.
+     * @param source  The object the sound follows; it stops when the object is destroyed.
+     * @param loop    true to loop until stopped (e.g. an ambient sound), false to play once.
+     * @return The emitter, to tune its volume and range, or null if the sound could not be loaded
+     *         or is a one-shot out of the default range.
+     */
+    public SoundEmitter play(String path, SoundChannel channel, GameObject source, boolean loop) {
+        double x = source.getX() + source.getWidth() / 2.0;
+        double y = source.getY() + source.getHeight() / 2.0;
+        SoundEmitter emitter = create(path, channel, loop, x, y);
+        if (emitter != null) emitter.setSource(source);
+        return emitter;
+    }
+
+    /**
+     * Starts a sound at a fixed point in the world.
+     *
+     * @param path    The resource path to the sound file.
+     * @param channel The {@link SoundChannel} to play the sound on.
+     * @param x       The world X-coordinate of the sound.
+     * @param y       The world Y-coordinate of the sound.
+     * @param loop    true to loop until stopped, false to play once.
+     * @return The emitter, to tune its volume and range, or null if the sound could not be loaded
+     *         or is a one-shot out of the default range.
+     */
+    public SoundEmitter play(String path, SoundChannel channel, double x, double y, boolean loop) {
+        SoundEmitter emitter = create(path, channel, loop, x, y);
+        if (emitter != null) emitter.setPosition(x, y);
+        return emitter;
+    }
+
+    private SoundEmitter create(String path, SoundChannel channel, boolean loop, double x, double y) {
+        if (!loop) {
+            // A one-shot that nobody would hear is dropped before any loading, like a non-positional one
+            AudioMixer mixer = Sound.getMixer();
+            if (!mixer.isRunning() || Engine.camera == null) return null;
+            double distance = Math.hypot(x - listenerX(), y - listenerY());
+            float gain = (float) Math.max(0, 1 - distance / SoundEmitter.DEFAULT_MAX_DISTANCE);
+            if (gain * mixer.getBusGain(channel) < AudioMixer.INAUDIBLE_GAIN * START_GAIN_FACTOR) return null;
+        }
+        SoundBuffer buffer = Sound.getBuffer(path);
+        if (buffer == null) return null;
+        SoundEmitter emitter = new SoundEmitter(buffer, channel, loop);
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    private static double listenerX() {
+        return Engine.camera.getX() + Engine.getWIDTH() / 2.0;
+    }
+
+    private static double listenerY() {
+        return Engine.camera.getY() + Engine.getHEIGHT() / 2.0;
+    }
+
+    /**
+     * Updates every emitter against the listener. Called by the engine once per tick.
+     */
+    public void update() {
+        long now = System.nanoTime();
+        double elapsedFrames = lastUpdateNanos == 0 ? 0 : (now - lastUpdateNanos) * (AudioMixer.SAMPLE_RATE / 1e9);
+        lastUpdateNanos = now;
+        if (emitters.isEmpty() || Engine.camera == null) return;
+
+        AudioMixer mixer = Sound.getMixer();
+        boolean running = mixer.isRunning();
+        double listenerX = listenerX();
+        double listenerY = listenerY();
+        double panWidth = Engine.getWIDTH(); // Panning is full screen width
+        int starts = 0;
+        int count = 0;
+        audibleCount = 0;
+        virtualCount = 0;
+
+        for (int i = emitters.size() - 1; i >= 0; i--) {
+            SoundEmitter emitter = emitters.get(i);
+            GameObject source = emitter.getSource();
+            if (source != null && source.isDestroyed) emitter.stop();
+
+            if (emitter.tracked && !emitter.stopped && emitter.handle == AudioMixer.NO_VOICE) {
+                // A virtual emitter keeps time on its own; a one-shot ends when its sound would.
+                // One created since the last update has no time to make up, and starts at frame 0.
+                emitter.position += elapsedFrames;
+                if (emitter.loop) emitter.position %= emitter.buffer.getFrames();
+                else if (emitter.position >= emitter.buffer.getFrames()) emitter.stop();
+            }
+            emitter.tracked = true;
+            if (emitter.stopped) {
+                if (emitter.handle != AudioMixer.NO_VOICE) mixer.stop(emitter.handle);
+                emitter.handle = AudioMixer.NO_VOICE;
+                removeAt(i);
+                continue;
+            }
+
+            double dx = emitter.getX() - listenerX;
+            double dy = emitter.getY() - listenerY;
+            float gain = emitter.getVolume() * emitter.attenuation(Math.hypot(dx, dy));
+            float pan = (float) Math.max(-1.0, Math.min(1.0, dx / panWidth));
+
+            if (emitter.handle != AudioMixer.NO_VOICE) {
+                if (count == batch.length) growBatch();
+                batch[count] = emitter;
+                handles[count] = emitter.handle;
+                gains[count] = gain;
+                pans[count] = pan;
+                positions[count] = (int) emitter.position; // Kept if the voice is gone
+                count++;
+            } else if (running && starts < MAX_STARTS_PER_TICK && now >= emitter.retryAtNanos
+                    && gain * mixer.getBusGain(emitter.channel) >= AudioMixer.INAUDIBLE_GAIN * START_GAIN_FACTOR) {
+                starts++;
+                emitter.handle = mixer.play(emitter.buffer, emitter.channel, gain, pan, emitter.loop,
+                        emitter.buffer.getPriority(), (int) emitter.position, emitter.started);
+                if (emitter.handle != AudioMixer.NO_VOICE) {
+                    emitter.started = true;
+                    audibleCount++;
+                } else if (!emitter.loop) {
+                    // Turned down by a voice limit or the retrigger interval, not by distance
+                    emitter.stop();
+                    removeAt(i);
+                } else {
+                    emitter.retryAtNanos = now + RETRY_DELAY_NANOS;
+                    virtualCount++;
+                }
+            } else {
+                virtualCount++;
+            }
+        }
+
+        // One lock for every voice; voices that went out of range, ended or were stolen come back virtual
+        if (count > 0) mixer.updateVoices(handles, gains, pans, positions, count);
+        for (int i = 0; i < count; i++) {
+            SoundEmitter emitter = batch[i];
+            emitter.handle = handles[i];
+            if (positions[i] < 0) {
+                emitter.stop(); // Played to its end; removed on the next update
+            } else {
+                emitter.position = positions[i];
+            }
+            if (emitter.handle != AudioMixer.NO_VOICE) audibleCount++;
+            else if (!emitter.stopped) virtualCount++;
+            batch[i] = null;
+        }
+    }
+
+    private void removeAt(int index) {
+        int last = emitters.size() - 1;
+        emitters.set(index, emitters.get(last));
+        emitters.remove(last);
+    }
+
+    private void growBatch() {
+        int capacity = batch.length * 2;
+        batch = Arrays.copyOf(batch, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        gains = Arrays.copyOf(gains, capacity);
+        pans = Arrays.copyOf(pans, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+    }
+
+    /** @return The number of emitters, audible or virtual. */
+    public int getEmitterCount() {
+        return emitters.size();
+    }
+
+    /** @return The number of emitters that held a voice after the last update. */
+    public int getAudibleCount() {
+        return audibleCount;
+    }
+
+    /** @return The number of emitters that were virtual after the last update. */
+    public int getVirtualCount() {
+        return virtualCount;
+    }
+
+    /**
+     * Stops every emitter and releases their voices.
+     */
+    public void reset() {
+        AudioMixer mixer = emitters.isEmpty() ? null : Sound.getMixer();
+        for (SoundEmitter emitter : emitters) {
+            if (emitter.handle != AudioMixer.NO_VOICE) mixer.stop(emitter.handle);
+            emitter.handle = AudioMixer.NO_VOICE;
+            emitter.stopped = true;
+        }
+        emitters.clear();
+        audibleCount = virtualCount = 0;
+        lastUpdateNanos = 0;
+    }
+}
@@ -4,6 +4,8 @@ import java.awt.Graphics;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.jdstudio.engine.Core.AIScheduler;
+import com.jdstudio.engine.Core.ActivityManager;
 import com.jdstudio.engine.Graphics.AssetManager;
 import com.jdstudio.engine.Object.GameObject;
 
@@ -19,6 +21,12 @@ public abstract class EnginePlayingState extends GameState {
     // Poderíamos adicionar um 'world' e 'player' aqui no futuro para automatizar ainda mais
 
     public EnginePlayingState() {
+        // Os objetos da fase anterior saem do jogo junto com a lista antiga
+        if (gameObjects != null) {
+            for (GameObject go : gameObjects) {
+                removedFromGame(go);
+            }
+        }
         this.gameObjects = new ArrayList<>();
     }
 
@@ -32,17 +40,25 @@ public abstract class EnginePlayingState extends GameState {
 
 	public void addGameObject(GameObject go) {
         this.gameObjects.add(go);
+        go.onAddedToGame();
     }
 
     public void removeGameObject(GameObject go) {
-        this.gameObjects.remove(go);
+        if (this.gameObjects.remove(go)) {
+            removedFromGame(go);
+        }
     }
     
     @Override
     public void tick() {
-        // Atualiza todos os objetos
-        for (int i = 0; i < gameObjects.size(); i++) {
-            gameObjects.get(i).tick();
+        // Atualiza todos os objetos (ou, com o LOD de simulação ativo, apenas os próximos da câmera)
+        ActivityManager activity = ActivityManager.getInstance();
+        if (activity.isEnabled()) {
+            activity.tick(gameObjects);
+        } else {
+            for (int i = 0; i < gameObjects.size(); i++) {
+                gameObjects.get(i).tick();
+            }
         }
 
        /* // Remove objetos marcados para destruição
@@ -51,10 +67,21 @@ public abstract class EnginePlayingState extends GameState {
                 gameObjects.remove(i);
             }
         }*/
-        gameObjects.removeIf(go -> go.isDestroyed && !go.isProtectedFromCleanup); // Remove tudo o que está destruído, exceto o jogador
+        // Remove tudo o que está destruído, exceto o jogador
+        gameObjects.removeIf(go -> {
+            if (!go.isDestroyed || go.isProtectedFromCleanup) return false;
+            removedFromGame(go);
+            return true;
+        });
         
     }
 
+    /** Avisa o objeto de que saiu do jogo e o tira do AIScheduler. */
+    private static void removedFromGame(GameObject go) {
+        go.onRemovedFromGame();
+        AIScheduler.getInstance().unregister(go);
+    }
+
     @Override
     public void render(Graphics g) {
         // Renderiza todos os objetos
@@ -0,0 +1,663 @@
+package com.jdstudio.engine.World;
+
+import java.awt.Graphics;
+import java.awt.Point;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.jdstudio.engine.Engine;
+import com.jdstudio.engine.Core.AIScheduler;
+import com.jdstudio.engine.Core.ISavable;
+import com.jdstudio.engine.Object.GameObject;
+
+/**
+ * A {@link World} made of many fixed-size regions ("chunks") that are streamed in and out
+ * around the camera, for open-world maps that do not fit in memory at once.
+ * <p>
+ * Each chunk is an ordinary map file (Tiled JSON or compiled {@code .jdmap}) of exactly
+ * {@code chunkSize x chunkSize} tiles, located through a path pattern such as
+ * {@code "/world/region_%d_%d.json"} (formatted with the chunk column and row). Missing
+ * region files are treated as empty chunks; a region that fails to load stays unloaded (and
+ * solid) and is tried again after {@value #RETRY_DELAY_MILLIS} ms. The
+ * {@link World#getMovementCost movement costs} of a region's tiles are loaded and released with
+ * it, and count towards the memory budget.
+ * <p>
+ * Region files are parsed on a background thread; tiles and objects are then created on the
+ * game thread during {@link #update()}. Chunks within the load radius of the camera are loaded,
+ * and chunks are only released once they are beyond the (larger) unload radius, which prevents
+ * load/unload thrash at chunk borders. When the estimated memory of the loaded chunks exceeds the
+ * budget, the farthest chunks outside the load radius are evicted first.
+ * <p>
+ * When a chunk is evicted, its objects are serialised (position plus {@link ISavable} state)
+ * and destroyed; they are recreated through {@link IChunkLoaderListener#onChunkObjectFound} when
+ * the chunk is loaded again. Objects that were destroyed by the game are not restored, and
+ * objects that wandered into another loaded chunk are handed over to that chunk.
+ * <p>
+ * {@link #getTile}, {@link #isFree} and the pathfinder see loaded chunks transparently. Tiles of
+ * chunks that are not loaded are reported as solid, so nothing walks or paths into the void.
+ *
+ * @author JDStudio
+ */
+public class ChunkedWorld extends World {
+
+    /** Rough heap cost of one created {@link Tile}, used to estimate memory usage. */
+    private static final long TILE_BYTES_ESTIMATE = 64;
+
+    /** How long a region that failed to load waits before it is requested again. */
+    private static final long RETRY_DELAY_MILLIS = 5000;
+
+    private enum ChunkState { UNLOADED, LOADING, LOADED }
+
+    /** Raw contents of a region, parsed off the game thread. */
+    private record ChunkData(List<LayerData> layers, float[] movementCosts, List<PathData> paths, List<ObjectData> objects) {}
+    private record LayerData(String name, int[] gids) {}
+    private record PathData(String name, List<Point> points) {}
+    private record ObjectData(String type, int x, int y, int width, int height, JSONObject properties) {}
+
+    /** The outcome of a background load, handed back to the game thread. */
+    private record LoadResult(Chunk chunk, int generation, ChunkData data, Exception error) {}
+
+    /** A live object created for a chunk. */
+    private record TrackedObject(GameObject object, String type, JSONObject properties) {}
+
+    /** An object of an evicted chunk, kept in serialised form until the chunk is loaded again. */
+    private record EvictedObject(String type, int x, int y, int width, int height, String properties, String state) {}
+
+    private static final ChunkData EMPTY_CHUNK = new ChunkData(List.of(), null, List.of(), List.of());
+
+    private static final class Chunk {
+        final int cx, cy;
+        ChunkState state = ChunkState.UNLOADED;
+        /** Incremented whenever a pending load must be ignored. */
+        int generation;
+        /** When a chunk that failed to load may be requested again ({@link System#nanoTime()}), or 0. */
+        long retryAtNanos;
+        Tile[] tiles;
+        long estimatedBytes;
+        boolean objectsSpawned;
+        final List<TrackedObject> objects = new ArrayList<>();
+        final List<EvictedObject> evicted = new ArrayList<>();
+        /** Tiles replaced through setTile, kept across evictions. */
+        final Map<Integer, Tile> overrides = new HashMap<>();
+        /** Movement costs changed through setMovementCosts, kept across evictions. */
+        final Map<Integer, Float> costOverrides = new HashMap<>();
+        /** The estimated memory of the chunk's tiles, without its movement costs. */
+        long tileBytes;
+
+        Chunk(int cx, int cy) {
+            this.cx = cx;
+            this.cy = cy;
+        }
+    }
+
+    private final String regionPathPattern;
+    private final int chunkSize;
+    private final int chunksX;
+    private final int chunksY;
+    private final Chunk[] chunks;
+    private final IChunkLoaderListener listener;
+
+    private final ExecutorService loader;
+    private final ConcurrentLinkedQueue<LoadResult> completedLoads = new ConcurrentLinkedQueue<>();
+
+    /** Returned for tiles of chunks that are not loaded. Solid and never rendered. */
+    private final Tile unloadedTile;
+
+    private int loadRadius = 1;
+    private int unloadRadius = 2;
+    private long memoryBudget = 64L * 1024 * 1024;
+    private int maxChunksIntegratedPerTick = 2;
+    private long estimatedMemory = 0;
+    private int loadedChunkCount = 0;
+
+    /**
+     * Creates a chunked world. No chunk is loaded until {@link #update()} or {@link #loadAround} is called.
+     *
+     * @param regionPathPattern The resource path pattern of the region files, formatted with the
+     *                          chunk column and row (e.g. {@code "/world/region_%d_%d.jdmap"}).
+     * @param chunksX           The number of chunk columns.
+     * @param chunksY           The number of chunk rows.
+     * @param chunkSize         The size of a chunk (and of every region map) in tiles.
+     * @param tileWidth         The width of a single tile in pixels.
+     * @param tileHeight        The height of a single tile in pixels.
+     * @param listener          The listener that creates tiles, paths and objects of the chunks.
+     */
+    public ChunkedWorld(String regionPathPattern, int chunksX, int chunksY, int chunkSize,
+                        int tileWidth, int tileHeight, IChunkLoaderListener listener) {
+        // One cost page per chunk, so a chunk's costs are released with it
+        super(chunksX * chunkSize, chunksY * chunkSize, tileWidth, tileHeight, chunkSize);
+        this.regionPathPattern = regionPathPattern;
+        this.chunkSize = chunkSize;
+        this.chunksX = chunksX;
+        this.chunksY = chunksY;
+        this.listener = listener;
+        this.chunks = new Chunk[chunksX * chunksY];
+        for (int cy = 0; cy < chunksY; cy++) {
+            for (int cx = 0; cx < chunksX; cx++) {
+                chunks[cx + cy * chunksX] = new Chunk(cx, cy);
+            }
+        }
+        this.unloadedTile = new Tile(0, 0, tileWidth, tileHeight, null) {
+            @Override
+            public void render(Graphics g) {}
+        };
+        this.unloadedTile.tileType = Tile.TileType.SOLID;
+        this.loader = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ChunkLoader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // --- CONFIGURATION ---
+
+    /**
+     * Sets the streaming radii, in chunks, around the camera's chunk.
+     *
+     * @param loadRadius   Chunks at this distance or closer are loaded.
+     * @param unloadRadius Chunks farther than this are unloaded. Must be greater than {@code loadRadius}.
+     */
+    public void setStreamingRadius(int loadRadius, int unloadRadius) {
+        if (loadRadius < 0 || unloadRadius <= loadRadius) {
+            throw new IllegalArgumentException("unloadRadius must be greater than loadRadius, and loadRadius not negative.");
+        }
+        this.loadRadius = loadRadius;
+        this.unloadRadius = unloadRadius;
+    }
+
+    /**
+     * Sets the estimated memory budget for loaded chunks. When it is exceeded, chunks outside the
+     * load radius are evicted (farthest first) even if they are still within the unload radius.
+     * @param bytes The budget in bytes.
+     */
+    public void setMemoryBudget(long bytes) {
+        this.memoryBudget = bytes;
+    }
+
+    /**
+     * Limits how many loaded chunks are turned into tiles and objects per tick, to spread the cost.
+     * @param count The maximum number of chunks integrated per call to {@link #update()}.
+     */
+    public void setMaxChunksIntegratedPerTick(int count) {
+        this.maxChunksIntegratedPerTick = Math.max(1, count);
+    }
+
+    // --- STREAMING ---
+
+    /**
+     * Updates streaming around the center of {@code Engine.camera}. Call once per tick.
+     */
+    public void update() {
+        update(Engine.camera.getX() + Engine.getWIDTH() / 2, Engine.camera.getY() + Engine.getHEIGHT() / 2);
+    }
+
+    /**
+     * Updates streaming around a focus point: integrates finished loads, requests chunks that came
+     * into range, unloads chunks that left it and enforces the memory budget.
+     *
+     * @param focusX The focus x-coordinate in world pixels.
+     * @param focusY The focus y-coordinate in world pixels.
+     */
+    public void update(int focusX, int focusY) {
+        integrateCompletedLoads();
+
+        int focusCX = focusX / (chunkSize * tileWidth);
+        int focusCY = focusY / (chunkSize * tileHeight);
+
+        for (Chunk chunk : chunks) {
+            int distance = distance(chunk, focusCX, focusCY);
+            if (distance <= loadRadius) {
+                if (chunk.state == ChunkState.UNLOADED
+                        && (chunk.retryAtNanos == 0 || System.nanoTime() - chunk.retryAtNanos >= 0)) {
+                    requestLoad(chunk);
+                }
+            } else if (distance > unloadRadius) {
+                if (chunk.state == ChunkState.LOADED) {
+                    unload(chunk);
+                } else if (chunk.state == ChunkState.LOADING) {
+                    // Cancel: the result will be ignored when it arrives.
+                    chunk.generation++;
+                    chunk.state = ChunkState.UNLOADED;
+                }
+            }
+        }
+
+        enforceMemoryBudget(focusCX, focusCY);
+    }
+
+    /**
+     * Synchronously loads every chunk within the load radius of a point. Useful when entering the
+     * world, so the area around the player exists before the first frame.
+     *
+     * @param focusX The focus x-coordinate in world pixels.
+     * @param focusY The focus y-coordinate in world pixels.
+     */
+    public void loadAround(int focusX, int focusY) {
+        int focusCX = focusX / (chunkSize * tileWidth);
+        int focusCY = focusY / (chunkSize * tileHeight);
+        for (Chunk chunk : chunks) {
+            if (chunk.state != ChunkState.LOADED && distance(chunk, focusCX, focusCY) <= loadRadius) {
+                chunk.generation++;
+                chunk.state = ChunkState.LOADING;
+                integrate(read(chunk, chunk.generation));
+            }
+        }
+    }
+
+    /**
+     * Stops the background loader. Call when the world is no longer used.
+     */
+    public void dispose() {
+        loader.shutdownNow();
+        completedLoads.clear();
+    }
+
+    private void requestLoad(Chunk chunk) {
+        chunk.state = ChunkState.LOADING;
+        int generation = ++chunk.generation;
+        loader.execute(() -> completedLoads.add(read(chunk, generation)));
+    }
+
+    private LoadResult read(Chunk chunk, int generation) {
+        try {
+            return new LoadResult(chunk, generation, readRegion(chunk.cx, chunk.cy), null);
+        } catch (Exception e) {
+            return new LoadResult(chunk, generation, null, e);
+        }
+    }
+
+    private void integrateCompletedLoads() {
+        for (int i = 0; i < maxChunksIntegratedPerTick; i++) {
+            LoadResult result = completedLoads.poll();
+            if (result == null) return;
+            integrate(result);
+        }
+    }
+
+    /**
+     * Creates the tiles and objects of a loaded chunk on the game thread.
+     */
+    private void integrate(LoadResult result) {
+        Chunk chunk = result.chunk();
+        if (chunk.state != ChunkState.LOADING || chunk.generation != result.generation()) {
+            return; // Stale or cancelled load.
+        }
+        ChunkData data = result.data();
+        if (result.error() != null) {
+            // Left unloaded, so its tiles stay solid instead of turning into open ground
+            System.err.println("Failed to load chunk (" + chunk.cx + ", " + chunk.cy + "). Retrying in "
+                    + RETRY_DELAY_MILLIS + " ms.");
+            result.error().printStackTrace();
+            chunk.state = ChunkState.UNLOADED;
+            chunk.retryAtNanos = System.nanoTime() + RETRY_DELAY_MILLIS * 1_000_000L;
+            return;
+        }
+
+        int originX = chunk.cx * chunkSize;
+        int originY = chunk.cy * chunkSize;
+        Tile[] tiles = new Tile[chunkSize * chunkSize];
+        int tileCount = 0;
+        for (LayerData layer : data.layers()) {
+            int[] gids = layer.gids();
+            for (int i = 0; i < gids.length; i++) {
+                if (gids[i] == 0) continue; // 0 is an empty tile
+                int x = (originX + i % chunkSize) * tileWidth;
+                int y = (originY + i / chunkSize) * tileHeight;
+                Tile tile = listener.onTileFound(layer.name(), gids[i], x, y);
+                if (tile != null) {
+                    if (tiles[i] == null) tileCount++;
+                    tiles[i] = tile;
+                }
+            }
+        }
+        for (Map.Entry<Integer, Tile> override : chunk.overrides.entrySet()) {
+            tiles[override.getKey()] = override.getValue();
+        }
+        chunk.tiles = tiles;
+
+        if (data.movementCosts() != null) {
+            storeMovementCosts(originX, originY, chunkSize, chunkSize, data.movementCosts());
+        }
+        for (Map.Entry<Integer, Float> override : chunk.costOverrides.entrySet()) {
+            int index = override.getKey();
+            storeMovementCost(originX + index % chunkSize, originY + index / chunkSize, override.getValue());
+        }
+
+        if (!chunk.objectsSpawned) {
+            // First load: create everything found in the region file.
+            for (PathData path : data.paths()) {
+                listener.onPathFound(path.name(), path.points());
+            }
+            for (ObjectData object : data.objects()) {
+                GameObject created = listener.onChunkObjectFound(object.type(), object.x(), object.y(),
+                        object.width(), object.height(), object.properties());
+                track(chunk, created, object.type(), object.properties());
+            }
+            chunk.objectsSpawned = true;
+        } else {
+            // Reload: restore the objects that were alive when the chunk was evicted.
+            for (EvictedObject evicted : chunk.evicted) {
+                JSONObject properties = new JSONObject(evicted.properties());
+                GameObject restored = listener.onChunkObjectFound(evicted.type(), evicted.x(), evicted.y(),
+                        evicted.width(), evicted.height(), properties);
+                if (restored == null) continue;
+                restored.setX(evicted.x());
+                restored.setY(evicted.y());
+                if (evicted.state() != null && restored instanceof ISavable savable) {
+                    savable.loadState(new JSONObject(evicted.state()));
+                }
+                track(chunk, restored, evicted.type(), properties);
+            }
+            chunk.evicted.clear();
+        }
+
+        chunk.tileBytes = (long) tiles.length * Integer.BYTES + tileCount * TILE_BYTES_ESTIMATE;
+        updateEstimate(chunk);
+        loadedChunkCount++;
+        chunk.state = ChunkState.LOADED;
+        markChunkWalkabilityChanged(chunk);
+        listener.onChunkLoaded(chunk.cx, chunk.cy);
+    }
+
+    private void track(Chunk chunk, GameObject object, String type, JSONObject properties) {
+        if (object != null && !object.isProtectedFromCleanup) {
+            chunk.objects.add(new TrackedObject(object, type, properties));
+        }
+    }
+
+    /**
+     * Serialises and destroys the objects of a chunk and releases its tiles.
+     */
+    private void unload(Chunk chunk) {
+        for (TrackedObject tracked : chunk.objects) {
+            GameObject object = tracked.object();
+            if (object.isDestroyed) continue; // Gone for good.
+
+            Chunk current = chunkAtPixel(object.getX(), object.getY());
+            if (current != null && current != chunk && current.state == ChunkState.LOADED) {
+                current.objects.add(tracked); // It wandered into another loaded chunk.
+                continue;
+            }
+            String state = (object instanceof ISavable savable) ? savable.saveState().toString() : null;
+            chunk.evicted.add(new EvictedObject(tracked.type(), object.getX(), object.getY(),
+                    object.getWidth(), object.getHeight(), tracked.properties().toString(), state));
+            object.destroy();
+            AIScheduler.getInstance().unregister(object);
+        }
+        chunk.objects.clear();
+        chunk.tiles = null;
+        clearMovementCosts(chunk.cx * chunkSize, chunk.cy * chunkSize, chunkSize, chunkSize);
+        chunk.generation++;
+        chunk.state = ChunkState.UNLOADED;
+        markChunkWalkabilityChanged(chunk);
+        estimatedMemory -= chunk.estimatedBytes;
+        chunk.estimatedBytes = 0;
+        loadedChunkCount--;
+        listener.onChunkUnloaded(chunk.cx, chunk.cy);
+    }
+
+    /**
+     * Re-estimates the memory of a loaded chunk: its tiles, plus its movement cost page if any
+     * of its tiles costs more than 1.
+     */
+    private void updateEstimate(Chunk chunk) {
+        long bytes = chunk.tileBytes;
+        if (hasMovementCostPage(chunk.cx * chunkSize, chunk.cy * chunkSize)) {
+            bytes += (long) chunkSize * chunkSize * Float.BYTES;
+        }
+        estimatedMemory += bytes - chunk.estimatedBytes;
+        chunk.estimatedBytes = bytes;
+    }
+
+    private void markChunkWalkabilityChanged(Chunk chunk) {
+        markWalkabilityChanged(chunk.cx * chunkSize, chunk.cy * chunkSize,
+                Math.min(chunkSize, WIDTH - chunk.cx * chunkSize), Math.min(chunkSize, HEIGHT - chunk.cy * chunkSize));
+    }
+
+    private void enforceMemoryBudget(int focusCX, int focusCY) {
+        while (estimatedMemory > memoryBudget) {
+            Chunk farthest = null;
+            int farthestDistance = loadRadius;
+            for (Chunk chunk : chunks) {
+                if (chunk.state != ChunkState.LOADED) continue;
+                int distance = distance(chunk, focusCX, focusCY);
+                if (distance > farthestDistance) {
+                    farthest = chunk;
+                    farthestDistance = distance;
+                }
+            }
+            if (farthest == null) return; // Everything left is needed around the camera.
+            unload(farthest);
+        }
+    }
+
+    private static int distance(Chunk chunk, int focusCX, int focusCY) {
+        return Math.max(Math.abs(chunk.cx - focusCX), Math.abs(chunk.cy - focusCY));
+    }
+
+    private Chunk chunkAtPixel(int x, int y) {
+        int tx = x / tileWidth;
+        int ty = y / tileHeight;
+        if (x < 0 || y < 0 || tx >= WIDTH || ty >= HEIGHT) return null;
+        return chunks[(tx / chunkSize) + (ty / chunkSize) * chunksX];
+    }
+
+    // --- REGION PARSING (background thread) ---
+
+    private ChunkData readRegion(int cx, int cy) throws IOException {
+        String path = String.format(regionPathPattern, cx, cy);
+        if (getClass().getResource(path) == null) {
+            return EMPTY_CHUNK;
+        }
+        int originX = cx * chunkSize * tileWidth;
+        int originY = cy * chunkSize * tileHeight;
+        List<LayerData> layers = new ArrayList<>();
+        float[] costs = null;
+        List<PathData> paths = new ArrayList<>();
+        List<ObjectData> objects = new ArrayList<>();
+
+        if (path.endsWith(MapCompiler.EXTENSION)) {
+            CompiledMap map = CompiledMap.open(path);
+            checkRegionSize(path, map.width, map.height);
+            Map<Integer, Float> tileCosts = map.readTileMovementCosts();
+            int layerCount = map.readInt();
+            for (int l = 0; l < layerCount; l++) {
+                String name = map.readString();
+                IntBuffer data = map.readTileLayer();
+                int[] gids = new int[data.limit()];
+                data.get(gids);
+                layers.add(new LayerData(name, gids));
+                costs = applyMovementCosts(gids, tileCosts, costs);
+            }
+            int pathCount = map.readInt();
+            for (int p = 0; p < pathCount; p++) {
+                String name = map.readString();
+                int pointCount = map.readInt();
+                List<Point> points = new ArrayList<>(pointCount);
+                for (int j = 0; j < pointCount; j++) {
+                    points.add(new Point(originX + map.readInt(), originY + map.readInt()));
+                }
+                paths.add(new PathData(name, points));
+            }
+            int objectCount = map.readInt();
+            for (int o = 0; o < objectCount; o++) {
+                String type = map.readString();
+                int x = map.readInt();
+                int y = map.readInt();
+                int width = map.readInt();
+                int height = map.readInt();
+                JSONObject properties = new JSONObject(map.readString());
+                objects.add(toWorldSpace(type, x, y, width, height, properties, originX, originY));
+            }
+        } else {
+            try (InputStream is = getClass().getResourceAsStream(path);
+                 TiledMapReader reader = new TiledMapReader(is)) {
+                TiledMapReader.Token token;
+                while ((token = reader.next()) != TiledMapReader.Token.END) {
+                    switch (token) {
+                        case MAP_HEADER -> checkRegionSize(path, reader.getWidth(), reader.getHeight());
+                        case TILE_LAYER -> {
+                            layers.add(new LayerData(reader.getLayerName(), reader.getLayerData()));
+                            costs = applyMovementCosts(reader.getLayerData(), reader.getTileMovementCosts(), costs);
+                        }
+                        case PATH -> {
+                            JSONObject object = reader.getObject();
+                            JSONArray polyline = object.getJSONArray("polyline");
+                            int startX = originX + object.getInt("x");
+                            int startY = originY + object.getInt("y");
+                            List<Point> points = new ArrayList<>(polyline.length());
+                            for (int j = 0; j < polyline.length(); j++) {
+                                JSONObject point = polyline.getJSONObject(j);
+                                points.add(new Point(startX + point.getInt("x"), startY + point.getInt("y")));
+                            }
+                            paths.add(new PathData(object.getString("name"), points));
+                        }
+                        case OBJECT -> {
+                            JSONObject object = reader.getObject();
+                            String type = object.has("class") ? object.getString("class") :
+                                          (object.has("type") ? object.getString("type") : "");
+                            objects.add(toWorldSpace(type, object.getInt("x"), object.getInt("y"),
+                                    object.getInt("width"), object.getInt("height"), object, originX, originY));
+                        }
+                        default -> { }
+                    }
+                }
+            }
+        }
+        return new ChunkData(layers, costs, Collections.unmodifiableList(paths), objects);
+    }
+
+    /**
+     * Compiles the movement costs of a region layer, the highest cost winning as in {@link World}.
+     * @param costs The costs of the previous layers, or null if none had any.
+     * @return The costs, or null while every tile costs 1.
+     */
+    private float[] applyMovementCosts(int[] gids, Map<Integer, Float> tileCosts, float[] costs) {
+        if (tileCosts.isEmpty()) return costs;
+        for (int i = 0; i < gids.length; i++) {
+            if (gids[i] == 0) continue;
+            Float cost = tileCosts.get(gids[i] & 0x1FFFFFFF); // Strip Tiled's flip flags
+            if (cost == null || !(cost > 1)) continue;
+            if (costs == null) {
+                costs = new float[chunkSize * chunkSize];
+                Arrays.fill(costs, 1);
+            }
+            if (cost > costs[i]) costs[i] = cost;
+        }
+        return costs;
+    }
+
+    /**
+     * Moves a region object into world space, both in the listener arguments and in its
+     * properties (game objects read their position from the properties).
+     */
+    private static ObjectData toWorldSpace(String type, int x, int y, int width, int height,
+                                           JSONObject properties, int originX, int originY) {
+        properties.put("x", originX + x);
+        properties.put("y", originY + y);
+        // Tiled's y-origin is top-left, adjust for bottom-left (same as World).
+        return new ObjectData(type, originX + x, originY + y - height, width, height, properties);
+    }
+
+    private void checkRegionSize(String path, int width, int height) throws IOException {
+        if (width != chunkSize || height != chunkSize) {
+            throw new IOException("Region '" + path + "' is " + width + "x" + height
+                    + " tiles, expected " + chunkSize + "x" + chunkSize + ".");
+        }
+    }
+
+    // --- WORLD OVERRIDES ---
+
+    /**
+     * Retrieves a tile, looking it up in its chunk.
+     * @return The tile, null for empty cells of loaded chunks, or a solid placeholder if the
+     *         chunk is not loaded. Out-of-bounds requests behave as in {@link World#getTile}.
+     */
+    @Override
+    public Tile getTile(int x, int y) {
+        if (x < 0 || x >= WIDTH || y < 0 || y >= HEIGHT) {
+            return super.getTile(x, y);
+        }
+        Chunk chunk = chunks[(x / chunkSize) + (y / chunkSize) * chunksX];
+        if (chunk.state != ChunkState.LOADED) {
+            return unloadedTile;
+        }
+        return chunk.tiles[(x % chunkSize) + (y % chunkSize) * chunkSize];
+    }
+
+    /**
+     * Sets or replaces a tile. The change is kept even if its chunk is evicted and reloaded.
+     */
+    @Override
+    public void setTile(int x, int y, Tile tile) {
+        if (x < 0 || x >= WIDTH || y < 0 || y >= HEIGHT) return;
+        Chunk chunk = chunks[(x / chunkSize) + (y / chunkSize) * chunksX];
+        int index = (x % chunkSize) + (y % chunkSize) * chunkSize;
+        chunk.overrides.put(index, tile);
+        if (chunk.state == ChunkState.LOADED) {
+            Tile previous = chunk.tiles[index];
+            chunk.tiles[index] = tile;
+            if (isSolid(previous) != isSolid(tile)) {
+                markWalkabilityChanged(x, y, 1, 1);
+            }
+        }
+    }
+
+    /**
+     * Sets the movement cost of a region of tiles. The change is kept even if the chunks are
+     * evicted and reloaded; tiles of chunks that are not loaded take it when they are.
+     */
+    @Override
+    public void setMovementCosts(int x, int y, int width, int height, float cost) {
+        int x0 = Math.max(0, x), y0 = Math.max(0, y);
+        int x1 = Math.min(WIDTH, x + width), y1 = Math.min(HEIGHT, y + height);
+        if (x0 >= x1 || y0 >= y1) return;
+        float stored = cost > 1 ? cost : 1; // As the world stores it; also catches NaN
+        for (int cy = y0 / chunkSize; cy <= (y1 - 1) / chunkSize; cy++) {
+            for (int cx = x0 / chunkSize; cx <= (x1 - 1) / chunkSize; cx++) {
+                Chunk chunk = chunks[cx + cy * chunksX];
+                int rx0 = Math.max(x0, cx * chunkSize), ry0 = Math.max(y0, cy * chunkSize);
+                int rx1 = Math.min(x1, (cx + 1) * chunkSize), ry1 = Math.min(y1, (cy + 1) * chunkSize);
+                for (int ty = ry0; ty < ry1; ty++) {
+                    for (int tx = rx0; tx < rx1; tx++) {
+                        chunk.costOverrides.put((tx % chunkSize) + (ty % chunkSize) * chunkSize, stored);
+                    }
+                }
+                if (chunk.state == ChunkState.LOADED) {
+                    super.setMovementCosts(rx0, ry0, rx1 - rx0, ry1 - ry0, cost);
+                    updateEstimate(chunk);
+                }
+            }
+        }
+    }
+
+    // --- GETTERS ---
+
+    /** @return true if the chunk at the given chunk coordinates is loaded. */
+    public boolean isChunkLoaded(int chunkX, int chunkY) {
+        if (chunkX < 0 || chunkX >= chunksX || chunkY < 0 || chunkY >= chunksY) return false;
+        return chunks[chunkX + chunkY * chunksX].state == ChunkState.LOADED;
+    }
+
+    /** @return The number of currently loaded chunks. */
+    public int getLoadedChunkCount() { return loadedChunkCount; }
+
+    /** @return The estimated memory, in bytes, used by the loaded chunks. */
+    public long getEstimatedMemoryUsage() { return estimatedMemory; }
+
+    /** @return The size of a chunk in tiles. */
+    public int getChunkSize() { return chunkSize; }
+}
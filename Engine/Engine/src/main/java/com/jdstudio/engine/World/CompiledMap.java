@@ -0,0 +1,117 @@
+package com.jdstudio.engine.World;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sequential reader over a map compiled by {@link MapCompiler}.
+ * <p>
+ * When the resource lives on the file system the file is memory-mapped with
+ * {@link FileChannel#map}, so tile layers are exposed as {@link IntBuffer} views
+ * over the mapped pages and never copied or parsed. Resources packed inside a JAR
+ * cannot be mapped and are read into a heap buffer instead.
+ */
+final class CompiledMap {
+
+    final int width;
+    final int height;
+    final int tileWidth;
+    final int tileHeight;
+    final short version;
+
+    private final ByteBuffer buffer;
+
+    private CompiledMap(ByteBuffer buffer, String mapPath) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt() != MapCompiler.MAGIC) {
+            throw new IOException("Not a compiled map file: " + mapPath);
+        }
+        this.version = buffer.getShort();
+        if (version < 1 || version > MapCompiler.VERSION) {
+            throw new IOException("Unsupported compiled map version " + version + " in: " + mapPath);
+        }
+        this.width = buffer.getInt();
+        this.height = buffer.getInt();
+        this.tileWidth = buffer.getInt();
+        this.tileHeight = buffer.getInt();
+    }
+
+    /**
+     * Opens a compiled map from the classpath.
+     *
+     * @param mapPath The resource path of the {@code .jdmap} file.
+     * @return A reader positioned right after the header.
+     * @throws IOException if the map cannot be found, read, or is not a valid compiled map.
+     */
+    static CompiledMap open(String mapPath) throws IOException {
+        URL url = CompiledMap.class.getResource(mapPath);
+        if (url == null) {
+            throw new IOException("CRITICAL ERROR: Map file not found: " + mapPath);
+        }
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(toPath(url), StandardOpenOption.READ)) {
+                // The mapping stays valid after the channel is closed.
+                return new CompiledMap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), mapPath);
+            }
+        }
+        try (InputStream is = url.openStream()) {
+            return new CompiledMap(ByteBuffer.wrap(is.readAllBytes()), mapPath);
+        }
+    }
+
+    private static Path toPath(URL url) throws IOException {
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid map location: " + url, e);
+        }
+    }
+
+    /** Reads the next {@code int} of the file. */
+    int readInt() {
+        return buffer.getInt();
+    }
+
+    /**
+     * Reads the tile movement cost table that follows the header (empty in version 1 files).
+     * @return The movement cost of each gid that defines one.
+     */
+    Map<Integer, Float> readTileMovementCosts() {
+        Map<Integer, Float> costs = new HashMap<>();
+        if (version < 2) return costs;
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            costs.put(buffer.getInt(), buffer.getFloat());
+        }
+        return costs;
+    }
+
+    /** Reads the next length-prefixed UTF-8 string of the file. */
+    String readString() {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the next tile layer as a view over the underlying buffer and skips past it.
+     * The view holds exactly {@code width * height} gids in row-major order.
+     */
+    IntBuffer readTileLayer() {
+        int count = width * height;
+        IntBuffer layer = buffer.slice().limit(count * Integer.BYTES).asIntBuffer();
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return layer;
+    }
+}
@@ -0,0 +1,53 @@
+package com.jdstudio.engine.World;
+
+import org.json.JSONObject;
+
+import com.jdstudio.engine.Object.GameObject;
+
+/**
+ * Listener used by {@link ChunkedWorld} to create the contents of streamed chunks.
+ * <p>
+ * Tiles and paths are created through the regular {@link IMapLoaderListener} callbacks.
+ * Objects are created through {@link #onChunkObjectFound}, which must return the created
+ * object so the world can serialise and evict it when its chunk is unloaded.
+ * All callbacks are invoked on the game thread.
+ */
+public interface IChunkLoaderListener extends IMapLoaderListener {
+
+    /**
+     * Called when an object of a streamed chunk must be created, either for the first time
+     * or when it is restored after its chunk was evicted.
+     * The coordinates (and the "x"/"y" entries of {@code properties}) are already in world space.
+     *
+     * @param type       The "type" or "class" of the object.
+     * @param x          The X position of the object.
+     * @param y          The Y position of the object.
+     * @param width      The width of the object.
+     * @param height     The height of the object.
+     * @param properties The JSON object containing all the Tiled properties.
+     * @return The created GameObject (already added to the game's lists), or null if the world
+     *         should not track it. Untracked objects are never evicted.
+     */
+    GameObject onChunkObjectFound(String type, int x, int y, int width, int height, JSONObject properties);
+
+    /** Delegates to {@link #onChunkObjectFound}, so chunked maps only implement one object callback. */
+    @Override
+    default void onObjectFound(String type, int x, int y, int width, int height, JSONObject properties) {
+        onChunkObjectFound(type, x, y, width, height, properties);
+    }
+
+    /**
+     * Called after a chunk has been loaded and all of its tiles and objects were created.
+     * @param chunkX The chunk column.
+     * @param chunkY The chunk row.
+     */
+    default void onChunkLoaded(int chunkX, int chunkY) {}
+
+    /**
+     * Called after a chunk has been evicted and its objects were destroyed.
+     * Games can use it to drop any references they keep to those objects.
+     * @param chunkX The chunk column.
+     * @param chunkY The chunk row.
+     */
+    default void onChunkUnloaded(int chunkX, int chunkY) {}
+}
@@ -0,0 +1,20 @@
+package com.jdstudio.engine.World;
+
+/**
+ * Listener notified by a {@link World} when the walkability of some of its tiles changes
+ * (their solidity or their {@link World#getMovementCost movement cost}).
+ * Used by the pathfinding layer to rebuild or invalidate only the affected regions.
+ * Callbacks are invoked on the thread that changed the world (normally the game thread).
+ */
+public interface IWalkabilityListener {
+
+    /**
+     * Called after the walkability of a rectangular region of tiles changed.
+     *
+     * @param x      The x-coordinate of the region in the tile grid.
+     * @param y      The y-coordinate of the region in the tile grid.
+     * @param width  The width of the region in tiles.
+     * @param height The height of the region in tiles.
+     */
+    void onWalkabilityChanged(int x, int y, int width, int height);
+}
@@ -0,0 +1,207 @@
+package com.jdstudio.engine.World;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Converts Tiled JSON maps into the engine's compact binary map format ({@code .jdmap}).
+ * <p>
+ * A compiled map is loaded by {@link World} through a memory-mapped buffer, so the tile
+ * layers are read as raw gid arrays instead of being parsed number by number from JSON.
+ * The layout (all values big-endian) is:
+ * <pre>
+ * int    magic ('JDMP')
+ * short  version
+ * int    width, height, tileWidth, tileHeight
+ * int    tileCostCount                              (version 2+)
+ *        per cost:   int gid, float movementCost
+ * int    tileLayerCount
+ *        per layer:  string name, int[width * height] gids
+ * int    pathCount
+ *        per path:   string name, int pointCount, pointCount * (int x, int y)
+ * int    objectCount
+ *        per object: string type, int x, int y, int width, int height, string json
+ * </pre>
+ * Strings are stored as an {@code int} byte length followed by UTF-8 bytes. Object
+ * coordinates are stored exactly as Tiled writes them; {@link World} applies the same
+ * adjustments it applies to JSON maps.
+ * <p>
+ * Usage from the command line (or from a Gradle {@code JavaExec} task):
+ * <pre>
+ * java com.jdstudio.engine.World.MapCompiler &lt;outputDir&gt; &lt;map.json&gt; [&lt;map.json&gt; ...]
+ * </pre>
+ *
+ * @author JDStudio
+ */
+public class MapCompiler {
+
+    /** The magic number identifying a compiled map file ("JDMP"). */
+    public static final int MAGIC = 0x4A444D50;
+    /** The current version of the binary format. */
+    public static final short VERSION = 2;
+    /** The file extension used by compiled maps. */
+    public static final String EXTENSION = ".jdmap";
+
+    private MapCompiler() {}
+
+    /**
+     * Command-line entry point.
+     *
+     * @param args The output directory followed by one or more Tiled JSON map files.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: MapCompiler <outputDir> <map.json> [<map.json> ...]");
+            System.exit(1);
+        }
+        Path outputDir = Paths.get(args[0]);
+        try {
+            Files.createDirectories(outputDir);
+            for (int i = 1; i < args.length; i++) {
+                Path input = Paths.get(args[i]);
+                String fileName = input.getFileName().toString();
+                int dot = fileName.lastIndexOf('.');
+                String baseName = (dot > 0) ? fileName.substring(0, dot) : fileName;
+                Path output = outputDir.resolve(baseName + EXTENSION);
+                compile(input, output);
+                System.out.println("Compiled map: " + input + " -> " + output);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to compile maps.");
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compiles a single Tiled JSON map file into the binary map format.
+     *
+     * @param jsonMap The path of the Tiled JSON map to read.
+     * @param output  The path of the {@code .jdmap} file to write.
+     * @throws IOException if the input cannot be read or the output cannot be written.
+     */
+    public static void compile(Path jsonMap, Path output) throws IOException {
+        String jsonText = new String(Files.readAllBytes(jsonMap), StandardCharsets.UTF_8);
+        try (OutputStream os = Files.newOutputStream(output)) {
+            compile(new JSONObject(jsonText), os);
+        }
+    }
+
+    /**
+     * Writes an already parsed Tiled map to a stream in the binary map format.
+     *
+     * @param json The root JSON object of the Tiled map.
+     * @param os   The stream to write to. It is flushed, but not closed.
+     * @throws IOException if writing fails.
+     */
+    public static void compile(JSONObject json, OutputStream os) throws IOException {
+        int width = json.getInt("width");
+        int height = json.getInt("height");
+
+        List<JSONObject> tileLayers = new ArrayList<>();
+        List<JSONObject> pathObjects = new ArrayList<>();
+        List<JSONObject> regularObjects = new ArrayList<>();
+
+        // Same classification (and therefore the same dispatch order) used by World.
+        JSONArray layers = json.getJSONArray("layers");
+        for (int i = 0; i < layers.length(); i++) {
+            JSONObject layer = layers.getJSONObject(i);
+            if (layer.getString("type").equals("tilelayer")) {
+                tileLayers.add(layer);
+            } else if (layer.getString("type").equals("objectgroup")) {
+                JSONArray objects = layer.getJSONArray("objects");
+                for (int j = 0; j < objects.length(); j++) {
+                    JSONObject object = objects.getJSONObject(j);
+                    if (object.has("polyline")) {
+                        pathObjects.add(object);
+                    } else {
+                        regularObjects.add(object);
+                    }
+                }
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(json.getInt("tilewidth"));
+        out.writeInt(json.getInt("tileheight"));
+
+        Map<Integer, Float> tileCosts = new HashMap<>();
+        JSONArray tilesets = json.optJSONArray("tilesets");
+        if (tilesets != null) {
+            for (int i = 0; i < tilesets.length(); i++) {
+                TiledMapReader.readTileMovementCosts(tilesets.getJSONObject(i), tileCosts);
+            }
+        }
+        out.writeInt(tileCosts.size());
+        for (Map.Entry<Integer, Float> cost : tileCosts.entrySet()) {
+            out.writeInt(cost.getKey());
+            out.writeFloat(cost.getValue());
+        }
+
+        out.writeInt(tileLayers.size());
+        for (JSONObject layer : tileLayers) {
+            writeString(out, layer.getString("name"));
+            JSONArray data = layer.getJSONArray("data");
+            if (data.length() != width * height) {
+                throw new IOException("Layer '" + layer.getString("name") + "' has " + data.length()
+                        + " tiles, expected " + (width * height) + ".");
+            }
+            for (int i = 0; i < data.length(); i++) {
+                out.writeInt(data.getInt(i));
+            }
+        }
+
+        out.writeInt(pathObjects.size());
+        for (JSONObject object : pathObjects) {
+            writeString(out, object.getString("name"));
+            JSONArray points = object.getJSONArray("polyline");
+            int startX = object.getInt("x");
+            int startY = object.getInt("y");
+            out.writeInt(points.length());
+            for (int j = 0; j < points.length(); j++) {
+                JSONObject point = points.getJSONObject(j);
+                out.writeInt(startX + point.getInt("x"));
+                out.writeInt(startY + point.getInt("y"));
+            }
+        }
+
+        out.writeInt(regularObjects.size());
+        for (JSONObject object : regularObjects) {
+            String type = object.has("class") ? object.getString("class") :
+                          (object.has("type") ? object.getString("type") : "");
+            writeString(out, type);
+            out.writeInt(object.getInt("x"));
+            out.writeInt(object.getInt("y"));
+            out.writeInt(object.getInt("width"));
+            out.writeInt(object.getInt("height"));
+            writeString(out, object.toString());
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes a string as an int byte length followed by its UTF-8 bytes.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
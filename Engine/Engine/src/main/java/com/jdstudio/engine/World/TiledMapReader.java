@@ -0,0 +1,581 @@
+package com.jdstudio.engine.World;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * A streaming, pull-based reader for Tiled JSON maps.
+ * <p>
+ * Unlike {@code new JSONObject(text)}, this reader never materialises the whole document:
+ * tile layer data is decoded straight from the character stream into a primitive
+ * {@code int[]} (4 bytes per tile), and only individual map objects are turned into
+ * {@link JSONObject}s, one at a time. Both layer encodings written by Tiled are supported:
+ * CSV (a JSON array of gids) and base64, optionally compressed with gzip or zlib.
+ * <p>
+ * Tokens are returned by {@link #next()} in the order expected by {@link World}:
+ * <ol>
+ *   <li>{@link Token#MAP_HEADER} once the map size and tile size are known,</li>
+ *   <li>one {@link Token#TILE_LAYER} per tile layer, as soon as it is complete,</li>
+ *   <li>every {@link Token#PATH} (polyline objects), then every {@link Token#OBJECT},</li>
+ *   <li>{@link Token#END}.</li>
+ * </ol>
+ * Tiled writes keys in alphabetical order, so {@code width} and {@code tilewidth} usually
+ * appear after {@code layers}; in that case finished layers are held (as {@code int[]})
+ * until the header is complete. Paths and objects are always delivered after the tiles,
+ * as listeners commonly rely on paths existing when objects are created. Layers are also held
+ * until the embedded tilesets have been read, so the {@link #getTileMovementCosts() movement
+ * costs} of their tiles are known when the layers are delivered.
+ *
+ * @author JDStudio
+ */
+public class TiledMapReader implements Closeable {
+
+    /** The kinds of elements returned by {@link #next()}. */
+    public enum Token {
+        /** The map size and tile size are available. */
+        MAP_HEADER,
+        /** A complete tile layer is available via {@link #getLayerName()} and {@link #getLayerData()}. */
+        TILE_LAYER,
+        /** A polyline object is available via {@link #getObject()}. */
+        PATH,
+        /** A regular map object is available via {@link #getObject()}. */
+        OBJECT,
+        /** The end of the map was reached. */
+        END
+    }
+
+    private enum State { START, ROOT, LAYERS, LAYER, OBJECTS, TILESETS, DONE }
+
+    /** A finished tile layer waiting to be delivered. */
+    private record TileLayer(String name, int[] data) {}
+
+    private final Lexer lexer;
+    private State state = State.START;
+
+    private int width = -1, height = -1, tileWidth = -1, tileHeight = -1;
+    private boolean headerDelivered = false;
+    private boolean tilesetsRead = false;
+    private final Map<Integer, Float> tileMovementCosts = new HashMap<>();
+
+    private final Deque<TileLayer> pendingLayers = new ArrayDeque<>();
+    private final Deque<JSONObject> pendingPaths = new ArrayDeque<>();
+    private final Deque<JSONObject> pendingObjects = new ArrayDeque<>();
+
+    // Layer currently being parsed
+    private String layerName;
+    private int[] layerData;
+    private String layerCompression;
+
+    // Current token values
+    private TileLayer currentLayer;
+    private JSONObject currentObject;
+
+    /**
+     * Creates a reader over a UTF-8 encoded Tiled JSON map.
+     * @param in The stream to read from. It is closed by {@link #close()}.
+     */
+    public TiledMapReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a reader over a Tiled JSON map.
+     * @param reader The character source. It is closed by {@link #close()}.
+     */
+    public TiledMapReader(Reader reader) {
+        this.lexer = new Lexer(reader);
+    }
+
+    /**
+     * Advances to the next element of the map.
+     *
+     * @return The type of the element now available through the getters.
+     * @throws IOException if the map cannot be read or is malformed.
+     */
+    public Token next() throws IOException {
+        currentLayer = null;
+        currentObject = null;
+        while (true) {
+            if (!headerDelivered && width >= 0 && height >= 0 && tileWidth >= 0 && tileHeight >= 0) {
+                headerDelivered = true;
+                return Token.MAP_HEADER;
+            }
+            if (headerDelivered && (tilesetsRead || state == State.DONE) && !pendingLayers.isEmpty()) {
+                currentLayer = pendingLayers.poll();
+                if (currentLayer.data().length != width * height) {
+                    throw new IOException("Layer '" + currentLayer.name() + "' has " + currentLayer.data().length
+                            + " tiles, expected " + (width * height) + ".");
+                }
+                return Token.TILE_LAYER;
+            }
+            if (state == State.DONE) {
+                if (!headerDelivered) {
+                    throw new IOException("Map is missing width, height, tilewidth or tileheight.");
+                }
+                if (!pendingPaths.isEmpty()) {
+                    currentObject = pendingPaths.poll();
+                    return Token.PATH;
+                }
+                if (!pendingObjects.isEmpty()) {
+                    currentObject = pendingObjects.poll();
+                    return Token.OBJECT;
+                }
+                return Token.END;
+            }
+            step();
+        }
+    }
+
+    /** Consumes the next structural element of the document. */
+    private void step() throws IOException {
+        switch (state) {
+            case START -> {
+                lexer.expect('{');
+                state = State.ROOT;
+            }
+            case ROOT -> {
+                String key = lexer.nextKey();
+                if (key == null) {
+                    state = State.DONE;
+                    return;
+                }
+                switch (key) {
+                    case "width" -> width = (int) lexer.readLong();
+                    case "height" -> height = (int) lexer.readLong();
+                    case "tilewidth" -> tileWidth = (int) lexer.readLong();
+                    case "tileheight" -> tileHeight = (int) lexer.readLong();
+                    case "layers" -> {
+                        lexer.expect('[');
+                        state = State.LAYERS;
+                    }
+                    case "tilesets" -> {
+                        lexer.expect('[');
+                        state = State.TILESETS;
+                    }
+                    default -> lexer.skipValue();
+                }
+            }
+            case TILESETS -> {
+                if (!lexer.nextElement(']')) {
+                    tilesetsRead = true;
+                    state = State.ROOT;
+                    return;
+                }
+                // Tilesets are small; external ones ("source") have no tiles here and are skipped.
+                readTileMovementCosts(new JSONObject(lexer.captureValue()), tileMovementCosts);
+            }
+            case LAYERS -> {
+                if (!lexer.nextElement(']')) {
+                    state = State.ROOT;
+                    return;
+                }
+                lexer.expect('{');
+                layerName = "";
+                layerData = null;
+                layerCompression = "";
+                state = State.LAYER;
+            }
+            case LAYER -> {
+                String key = lexer.nextKey();
+                if (key == null) {
+                    if (layerData != null) {
+                        pendingLayers.add(new TileLayer(layerName, layerData));
+                    }
+                    layerData = null;
+                    state = State.LAYERS;
+                    return;
+                }
+                switch (key) {
+                    case "name" -> layerName = lexer.readString();
+                    case "compression" -> layerCompression = lexer.readString();
+                    case "data" -> layerData = readLayerData();
+                    case "objects" -> {
+                        lexer.expect('[');
+                        state = State.OBJECTS;
+                    }
+                    default -> lexer.skipValue();
+                }
+            }
+            case OBJECTS -> {
+                if (!lexer.nextElement(']')) {
+                    state = State.LAYER;
+                    return;
+                }
+                JSONObject object = new JSONObject(lexer.captureValue());
+                if (object.has("polyline")) {
+                    pendingPaths.add(object);
+                } else {
+                    pendingObjects.add(object);
+                }
+            }
+            case DONE -> { }
+        }
+    }
+
+    /**
+     * Reads the "data" value of a tile layer, either as a CSV array or a base64 string.
+     */
+    private int[] readLayerData() throws IOException {
+        IntList gids = new IntList((width > 0 && height > 0) ? width * height : 1024);
+        int c = lexer.peek();
+        if (c == '[') {
+            lexer.expect('[');
+            while (lexer.nextElement(']')) {
+                // Gids with flip flags exceed Integer.MAX_VALUE; wrap them like JSONArray.getInt does.
+                gids.add((int) lexer.readLong());
+            }
+        } else if (c == '"') {
+            lexer.expect('"');
+            InputStream decoded = new BufferedInputStream(Base64.getDecoder().wrap(lexer.stringContent()));
+            try (InputStream data = decompress(decoded, layerCompression)) {
+                byte[] quad = new byte[4];
+                while (data.readNBytes(quad, 0, 4) == 4) {
+                    gids.add((quad[0] & 0xFF) | (quad[1] & 0xFF) << 8 | (quad[2] & 0xFF) << 16 | (quad[3] & 0xFF) << 24);
+                }
+            }
+            lexer.finishString();
+        } else {
+            throw new IOException("Unsupported layer data in layer '" + layerName + "'.");
+        }
+        return gids.toArray();
+    }
+
+    /**
+     * Wraps the decoded stream with the decompressor named by the layer's "compression" key.
+     * Tiled writes its keys in alphabetical order, so "compression" is always known before "data".
+     */
+    private InputStream decompress(InputStream in, String compression) throws IOException {
+        switch (compression) {
+            case "": return in;
+            case "gzip": return new GZIPInputStream(in);
+            case "zlib": return new InflaterInputStream(in);
+            default:
+                throw new IOException("Layer '" + layerName + "' uses unsupported compression: " + compression);
+        }
+    }
+
+    /**
+     * Collects the {@value World#MOVEMENT_COST_PROPERTY} property of the tiles of an embedded tileset.
+     *
+     * @param tileset The tileset object of a Tiled map.
+     * @param costs   Receives the cost of every tile that defines one, keyed by gid.
+     */
+    static void readTileMovementCosts(JSONObject tileset, Map<Integer, Float> costs) {
+        JSONArray tiles = tileset.optJSONArray("tiles");
+        if (tiles == null) return;
+        int firstGid = tileset.optInt("firstgid", 1);
+        for (int i = 0; i < tiles.length(); i++) {
+            JSONObject tile = tiles.getJSONObject(i);
+            JSONArray properties = tile.optJSONArray("properties");
+            if (properties == null) continue;
+            for (int j = 0; j < properties.length(); j++) {
+                JSONObject property = properties.getJSONObject(j);
+                if (World.MOVEMENT_COST_PROPERTY.equals(property.optString("name"))) {
+                    costs.put(firstGid + tile.getInt("id"), (float) property.getDouble("value"));
+                }
+            }
+        }
+    }
+
+    /** @return The map width in tiles. Available from {@link Token#MAP_HEADER}. */
+    public int getWidth() { return width; }
+    /** @return The map height in tiles. Available from {@link Token#MAP_HEADER}. */
+    public int getHeight() { return height; }
+    /** @return The tile width in pixels. Available from {@link Token#MAP_HEADER}. */
+    public int getTileWidth() { return tileWidth; }
+    /** @return The tile height in pixels. Available from {@link Token#MAP_HEADER}. */
+    public int getTileHeight() { return tileHeight; }
+
+    /** @return The name of the current tile layer, for {@link Token#TILE_LAYER}. */
+    public String getLayerName() { return currentLayer != null ? currentLayer.name() : null; }
+
+    /** @return The gids of the current tile layer in row-major order, for {@link Token#TILE_LAYER}. */
+    public int[] getLayerData() { return currentLayer != null ? currentLayer.data() : null; }
+
+    /** @return The current map object, for {@link Token#PATH} and {@link Token#OBJECT}. */
+    public JSONObject getObject() { return currentObject; }
+
+    /**
+     * @return The movement cost of every tile that defines one in an embedded tileset, keyed by gid.
+     *         Complete by the first {@link Token#TILE_LAYER}.
+     */
+    public Map<Integer, Float> getTileMovementCosts() { return tileMovementCosts; }
+
+    @Override
+    public void close() throws IOException {
+        lexer.reader.close();
+    }
+
+    /** A minimal growable list of primitive ints. */
+    private static final class IntList {
+        private int[] values;
+        private int size;
+
+        IntList(int capacity) {
+            values = new int[Math.max(16, capacity)];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * A small JSON tokenizer working over a buffered character stream.
+     * Only what the Tiled schema needs is implemented: keys, strings, integers,
+     * skipping arbitrary values and capturing a value's raw text.
+     */
+    private static final class Lexer {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int pos, limit;
+        private StringBuilder capture;
+        private int captureStart;
+
+        Lexer(Reader reader) {
+            this.reader = reader;
+        }
+
+        private int peekRaw() throws IOException {
+            if (pos >= limit) {
+                if (capture != null) {
+                    capture.append(buffer, captureStart, limit - captureStart);
+                    captureStart = 0;
+                }
+                int n = reader.read(buffer, 0, buffer.length);
+                pos = 0;
+                limit = Math.max(n, 0);
+                if (n <= 0) return -1;
+            }
+            return buffer[pos];
+        }
+
+        int read() throws IOException {
+            int c = peekRaw();
+            if (c >= 0) pos++;
+            return c;
+        }
+
+        int peek() throws IOException {
+            int c = peekRaw();
+            while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+                c = peekRaw();
+            }
+            return c;
+        }
+
+        void expect(char expected) throws IOException {
+            int c = peek();
+            if (c != expected) {
+                throw new IOException("Malformed map JSON: expected '" + expected + "' but found "
+                        + (c < 0 ? "end of file" : "'" + (char) c + "'"));
+            }
+            pos++;
+        }
+
+        /**
+         * Moves to the next entry of the current object.
+         * @return The entry key (the ':' is consumed), or null if the object ended.
+         */
+        String nextKey() throws IOException {
+            int c = peek();
+            if (c == ',') {
+                pos++;
+                c = peek();
+            }
+            if (c == '}') {
+                pos++;
+                return null;
+            }
+            expect('"');
+            String key = readStringBody();
+            expect(':');
+            return key;
+        }
+
+        /**
+         * Moves to the next element of the current array.
+         * @return true if an element follows, false if the array ended (the bracket is consumed).
+         */
+        boolean nextElement(char close) throws IOException {
+            int c = peek();
+            if (c == ',') {
+                pos++;
+                c = peek();
+            }
+            if (c == close) {
+                pos++;
+                return false;
+            }
+            if (c < 0) throw new IOException("Malformed map JSON: unexpected end of file.");
+            return true;
+        }
+
+        String readString() throws IOException {
+            expect('"');
+            return readStringBody();
+        }
+
+        private String readStringBody() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c < 0) throw new IOException("Malformed map JSON: unterminated string.");
+                if (c == '"') return sb.toString();
+                if (c == '\\') {
+                    sb.append(readEscape());
+                } else {
+                    sb.append((char) c);
+                }
+            }
+        }
+
+        private char readEscape() throws IOException {
+            int e = read();
+            switch (e) {
+                case 'b': return '\b';
+                case 'f': return '\f';
+                case 'n': return '\n';
+                case 'r': return '\r';
+                case 't': return '\t';
+                case 'u': {
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) throw new IOException("Malformed map JSON: invalid unicode escape.");
+                        value = (value << 4) | digit;
+                    }
+                    return (char) value;
+                }
+                default:
+                    if (e < 0) throw new IOException("Malformed map JSON: unterminated string.");
+                    return (char) e;
+            }
+        }
+
+        /** Reads a number, truncating any fractional part (like {@code JSONObject.getInt}). */
+        long readLong() throws IOException {
+            int c = peek();
+            boolean negative = false;
+            if (c == '-') {
+                negative = true;
+                pos++;
+                c = peekRaw();
+            }
+            if (c < '0' || c > '9') {
+                throw new IOException("Malformed map JSON: expected a number.");
+            }
+            long value = 0;
+            while (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                pos++;
+                c = peekRaw();
+            }
+            // Skip fraction and exponent, if any.
+            while (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-' || (c >= '0' && c <= '9')) {
+                pos++;
+                c = peekRaw();
+            }
+            return negative ? -value : value;
+        }
+
+        void skipValue() throws IOException {
+            int c = peek();
+            switch (c) {
+                case '"' -> {
+                    pos++;
+                    skipStringBody();
+                }
+                case '{' -> {
+                    pos++;
+                    while (nextKey() != null) skipValue();
+                }
+                case '[' -> {
+                    pos++;
+                    while (nextElement(']')) skipValue();
+                }
+                default -> {
+                    if (c < 0) throw new IOException("Malformed map JSON: unexpected end of file.");
+                    // Literal: number, true, false or null.
+                    while (c >= 0 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+                        pos++;
+                        c = peekRaw();
+                    }
+                }
+            }
+        }
+
+        private void skipStringBody() throws IOException {
+            while (true) {
+                int c = read();
+                if (c < 0) throw new IOException("Malformed map JSON: unterminated string.");
+                if (c == '"') return;
+                if (c == '\\') readEscape();
+            }
+        }
+
+        /** Consumes the next value and returns its raw JSON text. */
+        String captureValue() throws IOException {
+            peek();
+            capture = new StringBuilder(256);
+            captureStart = pos;
+            try {
+                skipValue();
+                capture.append(buffer, captureStart, pos - captureStart);
+                return capture.toString();
+            } finally {
+                capture = null;
+            }
+        }
+
+        /**
+         * Exposes the rest of the current string (after the opening quote) as a stream of
+         * bytes, stopping before the closing quote. Used to decode base64 layer data
+         * without building the string in memory.
+         */
+        InputStream stringContent() {
+            return new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    int c = peekRaw();
+                    if (c == '\\') {
+                        pos++;
+                        return readEscape();
+                    }
+                    if (c < 0 || c == '"') return -1;
+                    pos++;
+                    return c;
+                }
+            };
+        }
+
+        /** Skips whatever is left of the current string, including the closing quote. */
+        void finishString() throws IOException {
+            skipStringBody();
+        }
+    }
+}
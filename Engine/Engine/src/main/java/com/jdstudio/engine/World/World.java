@@ -2,11 +2,16 @@ package com.jdstudio.engine.World;
 
 import java.awt.Graphics;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -22,6 +27,10 @@ import com.jdstudio.engine.World.Tile.TileType;
  * core functionalities like rendering the visible portion of the map and
  * performing collision checks. It uses a listener-based approach to delegate
  * the creation of tiles and game objects, making it highly extensible.
+ * <p>
+ * Maps can also be loaded from the compact binary format produced by
+ * {@link MapCompiler}: any path ending in {@code .jdmap} is memory-mapped and its
+ * tile layers are read directly as gid arrays, with no JSON parsing.
  */
 public class World {
 
@@ -33,68 +42,160 @@ public class World {
     public final int tileWidth;
     /** The height of a single tile in pixels. */
     public final int tileHeight;
+    /**
+     * The name of the Tiled tileset property holding a tile's movement cost: how many times
+     * more it costs to cross than a plain tile (at least 1). See {@link #setMovementCost}.
+     */
+    public static final String MOVEMENT_COST_PROPERTY = "movementCost";
     /** The array holding all the tiles in the world, stored in a 1D array. */
     protected final Tile[] tiles;
+    /** Incremented whenever the walkability of any tile may have changed. */
+    private volatile int walkabilityVersion = 0;
+    /** The side, in tiles, of the square pages the movement costs are stored in. */
+    private static final int DEFAULT_COST_PAGE_SIZE = 32;
+    private final int costPageSize;
+    /**
+     * The movement costs, one row-major page per square of {@link #costPageSize} tiles. A page is
+     * only allocated while one of its tiles costs more than 1; null until any tile does.
+     */
+    private float[][] costPages;
+    /** The number of tiles of each page whose movement cost is not 1. */
+    private int[] costPageTiles;
+    /** The number of tiles whose movement cost is not 1. */
+    private int costlyTiles = 0;
+    private final List<IWalkabilityListener> walkabilityListeners = new ArrayList<>();
+    /** The tiles blocked by dynamic obstacles (closed doors, barriers), indexed like {@link #tiles}. */
+    private final BitSet blockedTiles = new BitSet();
+    /** How many obstacles block each blocked tile, so overlapping obstacles can be removed one at a time. */
+    private final Map<Integer, Integer> blockerCounts = new HashMap<>();
+
+    /**
+     * Constructs an empty World of the given size, for subclasses that manage their
+     * own tile storage (see {@link ChunkedWorld}). The {@link #tiles} array is not
+     * allocated, so such subclasses must override {@link #getTile} and {@link #setTile}.
+     *
+     * @param width      The width of the world in tiles.
+     * @param height     The height of the world in tiles.
+     * @param tileWidth  The width of a single tile in pixels.
+     * @param tileHeight The height of a single tile in pixels.
+     */
+    protected World(int width, int height, int tileWidth, int tileHeight) {
+        this(width, height, tileWidth, tileHeight, DEFAULT_COST_PAGE_SIZE);
+    }
+
+    /**
+     * Constructs an empty World whose movement costs are stored in pages of a given size, so a
+     * subclass can line them up with its own storage and release them with it.
+     */
+    World(int width, int height, int tileWidth, int tileHeight, int costPageSize) {
+        this.costPageSize = costPageSize;
+        this.WIDTH = width;
+        this.HEIGHT = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.tiles = null;
+    }
 
     /**
      * Constructs a new World by loading and parsing a map file from the specified path.
      *
-     * @param mapPath  The resource path to the Tiled JSON map file.
+     * @param mapPath  The resource path to the Tiled JSON map file, or to a map compiled
+     *                 by {@link MapCompiler} (ending in {@code .jdmap}).
      * @param listener An {@link IMapLoaderListener} that will handle the creation of
      *                 tiles, objects, and paths found in the map file.
      * @throws RuntimeException if the map file cannot be found or read.
      */
     public World(String mapPath, IMapLoaderListener listener) {
+        this.costPageSize = DEFAULT_COST_PAGE_SIZE;
+        if (mapPath.endsWith(MapCompiler.EXTENSION)) {
+            try {
+                CompiledMap map = CompiledMap.open(mapPath);
+                this.WIDTH = map.width;
+                this.HEIGHT = map.height;
+                this.tiles = new Tile[WIDTH * HEIGHT];
+                this.tileWidth = map.tileWidth;
+                this.tileHeight = map.tileHeight;
+                loadCompiledMap(map, listener);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to create world from: " + mapPath, e);
+            }
+            return;
+        }
         try (InputStream is = getClass().getResourceAsStream(mapPath)) {
             if (is == null) {
                 throw new IOException("CRITICAL ERROR: Map file not found: " + mapPath);
             }
-            String jsonText = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-            JSONObject json = new JSONObject(jsonText);
-
-            this.WIDTH = json.getInt("width");
-            this.HEIGHT = json.getInt("height");
+            // The map is streamed: tile layers are decoded straight into int arrays and
+            // only individual objects are materialised as JSONObjects.
+            TiledMapReader reader = new TiledMapReader(is);
+            if (reader.next() != TiledMapReader.Token.MAP_HEADER) {
+                throw new IOException("Invalid map file: " + mapPath);
+            }
+            this.WIDTH = reader.getWidth();
+            this.HEIGHT = reader.getHeight();
             this.tiles = new Tile[WIDTH * HEIGHT];
-            this.tileWidth = json.getInt("tilewidth");
-            this.tileHeight = json.getInt("tileheight");
-
-            JSONArray layers = json.getJSONArray("layers");
-            
-            List<JSONObject> tileLayers = new ArrayList<>();
-            List<JSONObject> pathObjects = new ArrayList<>();
-            List<JSONObject> regularObjects = new ArrayList<>();
-
-            // First pass: Separate layers by type to process them in a specific order.
-            for (int i = 0; i < layers.length(); i++) {
-                JSONObject layer = layers.getJSONObject(i);
-                if (layer.getString("type").equals("tilelayer")) {
-                    tileLayers.add(layer);
-                } else if (layer.getString("type").equals("objectgroup")) {
-                    JSONArray objects = layer.getJSONArray("objects");
-                    for (int j = 0; j < objects.length(); j++) {
-                        JSONObject object = objects.getJSONObject(j);
-                        if (object.has("polyline")) {
-                            pathObjects.add(object);
-                        } else {
-                            regularObjects.add(object);
-                        }
+            this.tileWidth = reader.getTileWidth();
+            this.tileHeight = reader.getTileHeight();
+
+            // The reader delivers the data in the correct order (tiles, then paths, then objects).
+            TiledMapReader.Token token;
+            while ((token = reader.next()) != TiledMapReader.Token.END) {
+                switch (token) {
+                    case TILE_LAYER -> {
+                        processTileLayer(reader.getLayerName(), reader.getLayerData(), listener);
+                        applyMovementCosts(IntBuffer.wrap(reader.getLayerData()), reader.getTileMovementCosts());
                     }
+                    case PATH -> processPathObject(reader.getObject(), listener);
+                    case OBJECT -> processRegularObject(reader.getObject(), listener);
+                    default -> { }
                 }
             }
 
-            // Second pass: Process the data in the correct order (tiles, then paths, then objects).
-            for (JSONObject layer : tileLayers) {
-                processTileLayer(layer, listener);
-            }
-            for (JSONObject pathObject : pathObjects) {
-                processPathObject(pathObject, listener);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create world from: " + mapPath, e);
+        }
+    }
+
+    /**
+     * Dispatches the contents of a compiled map to the listener, in the same order
+     * used for JSON maps (tiles, then paths, then objects).
+     * @param map The compiled map, positioned right after its header.
+     * @param listener The listener to notify.
+     */
+    private void loadCompiledMap(CompiledMap map, IMapLoaderListener listener) {
+        Map<Integer, Float> tileCosts = map.readTileMovementCosts();
+        int layerCount = map.readInt();
+        for (int l = 0; l < layerCount; l++) {
+            String layerName = map.readString();
+            IntBuffer data = map.readTileLayer();
+            for (int i = 0; i < data.limit(); i++) {
+                int tileId = data.get(i);
+                if (tileId == 0) continue; // 0 is an empty tile
+                placeTile(layerName, i, tileId, listener);
             }
-            for (JSONObject regularObject : regularObjects) {
-                processRegularObject(regularObject, listener);
+            applyMovementCosts(data, tileCosts);
+        }
+
+        int pathCount = map.readInt();
+        for (int p = 0; p < pathCount; p++) {
+            String pathName = map.readString();
+            int pointCount = map.readInt();
+            List<Point> pathPoints = new ArrayList<>(pointCount);
+            for (int j = 0; j < pointCount; j++) {
+                pathPoints.add(new Point(map.readInt(), map.readInt()));
             }
+            listener.onPathFound(pathName, pathPoints);
+        }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to create world from: " + mapPath, e);
+        int objectCount = map.readInt();
+        for (int o = 0; o < objectCount; o++) {
+            String type = map.readString();
+            int x = map.readInt();
+            int y = map.readInt();
+            int width = map.readInt();
+            int height = map.readInt();
+            JSONObject properties = new JSONObject(map.readString());
+            listener.onObjectFound(type, x, y - height, width, height, properties);
         }
     }
     
@@ -133,24 +234,53 @@ public class World {
 
     /**
      * Processes a "tilelayer" from the Tiled map, creating tiles via the listener.
-     * @param layer The JSON layer object.
+     * @param layerName The name of the layer.
+     * @param data The gids of the layer, in row-major order.
      * @param listener The listener to notify for each tile found.
      */
-    private void processTileLayer(JSONObject layer, IMapLoaderListener listener) {
-        JSONArray data = layer.getJSONArray("data");
-        String layerName = layer.getString("name");
-        for (int i = 0; i < data.length(); i++) {
-            int tileId = data.getInt(i);
+    private void processTileLayer(String layerName, int[] data, IMapLoaderListener listener) {
+        for (int i = 0; i < data.length; i++) {
+            int tileId = data[i];
             if (tileId == 0) continue; // 0 is an empty tile
-            int x = (i % WIDTH) * this.tileWidth;
-            int y = (i / WIDTH) * this.tileHeight;
-            Tile createdTile = listener.onTileFound(layerName, tileId, x, y);
-            if (createdTile != null) {
-                this.tiles[i] = createdTile;
-            }
+            placeTile(layerName, i, tileId, listener);
+        }
+    }
+
+    /**
+     * Asks the listener to create the tile found at a given index and stores it.
+     * @param layerName The name of the layer the tile belongs to.
+     * @param index The index of the tile in the 1D tile array.
+     * @param tileId The gid of the tile (never 0).
+     * @param listener The listener that creates the tile.
+     */
+    private void placeTile(String layerName, int index, int tileId, IMapLoaderListener listener) {
+        int x = (index % WIDTH) * this.tileWidth;
+        int y = (index / WIDTH) * this.tileHeight;
+        Tile createdTile = listener.onTileFound(layerName, tileId, x, y);
+        if (createdTile != null) {
+            this.tiles[index] = createdTile;
         }
     }
     
+    /**
+     * Compiles the movement costs of a tile layer into the cost pages. Where several
+     * layers define a cost for the same cell (e.g. mud drawn over grass), the highest one wins.
+     * @param data The gids of the layer, in row-major order.
+     * @param tileCosts The movement cost of each gid that defines one.
+     */
+    private void applyMovementCosts(IntBuffer data, Map<Integer, Float> tileCosts) {
+        if (tileCosts.isEmpty()) return;
+        for (int i = 0; i < data.limit(); i++) {
+            int tileId = data.get(i);
+            if (tileId == 0) continue;
+            Float cost = tileCosts.get(tileId & 0x1FFFFFFF); // Strip Tiled's flip flags
+            // Reads the pages, not the overridable getter: this runs inside the constructor
+            if (cost != null && cost > storedMovementCost(i % WIDTH, i / WIDTH)) {
+                storeMovementCost(i % WIDTH, i / WIDTH, cost);
+            }
+        }
+    }
+
     /**
      * Renders the visible portion of the world.
      * It calculates the camera's view and only renders the tiles within that boundary,
@@ -181,10 +311,289 @@ public class World {
      */
     public void setTile(int x, int y, Tile tile) {
         if (x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT) {
+            Tile previous = tiles[x + y * WIDTH];
             tiles[x + y * WIDTH] = tile;
+            if (isSolid(previous) != isSolid(tile)) {
+                markWalkabilityChanged(x, y, 1, 1);
+            }
         }
     }
 
+    /**
+     * Checks if a tile blocks movement. Null tiles are walkable.
+     */
+    protected static boolean isSolid(Tile tile) {
+        return tile != null && tile.getTileType() == TileType.SOLID;
+    }
+
+    /**
+     * Checks if pathfinding must avoid a tile: it is solid, or a dynamic obstacle blocks it
+     * (see {@link #addBlocker}).
+     *
+     * @param x The x-coordinate in the tile grid.
+     * @param y The y-coordinate in the tile grid.
+     * @return true if the tile cannot be walked through.
+     */
+    public boolean isBlocked(int x, int y) {
+        if (isSolid(getTile(x, y))) return true;
+        return x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT && blockedTiles.get(x + y * WIDTH);
+    }
+
+    /**
+     * Marks the tiles under a dynamic obstacle (e.g. a closed door) as blocked for pathfinding,
+     * until {@link #removeBlocker} is called with the same area. The tiles blocked are those
+     * whose center lies in the area, or the one under its center if the area is smaller than a tile.
+     *
+     * @param area The obstacle's area in world coordinates (pixels).
+     */
+    public void addBlocker(Rectangle area) {
+        updateBlocker(area, 1);
+    }
+
+    /**
+     * Unblocks the tiles blocked by a previous {@link #addBlocker} call with the same area.
+     * Tiles stay blocked while other obstacles still cover them.
+     *
+     * @param area The area passed to {@link #addBlocker}.
+     */
+    public void removeBlocker(Rectangle area) {
+        updateBlocker(area, -1);
+    }
+
+    private void updateBlocker(Rectangle area, int delta) {
+        // Tiles whose center is inside the area
+        int x0 = Math.max(0, Math.floorDiv(area.x - tileWidth / 2 + tileWidth - 1, tileWidth));
+        int y0 = Math.max(0, Math.floorDiv(area.y - tileHeight / 2 + tileHeight - 1, tileHeight));
+        int x1 = Math.min(WIDTH - 1, Math.floorDiv(area.x + area.width - tileWidth / 2 - 1, tileWidth));
+        int y1 = Math.min(HEIGHT - 1, Math.floorDiv(area.y + area.height - tileHeight / 2 - 1, tileHeight));
+        if (x1 < x0 || y1 < y0) {
+            x0 = x1 = Math.floorDiv(area.x + area.width / 2, tileWidth);
+            y0 = y1 = Math.floorDiv(area.y + area.height / 2, tileHeight);
+            if (x0 < 0 || x0 >= WIDTH || y0 < 0 || y0 >= HEIGHT) return;
+        }
+        boolean changed = false;
+        for (int ty = y0; ty <= y1; ty++) {
+            for (int tx = x0; tx <= x1; tx++) {
+                int index = tx + ty * WIDTH;
+                int count = Math.max(0, blockerCounts.getOrDefault(index, 0) + delta);
+                if (count == 0) blockerCounts.remove(index);
+                else blockerCounts.put(index, count);
+                if (blockedTiles.get(index) != (count > 0)) {
+                    blockedTiles.set(index, count > 0);
+                    changed = true;
+                }
+            }
+        }
+        if (changed) {
+            markWalkabilityChanged(x0, y0, x1 - x0 + 1, y1 - y0 + 1);
+        }
+    }
+
+    /**
+     * Gets the walkability version of the world. It changes every time a tile's solidity,
+     * blockers or movement cost change (or {@link #markWalkabilityChanged()} is called), so pathfinding
+     * snapshots and caches can cheaply detect that they are out of date.
+     *
+     * @return The current walkability version.
+     */
+    public int getWalkabilityVersion() {
+        return walkabilityVersion;
+    }
+
+    /**
+     * Signals that the walkability of the whole world changed without going through
+     * {@link #setTile} (e.g. tile types were modified in place).
+     */
+    public void markWalkabilityChanged() {
+        markWalkabilityChanged(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * Signals that the walkability of a region of tiles changed without going through
+     * {@link #setTile}. Bumps the walkability version and notifies the walkability listeners.
+     *
+     * @param x      The x-coordinate of the region in the tile grid.
+     * @param y      The y-coordinate of the region in the tile grid.
+     * @param width  The width of the region in tiles.
+     * @param height The height of the region in tiles.
+     */
+    public void markWalkabilityChanged(int x, int y, int width, int height) {
+        walkabilityVersion++;
+        for (int i = 0; i < walkabilityListeners.size(); i++) {
+            walkabilityListeners.get(i).onWalkabilityChanged(x, y, width, height);
+        }
+    }
+
+    /**
+     * Signals that the walkability under an area in world coordinates changed, e.g. when a
+     * door opens or a barrier is destroyed. Every tile the area touches is marked.
+     *
+     * @param area The area in world coordinates (pixels).
+     */
+    public void markWalkabilityChanged(Rectangle area) {
+        int x0 = Math.max(0, area.x / tileWidth);
+        int y0 = Math.max(0, area.y / tileHeight);
+        int x1 = Math.min(WIDTH - 1, (area.x + Math.max(1, area.width) - 1) / tileWidth);
+        int y1 = Math.min(HEIGHT - 1, (area.y + Math.max(1, area.height) - 1) / tileHeight);
+        if (x1 < x0 || y1 < y0) return;
+        markWalkabilityChanged(x0, y0, x1 - x0 + 1, y1 - y0 + 1);
+    }
+
+    // --- MOVEMENT COSTS ---
+
+    /**
+     * Gets the movement cost of a tile: how many times more it costs pathfinding to cross it
+     * than a plain tile. Defaults to 1, or to the {@value #MOVEMENT_COST_PROPERTY} property of
+     * the tile in its Tiled tileset.
+     *
+     * @param x The x-coordinate in the tile grid.
+     * @param y The y-coordinate in the tile grid.
+     * @return The movement cost (1 outside the world).
+     */
+    public float getMovementCost(int x, int y) {
+        if (x < 0 || x >= WIDTH || y < 0 || y >= HEIGHT) return 1;
+        return storedMovementCost(x, y);
+    }
+
+    private float storedMovementCost(int x, int y) {
+        if (costPages == null) return 1;
+        float[] page = costPages[costPageOf(x, y)];
+        return page == null ? 1 : page[(x % costPageSize) + (y % costPageSize) * costPageSize];
+    }
+
+    /**
+     * Sets the movement cost of a single tile. See {@link #setMovementCosts}.
+     */
+    public void setMovementCost(int x, int y, float cost) {
+        setMovementCosts(x, y, 1, 1, cost);
+    }
+
+    /**
+     * Sets the movement cost of a region of tiles at once (e.g. the area covered by a spreading
+     * fire). Paths, caches and flow fields are notified once for the whole region.
+     *
+     * @param x      The x-coordinate of the region in the tile grid.
+     * @param y      The y-coordinate of the region in the tile grid.
+     * @param width  The width of the region in tiles.
+     * @param height The height of the region in tiles.
+     * @param cost   The new cost. Values below 1 are raised to 1, which keeps A* optimal.
+     */
+    public void setMovementCosts(int x, int y, int width, int height, float cost) {
+        int x0 = Math.max(0, x), y0 = Math.max(0, y);
+        int x1 = Math.min(WIDTH, x + width), y1 = Math.min(HEIGHT, y + height);
+        boolean changed = false;
+        for (int ty = y0; ty < y1; ty++) {
+            for (int tx = x0; tx < x1; tx++) {
+                changed |= storeMovementCost(tx, ty, cost);
+            }
+        }
+        if (changed) {
+            markWalkabilityChanged(x0, y0, x1 - x0, y1 - y0);
+        }
+    }
+
+    /**
+     * Checks if any tile costs more than 1, so pathfinding must read {@link #getMovementCost}.
+     * @return false while every tile costs 1.
+     */
+    public boolean hasMovementCosts() {
+        return costlyTiles > 0;
+    }
+
+    /**
+     * Stores the movement costs of a region without notifying anyone, for worlds that load their
+     * tiles after construction (see {@link ChunkedWorld}); the caller marks the region changed.
+     *
+     * @param x      The x-coordinate of the region in the tile grid.
+     * @param y      The y-coordinate of the region in the tile grid.
+     * @param width  The width of the region in tiles.
+     * @param height The height of the region in tiles.
+     * @param costs  The costs of the region, in row-major order.
+     */
+    void storeMovementCosts(int x, int y, int width, int height, float[] costs) {
+        for (int ty = 0; ty < height; ty++) {
+            for (int tx = 0; tx < width; tx++) {
+                storeMovementCost(x + tx, y + ty, costs[tx + ty * width]);
+            }
+        }
+    }
+
+    /**
+     * Resets the movement costs of a region to 1 without notifying anyone, releasing the pages
+     * left without costly tiles (e.g. when {@link ChunkedWorld} evicts a chunk).
+     */
+    void clearMovementCosts(int x, int y, int width, int height) {
+        if (costlyTiles == 0) return;
+        for (int ty = y; ty < y + height; ty++) {
+            for (int tx = x; tx < x + width; tx++) {
+                if (costPages[costPageOf(tx, ty)] != null) storeMovementCost(tx, ty, 1);
+            }
+        }
+    }
+
+    /**
+     * @return true if the page holding a tile is allocated, i.e. one of its tiles costs more than 1.
+     */
+    boolean hasMovementCostPage(int x, int y) {
+        return costPages != null && costPages[costPageOf(x, y)] != null;
+    }
+
+    private int costPageOf(int x, int y) {
+        return (x / costPageSize) + (y / costPageSize) * ((WIDTH + costPageSize - 1) / costPageSize);
+    }
+
+    /**
+     * Stores a tile's cost without notifying anyone.
+     * @return true if the cost changed.
+     */
+    boolean storeMovementCost(int x, int y, float cost) {
+        if (!(cost > 1)) cost = 1; // Also catches NaN
+        if (costPages == null) {
+            if (cost == 1) return false;
+            int pagesX = (WIDTH + costPageSize - 1) / costPageSize;
+            int pagesY = (HEIGHT + costPageSize - 1) / costPageSize;
+            costPages = new float[pagesX * pagesY][];
+            costPageTiles = new int[pagesX * pagesY];
+        }
+        int pageIndex = costPageOf(x, y);
+        float[] page = costPages[pageIndex];
+        if (page == null) {
+            if (cost == 1) return false;
+            page = new float[costPageSize * costPageSize];
+            Arrays.fill(page, 1);
+            costPages[pageIndex] = page;
+        }
+        int index = (x % costPageSize) + (y % costPageSize) * costPageSize;
+        float previous = page[index];
+        if (previous == cost) return false;
+        if (previous == 1) {
+            costlyTiles++;
+            costPageTiles[pageIndex]++;
+        }
+        if (cost == 1) {
+            costlyTiles--;
+            if (--costPageTiles[pageIndex] == 0) costPages[pageIndex] = null;
+        }
+        page[index] = cost;
+        return true;
+    }
+
+    /**
+     * Registers a listener notified whenever the walkability of a region changes.
+     * @param listener The listener to add.
+     */
+    public void addWalkabilityListener(IWalkabilityListener listener) {
+        if (!walkabilityListeners.contains(listener)) walkabilityListeners.add(listener);
+    }
+
+    /**
+     * Removes a walkability listener.
+     * @param listener The listener to remove.
+     */
+    public void removeWalkabilityListener(IWalkabilityListener listener) {
+        walkabilityListeners.remove(listener);
+    }
+
     /**
      * Retrieves a tile from a specific grid location.
      *
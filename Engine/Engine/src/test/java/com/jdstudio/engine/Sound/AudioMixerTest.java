@@ -0,0 +1,185 @@
+package com.jdstudio.engine.Sound;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.jdstudio.engine.Sound.Sound.SoundChannel;
+
+/**
+ * Renders blocks through {@link AudioMixer#render(byte[], int)}, without any audio device, and
+ * checks the samples that come out.
+ */
+class AudioMixerTest {
+
+    private static final int FRAMES = 64;
+
+    /** A mono sound whose every sample has the same value, long enough to outlast the test. */
+    private static SoundBuffer constant(int value) {
+        short[] samples = new short[FRAMES * 16];
+        Arrays.fill(samples, (short) value);
+        return new SoundBuffer(samples, 1);
+    }
+
+    private static byte[] render(AudioMixer mixer) {
+        byte[] out = new byte[FRAMES * AudioMixer.FORMAT.getFrameSize()];
+        mixer.render(out, FRAMES);
+        return out;
+    }
+
+    /** Reads one sample of a rendered block (channel 0 is left, 1 is right). */
+    private static int sample(byte[] out, int frame, int channel) {
+        int i = (frame * 2 + channel) * 2;
+        return (short) ((out[i] & 0xFF) | (out[i + 1] << 8));
+    }
+
+    @Test
+    void rendersSilenceWithoutVoices() {
+        byte[] out = render(new AudioMixer(4));
+        for (byte b : out) {
+            assertEquals(0, b);
+        }
+    }
+
+    @Test
+    void mixesVoicesByAddingTheirSamples() {
+        AudioMixer mixer = new AudioMixer(4);
+        mixer.play(constant(1000), SoundChannel.SFX, 1f, 0f, false);
+        mixer.play(constant(2000), SoundChannel.SFX, 1f, 0f, false);
+
+        byte[] out = render(mixer);
+        for (int f = 0; f < FRAMES; f++) {
+            assertEquals(3000, sample(out, f, 0));
+            assertEquals(3000, sample(out, f, 1));
+        }
+    }
+
+    @Test
+    void clipsTheMixToSixteenBits() {
+        AudioMixer mixer = new AudioMixer(4);
+        mixer.play(constant(30000), SoundChannel.SFX, 1f, 0f, false);
+        mixer.play(constant(30000), SoundChannel.SFX, 1f, 0f, false);
+        assertEquals(32767, sample(render(mixer), 0, 0));
+
+        mixer.stopAll();
+        mixer.play(constant(-30000), SoundChannel.SFX, 1f, 0f, false);
+        mixer.play(constant(-30000), SoundChannel.SFX, 1f, 0f, false);
+        assertEquals(-32768, sample(render(mixer), 0, 0));
+    }
+
+    @Test
+    void endsVoicesAtTheEndOfTheirSound() {
+        AudioMixer mixer = new AudioMixer(4);
+        short[] samples = new short[FRAMES / 2];
+        Arrays.fill(samples, (short) 1000);
+        int handle = mixer.play(new SoundBuffer(samples, 1), SoundChannel.SFX, 1f, 0f, false);
+
+        byte[] out = render(mixer);
+        assertEquals(1000, sample(out, FRAMES / 2 - 1, 0));
+        assertEquals(0, sample(out, FRAMES / 2, 0));
+        assertFalse(mixer.isPlaying(handle));
+        assertEquals(0, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    void appliesVoiceBusAndMasterGains() {
+        AudioMixer mixer = new AudioMixer(4);
+        mixer.play(constant(1000), SoundChannel.SFX, 0.5f, 0f, false);
+        assertEquals(500, sample(render(mixer), 0, 0));
+
+        mixer.setBusGain(SoundChannel.SFX, 0.5f);
+        mixer.setMasterGain(0.5f);
+        render(mixer); // Gain changes are ramped over one block
+        byte[] out = render(mixer);
+        assertEquals(125, sample(out, 0, 0));
+        assertEquals(125, sample(out, FRAMES - 1, 1));
+    }
+
+    @Test
+    void pansBetweenTheSides() {
+        AudioMixer mixer = new AudioMixer(4);
+        int handle = mixer.play(constant(1000), SoundChannel.SFX, 1f, -1f, false);
+        byte[] out = render(mixer);
+        assertEquals(1000, sample(out, 0, 0));
+        assertEquals(0, sample(out, 0, 1));
+
+        mixer.setPan(handle, 0.5f);
+        render(mixer);
+        out = render(mixer);
+        assertEquals(500, sample(out, 0, 0));
+        assertEquals(1000, sample(out, 0, 1));
+    }
+
+    @Test
+    void stealsTheOldestVoiceWhenEveryVoiceIsBusy() {
+        AudioMixer mixer = new AudioMixer(2);
+        int oldest = mixer.play(constant(1000), SoundChannel.SFX, 1f, 0f, false);
+        int second = mixer.play(constant(2000), SoundChannel.SFX, 1f, 0f, false);
+        int newest = mixer.play(constant(4000), SoundChannel.SFX, 1f, 0f, false);
+
+        assertNotEquals(AudioMixer.NO_VOICE, newest);
+        assertFalse(mixer.isPlaying(oldest));
+        assertTrue(mixer.isPlaying(second));
+        assertTrue(mixer.isPlaying(newest));
+        assertEquals(1, mixer.getStolenCount());
+        assertEquals(6000, sample(render(mixer), 0, 0));
+    }
+
+    @Test
+    void stealsTheLeastAudibleVoiceFirst() {
+        AudioMixer mixer = new AudioMixer(2);
+        int loud = mixer.play(constant(1000), SoundChannel.SFX, 1f, 0f, false);
+        int quiet = mixer.play(constant(1000), SoundChannel.SFX, 0.2f, 0f, false);
+        int newest = mixer.play(constant(1000), SoundChannel.SFX, 0.5f, 0f, false);
+
+        assertTrue(mixer.isPlaying(loud));
+        assertFalse(mixer.isPlaying(quiet));
+        assertTrue(mixer.isPlaying(newest));
+    }
+
+    @Test
+    void rejectsSoundsLessImportantThanEveryVoice() {
+        AudioMixer mixer = new AudioMixer(2);
+        mixer.play(constant(1000), SoundChannel.SFX, 1f, 0f, false, 5);
+        mixer.play(constant(1000), SoundChannel.UI, 1f, 0f, false, 5);
+
+        assertEquals(AudioMixer.NO_VOICE, mixer.play(constant(1000), SoundChannel.SFX, 1f, 0f, false, 1));
+        assertEquals(AudioMixer.NO_VOICE, mixer.play(constant(1000), SoundChannel.SFX, 0.5f, 0f, false, 5));
+        assertEquals(2, mixer.getRejectedCount(AudioMixer.Rejection.NO_VOICE));
+        assertEquals(0, mixer.getStolenCount());
+        assertEquals(2000, sample(render(mixer), 0, 0));
+    }
+
+    @Test
+    void enforcesSoundAndChannelVoiceLimits() {
+        AudioMixer mixer = new AudioMixer(8);
+        SoundBuffer limited = constant(1000);
+        limited.setMaxVoices(1);
+        int first = mixer.play(limited, SoundChannel.SFX, 1f, 0f, false);
+        int second = mixer.play(limited, SoundChannel.SFX, 1f, 0f, false);
+        assertFalse(mixer.isPlaying(first));
+        assertTrue(mixer.isPlaying(second));
+        assertEquals(1, mixer.getActiveVoiceCount());
+
+        mixer.setChannelVoiceLimit(SoundChannel.UI, 1);
+        mixer.play(constant(100), SoundChannel.UI, 1f, 0f, false, 3);
+        assertEquals(AudioMixer.NO_VOICE, mixer.play(constant(100), SoundChannel.UI, 1f, 0f, false, 0));
+        assertEquals(1, mixer.getRejectedCount(AudioMixer.Rejection.CHANNEL_LIMIT));
+        assertEquals(1, mixer.getActiveVoiceCount(SoundChannel.UI));
+        assertEquals(1100, sample(render(mixer), 0, 0));
+    }
+
+    @Test
+    void rejectsInaudibleSoundsWithoutTakingAVoice() {
+        AudioMixer mixer = new AudioMixer(2);
+        mixer.setBusGain(SoundChannel.SFX, 0f);
+        assertEquals(AudioMixer.NO_VOICE, mixer.play(constant(1000), SoundChannel.SFX, 1f, 0f, false));
+        assertEquals(1, mixer.getRejectedCount(AudioMixer.Rejection.INAUDIBLE));
+        assertEquals(0, mixer.getActiveVoiceCount());
+    }
+}
@@ -22,17 +22,19 @@ import com.jdstudio.engine.Components.InventoryComponent;
 import com.jdstudio.engine.Components.PathComponent.PatrolMode;
 import com.jdstudio.engine.Components.Moviments.BaseMovementComponent;
 import com.jdstudio.engine.Components.Moviments.MovementComponent;
+import com.jdstudio.engine.Core.AIScheduler;
 import com.jdstudio.engine.Core.ISavable;
 import com.jdstudio.engine.Core.SaveManager;
 import com.jdstudio.engine.Dialogue.ActionManager;
 import com.jdstudio.engine.Dialogue.Dialogue;
 import com.jdstudio.engine.Dialogue.DialogueManager;
-import com.jdstudio.engine.Events.CharacterSpokeEventData;
 import com.jdstudio.engine.Events.EngineEvent;
 import com.jdstudio.engine.Events.EventListener;
 import com.jdstudio.engine.Events.EventManager;
-import com.jdstudio.engine.Events.InteractionEventData;
+import com.jdstudio.engine.Events.SpeechEvent;
+import com.jdstudio.engine.Events.TypedEventListener;
 import com.jdstudio.engine.Events.WorldLoadedEventData;
+import com.jdstudio.engine.Events.ZoneEvent;
 import com.jdstudio.engine.Graphics.AssetManager;
 import com.jdstudio.engine.Graphics.Effects.ParticleManager;
 import com.jdstudio.engine.Graphics.Layers.IRenderable;
@@ -107,7 +109,7 @@ public class PlayingState extends EnginePlayingState implements IMapLoaderListen
 	private List<UIImage> heartIcons = new ArrayList<>();
 	private EventListener playerHealListener; // <-- Guarde uma referência ao listener
 	private EventListener playerDiedListener;
-	private EventListener characterSpokeListener;
+	private TypedEventListener<SpeechEvent> characterSpokeListener;
 	
 	
     private GameObject interactableObjectInRange = null;
@@ -137,6 +139,7 @@ public class PlayingState extends EnginePlayingState implements IMapLoaderListen
 		// A engine agora lida com a ordem de carregamento internamente.
 		world = new World("/map1.json", this);
 		Engine.camera.applyProfile(Camera.PROFILE_GAMEPLAY, player);
+		AIScheduler.getInstance().setFocus(player); // Inimigos perto do jogador pensam a cada frame
 		projectileManager.init(() -> new Projectile(),world,gameObjects);
 		registerRenderSystems();
 		
@@ -156,6 +159,8 @@ public class PlayingState extends EnginePlayingState implements IMapLoaderListen
 		Sound.loop("/music.wav");
 		Sound.setMusicVolume(0.01f);
 		Sound.setSfxVolume(0.02f);
+		// Muitos inimigos podem morrer no mesmo frame: no máximo 4 cópias do som, com 40 ms entre elas
+		Sound.setSoundLimits("/hurt.wav", 4, 40, 0);
 		// Configura as dependências DEPOIS que todos os objetos foram criados.
 		
 	}
@@ -248,36 +253,29 @@ public class PlayingState extends EnginePlayingState implements IMapLoaderListen
 		EventManager.getInstance().subscribe(GameEvent.PLAYER_TOOK_DAMAGE, playerTookDamageListener);
 
 		// --- LISTENER PARA O BALÃO DE FALA ---
-        characterSpokeListener = (data) -> {
-            if (data instanceof CharacterSpokeEventData) {
-                CharacterSpokeEventData eventData = (CharacterSpokeEventData) data;
-                
-                // O Jogo é quem decide como renderizar o evento: criando um UIChatBubble.
-                int durationInFrames = (int) (eventData.durationInSeconds() * 60);
-                UIChatBubble bubble = new UIChatBubble(eventData.speaker(), eventData.message(), durationInFrames);
-                
-                // Adiciona o balão criado à UI
-                uiManager.addElement(bubble);
-            }
+        characterSpokeListener = (event) -> {
+            // O Jogo é quem decide como renderizar o evento: criando um UIChatBubble.
+            // O evento é reciclado depois do dispatch, por isso copiamos os dados já aqui.
+            int durationInFrames = (int) (event.getDurationInSeconds() * 60);
+            UIChatBubble bubble = new UIChatBubble(event.getSpeaker(), event.getMessage(), durationInFrames);
+            
+            // Adiciona o balão criado à UI
+            uiManager.addElement(bubble);
         };
         
-        EventManager.getInstance().subscribe(EngineEvent.CHARACTER_SPOKE, characterSpokeListener);
+        EventManager.getInstance().subscribe(SpeechEvent.SPOKE, characterSpokeListener);
 		
-        EventManager.getInstance().subscribe(EngineEvent.TARGET_ENTERED_ZONE, (data) -> {
-            InteractionEventData event = (InteractionEventData) data;
-            
-            if (event.zone().type.equals(InteractionZone.TYPE_DIALOGUE)) {
-            	this.interactableObjectInRange = event.zoneOwner();
+        EventManager.getInstance().subscribe(ZoneEvent.ENTERED, (event) -> {
+            if (event.getZone().type.equals(InteractionZone.TYPE_DIALOGUE)) {
+            	this.interactableObjectInRange = event.getZoneOwner();
             }
         
         });
         
      // Ouve o evento para quando o jogador SAI de uma zona
-        EventManager.getInstance().subscribe(EngineEvent.TARGET_EXITED_ZONE, (data) -> {
-            InteractionEventData event = (InteractionEventData) data;
-
+        EventManager.getInstance().subscribe(ZoneEvent.EXITED, (event) -> {
             // Se o objeto de que estamos a sair for o mesmo que está guardado, limpamos a referência
-            if (event.zoneOwner() == this.interactableObjectInRange) {
+            if (event.getZoneOwner() == this.interactableObjectInRange) {
                 this.interactableObjectInRange = null;
 
                 // Opcional: Esconder a dica da UI
@@ -403,7 +401,7 @@ public class PlayingState extends EnginePlayingState implements IMapLoaderListen
 	public void onExit() { // Adicione este método ao seu GameState se quiser
 		EventManager.getInstance().unsubscribe(GameEvent.PLAYER_HEALED, playerHealListener);
 		EventManager.getInstance().unsubscribe(GameEvent.PLAYER_DIED, playerDiedListener);
-		EventManager.getInstance().unsubscribe(EngineEvent.CHARACTER_SPOKE, characterSpokeListener);
+		EventManager.getInstance().unsubscribe(SpeechEvent.SPOKE, characterSpokeListener);
 	}
 
 	private void createDialogueBox() {
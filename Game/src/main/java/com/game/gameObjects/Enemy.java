@@ -16,11 +16,11 @@ import com.jdstudio.engine.Components.InteractionZone;
 import com.jdstudio.engine.Components.PathComponent;
 import com.jdstudio.engine.Components.PathComponent.PatrolMode;
 import com.jdstudio.engine.Components.Moviments.AIMovementComponent;
+import com.jdstudio.engine.Core.AIScheduler;
 import com.jdstudio.engine.Core.ISavable;
-import com.jdstudio.engine.Events.EngineEvent;
-import com.jdstudio.engine.Events.EventListener;
 import com.jdstudio.engine.Events.EventManager;
-import com.jdstudio.engine.Events.InteractionEventData;
+import com.jdstudio.engine.Events.TypedEventListener;
+import com.jdstudio.engine.Events.ZoneEvent;
 import com.jdstudio.engine.Graphics.Effects.ParticleManager;
 import com.jdstudio.engine.Graphics.Sprite.Animations.Animator;
 import com.jdstudio.engine.Object.Character;
@@ -37,8 +37,8 @@ public class Enemy extends Character implements ISavable{
     private Animator animator;
     private AIMovementComponent aiMovement;
     
-    private EventListener onEnterZoneListener;
-    private EventListener onExitZoneListener;
+    private TypedEventListener<ZoneEvent> onEnterZoneListener;
+    private TypedEventListener<ZoneEvent> onExitZoneListener;
 
     // Estado do Inimigo
     private Player player;
@@ -108,11 +108,10 @@ public void initialize(JSONObject properties) {
     private void setupEventListeners() {
         final Enemy self = this; 
 
-        this.onEnterZoneListener = (data) -> {
-            InteractionEventData event = (InteractionEventData) data;
-            if (event.zoneOwner() != self) return;
+        this.onEnterZoneListener = (event) -> {
+            if (event.getZoneOwner() != self) return;
 
-            String zoneType = event.zone().type;
+            String zoneType = event.getZone().type;
             switch (zoneType) {
                 case "AGGRO":
                     self.say("Onde pensa que vai?", 2.0f);
@@ -126,11 +125,10 @@ public void initialize(JSONObject properties) {
             }
         };
 
-        this.onExitZoneListener = (data) -> {
-            InteractionEventData event = (InteractionEventData) data;
-            if (event.zoneOwner() != self) return;
+        this.onExitZoneListener = (event) -> {
+            if (event.getZoneOwner() != self) return;
 
-            String zoneType = event.zone().type;
+            String zoneType = event.getZone().type;
             switch (zoneType) {
                 case "AGGRO":
                     // Se saiu da área de aggro, volta ao estado padrão (patrulha ou idle).
@@ -153,8 +151,8 @@ public void initialize(JSONObject properties) {
             }
         };
 
-        EventManager.getInstance().subscribe(EngineEvent.TARGET_ENTERED_ZONE, onEnterZoneListener);
-        EventManager.getInstance().subscribe(EngineEvent.TARGET_EXITED_ZONE, onExitZoneListener);
+        EventManager.getInstance().subscribe(ZoneEvent.ENTERED, onEnterZoneListener);
+        EventManager.getInstance().subscribe(ZoneEvent.EXITED, onExitZoneListener);
     }
 
 
@@ -199,8 +197,8 @@ public void initialize(JSONObject properties) {
                 8, 0                               // Tamanho começa em 8 e termina em 0
             );
     	Sound.play("/hurt.wav",SoundChannel.SFX, this.getX(), this.getY() );
-    	EventManager.getInstance().unsubscribe(EngineEvent.TARGET_ENTERED_ZONE, onEnterZoneListener);
-        EventManager.getInstance().unsubscribe(EngineEvent.TARGET_EXITED_ZONE, onExitZoneListener);
+    	EventManager.getInstance().unsubscribe(ZoneEvent.ENTERED, onEnterZoneListener);
+        EventManager.getInstance().unsubscribe(ZoneEvent.EXITED, onExitZoneListener);
     }
     
    @Override
@@ -211,11 +209,27 @@ public void tick() {
     // 2. Atualiza todos os componentes (movimento, animação, etc.)
     super.tick(); 
     
-    // 3. Pede ao InteractionComponent para verificar as zonas e disparar eventos.
+    // 3. A lógica de decisão só corre nos frames em que o AIScheduler deixa este inimigo "pensar"
+    // (todos os frames perto do jogador, menos vezes longe dele). O movimento continua a cada frame.
+    if (AIScheduler.getInstance().shouldThink(this)) {
+        think();
+    }
+    
+    // 4. Atualiza o cooldown de ataque, independentemente do estado.
+    if (attackCooldown > 0) {
+        attackCooldown--;
+    }
+}
+
+    /**
+     * Verifica as zonas de interação e executa o comportamento do estado atual.
+     */
+    private void think() {
+    // Pede ao InteractionComponent para verificar as zonas e disparar eventos.
     // É esta linha que, indiretamente, irá acionar a mudança de estado nos listeners.
     getComponent(InteractionComponent.class).checkInteractions(Collections.singletonList(player));
 
-    // 4. O 'switch' agora apenas EXECUTA o comportamento do estado atual.
+    // O 'switch' agora apenas EXECUTA o comportamento do estado atual.
     // Ele já não tem 'if's para mudar de estado.
     switch (currentState) {
         case IDLE:
@@ -245,11 +259,6 @@ public void tick() {
             }
             break;
     }
-    
-    // 5. Atualiza o cooldown de ataque, independentemente do estado.
-    if (attackCooldown > 0) {
-        attackCooldown--;
-    }
 }
     private double calculateDistance(GameObject obj1, GameObject obj2) {
         
@@ -35,6 +35,13 @@ public class Player extends Character implements ISavable {
     public double lastDx = 1;
 	public double lastDy = 0;
 	
+	// Ids das ações consultadas a cada tick (evitam a busca pelo nome)
+	private static final int ACTION_SHOOT = InputManager.getActionId("SHOOT");
+	private static final int ACTION_MOVE_LEFT = InputManager.getActionId("MOVE_LEFT");
+	private static final int ACTION_MOVE_RIGHT = InputManager.getActionId("MOVE_RIGHT");
+	private static final int ACTION_MOVE_UP = InputManager.getActionId("MOVE_UP");
+	private static final int ACTION_MOVE_DOWN = InputManager.getActionId("MOVE_DOWN");
+	
 	//MovementComponent movement;
 	//Animator animator;
 
@@ -46,6 +53,7 @@ public class Player extends Character implements ISavable {
 		public void initialize(JSONObject properties) {
 			super.initialize(properties);
 			this.isProtectedFromCleanup = true;
+			this.alwaysActive = true; // O jogador nunca é desacelerado pelo LOD de simulação
 			PropertiesReader reader = new PropertiesReader(properties);
 			double speed = reader.getDouble("speed", 1.4);
 			
@@ -167,7 +175,7 @@ public class Player extends Character implements ISavable {
 	}
 	
 	private void handleShootingInput() {
-	    if (InputManager.isActionJustPressed("SHOOT") && shootCooldown <= 0) {
+	    if (InputManager.isActionJustPressed(ACTION_SHOOT) && shootCooldown <= 0) {
 	        shootCooldown = 0; // Cooldown de 30 frames (meio segundo a 60 FPS)
 	        if(ammo > 0) EventManager.getInstance().trigger(GameEvent.PLAYER_FIRE, (GameObject)this);
 	        //Sound.play("/shoot.wav", 0.5f); // Você precisará de um som "shoot.wav"
@@ -186,17 +194,17 @@ public class Player extends Character implements ISavable {
 			System.out.println(playerMovement.getWorld());
 		}
 
-		if (InputManager.isActionPressed("MOVE_LEFT")) {
+		if (InputManager.isActionPressed(ACTION_MOVE_LEFT)) {
 			dx = -1;
 			this.lastDx = dx;
-		} else if (InputManager.isActionPressed("MOVE_RIGHT")) {
+		} else if (InputManager.isActionPressed(ACTION_MOVE_RIGHT)) {
 			dx = 1;
 			this.lastDx = dx;
 		}
-		if (InputManager.isActionPressed("MOVE_UP")) {
+		if (InputManager.isActionPressed(ACTION_MOVE_UP)) {
 			dy = -1;
 			this.lastDy = dy;
-		} else if (InputManager.isActionPressed("MOVE_DOWN")) {
+		} else if (InputManager.isActionPressed(ACTION_MOVE_DOWN)) {
 			dy = 1;
 			this.lastDy = dy;
 		}